@@ -36,6 +36,8 @@ public class OriginLibrary extends AbstractStrategoOperatorRegistry {
 		add(new OriginSublistTermPrimitive());
 		add(new OriginDesugaredTermPrimitive());
 		add(new OriginTermFuzzyPrimitive());
+		add(new OriginTermAtOffsetPrimitive(false));
+		add(new OriginTermAtOffsetPrimitive(true));
 		
 		//layout strategies
 		add(new OriginLayoutPrefixPrimitive());
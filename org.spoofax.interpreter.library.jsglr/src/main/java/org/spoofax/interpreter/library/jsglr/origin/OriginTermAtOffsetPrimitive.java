@@ -0,0 +1,93 @@
+package org.spoofax.interpreter.library.jsglr.origin;
+
+import static org.spoofax.jsglr.client.imploder.ImploderAttachment.getLeftToken;
+import static org.spoofax.jsglr.client.imploder.ImploderAttachment.getRightToken;
+import static org.spoofax.jsglr.client.imploder.ImploderAttachment.hasImploderOrigin;
+import static org.spoofax.terms.attachments.OriginAttachment.tryGetOrigin;
+
+import org.spoofax.interpreter.core.IContext;
+import org.spoofax.interpreter.core.Tools;
+import org.spoofax.interpreter.library.AbstractPrimitive;
+import org.spoofax.interpreter.stratego.Strategy;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr.client.imploder.IToken;
+import org.spoofax.jsglr.client.imploder.TermOffsetIndex;
+
+/**
+ * Returns the innermost (or outermost, of the terms with the same extent) term of the subtree of the current term that
+ * covers a range of offsets, with an inclusive end offset. Uses the offset index of the AST if there is one (see
+ * {@link TermOffsetIndex}), and otherwise searches the current term for the term the index would return, using the
+ * extents that {@link TermOffsetIndex#build} indexes: from the start offset of the left token to the end offset of the
+ * right token. ASTs of which the left and right tokens are not those of the terms themselves (e.g. of JSGLR2) need an
+ * index to find the terms by their actual extents.
+ */
+public class OriginTermAtOffsetPrimitive extends AbstractPrimitive {
+
+	private final boolean outermost;
+
+	public OriginTermAtOffsetPrimitive(boolean outermost) {
+		super(outermost ? "SSL_EXT_origin_outermost_term_at_offset" : "SSL_EXT_origin_term_at_offset", 0, 2);
+		this.outermost = outermost;
+	}
+
+	@Override
+	public final boolean call(IContext env, Strategy[] svars, IStrategoTerm[] tvars) {
+		if (!hasImploderOrigin(env.current()) || !Tools.isTermInt(tvars[0]) || !Tools.isTermInt(tvars[1]))
+			return false;
+
+		final IStrategoTerm origin = tryGetOrigin(env.current());
+		final int startOffset = Tools.asJavaInt(tvars[0]);
+		final int endOffset = Tools.asJavaInt(tvars[1]);
+
+		IStrategoTerm result;
+		TermOffsetIndex index = TermOffsetIndex.get(origin);
+		if (index != null)
+			result = (IStrategoTerm) (outermost
+				? index.getOutermostTerm(origin, startOffset, endOffset)
+				: index.getInnermostTerm(origin, startOffset, endOffset));
+		else
+			result = covers(origin, startOffset, endOffset) ? findTerm(origin, null, startOffset, endOffset) : null;
+
+		if (result == null)
+			return false;
+		env.setCurrent(result);
+		return true;
+	}
+
+	/**
+	 * Visits the terms of the subtree that cover the range, which are on a single path if extents nest. Of those, the
+	 * result is the term with the smallest extent that comes last in pre-order, or the first term with that extent for
+	 * the outermost term, like the index chooses.
+	 */
+	private IStrategoTerm findTerm(IStrategoTerm term, IStrategoTerm result, int startOffset, int endOffset) {
+		if (covers(term, startOffset, endOffset)) {
+			if (result == null || isSmaller(term, result) || !outermost && sameExtent(term, result))
+				result = term;
+		} else if (getLeftToken(term) != null && getRightToken(term) != null)
+			return result; // Its subtree does not cover the range either, if extents nest
+
+		for (IStrategoTerm child : term.getAllSubterms())
+			result = findTerm(child, result, startOffset, endOffset);
+
+		return result;
+	}
+
+	private static boolean covers(IStrategoTerm term, int startOffset, int endOffset) {
+		IToken left = getLeftToken(term);
+		IToken right = getRightToken(term);
+		return left != null && right != null && left.getStartOffset() <= startOffset && endOffset <= right.getEndOffset();
+	}
+
+	private static boolean isSmaller(IStrategoTerm term, IStrategoTerm other) {
+		int startOffset = getLeftToken(term).getStartOffset();
+		int otherStartOffset = getLeftToken(other).getStartOffset();
+		return startOffset > otherStartOffset
+			|| startOffset == otherStartOffset && getRightToken(term).getEndOffset() < getRightToken(other).getEndOffset();
+	}
+
+	private static boolean sameExtent(IStrategoTerm term, IStrategoTerm other) {
+		return getLeftToken(term).getStartOffset() == getLeftToken(other).getStartOffset()
+			&& getRightToken(term).getEndOffset() == getRightToken(other).getEndOffset();
+	}
+
+}
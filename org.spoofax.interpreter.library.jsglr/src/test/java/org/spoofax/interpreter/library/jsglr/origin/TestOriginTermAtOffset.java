@@ -0,0 +1,101 @@
+package org.spoofax.interpreter.library.jsglr.origin;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.spoofax.interpreter.core.IContext;
+import org.spoofax.interpreter.core.Interpreter;
+import org.spoofax.interpreter.stratego.Strategy;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr.client.ParseTable;
+import org.spoofax.jsglr.client.SGLR;
+import org.spoofax.jsglr.client.imploder.ITokenizer;
+import org.spoofax.jsglr.client.imploder.ImploderAttachment;
+import org.spoofax.jsglr.client.imploder.TermOffsetIndex;
+import org.spoofax.jsglr.client.imploder.TermTreeFactory;
+import org.spoofax.jsglr.client.imploder.TreeBuilder;
+import org.spoofax.jsglr.io.FileTools;
+import org.spoofax.terms.TermFactory;
+import org.spoofax.terms.io.binary.TermReader;
+
+/**
+ * The primitive should return the same terms with and without the offset index of the AST, and only terms of the
+ * subtree of the current term.
+ */
+public class TestOriginTermAtOffset {
+
+	@Test
+	public void testSameWithAndWithoutIndex() throws Exception {
+		TermFactory factory = new TermFactory();
+		ParseTable parseTable = new ParseTable(new TermReader(factory).parseFromFile("tests/parsetables/Java.tbl"), factory);
+		SGLR sglr = new SGLR(new TreeBuilder(new TermTreeFactory(new TermFactory())), parseTable);
+		sglr.getDisambiguator().setDefaultFilters();
+		sglr.getDisambiguator().setHeuristicFilters(true);
+		sglr.setUseStructureRecovery(false);
+
+		String fname = "tests/test-inputs/test-move1-001.java";
+		String input = FileTools.loadFileAsString(new BufferedReader(new FileReader(fname)));
+		IStrategoTerm ast = (IStrategoTerm) sglr.parse(input, fname, null).output;
+		ITokenizer tokenizer = (ITokenizer) ImploderAttachment.getTokenizer(ast);
+
+		IContext env = new Interpreter(factory).getContext();
+		List<IStrategoTerm> terms = new ArrayList<IStrategoTerm>();
+		collect(ast, terms);
+
+		for (boolean outermost : new boolean[] { false, true }) {
+			OriginTermAtOffsetPrimitive primitive = new OriginTermAtOffsetPrimitive(outermost);
+
+			for (IStrategoTerm origin : terms) {
+				Set<IStrategoTerm> subtree = Collections.newSetFromMap(new IdentityHashMap<IStrategoTerm, Boolean>());
+				collect(origin, subtree);
+
+				for (int startOffset = 0; startOffset < input.length(); startOffset++) {
+					for (int endOffset : new int[] { startOffset, Math.min(startOffset + 4, input.length() - 1) }) {
+						tokenizer.setAst(ast);
+						assertNotNull(TermOffsetIndex.get(ast));
+						IStrategoTerm indexed = termAtOffset(env, primitive, origin, startOffset, endOffset);
+
+						tokenizer.setAst(null);
+						IStrategoTerm searched = termAtOffset(env, primitive, origin, startOffset, endOffset);
+
+						String message = origin + " [" + startOffset + ", " + endOffset + "] outermost: " + outermost;
+						assertTrue(message, indexed == searched);
+						assertTrue(message, indexed == null || subtree.contains(indexed));
+					}
+				}
+			}
+		}
+
+		// Offsets outside of the current term fail, even though the AST covers them
+		IStrategoTerm first = terms.get(1);
+		int offset = ImploderAttachment.getRightToken(first).getEndOffset() + 1;
+		tokenizer.setAst(ast);
+		assertNotNull(termAtOffset(env, new OriginTermAtOffsetPrimitive(false), ast, offset, offset));
+		assertNull(termAtOffset(env, new OriginTermAtOffsetPrimitive(false), first, offset, offset));
+	}
+
+	private IStrategoTerm termAtOffset(IContext env, OriginTermAtOffsetPrimitive primitive, IStrategoTerm current, int startOffset, int endOffset) {
+		env.setCurrent(current);
+		IStrategoTerm[] tvars = { env.getFactory().makeInt(startOffset), env.getFactory().makeInt(endOffset) };
+		return primitive.call(env, new Strategy[0], tvars) ? env.current() : null;
+	}
+
+	private void collect(IStrategoTerm term, Collection<IStrategoTerm> terms) {
+		if (ImploderAttachment.getLeftToken(term) != null)
+			terms.add(term);
+		for (IStrategoTerm child : term.getAllSubterms())
+			collect(child, terms);
+	}
+
+}
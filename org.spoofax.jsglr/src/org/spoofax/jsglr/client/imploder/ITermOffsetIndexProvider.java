@@ -0,0 +1,15 @@
+package org.spoofax.jsglr.client.imploder;
+
+/**
+ * A token stream that can provide an index from offsets to the terms of its AST.
+ *
+ * @see TermOffsetIndex#get(org.spoofax.interpreter.terms.ISimpleTerm)
+ */
+public interface ITermOffsetIndexProvider {
+
+	/**
+	 * Returns the index, or null if it is not available.
+	 */
+	TermOffsetIndex getTermOffsetIndex();
+
+}
@@ -0,0 +1,291 @@
+package org.spoofax.jsglr.client.imploder;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.spoofax.interpreter.terms.ISimpleTerm;
+import org.spoofax.terms.SimpleTermVisitor;
+
+/**
+ * An index from character offsets to the terms of an AST that cover them, for queries like the term at the cursor.
+ *
+ * Terms are added with their offsets in any order, also while the index is queried (e.g. by a lazy imploder). Before
+ * the first query after an addition, the entries are sorted by start offset, then by decreasing end offset, then in
+ * order of addition, and a tree of maximum end offsets is built over them. A query then takes O(log n): of the entries
+ * that start at or before the query range, the last one that ends at or after it covers the range with the smallest
+ * extent. For trees without ambiguities, this is the innermost covering term, if terms are added in pre-order.
+ * Queries can be restricted to the subtree of an indexed term, for which the extents of the terms are looked up.
+ *
+ * The index is not thread-safe.
+ *
+ * @see ITermOffsetIndexProvider
+ */
+public class TermOffsetIndex {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private int count;
+
+	private int[] startOffsets, endOffsets; // End offsets are inclusive
+
+	private ISimpleTerm[] terms;
+
+	private boolean sorted = false;
+
+	private int[] maxEndOffsets; // Implicit binary tree over the sorted end offsets, null if not built yet
+
+	private int leafCount;
+
+	private int[] outermostIndices; // Per sorted entry, the first entry with the same extent
+
+	private Map<ISimpleTerm, Long> extents; // Per term its start and end offset, null if not built yet
+
+	public TermOffsetIndex() {
+		startOffsets = new int[INITIAL_CAPACITY];
+		endOffsets = new int[INITIAL_CAPACITY];
+		terms = new ISimpleTerm[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Builds an index for the terms of an AST with imploder attachments, using the start offset of their left token
+	 * and the end offset of their right token.
+	 */
+	public static TermOffsetIndex build(ISimpleTerm ast) {
+		TermOffsetIndex index = new TermOffsetIndex();
+		index.addAll(ast);
+		return index;
+	}
+
+	private void addAll(ISimpleTerm term) {
+		IToken left = ImploderAttachment.getLeftToken(term);
+		IToken right = ImploderAttachment.getRightToken(term);
+
+		if (left != null && right != null)
+			add(left.getStartOffset(), right.getEndOffset(), term);
+
+		Iterator<ISimpleTerm> iterator = SimpleTermVisitor.tryGetListIterator(term);
+		for (int i = 0, max = term.getSubtermCount(); i < max; i++)
+			addAll(iterator == null ? term.getSubterm(i) : iterator.next());
+	}
+
+	/**
+	 * Returns the index of an AST with imploder attachments, if its tokenizer provides one.
+	 */
+	public static TermOffsetIndex get(ISimpleTerm term) {
+		ITokens tokens = ImploderAttachment.getTokenizer(term);
+
+		if (tokens instanceof ITermOffsetIndexProvider)
+			return ((ITermOffsetIndexProvider) tokens).getTermOffsetIndex();
+		else
+			return null;
+	}
+
+	/**
+	 * Adds an entry of which the term is set later (see {@link #setTerm(int, ISimpleTerm)}), such that the term can be
+	 * added before its subterms are. Entries without a term are ignored.
+	 *
+	 * @return The entry of the term.
+	 */
+	public int add(int startOffset, int endOffset) {
+		if (count == startOffsets.length) {
+			startOffsets = Arrays.copyOf(startOffsets, 2 * count);
+			endOffsets = Arrays.copyOf(endOffsets, 2 * count);
+			terms = Arrays.copyOf(terms, 2 * count);
+		}
+
+		startOffsets[count] = startOffset;
+		endOffsets[count] = endOffset;
+
+		sorted = false;
+
+		return count++;
+	}
+
+	public void add(int startOffset, int endOffset, ISimpleTerm term) {
+		setTerm(add(startOffset, endOffset), term);
+	}
+
+	public void setTerm(int entry, ISimpleTerm term) {
+		if (sorted)
+			throw new IllegalStateException("Index queried before the term of entry " + entry + " was set");
+
+		terms[entry] = term;
+
+		if (extents != null && term != null)
+			extents.put(term, extent(startOffsets[entry], endOffsets[entry]));
+	}
+
+	public int size() {
+		if (!sorted)
+			sort();
+
+		return count;
+	}
+
+	/**
+	 * Returns the innermost term that covers the offset, or null if there is none.
+	 */
+	public ISimpleTerm getInnermostTerm(int offset) {
+		return getInnermostTerm(offset, offset);
+	}
+
+	/**
+	 * Returns the innermost term that covers the range (with an inclusive end offset), or null if there is none.
+	 */
+	public ISimpleTerm getInnermostTerm(int startOffset, int endOffset) {
+		int entry = findEntry(startOffset, endOffset);
+
+		return entry == -1 ? null : terms[entry];
+	}
+
+	/**
+	 * Returns the outermost of the terms that have the same extent as the innermost term that covers the range (with
+	 * an inclusive end offset), e.g. a list instead of its only element. Returns null if there is none.
+	 */
+	public ISimpleTerm getOutermostTerm(int startOffset, int endOffset) {
+		int entry = findEntry(startOffset, endOffset);
+
+		return entry == -1 ? null : terms[outermostIndices[entry]];
+	}
+
+	/**
+	 * Returns the innermost term of the subtree of the given term that covers the range (with an inclusive end offset),
+	 * or null if there is none, e.g. if the given term does not cover the range or is not in the index.
+	 */
+	public ISimpleTerm getInnermostTerm(ISimpleTerm within, int startOffset, int endOffset) {
+		// If extents nest, the innermost term is in the subtree of any term that covers the range
+		return covers(within, startOffset, endOffset) ? getInnermostTerm(startOffset, endOffset) : null;
+	}
+
+	/**
+	 * Returns the outermost term of the subtree of the given term that has the same extent as the innermost term that
+	 * covers the range (with an inclusive end offset), or null if there is none.
+	 */
+	public ISimpleTerm getOutermostTerm(ISimpleTerm within, int startOffset, int endOffset) {
+		if (!covers(within, startOffset, endOffset))
+			return null;
+
+		ISimpleTerm term = getOutermostTerm(startOffset, endOffset);
+
+		// Outer terms with the same extent as the given term are its ancestors
+		return term == null || extents.get(term).equals(extents.get(within)) ? within : term;
+	}
+
+	private boolean covers(ISimpleTerm term, int startOffset, int endOffset) {
+		if (extents == null) {
+			extents = new IdentityHashMap<ISimpleTerm, Long>();
+
+			for (int i = 0; i < count; i++) {
+				if (terms[i] != null)
+					extents.put(terms[i], extent(startOffsets[i], endOffsets[i]));
+			}
+		}
+
+		Long extent = extents.get(term);
+
+		return extent != null && (int) (extent >> 32) <= startOffset && endOffset <= (int) (long) extent;
+	}
+
+	private static long extent(int startOffset, int endOffset) {
+		return (long) startOffset << 32 | endOffset & 0xFFFFFFFFL;
+	}
+
+	private int findEntry(int startOffset, int endOffset) {
+		if (!sorted)
+			sort();
+
+		// The number of entries that start at or before the range
+		int low = 0, high = count;
+
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+
+			if (startOffsets[middle] <= startOffset)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+
+		return findLastEndingAfter(1, 0, leafCount, low, endOffset);
+	}
+
+	// Of the entries in [0, limit) below the given node, which covers [from, to), the last one that ends at or after the offset
+	private int findLastEndingAfter(int node, int from, int to, int limit, int endOffset) {
+		if (from >= limit || maxEndOffsets[node] < endOffset)
+			return -1;
+
+		if (to - from == 1)
+			return from;
+
+		int middle = (from + to) >>> 1;
+		int result = findLastEndingAfter(2 * node + 1, middle, to, limit, endOffset);
+
+		return result != -1 ? result : findLastEndingAfter(2 * node, from, middle, limit, endOffset);
+	}
+
+	private void sort() {
+		Integer[] order = new Integer[count];
+		int size = 0;
+
+		for (int i = 0; i < count; i++) {
+			if (terms[i] != null)
+				order[size++] = i;
+		}
+
+		Arrays.sort(order, 0, size, new Comparator<Integer>() {
+			public int compare(Integer i, Integer j) {
+				if (startOffsets[i] != startOffsets[j])
+					return startOffsets[i] < startOffsets[j] ? -1 : 1;
+				else if (endOffsets[i] != endOffsets[j])
+					return endOffsets[i] > endOffsets[j] ? -1 : 1;
+				else
+					return i - j;
+			}
+		});
+
+		int[] sortedStartOffsets = new int[Math.max(size, INITIAL_CAPACITY)];
+		int[] sortedEndOffsets = new int[sortedStartOffsets.length];
+		ISimpleTerm[] sortedTerms = new ISimpleTerm[sortedStartOffsets.length];
+
+		for (int i = 0; i < size; i++) {
+			sortedStartOffsets[i] = startOffsets[order[i]];
+			sortedEndOffsets[i] = endOffsets[order[i]];
+			sortedTerms[i] = terms[order[i]];
+		}
+
+		startOffsets = sortedStartOffsets;
+		endOffsets = sortedEndOffsets;
+		terms = sortedTerms;
+		count = size;
+
+		leafCount = 1;
+
+		while (leafCount < count)
+			leafCount *= 2;
+
+		maxEndOffsets = new int[2 * leafCount];
+
+		Arrays.fill(maxEndOffsets, Integer.MIN_VALUE);
+
+		for (int i = 0; i < count; i++)
+			maxEndOffsets[leafCount + i] = endOffsets[i];
+
+		for (int node = leafCount - 1; node > 0; node--)
+			maxEndOffsets[node] = Math.max(maxEndOffsets[2 * node], maxEndOffsets[2 * node + 1]);
+
+		outermostIndices = new int[count];
+
+		for (int i = 0; i < count; i++) {
+			if (i > 0 && startOffsets[i] == startOffsets[i - 1] && endOffsets[i] == endOffsets[i - 1])
+				outermostIndices[i] = outermostIndices[i - 1];
+			else
+				outermostIndices[i] = i;
+		}
+
+		sorted = true;
+	}
+
+}
@@ -22,7 +22,7 @@ import org.spoofax.terms.SimpleTermVisitor;
  * @author Lennart Kats <lennart add lclnet.nl>
  * @author Karl Trygve Kalleberg <karltk near strategoxt dot org>
  */
-public class Tokenizer extends AbstractTokenizer {
+public class Tokenizer extends AbstractTokenizer implements ITermOffsetIndexProvider {
 
     private static final double EXPECTED_TOKENS_DIVIDER = 1.3;
 
@@ -32,6 +32,8 @@ public class Tokenizer extends AbstractTokenizer {
 
     private ISimpleTerm ast;
 
+    private TermOffsetIndex termOffsetIndex;
+
     /** Start of the next token. */
     private int startOffset;
 
@@ -278,6 +280,16 @@ public class Tokenizer extends AbstractTokenizer {
 
     public void setAst(ISimpleTerm ast) {
         this.ast = ast;
+        this.termOffsetIndex = null;
+    }
+
+    /**
+     * Returns an index from offsets to the terms of the AST, which is built on first use.
+     */
+    public TermOffsetIndex getTermOffsetIndex() {
+        if(termOffsetIndex == null && ast != null)
+            termOffsetIndex = TermOffsetIndex.build(ast);
+        return termOffsetIndex;
     }
 
     public void initAstNodeBinding() {
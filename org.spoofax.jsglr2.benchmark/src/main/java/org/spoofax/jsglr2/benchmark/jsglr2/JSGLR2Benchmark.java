@@ -33,7 +33,7 @@ public abstract class JSGLR2Benchmark extends BaseBenchmark {
     @Param({"false", "true"})
     public boolean implode;
     
-    @Param({"Null", "Basic", "Hybrid"})
+    @Param({"Null", "Basic", "Hybrid", "Binarized"})
     public JSGLR2Variants.ParseForestRepresentation parseForestRepresentation;
     
     @Param({"Full", "Optimized"})
@@ -45,12 +45,17 @@ public abstract class JSGLR2Benchmark extends BaseBenchmark {
     @Param({"Basic", "Elkhound"})
     public JSGLR2Variants.Reducing reducing;
     
+    @Param({"ArrayList", "StateIndexed"})
+    public JSGLR2Variants.ActiveStacksRepresentation activeStacksRepresentation;
+    
     @Setup
     public void parserSetup() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
         IParseTable parseTable = ParseTableReader.read(testSetReader.getParseTableTerm());
 
-        parser = JSGLR2Variants.getParser(parseTable, parseForestRepresentation, parseForestConstruction, stackRepresentation, reducing);
-        jsglr2 = JSGLR2Variants.getJSGLR2(parseTable, parseForestRepresentation, parseForestConstruction, stackRepresentation, reducing);
+        JSGLR2Variants.Variant variant = new JSGLR2Variants.Variant(parseForestRepresentation, parseForestConstruction, stackRepresentation, reducing, activeStacksRepresentation);
+
+        parser = JSGLR2Variants.getParser(parseTable, variant);
+        jsglr2 = JSGLR2Variants.getJSGLR2(parseTable, variant);
     }
 
     @Benchmark
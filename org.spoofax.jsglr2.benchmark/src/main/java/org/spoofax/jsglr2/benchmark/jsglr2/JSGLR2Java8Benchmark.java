@@ -21,7 +21,7 @@ public class JSGLR2Java8Benchmark extends JSGLR2Benchmark {
             @Param({"false", "true"})
             public boolean implode;
 
-            @Param({"Null", "Basic", "Hybrid"})
+            @Param({"Null", "Basic", "Hybrid", "Binarized"})
             public JSGLR2Variants.ParseForestRepresentation parseForestRepresentation;
 
             @Param({"Full", "Optimized"})
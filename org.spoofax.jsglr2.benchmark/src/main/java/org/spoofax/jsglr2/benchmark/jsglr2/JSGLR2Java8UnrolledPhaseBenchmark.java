@@ -0,0 +1,11 @@
+package org.spoofax.jsglr2.benchmark.jsglr2;
+
+import org.spoofax.jsglr2.testset.TestSet;
+
+public class JSGLR2Java8UnrolledPhaseBenchmark extends JSGLR2PhaseBenchmark {
+    
+    public JSGLR2Java8UnrolledPhaseBenchmark() {
+        super(TestSet.java8_unrolled);
+    }
+
+}
@@ -0,0 +1,43 @@
+package org.spoofax.jsglr2.benchmark.jsglr2;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.spoofax.jsglr2.actions.ActionsForCharacterRepresentation;
+import org.spoofax.jsglr2.benchmark.BenchmarkTestsetReader;
+import org.spoofax.jsglr2.parsetable.ParseTableReadException;
+import org.spoofax.jsglr2.parsetable.ParseTableReader;
+import org.spoofax.jsglr2.testset.TestSet;
+import org.spoofax.jsglr2.testset.TestSetReader;
+
+/*
+ * Measures reading the parse table of a test set from its (already parsed) term. Unlike the other benchmarks, this one
+ * does not extend BaseBenchmark, since it does not need the inputs of the test set.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public abstract class JSGLR2ParseTableBenchmark {
+
+    private final TestSetReader testSetReader;
+
+    protected JSGLR2ParseTableBenchmark(TestSet testSet) {
+        this.testSetReader = new BenchmarkTestsetReader(testSet);
+    }
+
+    @Param({"Separated", "Dense"})
+    public ActionsForCharacterRepresentation actionsForCharacterRepresentation;
+
+    @Benchmark
+    public void parseTable(Blackhole bh) throws ParseTableReadException {
+        bh.consume(ParseTableReader.read(testSetReader.getParseTableTerm(), actionsForCharacterRepresentation));
+    }
+
+}
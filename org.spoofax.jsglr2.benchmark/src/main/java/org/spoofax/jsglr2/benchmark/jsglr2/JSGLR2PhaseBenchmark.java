@@ -0,0 +1,122 @@
+package org.spoofax.jsglr2.benchmark.jsglr2;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.spoofax.jsglr.client.InvalidParseTableException;
+import org.spoofax.jsglr2.JSGLR2Variants;
+import org.spoofax.jsglr2.JSGLR2Variants.Reducing;
+import org.spoofax.jsglr2.JSGLR2Variants.StackRepresentation;
+import org.spoofax.jsglr2.benchmark.BaseBenchmark;
+import org.spoofax.jsglr2.imploder.TokenizedTreeImploder;
+import org.spoofax.jsglr2.parser.IParser;
+import org.spoofax.jsglr2.parser.ParseResult;
+import org.spoofax.jsglr2.parser.ParseSuccess;
+import org.spoofax.jsglr2.parsetable.IParseTable;
+import org.spoofax.jsglr2.parsetable.ParseTableReadException;
+import org.spoofax.jsglr2.parsetable.ParseTableReader;
+import org.spoofax.jsglr2.testset.Input;
+import org.spoofax.jsglr2.testset.TestSet;
+import org.spoofax.jsglr2.tokenizer.AbstractTokens;
+import org.spoofax.terms.ParseError;
+
+/*
+ * Measures the phases after parsing in isolation: the inputs are parsed (and tokenized) once during setup, such that
+ * the tokenize and implode benchmarks only run the tokenizer and imploder on the stored parse forests. The
+ * tokenizeAndImplode benchmark runs both, to compare with the singlePassImplode benchmark. Since the stack
+ * representation and reducing variants do not influence the resulting parse forests, these are fixed. The memory of
+ * the token stores is compared by running with the columnarTokens parameter and the GC profiler (-prof gc), which
+ * reports the bytes allocated per operation. Reading the parse table is measured by JSGLR2ParseTableBenchmark.
+ */
+public abstract class JSGLR2PhaseBenchmark extends BaseBenchmark {
+
+    protected JSGLR2PhaseBenchmark(TestSet testSet) {
+        super(testSet);
+    }
+
+    @Param({"Basic", "Hybrid", "Binarized"})
+    public JSGLR2Variants.ParseForestRepresentation parseForestRepresentation;
+
+    @Param({"Full", "Optimized"})
+    public JSGLR2Variants.ParseForestConstruction parseForestConstruction;
+
+    @Param({"false", "true"})
+    public boolean columnarTokens;
+
+    @SuppressWarnings("rawtypes")
+    private TokenizedTreeImploder imploder, singlePassImploder;
+    private List<ParseSuccess<?, ?, ?>> parseResults;
+    private List<AbstractTokens> tokens;
+
+    @SuppressWarnings("unchecked")
+    @Setup
+    public void parseSetup() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+        setupInputs(); // The order in which JMH runs setup methods is unspecified, while this setup needs the inputs
+        
+        IParseTable parseTable = ParseTableReader.read(testSetReader.getParseTableTerm());
+        JSGLR2Variants.Variant variant = new JSGLR2Variants.Variant(parseForestRepresentation, parseForestConstruction, StackRepresentation.HybridElkhound, Reducing.Elkhound);
+
+        IParser<?, ?> parser = JSGLR2Variants.getParser(parseTable, variant);
+
+        imploder = (TokenizedTreeImploder<?, ?, ?, ?, ?>) JSGLR2Variants.getImploder(variant);
+        singlePassImploder = (TokenizedTreeImploder<?, ?, ?, ?, ?>) JSGLR2Variants.getImploder(variant);
+        singlePassImploder.singlePass();
+
+        if (columnarTokens) {
+            imploder.columnarTokens();
+            singlePassImploder.columnarTokens();
+        }
+        parseResults = new ArrayList<ParseSuccess<?, ?, ?>>();
+        tokens = new ArrayList<AbstractTokens>();
+
+        for (Input input : inputs) {
+            ParseResult<?, ?, ?> parseResult = parser.parse(input.content, input.filename, null);
+
+            if (!parseResult.isSuccess)
+                throw new IllegalStateException("input " + input.filename + " does not parse");
+
+            ParseSuccess<?, ?, ?> parseSuccess = (ParseSuccess<?, ?, ?>) parseResult;
+
+            parseResults.add(parseSuccess);
+            tokens.add(imploder.tokenize(parseSuccess.parse, parseSuccess.parseResult));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Benchmark
+    public void tokenize(Blackhole bh) {
+        for (ParseSuccess<?, ?, ?> parseResult : parseResults)
+            bh.consume(imploder.tokenize(parseResult.parse, parseResult.parseResult));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Benchmark
+    public void implode(Blackhole bh) {
+        for (int i = 0; i < parseResults.size(); i++) {
+            ParseSuccess<?, ?, ?> parseResult = parseResults.get(i);
+
+            bh.consume(imploder.implode(parseResult.parse, parseResult.parseResult, tokens.get(i)));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Benchmark
+    public void tokenizeAndImplode(Blackhole bh) {
+        for (ParseSuccess<?, ?, ?> parseResult : parseResults)
+            bh.consume(imploder.implode(parseResult.parse, parseResult.parseResult));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Benchmark
+    public void singlePassImplode(Blackhole bh) {
+        for (ParseSuccess<?, ?, ?> parseResult : parseResults)
+            bh.consume(singlePassImploder.implode(parseResult.parse, parseResult.parseResult));
+    }
+
+}
@@ -0,0 +1,15 @@
+package org.spoofax.jsglr2.benchmark.jsglr2;
+
+import org.openjdk.jmh.annotations.Param;
+import org.spoofax.jsglr2.testset.TestSet;
+
+public class JSGLR2SumAmbiguousPhaseBenchmark extends JSGLR2PhaseBenchmark {
+    
+    public JSGLR2SumAmbiguousPhaseBenchmark() {
+        super(TestSet.sumAmbiguous);
+    }
+    
+    @Param({"20", "40", "60", "80"})
+    public int n;
+
+}
@@ -0,0 +1,11 @@
+package org.spoofax.jsglr2.benchmark.jsglr2;
+
+import org.spoofax.jsglr2.testset.TestSet;
+
+public class JSGLR2WebDSLParseTableBenchmark extends JSGLR2ParseTableBenchmark {
+    
+    public JSGLR2WebDSLParseTableBenchmark() {
+        super(TestSet.webDSL);
+    }
+
+}
@@ -0,0 +1,105 @@
+package org.spoofax.jsglr2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr2.testset.Input;
+
+/*
+ * Parses batches of inputs in parallel on a fork-join pool. Every parse borrows a parser instance from the factory's
+ * pool for its duration, all sharing the same parse table. Failures (parse errors or exceptions during imploding) are reported per
+ * input in the results and do not abort the batch.
+ */
+public class BatchParser {
+
+    private final JSGLR2Factory factory;
+    private final ForkJoinPool pool;
+
+    public BatchParser(JSGLR2Factory factory) {
+        this(factory, ForkJoinPool.commonPool());
+    }
+
+    public BatchParser(JSGLR2Factory factory, ForkJoinPool pool) {
+        this.factory = factory;
+        this.pool = pool;
+    }
+
+    public static class Result {
+        public final Input input;
+        public final IStrategoTerm ast; // Null if parsing failed
+        public final Exception failure; // Null if parsing succeeded
+        public final long durationNanos;
+
+        Result(Input input, IStrategoTerm ast, Exception failure, long durationNanos) {
+            this.input = input;
+            this.ast = ast;
+            this.failure = failure;
+            this.durationNanos = durationNanos;
+        }
+
+        public boolean isSuccess() {
+            return failure == null;
+        }
+    }
+
+    /*
+     * Parses all inputs and returns the results in input order.
+     */
+    public List<Result> parseAll(Iterable<Input> inputs) {
+        List<ForkJoinTask<Result>> tasks = new ArrayList<ForkJoinTask<Result>>();
+
+        for (Input input : inputs)
+            tasks.add(pool.submit(() -> parse(input)));
+
+        List<Result> results = new ArrayList<Result>(tasks.size());
+
+        for (ForkJoinTask<Result> task : tasks)
+            results.add(task.join());
+
+        return results;
+    }
+
+    /*
+     * Parses all inputs and passes the results to the consumer (on the calling thread) in completion order.
+     */
+    public void parseAll(Iterable<Input> inputs, Consumer<Result> consumer) throws InterruptedException {
+        CompletionService<Result> completionService = new ExecutorCompletionService<Result>(pool);
+        int submitted = 0;
+
+        for (Input input : inputs) {
+            completionService.submit(() -> parse(input));
+            submitted++;
+        }
+
+        for (int i = 0; i < submitted; i++) {
+            try {
+                consumer.accept(completionService.take().get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause()); // Does not happen, since parse catches all exceptions
+            }
+        }
+    }
+
+    public Result parse(Input input) {
+        long start = System.nanoTime();
+        JSGLR2<?, ?, IStrategoTerm> jsglr2 = factory.acquire();
+
+        try {
+            IStrategoTerm ast = jsglr2.parseUnsafe(input.content, input.filename, null);
+
+            return new Result(input, ast, null, System.nanoTime() - start);
+        } catch (Exception e) {
+            return new Result(input, null, e, System.nanoTime() - start);
+        } finally {
+            factory.release(jsglr2);
+        }
+    }
+
+}
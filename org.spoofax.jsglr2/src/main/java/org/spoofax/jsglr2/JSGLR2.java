@@ -22,8 +22,8 @@ import org.spoofax.jsglr2.stack.elkhound.AbstractElkhoundStackNode;
 
 public class JSGLR2<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest, AbstractSyntaxTree> {
 
-    public IParser<StackNode, ParseForest> parser;
-    public IImploder<StackNode, ParseForest, AbstractSyntaxTree> imploder;
+    public final IParser<StackNode, ParseForest> parser;
+    public final IImploder<StackNode, ParseForest, AbstractSyntaxTree> imploder;
     
     public static JSGLR2<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest, IStrategoTerm> standard(IParseTable parseTable) throws ParseTableReadException {
         return (JSGLR2<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest, IStrategoTerm>) JSGLR2Variants.getJSGLR2(parseTable, ParseForestRepresentation.Hybrid, ParseForestConstruction.Optimized, StackRepresentation.HybridElkhound, Reducing.Elkhound);
@@ -0,0 +1,100 @@
+package org.spoofax.jsglr2;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr2.JSGLR2Variants.ParseForestConstruction;
+import org.spoofax.jsglr2.JSGLR2Variants.ParseForestRepresentation;
+import org.spoofax.jsglr2.JSGLR2Variants.Reducing;
+import org.spoofax.jsglr2.JSGLR2Variants.StackRepresentation;
+import org.spoofax.jsglr2.parser.Parser;
+import org.spoofax.jsglr2.parser.StandardParser;
+import org.spoofax.jsglr2.parsetable.IParseTable;
+
+/*
+ * Hands out JSGLR2 instances that share a single (immutable) parse table, for serving concurrent parse requests. Parser
+ * instances themselves are cheap, since they only hold references to the parse table and stateless managers.
+ */
+public class JSGLR2Factory {
+
+    private final IParseTable parseTable;
+    private final JSGLR2Variants.Variant variant;
+    private final boolean specialized; // Whether to use the StandardParser instead of the generic parser of the variant
+    private final Queue<JSGLR2<?, ?, IStrategoTerm>> pooled; // Idle instances that reuse their parse scratch structures
+
+    public JSGLR2Factory(IParseTable parseTable, JSGLR2Variants.Variant variant) {
+        this(parseTable, variant, false);
+    }
+
+    private JSGLR2Factory(IParseTable parseTable, JSGLR2Variants.Variant variant, boolean specialized) {
+        if (!variant.isValid())
+            throw new IllegalStateException("Invalid parser variant (Elkhound reducing requires Elkhound stack)");
+
+        this.parseTable = parseTable;
+        this.variant = variant;
+        this.specialized = specialized;
+        this.pooled = new ConcurrentLinkedQueue<JSGLR2<?, ?, IStrategoTerm>>();
+    }
+
+    /*
+     * The standard variant, using the specialized StandardParser (see JSGLR2Variants.getStandardParser).
+     */
+    public static JSGLR2Factory standard(IParseTable parseTable) {
+        return new JSGLR2Factory(parseTable, new JSGLR2Variants.Variant(ParseForestRepresentation.Hybrid, ParseForestConstruction.Optimized, StackRepresentation.HybridElkhound, Reducing.Elkhound), true);
+    }
+
+    /*
+     * A new instance that can be used from any thread.
+     */
+    public JSGLR2<?, ?, IStrategoTerm> create() {
+        return create(false);
+    }
+
+    /*
+     * An idle pooled instance (or a new one if there is none), which reuses its parse scratch structures between parses.
+     * It is for exclusive use by the caller until it is handed back with release.
+     */
+    public JSGLR2<?, ?, IStrategoTerm> acquire() {
+        JSGLR2<?, ?, IStrategoTerm> jsglr2 = pooled.poll();
+
+        return jsglr2 != null ? jsglr2 : create(true);
+    }
+
+    /*
+     * Hands an instance obtained from acquire back to the pool. It should not be used by the caller afterwards.
+     */
+    public void release(JSGLR2<?, ?, IStrategoTerm> jsglr2) {
+        pooled.offer(jsglr2);
+    }
+
+    /*
+     * Drops all idle pooled instances (and with them the scratch structures of their last parses).
+     */
+    public void clear() {
+        pooled.clear();
+    }
+
+    public IParseTable parseTable() {
+        return parseTable;
+    }
+
+    private JSGLR2<?, ?, IStrategoTerm> create(boolean reuseParseStructures) {
+        if (specialized) {
+            StandardParser<?, ?, ?, ?> parser = JSGLR2Variants.getStandardParser(parseTable);
+
+            if (reuseParseStructures)
+                parser.reuseParseStructures();
+
+            return new JSGLR2(parser, JSGLR2Variants.getImploder(variant));
+        }
+
+        Parser<?, ?, ?, ?> parser = JSGLR2Variants.getParser(parseTable, variant);
+
+        if (reuseParseStructures)
+            parser.reuseParseStructures();
+
+        return new JSGLR2(parser, JSGLR2Variants.getImploder(variant));
+    }
+
+}
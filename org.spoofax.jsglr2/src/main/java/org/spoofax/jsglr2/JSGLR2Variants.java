@@ -5,6 +5,7 @@ import java.util.List;
 
 import org.spoofax.interpreter.terms.IStrategoTerm;
 import org.spoofax.jsglr2.imploder.BasicParseForestStrategoImploder;
+import org.spoofax.jsglr2.imploder.BinarizedParseForestStrategoImploder;
 import org.spoofax.jsglr2.imploder.HybridParseForestStrategoImploder;
 import org.spoofax.jsglr2.imploder.IImploder;
 import org.spoofax.jsglr2.imploder.NullParseForestStrategoImploder;
@@ -13,6 +14,10 @@ import org.spoofax.jsglr2.parseforest.ParseForestManager;
 import org.spoofax.jsglr2.parseforest.basic.BasicParseForest;
 import org.spoofax.jsglr2.parseforest.basic.BasicParseForestManager;
 import org.spoofax.jsglr2.parseforest.basic.SymbolNode;
+import org.spoofax.jsglr2.parseforest.binarized.BinarizedDerivation;
+import org.spoofax.jsglr2.parseforest.binarized.BinarizedParseForest;
+import org.spoofax.jsglr2.parseforest.binarized.BinarizedParseForestManager;
+import org.spoofax.jsglr2.parseforest.binarized.BinarizedParseNode;
 import org.spoofax.jsglr2.parseforest.empty.NullParseForestManager;
 import org.spoofax.jsglr2.parseforest.hybrid.Derivation;
 import org.spoofax.jsglr2.parseforest.hybrid.HybridParseForest;
@@ -20,9 +25,11 @@ import org.spoofax.jsglr2.parseforest.hybrid.HybridParseForestManager;
 import org.spoofax.jsglr2.parseforest.hybrid.ParseNode;
 import org.spoofax.jsglr2.parser.IParser;
 import org.spoofax.jsglr2.parser.Parser;
+import org.spoofax.jsglr2.parser.StandardParser;
 import org.spoofax.jsglr2.parsetable.IParseTable;
 import org.spoofax.jsglr2.reducing.ReduceManager;
 import org.spoofax.jsglr2.reducing.ReduceManagerElkhound;
+import org.spoofax.jsglr2.reducing.StandardReduceManagerElkhound;
 import org.spoofax.jsglr2.stack.StackManager;
 import org.spoofax.jsglr2.stack.basic.BasicStackManager;
 import org.spoofax.jsglr2.stack.basic.HybridStackManager;
@@ -35,7 +42,7 @@ import org.spoofax.jsglr2.stack.elkhound.HybridElkhoundStackManager;
 public class JSGLR2Variants {
     
     public enum ParseForestRepresentation {
-        Null, Basic, Hybrid
+        Null, Basic, Hybrid, Binarized
     }
     
     public enum ParseForestConstruction {
@@ -49,10 +56,15 @@ public class JSGLR2Variants {
     public enum Reducing {
         Basic, Elkhound
     }
+    
+    public enum ActiveStacksRepresentation {
+        ArrayList, StateIndexed
+    }
 
     public static ParseForestRepresentation[] parseForestRepresentationVariants = new ParseForestRepresentation[]{
         ParseForestRepresentation.Basic,
-        ParseForestRepresentation.Hybrid
+        ParseForestRepresentation.Hybrid,
+        ParseForestRepresentation.Binarized
     };
 
     public static ParseForestConstruction[] parseForestConstructionVariants = new ParseForestConstruction[]{
@@ -71,18 +83,29 @@ public class JSGLR2Variants {
     		Reducing.Basic,
     		Reducing.Elkhound
     };
+
+    public static ActiveStacksRepresentation[] activeStacksRepresentationVariants = new ActiveStacksRepresentation[]{
+    		ActiveStacksRepresentation.ArrayList,
+    		ActiveStacksRepresentation.StateIndexed
+    };
     
     public static class Variant {
         public ParseForestRepresentation parseForestRepresentation;
         public ParseForestConstruction parseForestConstruction;
         public StackRepresentation stackRepresentation;
         public Reducing reducing;
+        public ActiveStacksRepresentation activeStacksRepresentation;
         
         public Variant(ParseForestRepresentation parseForestRepresentation, ParseForestConstruction parseForestConstruction, StackRepresentation stackRepresentation, Reducing reducing) {
+            this(parseForestRepresentation, parseForestConstruction, stackRepresentation, reducing, ActiveStacksRepresentation.ArrayList);
+        }
+        
+        public Variant(ParseForestRepresentation parseForestRepresentation, ParseForestConstruction parseForestConstruction, StackRepresentation stackRepresentation, Reducing reducing, ActiveStacksRepresentation activeStacksRepresentation) {
 	        	this.parseForestRepresentation = parseForestRepresentation;
 	        	this.parseForestConstruction = parseForestConstruction;
             this.stackRepresentation = stackRepresentation;
             this.reducing = reducing;
+            this.activeStacksRepresentation = activeStacksRepresentation;
         }
         
         public boolean isValid() {
@@ -90,7 +113,7 @@ public class JSGLR2Variants {
         }
         
         public String name() {
-        		return "ParseForestRepresentation:" + parseForestRepresentation + "/ParseForestConstruction:" + parseForestConstruction + "/StackRepresentation:" + stackRepresentation + "/Reducing:" + reducing;
+        		return "ParseForestRepresentation:" + parseForestRepresentation + "/ParseForestConstruction:" + parseForestConstruction + "/StackRepresentation:" + stackRepresentation + "/Reducing:" + reducing + "/ActiveStacksRepresentation:" + activeStacksRepresentation;
         }
     }
     
@@ -101,10 +124,12 @@ public class JSGLR2Variants {
             for (ParseForestConstruction parseForestConstruction : parseForestConstructionVariants) {
 	            for (StackRepresentation stackRepresentation : stackRepresentationVariants) {
 	                for (Reducing reducing : reducingVariants) {
-	                    Variant variant = new Variant(parseForestRepresentation, parseForestConstruction, stackRepresentation, reducing);
-	                    
-	                    if (variant.isValid())
-	                    		variants.add(variant);
+	                    for (ActiveStacksRepresentation activeStacksRepresentation : activeStacksRepresentationVariants) {
+		                    Variant variant = new Variant(parseForestRepresentation, parseForestConstruction, stackRepresentation, reducing, activeStacksRepresentation);
+		                    
+		                    if (variant.isValid())
+		                    		variants.add(variant);
+	                    }
 	                }
 	            }
             }
@@ -117,6 +142,14 @@ public class JSGLR2Variants {
         if (!variant.isValid())
             throw new IllegalStateException("Invalid parser variant (Elkhound reducing requires Elkhound stack)");
         
+        Parser<?, ?, ?, ?> parser = getParserWithoutOptions(parseTable, variant);
+        
+        parser.activeStacksRepresentation(variant.activeStacksRepresentation);
+        
+        return parser;
+    }
+    
+    private static Parser<?, ?, ?, ?> getParserWithoutOptions(IParseTable parseTable, Variant variant) {
         switch (variant.parseForestRepresentation) {
             default:
             case Basic:
@@ -158,6 +191,45 @@ public class JSGLR2Variants {
                         return new Parser<AbstractElkhoundStackNode<BasicParseForest>, BasicParseForest, SymbolNode, RuleNode>(parseTable, elkhoundStackManager, basicParseForestManager, basicReducer);
                     }
                 }
+            case Binarized:
+                BinarizedParseForestManager binarizedParseForestManager = new BinarizedParseForestManager();
+                
+                if (variant.reducing == Reducing.Elkhound) {
+                    AbstractElkhoundStackManager<AbstractElkhoundStackNode<BinarizedParseForest>, BinarizedParseForest> elkhoundStackManager;
+                    
+                    if (variant.stackRepresentation == StackRepresentation.HybridElkhound)
+                        elkhoundStackManager = new HybridElkhoundStackManager<BinarizedParseForest>();
+                    else
+                        elkhoundStackManager = new BasicElkhoundStackManager<BinarizedParseForest>();
+                    
+                    ReduceManager<AbstractElkhoundStackNode<BinarizedParseForest>, BinarizedParseForest, BinarizedParseNode, BinarizedDerivation> elkhoundReducer = new ReduceManagerElkhound<BinarizedParseForest, BinarizedParseNode, BinarizedDerivation>(parseTable, elkhoundStackManager, binarizedParseForestManager, variant.parseForestConstruction);
+                    
+                    return new Parser<AbstractElkhoundStackNode<BinarizedParseForest>, BinarizedParseForest, BinarizedParseNode, BinarizedDerivation>(parseTable, elkhoundStackManager, binarizedParseForestManager, elkhoundReducer);
+                } else {
+                    if (variant.stackRepresentation == StackRepresentation.Basic || variant.stackRepresentation == StackRepresentation.Hybrid) {
+                        StackManager<AbstractBasicStackNode<BinarizedParseForest>, BinarizedParseForest> basicStackManager;
+                        
+                        if (variant.stackRepresentation == StackRepresentation.Basic)
+                            basicStackManager = new BasicStackManager<BinarizedParseForest>();
+                        else
+                            basicStackManager = new HybridStackManager<BinarizedParseForest>();
+                        
+                        ReduceManager<AbstractBasicStackNode<BinarizedParseForest>, BinarizedParseForest, BinarizedParseNode, BinarizedDerivation> binarizedReducer = new ReduceManager<AbstractBasicStackNode<BinarizedParseForest>, BinarizedParseForest, BinarizedParseNode, BinarizedDerivation>(parseTable, basicStackManager, binarizedParseForestManager, variant.parseForestConstruction);
+                        
+                        return new Parser<AbstractBasicStackNode<BinarizedParseForest>, BinarizedParseForest, BinarizedParseNode, BinarizedDerivation>(parseTable, basicStackManager, binarizedParseForestManager, binarizedReducer);
+                    } else {
+                        StackManager<AbstractElkhoundStackNode<BinarizedParseForest>, BinarizedParseForest> elkhoundStackManager;
+                        
+                        if (variant.stackRepresentation == StackRepresentation.HybridElkhound)
+                            elkhoundStackManager = new HybridElkhoundStackManager<BinarizedParseForest>();
+                        else
+                            elkhoundStackManager = new BasicElkhoundStackManager<BinarizedParseForest>();
+                        
+                        ReduceManager<AbstractElkhoundStackNode<BinarizedParseForest>, BinarizedParseForest, BinarizedParseNode, BinarizedDerivation> binarizedReducer = new ReduceManager<AbstractElkhoundStackNode<BinarizedParseForest>, BinarizedParseForest, BinarizedParseNode, BinarizedDerivation>(parseTable, elkhoundStackManager, binarizedParseForestManager, variant.parseForestConstruction);
+                        
+                        return new Parser<AbstractElkhoundStackNode<BinarizedParseForest>, BinarizedParseForest, BinarizedParseNode, BinarizedDerivation>(parseTable, elkhoundStackManager, binarizedParseForestManager, binarizedReducer);
+                    }
+                }
             case Null:
             case Hybrid:
             		ParseForestManager<HybridParseForest, ParseNode, Derivation> hybridParseForestManager;
@@ -210,11 +282,24 @@ public class JSGLR2Variants {
     		return getParser(parseTable, new Variant(parseForestRepresentation, parseForestConstruction, stackRepresentation, reducing));
     }
     
+    /*
+     * The standard variant (Hybrid parse forest, optimized construction, HybridElkhound stack and Elkhound reducing) on
+     * the StandardParser classes, which are copies of the generic classes (see StandardSources in the tests). Their call
+     * sites only see the managers of this variant, also when parsers of other variants are in use.
+     */
+    public static StandardParser<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest, ParseNode, Derivation> getStandardParser(IParseTable parseTable) {
+        HybridParseForestManager hybridParseForestManager = new HybridParseForestManager();
+        AbstractElkhoundStackManager<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest> elkhoundStackManager = new HybridElkhoundStackManager<HybridParseForest>();
+        StandardReduceManagerElkhound<HybridParseForest, ParseNode, Derivation> elkhoundReducer = new StandardReduceManagerElkhound<HybridParseForest, ParseNode, Derivation>(parseTable, elkhoundStackManager, hybridParseForestManager, ParseForestConstruction.Optimized);
+        
+        return new StandardParser<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest, ParseNode, Derivation>(parseTable, elkhoundStackManager, hybridParseForestManager, elkhoundReducer);
+    }
+    
     public static List<Parser<?, ?, ?, ?>> allParsers(IParseTable parseTable) {
         List<Parser<?, ?, ?, ?>> parsers = new ArrayList<Parser<?, ?, ?, ?>>();
         
         for (Variant variant : allVariants()) {
-            Parser<?, ?, ?, ?> parser = getParser(parseTable, variant.parseForestRepresentation, variant.parseForestConstruction, variant.stackRepresentation, variant.reducing);
+            Parser<?, ?, ?, ?> parser = getParser(parseTable, variant);
             
             parsers.add(parser);
         }
@@ -222,25 +307,23 @@ public class JSGLR2Variants {
         return parsers;
     }
     
-    public static JSGLR2<?, ?, IStrategoTerm> getJSGLR2(IParseTable parseTable, Variant variant) {
-        IParser<?, ?> parser = getParser(parseTable, variant);
-        IImploder<?, ?, IStrategoTerm> imploder;
-        
+    public static IImploder<?, ?, IStrategoTerm> getImploder(Variant variant) {
         switch (variant.parseForestRepresentation) {
             default:
             case Basic:
-                imploder = new BasicParseForestStrategoImploder();
-                
-                break;
+                return new BasicParseForestStrategoImploder();
             case Hybrid:
-                imploder = new HybridParseForestStrategoImploder();
-                
-                break;
+                return new HybridParseForestStrategoImploder();
+            case Binarized:
+                return new BinarizedParseForestStrategoImploder();
             case Null:
-                imploder = new NullParseForestStrategoImploder();
-                
-                break;
+                return new NullParseForestStrategoImploder();
         }
+    }
+    
+    public static JSGLR2<?, ?, IStrategoTerm> getJSGLR2(IParseTable parseTable, Variant variant) {
+        IParser<?, ?> parser = getParser(parseTable, variant);
+        IImploder<?, ?, IStrategoTerm> imploder = getImploder(variant);
         
         return new JSGLR2(parser, imploder);
     }
@@ -0,0 +1,49 @@
+package org.spoofax.jsglr2.actions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.spoofax.jsglr2.characters.ICharacters;
+
+/*
+ * Stores for every character (including EOF) the pre-filtered applicable actions, such that a lookup during parsing is a
+ * single array access. Characters with the same applicable actions share the same array.
+ */
+public final class ActionsForCharacterDense implements IActionsForCharacter {
+
+	private static final IAction[] NO_ACTIONS = new IAction[0];
+	
+	private final IAction[][] actionsPerCharacter; // Index 0 - 256, of which 256 represents EOF
+	
+	public ActionsForCharacterDense(IAction[] actions) {
+		this.actionsPerCharacter = new IAction[ICharacters.EOF + 1][];
+		
+		Map<List<IAction>, IAction[]> sharedApplicableActions = new HashMap<List<IAction>, IAction[]>();
+		
+		for (int character = 0; character <= ICharacters.EOF; character++) {
+			List<IAction> applicableActions = new ArrayList<IAction>();
+			
+			for (IAction action : actions) {
+				if (action.appliesTo(character))
+					applicableActions.add(action);
+			}
+			
+			IAction[] applicableActionsArray = sharedApplicableActions.get(applicableActions);
+			
+			if (applicableActionsArray == null) {
+				applicableActionsArray = applicableActions.isEmpty() ? NO_ACTIONS : applicableActions.toArray(new IAction[applicableActions.size()]);
+				
+				sharedApplicableActions.put(applicableActions, applicableActionsArray);
+			}
+			
+			actionsPerCharacter[character] = applicableActionsArray;
+		}
+	}
+	
+	public IAction[] getApplicableActions(int character) {
+		return character <= ICharacters.EOF ? actionsPerCharacter[character] : NO_ACTIONS;
+	}
+	
+}
@@ -0,0 +1,6 @@
+package org.spoofax.jsglr2.actions;
+
+public enum ActionsForCharacterRepresentation {
+    Separated, // Precompute the applicable actions per range of characters with the same actions, looked up by binary search
+    Dense // Precompute the applicable actions for every character when reading the parse table
+}
@@ -0,0 +1,59 @@
+package org.spoofax.jsglr2.actions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.spoofax.jsglr2.characters.ICharacters;
+
+/*
+ * Stores the pre-filtered applicable actions per range of consecutive characters (including EOF) that have the same
+ * applicable actions, such that a lookup during parsing is a binary search over the range starts. States typically have
+ * few such ranges, which makes this representation smaller than the dense one for parse tables with many states.
+ */
+public final class ActionsForCharacterSeparated implements IActionsForCharacter {
+
+	private static final IAction[] NO_ACTIONS = new IAction[0];
+	
+	private final int[] rangeStarts; // Sorted, the first range starts at character 0
+	private final IAction[][] actionsPerRange;
+	
+	public ActionsForCharacterSeparated(IAction[] actions) {
+		List<Integer> rangeStarts = new ArrayList<Integer>();
+		List<IAction[]> actionsPerRange = new ArrayList<IAction[]>();
+		
+		List<IAction> previousApplicableActions = null;
+		
+		for (int character = 0; character <= ICharacters.EOF; character++) {
+			List<IAction> applicableActions = new ArrayList<IAction>();
+			
+			for (IAction action : actions) {
+				if (action.appliesTo(character))
+					applicableActions.add(action);
+			}
+			
+			if (!applicableActions.equals(previousApplicableActions)) {
+				rangeStarts.add(character);
+				actionsPerRange.add(applicableActions.isEmpty() ? NO_ACTIONS : applicableActions.toArray(new IAction[applicableActions.size()]));
+				
+				previousApplicableActions = applicableActions;
+			}
+		}
+		
+		this.rangeStarts = new int[rangeStarts.size()];
+		this.actionsPerRange = actionsPerRange.toArray(new IAction[actionsPerRange.size()][]);
+		
+		for (int i = 0; i < this.rangeStarts.length; i++)
+			this.rangeStarts[i] = rangeStarts.get(i);
+	}
+	
+	public IAction[] getApplicableActions(int character) {
+		if (character > ICharacters.EOF)
+			return NO_ACTIONS;
+		
+		int index = Arrays.binarySearch(rangeStarts, character);
+		
+		return actionsPerRange[index >= 0 ? index : -index - 2]; // Otherwise the range that starts before the character
+	}
+	
+}
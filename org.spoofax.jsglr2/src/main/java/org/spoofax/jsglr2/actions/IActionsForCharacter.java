@@ -0,0 +1,11 @@
+package org.spoofax.jsglr2.actions;
+
+/**
+ * Retrieves the actions of a state that are applicable for a given character (0 - 255 for ASCII characters, 256 for EOF).
+ * The returned array must not be modified by callers, since implementations are allowed to share it between characters.
+ */
+public interface IActionsForCharacter {
+
+    IAction[] getApplicableActions(int character);
+
+}
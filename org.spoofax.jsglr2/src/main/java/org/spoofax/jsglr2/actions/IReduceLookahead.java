@@ -1,5 +1,6 @@
 package org.spoofax.jsglr2.actions;
 
+import org.spoofax.jsglr2.characters.ICharacters;
 import org.spoofax.jsglr2.parser.Parse;
 
 public interface IReduceLookahead extends IReduce {
@@ -8,6 +9,8 @@ public interface IReduceLookahead extends IReduce {
         return ActionType.REDUCE_LOOKAHEAD;
     }
     
+    ICharacters[] followRestriction();
+    
     boolean allowsLookahead(String lookahead);
     
     boolean allowsLookahead(Parse parse); 
@@ -1,5 +1,6 @@
 package org.spoofax.jsglr2.actions;
 
+import org.spoofax.jsglr2.characters.CharacterClassBitSet;
 import org.spoofax.jsglr2.characters.ICharacters;
 import org.spoofax.jsglr2.parser.Parse;
 import org.spoofax.jsglr2.parsetable.IProduction;
@@ -8,11 +9,20 @@ import org.spoofax.jsglr2.parsetable.ProductionType;
 public class ReduceLookahead extends Reduce implements IReduceLookahead {
 
 	private final ICharacters[] followRestriction;
+	private final CharacterClassBitSet[] followRestrictionBitSets; // Precompiled at table load, for monomorphic checks
 	
 	public ReduceLookahead(ICharacters characters, IProduction production, ProductionType productionType, int arity, ICharacters[] followRestriction) {
 		super(characters, production, productionType, arity);
 
 		this.followRestriction = followRestriction;
+		this.followRestrictionBitSets = new CharacterClassBitSet[followRestriction.length];
+		
+		for (int i = 0; i < followRestriction.length; i++)
+		    followRestrictionBitSets[i] = followRestriction[i] instanceof CharacterClassBitSet ? (CharacterClassBitSet) followRestriction[i] : new CharacterClassBitSet(CharacterClassBitSet.toWords(followRestriction[i]));
+	}
+	
+	public ICharacters[] followRestriction() {
+		return followRestriction;
 	}
     
     public boolean allowsLookahead(String lookahead) {
@@ -27,10 +37,22 @@ public class ReduceLookahead extends Reduce implements IReduceLookahead {
         return false;
     }
     
+    /*
+     * Checks the characters following the current one directly in the input, without taking a substring. A lookahead
+     * that is cut off by the end of the input never matches the restriction.
+     */
     public boolean allowsLookahead(Parse parse) {
-        String lookahead = parse.getLookahead(followRestriction.length);
+        final int begin = parse.currentOffset + 1;
+        
+        if (begin + followRestrictionBitSets.length > parse.inputLength)
+            return true;
         
-        return allowsLookahead(lookahead);
+        for (int i = 0; i < followRestrictionBitSets.length; i++) {
+            if (!followRestrictionBitSets[i].containsCharacter(parse.inputString.charAt(begin + i)))
+                return true;
+        }
+        
+        return false;
     }
 	
 }
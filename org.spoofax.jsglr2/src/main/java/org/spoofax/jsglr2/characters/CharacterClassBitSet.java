@@ -0,0 +1,88 @@
+package org.spoofax.jsglr2.characters;
+
+import java.util.Arrays;
+
+/**
+ * Character class backed by a plain bitmap over the characters 0 - 256 (including EOF), without the Guava range set
+ * that {@link CharacterClassRangeSet} keeps around. Used by the binary parse table format, where character classes are
+ * stored as bitmap words and can be instantiated without any further processing.
+ */
+public final class CharacterClassBitSet implements ICharacters {
+
+  private static final int BITMAP_SEGMENT_SIZE = 6;
+
+  public static final int WORD_COUNT = (EOF >> BITMAP_SEGMENT_SIZE) + 1;
+
+  private final long[] words;
+
+  public CharacterClassBitSet(long[] words) {
+    assert words.length == WORD_COUNT;
+
+    this.words = words;
+  }
+
+  public static long[] toWords(ICharacters characters) {
+    if (characters instanceof CharacterClassBitSet)
+      return ((CharacterClassBitSet) characters).words.clone();
+
+    long[] words = new long[WORD_COUNT];
+
+    for (int character = 0; character <= EOF; character++) {
+      if (characters.containsCharacter(character))
+        words[character >> BITMAP_SEGMENT_SIZE] |= 1L << character;
+    }
+
+    return words;
+  }
+
+  public final boolean containsCharacter(int character) {
+    final int wordIndex = character >> BITMAP_SEGMENT_SIZE;
+
+    return wordIndex < WORD_COUNT && (words[wordIndex] & (1L << character)) != 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(words);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    CharacterClassBitSet that = (CharacterClassBitSet) o;
+
+    return Arrays.equals(words, that.words);
+  }
+
+  public String toString() {
+    StringBuilder sb = new StringBuilder("[");
+
+    for (int character = 0; character <= EOF; character++) {
+      if (containsCharacter(character)) {
+        int end = character;
+
+        while (end + 1 <= EOF && containsCharacter(end + 1))
+          end++;
+
+        if (sb.length() > 1)
+          sb.append(", ");
+
+        sb.append(ICharacters.charToString(character));
+
+        if (end != character)
+          sb.append("..").append(ICharacters.charToString(end));
+
+        character = end;
+      }
+    }
+
+    return sb.append("]").toString();
+  }
+
+}
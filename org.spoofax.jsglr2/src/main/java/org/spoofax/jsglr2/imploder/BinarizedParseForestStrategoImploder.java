@@ -0,0 +1,30 @@
+package org.spoofax.jsglr2.imploder;
+
+import java.util.List;
+
+import org.spoofax.jsglr2.parseforest.binarized.BinarizedDerivation;
+import org.spoofax.jsglr2.parseforest.binarized.BinarizedParseForest;
+import org.spoofax.jsglr2.parseforest.binarized.BinarizedParseNode;
+import org.spoofax.jsglr2.parsetable.IProduction;
+import org.spoofax.jsglr2.stack.AbstractStackNode;
+import org.spoofax.jsglr2.tokenizer.BinarizedParseForestTokenizer;
+
+public class BinarizedParseForestStrategoImploder<StackNode extends AbstractStackNode<BinarizedParseForest>> extends StrategoTermImploder<StackNode, BinarizedParseForest, BinarizedParseNode, BinarizedDerivation> {
+	
+    public BinarizedParseForestStrategoImploder() {
+        super(new BinarizedParseForestTokenizer());
+    }
+
+    protected IProduction parseNodeProduction(BinarizedParseNode parseNode) {
+        return parseNode.production;
+    }
+
+    protected BinarizedDerivation parseNodeOnlyDerivation(BinarizedParseNode parseNode) {
+        return parseNode.getOnlyDerivation();
+    }
+
+    protected List<BinarizedDerivation> parseNodePreferredAvoidedDerivations(BinarizedParseNode parseNode) {
+        return parseNode.getPreferredAvoidedDerivations();
+    }
+
+}
@@ -0,0 +1,192 @@
+package org.spoofax.jsglr2.imploder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+import org.spoofax.interpreter.terms.ISimpleTerm;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr.client.imploder.IToken;
+import org.spoofax.jsglr.client.imploder.TermOffsetIndex;
+import org.spoofax.jsglr2.parseforest.hybrid.Derivation;
+import org.spoofax.jsglr2.parseforest.hybrid.HybridParseForest;
+import org.spoofax.jsglr2.parseforest.hybrid.ParseNode;
+import org.spoofax.jsglr2.parser.Parse;
+import org.spoofax.jsglr2.parsetable.IProduction;
+import org.spoofax.jsglr2.stack.AbstractStackNode;
+import org.spoofax.jsglr2.tokenizer.AbstractTokens;
+
+/*
+ * Implodes constructor applications lazily (see LazyStrategoAppl): their children are imploded when they are first
+ * accessed, such that consumers that only visit the top of the tree do not pay for imploding the rest. Injections,
+ * lists, optionals and tuples are still created when their parent is, but their children are lazy again. The whole
+ * parse forest is tokenized upfront, which gives the same tokens and origins as the eager imploder. A constructor
+ * application binds only the literal and layout tokens of its own derivation, like the eager imploder. The tree of any
+ * other token is bound when the lazy trees that cover it are created, which token objects do on access (see
+ * AbstractTokens.materialize), such that binding costs the same as for eagerly imploded trees. Offset indexes (see
+ * StrategoTermImploder.termOffsetIndex) create the children of the lazy trees that queries end at, such that they find
+ * the same terms as for eagerly imploded trees. Lazy trees keep the parse forest alive until they are created, and
+ * should not be created for a parse forest that is imploded again, since the tokenizer stores the tokens in the parse
+ * forest.
+ */
+public class LazyHybridParseForestStrategoImploder<StackNode extends AbstractStackNode<HybridParseForest>> extends HybridParseForestStrategoImploder<StackNode> {
+
+    @Override
+    public ImplodeResult<StackNode, HybridParseForest, IStrategoTerm> implode(Parse<StackNode, HybridParseForest> parse, HybridParseForest parseForest, AbstractTokens tokens) {
+        tokens.setMaterializer(new LazyTrees());
+        
+        return super.implode(parse, parseForest, tokens);
+    }
+    
+    @Override
+    protected IStrategoTerm implodeDerivation(Parse<?, HybridParseForest> parse, Derivation derivation, IToken leftToken, IToken rightToken) {
+        IProduction production = derivation.production;
+        String constructor = production.constructor();
+        
+        if (!production.isContextFree() || production.isList() || production.isOptional() || constructor == null)
+            return super.implodeDerivation(parse, derivation, leftToken, rightToken);
+        
+        // The children that implode to trees, without imploding them, and the offsets they cover
+        int arity = 0;
+        int startOffset = -1, endOffset = -1;
+        
+        for (HybridParseForest parseForest : derivation.parseForests) {
+            ParseNode parseNode = (ParseNode) parseForest;
+            
+            if (parseNode != null && !parseNode.production.isLayout() && !parseNode.production.isLiteral()) {
+                arity++;
+                
+                if (startOffset == -1)
+                    startOffset = parseNode.startOffset;
+                
+                endOffset = parseNode.endOffset;
+            }
+        }
+        
+        AbstractTokens tokens = tokens(leftToken);
+        LazyTrees lazyTrees = (LazyTrees) tokens.getMaterializer();
+        int childCount = arity, childrenStartOffset = startOffset;
+        
+        IStrategoTerm resultAst = termTreeFactory.createLazyNonTerminal(production.sort(), constructor, arity, tree -> {
+            List<IStrategoTerm> childASTs = new ArrayList<IStrategoTerm>(childCount);
+            
+            lazyTrees.remove(childrenStartOffset, tree);
+            
+            bindTokens(tokens, derivation, tree); // Another tree of an ambiguity might have been created in between
+            
+            implodeChildParseNodes(parse, childASTs, derivation, production, leftToken, rightToken, new ArrayList<HybridParseForest>());
+            
+            return childASTs;
+        }, leftToken, rightToken);
+        
+        bindTokens(tokens, derivation, resultAst);
+        
+        if (startOffset < endOffset)
+            lazyTrees.add(startOffset, endOffset, resultAst);
+        
+        return resultAst;
+    }
+    
+    // Binds the literal and layout tokens of the derivation itself, the other tokens are bound by its children
+    private void bindTokens(AbstractTokens tokens, Derivation derivation, IStrategoTerm tree) {
+        for (HybridParseForest parseForest : derivation.parseForests) {
+            ParseNode parseNode = (ParseNode) parseForest;
+            
+            if (parseNode != null && parseNode.token != -1 && (parseNode.production.isLayout() || parseNode.production.isLiteral()))
+                tokenTreeBinding(tokens, parseNode.token, tree);
+        }
+    }
+    
+    /*
+     * The lazy trees that are not created yet by the start offset of their children, of which the offsets of children
+     * that implode to trees are covered by creating them. Since children are only added once their parent is created,
+     * the offsets of the trees are disjoint, except for the alternatives of an ambiguity.
+     */
+    private static class LazyTrees implements IntPredicate {
+        
+        private static class LazyTree {
+            final int endOffset;
+            final IStrategoTerm tree;
+            
+            LazyTree(int endOffset, IStrategoTerm tree) {
+                this.endOffset = endOffset;
+                this.tree = tree;
+            }
+        }
+        
+        private final TreeMap<Integer, List<LazyTree>> byStartOffset = new TreeMap<Integer, List<LazyTree>>();
+        
+        void add(int startOffset, int endOffset, IStrategoTerm tree) {
+            List<LazyTree> lazyTrees = byStartOffset.get(startOffset);
+            
+            if (lazyTrees == null)
+                byStartOffset.put(startOffset, lazyTrees = new ArrayList<LazyTree>(1));
+            
+            lazyTrees.add(new LazyTree(endOffset, tree));
+        }
+        
+        void remove(int startOffset, IStrategoTerm tree) {
+            List<LazyTree> lazyTrees = byStartOffset.get(startOffset);
+            
+            if (lazyTrees == null)
+                return; // The tree covers no offsets
+            
+            lazyTrees.removeIf(lazyTree -> lazyTree.tree == tree);
+            
+            if (lazyTrees.isEmpty())
+                byStartOffset.remove(startOffset);
+        }
+        
+        /*
+         * Creates the innermost tree that covers the offset. Trees that start at the greatest start offset up to the
+         * offset cover it, if any does. The trees of parse nodes that alternatives of an ambiguity share can overlap
+         * with those of the other alternatives, of which earlier trees are tried as well.
+         */
+        public boolean test(int offset) {
+            for (List<LazyTree> lazyTrees : byStartOffset.headMap(offset, true).descendingMap().values()) {
+                for (LazyTree lazyTree : lazyTrees) {
+                    if (offset < lazyTree.endOffset) {
+                        lazyTree.tree.getAllSubterms();
+                        
+                        return true;
+                    }
+                }
+            }
+            
+            return false;
+        }
+        
+    }
+    
+    @Override
+    protected TermOffsetIndex createTermOffsetIndex() {
+        return new MaterializingTermOffsetIndex();
+    }
+    
+    // The children of a lazy tree are added to the index while they are imploded
+    private static class MaterializingTermOffsetIndex extends TermOffsetIndex {
+        
+        @Override
+        public ISimpleTerm getInnermostTerm(int startOffset, int endOffset) {
+            ISimpleTerm term = super.getInnermostTerm(startOffset, endOffset);
+            
+            while (term instanceof LazyStrategoAppl && !((LazyStrategoAppl) term).isMaterialized()) {
+                ((LazyStrategoAppl) term).getAllSubterms();
+                
+                term = super.getInnermostTerm(startOffset, endOffset);
+            }
+            
+            return term;
+        }
+        
+        @Override
+        public ISimpleTerm getOutermostTerm(int startOffset, int endOffset) {
+            getInnermostTerm(startOffset, endOffset);
+            
+            return super.getOutermostTerm(startOffset, endOffset);
+        }
+        
+    }
+
+}
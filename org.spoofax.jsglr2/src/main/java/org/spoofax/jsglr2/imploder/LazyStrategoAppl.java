@@ -0,0 +1,109 @@
+package org.spoofax.jsglr2.imploder;
+
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.util.List;
+import java.util.function.Function;
+
+import org.spoofax.interpreter.terms.IStrategoConstructor;
+import org.spoofax.interpreter.terms.IStrategoList;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.interpreter.terms.ITermPrinter;
+import org.spoofax.terms.StrategoAppl;
+
+/*
+ * A constructor application of which the children are only created when they are first accessed, by a function of the
+ * term itself. The children array is shared with the super class and filled in place, therefore the methods that
+ * access it (directly, or for matching, hashing and printing) first create the children. Like mutable terms in
+ * general, lazy terms should not be shared between threads. Lazy terms are serialized with their children, which are
+ * created first.
+ */
+public class LazyStrategoAppl extends StrategoAppl {
+
+	private static final long serialVersionUID = 1L;
+
+	private final IStrategoTerm[] kids;
+	private transient Function<IStrategoTerm, List<IStrategoTerm>> children; // Null once the children are created
+
+	public LazyStrategoAppl(IStrategoConstructor constructor, Function<IStrategoTerm, List<IStrategoTerm>> children, IStrategoList annotations, int storageType) {
+		this(constructor, new IStrategoTerm[constructor.getArity()], children, annotations, storageType);
+	}
+
+	private LazyStrategoAppl(IStrategoConstructor constructor, IStrategoTerm[] kids, Function<IStrategoTerm, List<IStrategoTerm>> children, IStrategoList annotations, int storageType) {
+		super(constructor, kids, annotations, storageType);
+
+		this.kids = kids;
+		this.children = children;
+	}
+
+	public boolean isMaterialized() {
+		return children == null;
+	}
+
+	private void materialize() {
+		if (children != null) {
+			List<IStrategoTerm> childTerms = children.apply(this);
+
+			if (childTerms.size() != kids.length)
+				throw new IllegalStateException("expected " + kids.length + " children for " + getConstructor() + ", but got " + childTerms.size());
+
+			childTerms.toArray(kids);
+
+			children = null; // Releases the parse forest
+		}
+	}
+
+	// The children array is written with the super class, before custom serialization of this class would run
+	private Object writeReplace() throws ObjectStreamException {
+		materialize();
+
+		return this;
+	}
+
+	public IStrategoTerm getSubterm(int index) {
+		materialize();
+
+		return kids[index];
+	}
+
+	public IStrategoTerm[] getAllSubterms() {
+		materialize();
+
+		return kids;
+	}
+
+	public IStrategoTerm[] getArguments() {
+		materialize();
+
+		return kids;
+	}
+
+	@Override
+	protected boolean doSlowMatch(IStrategoTerm second, int commonStorageType) {
+		materialize();
+
+		return super.doSlowMatch(second, commonStorageType);
+	}
+
+	@Override
+	protected int hashFunction() {
+		materialize();
+
+		return super.hashFunction();
+	}
+
+	@Override
+	public void prettyPrint(ITermPrinter pp) {
+		materialize();
+
+		super.prettyPrint(pp);
+	}
+
+	@Override
+	public void writeAsString(Appendable output, int maxDepth) throws IOException {
+		materialize();
+
+		super.writeAsString(output, maxDepth);
+	}
+
+}
@@ -0,0 +1,320 @@
+package org.spoofax.jsglr2.imploder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.spoofax.jsglr2.parseforest.AbstractParseForest;
+import org.spoofax.jsglr2.parseforest.IDerivation;
+import org.spoofax.jsglr2.parser.Parse;
+import org.spoofax.jsglr2.parsetable.IProduction;
+import org.spoofax.jsglr2.tokenizer.AbstractTokens;
+
+/*
+ * Tokenizes and implodes a parse forest in a single traversal (see TokenizedTreeImploder.singlePass). Tokens are
+ * created in order while the forest is traversed, but a tree needs the token after it, which is only known once the
+ * next token is created. Therefore the traversal records the trees to create as instructions in post-order, of which
+ * the right tokens are filled in when the next token is created. Afterwards, the instructions are executed on a stack
+ * of trees. Tokens are not stored in the parse forest, and the scratch structures are allocated once per implosion.
+ * Instructions refer to tokens by id, such that only the tokens that are passed to the tree factory are accessed as
+ * objects.
+ */
+final class SinglePassImplosion<ParseForest extends AbstractParseForest, ParseNode extends ParseForest, Derivation extends IDerivation<ParseForest>, Tree> {
+
+	private static final int LEXICAL = 0, CONTEXT_FREE = 1, AMBIGUITY = 2;
+
+	private final TokenizedTreeImploder<?, ParseForest, ParseNode, Derivation, Tree> imploder;
+	private final Parse<?, ParseForest> parse;
+	private final AbstractTokens tokens;
+
+	private int lastToken; // The last token created, which is the left token of the next tree
+
+	// Instructions, stored in parallel arrays
+	private int instructionCount;
+	private int[] kinds, counts, boundTokenEnds;
+	private IProduction[] productions;
+	private String[] lexicals;
+	private int[] leftTokens, rightTokens;
+
+	// Tokens that are bound to the tree of an instruction, the range of an instruction ends at its entry in boundTokenEnds
+	private int boundTokenCount;
+	private int[] boundTokens;
+
+	// Instructions of which the right token is the next token that is created
+	private int pendingCount;
+	private int[] pending;
+
+	// Per depth, the tokens of the children of the derivation that is imploded at that depth that do not have a tree
+	private int[][] boundTokensPerDepth;
+	private int[] boundTokenCountPerDepth;
+
+	SinglePassImplosion(TokenizedTreeImploder<?, ParseForest, ParseNode, Derivation, Tree> imploder, Parse<?, ParseForest> parse) {
+		this.imploder = imploder;
+		this.parse = parse;
+		this.tokens = imploder.createTokens(parse);
+
+		this.instructionCount = 0;
+		this.kinds = new int[64];
+		this.counts = new int[64];
+		this.boundTokenEnds = new int[64];
+		this.productions = new IProduction[64];
+		this.lexicals = new String[64];
+		this.leftTokens = new int[64];
+		this.rightTokens = new int[64];
+
+		this.boundTokenCount = 0;
+		this.boundTokens = new int[64];
+
+		this.pendingCount = 0;
+		this.pending = new int[16];
+
+		this.boundTokensPerDepth = new int[16][];
+		this.boundTokenCountPerDepth = new int[16];
+	}
+
+	Tree implode(ParseForest parseForest) {
+		@SuppressWarnings("unchecked")
+		ParseNode topParseNode = (ParseNode) parseForest;
+
+		lastToken = tokens.makeStartToken(parseForest);
+
+		implodeParseNode(topParseNode, 1);
+
+		resolvePending(tokens.makeEndToken(parseForest));
+
+		Tree tree = execute();
+
+		imploder.tokenTreeBinding(tokens.getTokenAt(0), tree);
+
+		return tree;
+	}
+
+	// Returns whether a tree is created for the parse node, otherwise its token (if any) is bound to its parent
+	private boolean implodeParseNode(ParseNode parseNode, int depth) {
+		IProduction production = imploder.parseNodeProduction(parseNode);
+
+		if (production.isContextFree()) {
+			List<Derivation> preferredAvoidedDerivations = imploder.parseNodePreferredAvoidedDerivations(parseNode);
+
+			if (preferredAvoidedDerivations.size() > 1) {
+				parse.ambiguousTreeNodes++;
+
+				int leftToken = lastToken, firstAlternativeLastToken = -1;
+				int[] alternativesPending = null;
+				int alternativesPendingCount = 0;
+
+				for (Derivation derivation : preferredAvoidedDerivations) {
+					lastToken = leftToken;
+
+					implodeDerivation(derivation, depth);
+
+					if (firstAlternativeLastToken == -1)
+						firstAlternativeLastToken = lastToken;
+
+					// The alternatives all end before the token after the ambiguity, so their trees wait for that token
+					if (pendingCount > 0) {
+						if (alternativesPending == null)
+							alternativesPending = new int[pendingCount];
+						else if (alternativesPendingCount + pendingCount > alternativesPending.length)
+							alternativesPending = Arrays.copyOf(alternativesPending, 2 * (alternativesPendingCount + pendingCount));
+
+						System.arraycopy(pending, 0, alternativesPending, alternativesPendingCount, pendingCount);
+
+						alternativesPendingCount += pendingCount;
+						pendingCount = 0;
+					}
+				}
+
+				for (int i = 0; i < alternativesPendingCount; i++)
+					addPending(alternativesPending[i]);
+
+				lastToken = firstAlternativeLastToken; // Like the tokenizer, which covers an ambiguity by its first derivation
+
+				addPending(addInstruction(AMBIGUITY, production, preferredAvoidedDerivations.size(), null, leftToken, -1));
+			} else
+				implodeDerivation(preferredAvoidedDerivations.get(0), depth);
+
+			return true;
+		} else {
+			int leftToken = lastToken;
+			int token = makeToken(parseNode, production);
+
+			if (production.isLayout() || production.isLiteral()) {
+				if (token != -1)
+					addBoundToken(depth - 1, token);
+
+				return false;
+			} else if (production.isLexical() || production.isLexicalRhs()) {
+				addInstruction(LEXICAL, production, 0, parseNode.inputPart(), leftToken, token);
+
+				return true;
+			} else {
+				throw new RuntimeException("invalid term type");
+			}
+		}
+	}
+
+	private void implodeDerivation(Derivation derivation, int depth) {
+		IProduction production = derivation.production();
+
+		if (!production.isContextFree())
+			throw new RuntimeException("non context free imploding not supported");
+
+		int leftToken = lastToken;
+
+		if (depth >= boundTokensPerDepth.length) {
+			boundTokensPerDepth = Arrays.copyOf(boundTokensPerDepth, 2 * depth);
+			boundTokenCountPerDepth = Arrays.copyOf(boundTokenCountPerDepth, 2 * depth);
+		}
+
+		boundTokenCountPerDepth[depth] = 0;
+
+		int childCount = implodeChildParseNodes(derivation, production, depth);
+
+		addPending(addInstruction(CONTEXT_FREE, production, childCount, null, leftToken, -1));
+
+		for (int i = 0; i < boundTokenCountPerDepth[depth]; i++)
+			addBoundToken(boundTokensPerDepth[depth][i]);
+
+		boundTokenEnds[instructionCount - 1] = boundTokenCount;
+	}
+
+	// Returns the number of trees created for the children, where nested lists are flattened
+	private int implodeChildParseNodes(Derivation derivation, IProduction production, int depth) {
+		int childCount = 0;
+
+		for (ParseForest childParseForest : derivation.parseForests()) {
+			@SuppressWarnings("unchecked")
+			ParseNode parseNode = (ParseNode) childParseForest;
+
+			if (parseNode != null) { // Can be null in the case of a layout subtree parse node that is not created
+				IProduction parseNodeProduction = imploder.parseNodeProduction(parseNode);
+
+				if (production.isList() && parseNodeProduction.isList())
+					childCount += implodeChildParseNodes(imploder.parseNodeOnlyDerivation(parseNode), parseNodeProduction, depth);
+				else if (implodeParseNode(parseNode, depth + 1))
+					childCount++;
+			}
+		}
+
+		return childCount;
+	}
+
+	private int makeToken(ParseNode parseNode, IProduction production) {
+		if (parseNode.startOffset == parseNode.endOffset)
+			return -1;
+
+		int token = tokens.makeToken(parseNode, production);
+
+		resolvePending(token);
+
+		lastToken = token;
+
+		return token;
+	}
+
+	// The derivation at the given depth has been started by implodeDerivation, which reset its count
+	private void addBoundToken(int depth, int token) {
+		int[] boundTokens = boundTokensPerDepth[depth];
+		int count = boundTokenCountPerDepth[depth];
+
+		if (boundTokens == null)
+			boundTokensPerDepth[depth] = boundTokens = new int[8];
+		else if (count == boundTokens.length)
+			boundTokensPerDepth[depth] = boundTokens = Arrays.copyOf(boundTokens, 2 * count);
+
+		boundTokens[count] = token;
+		boundTokenCountPerDepth[depth] = count + 1;
+	}
+
+	private int addInstruction(int kind, IProduction production, int count, String lexical, int leftToken, int rightToken) {
+		if (instructionCount == kinds.length) {
+			int length = 2 * kinds.length;
+
+			kinds = Arrays.copyOf(kinds, length);
+			counts = Arrays.copyOf(counts, length);
+			boundTokenEnds = Arrays.copyOf(boundTokenEnds, length);
+			productions = Arrays.copyOf(productions, length);
+			lexicals = Arrays.copyOf(lexicals, length);
+			leftTokens = Arrays.copyOf(leftTokens, length);
+			rightTokens = Arrays.copyOf(rightTokens, length);
+		}
+
+		kinds[instructionCount] = kind;
+		counts[instructionCount] = count;
+		boundTokenEnds[instructionCount] = boundTokenCount;
+		productions[instructionCount] = production;
+		lexicals[instructionCount] = lexical;
+		leftTokens[instructionCount] = leftToken;
+		rightTokens[instructionCount] = rightToken;
+
+		return instructionCount++;
+	}
+
+	private void addBoundToken(int token) {
+		if (boundTokenCount == boundTokens.length)
+			boundTokens = Arrays.copyOf(boundTokens, 2 * boundTokens.length);
+
+		boundTokens[boundTokenCount++] = token;
+	}
+
+	private void addPending(int instruction) {
+		if (pendingCount == pending.length)
+			pending = Arrays.copyOf(pending, 2 * pending.length);
+
+		pending[pendingCount++] = instruction;
+	}
+
+	private void resolvePending(int token) {
+		for (int i = 0; i < pendingCount; i++)
+			rightTokens[pending[i]] = token;
+
+		pendingCount = 0;
+	}
+
+	/*
+	 * The child lists that are passed to the tree factory are views on the stack, which are cleared after the tree is
+	 * created. This relies on the tree factory not keeping references to the lists, as the term tree factory does.
+	 */
+	private Tree execute() {
+		List<Tree> trees = new ArrayList<Tree>();
+		int boundTokenStart = 0;
+
+		for (int i = 0; i < instructionCount; i++) {
+			Tree tree;
+
+			switch (kinds[i]) {
+				case LEXICAL:
+					tree = imploder.createLexicalTerm(productions[i], lexicals[i], tokens.getToken(leftTokens[i]), tokens.getToken(rightTokens[i]));
+					break;
+				case CONTEXT_FREE: {
+					List<Tree> childASTs = trees.subList(trees.size() - counts[i], trees.size());
+
+					tree = imploder.createContextFreeTerm(productions[i], childASTs, tokens.getToken(leftTokens[i]), tokens.getToken(rightTokens[i]));
+
+					childASTs.clear();
+
+					for (int j = boundTokenStart; j < boundTokenEnds[i]; j++)
+						imploder.tokenTreeBinding(tokens, boundTokens[j], tree);
+
+					boundTokenStart = boundTokenEnds[i];
+					break;
+				}
+				case AMBIGUITY:
+				default: {
+					List<Tree> alternatives = trees.subList(trees.size() - counts[i], trees.size());
+
+					tree = imploder.treeFactory.createAmb(productions[i].sort(), alternatives, tokens.getToken(leftTokens[i]), tokens.getToken(rightTokens[i]));
+
+					alternatives.clear();
+					break;
+				}
+			}
+
+			trees.add(tree);
+		}
+
+		return trees.get(0);
+	}
+
+}
@@ -4,20 +4,84 @@ import static org.spoofax.interpreter.terms.IStrategoTerm.MUTABLE;
 
 import org.spoofax.interpreter.terms.IStrategoTerm;
 import org.spoofax.jsglr.client.imploder.IToken;
+import org.spoofax.jsglr.client.imploder.TermOffsetIndex;
 import org.spoofax.jsglr2.parseforest.AbstractParseForest;
 import org.spoofax.jsglr2.parseforest.IDerivation;
+import org.spoofax.jsglr2.parser.Parse;
 import org.spoofax.jsglr2.stack.AbstractStackNode;
+import org.spoofax.jsglr2.tokenizer.AbstractTokens;
 import org.spoofax.jsglr2.tokenizer.Tokenizer;
 import org.spoofax.terms.TermFactory;
 
 public abstract class StrategoTermImploder<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest, ParseNode extends ParseForest, Derivation extends IDerivation<ParseForest>> extends TokenizedTreeImploder<StackNode, ParseForest, ParseNode, Derivation, IStrategoTerm> {
 	
+    protected final TermTreeFactory termTreeFactory;
+    private boolean termOffsetIndex;
+	
     public StrategoTermImploder(Tokenizer<ParseForest, ParseNode, Derivation> tokenizer) {
-        super(new TermTreeFactory(new TermFactory().getFactoryWithStorageType(MUTABLE)), tokenizer);
+        this(new TermTreeFactory(new TermFactory().getFactoryWithStorageType(MUTABLE)), tokenizer);
+    }
+    
+    private StrategoTermImploder(TermTreeFactory termTreeFactory, Tokenizer<ParseForest, ParseNode, Derivation> tokenizer) {
+        super(termTreeFactory, tokenizer);
+        
+        this.termTreeFactory = termTreeFactory;
+        this.termOffsetIndex = false;
+    }
+    
+    /*
+     * Record an index from offsets to the imploded terms (see TermOffsetIndex), which is provided by the tokens of the
+     * result. The terms are indexed by the offsets of their parse nodes, since their left and right tokens are the
+     * tokens around them. The index needs the parse nodes that single pass implosion skips, so it then implodes in two
+     * passes.
+     */
+    public void termOffsetIndex() {
+        this.termOffsetIndex = true;
+    }
+    
+    @Override
+    public ImplodeResult<StackNode, ParseForest, IStrategoTerm> implode(Parse<StackNode, ParseForest> parse, ParseForest parseForest) {
+        if (termOffsetIndex)
+            return implode(parse, parseForest, tokenize(parse, parseForest));
+        else
+            return super.implode(parse, parseForest);
+    }
+    
+    @Override
+    public ImplodeResult<StackNode, ParseForest, IStrategoTerm> implode(Parse<StackNode, ParseForest> parse, ParseForest parseForest, AbstractTokens tokens) {
+        if (termOffsetIndex)
+            tokens.setTermOffsetIndex(createTermOffsetIndex());
+        
+        return super.implode(parse, parseForest, tokens);
+    }
+    
+    protected TermOffsetIndex createTermOffsetIndex() {
+        return new TermOffsetIndex();
+    }
+    
+    // The index is reached through the tokens, such that lazily imploded subtrees are added to it later as well
+    @Override
+    protected IStrategoTerm implodeParseNode(Parse<?, ParseForest> parse, ParseNode parseNode, IToken leftToken, IToken rightToken) {
+        TermOffsetIndex index = termOffsetIndex ? ((AbstractTokens) leftToken.getTokenizer()).getTermOffsetIndex() : null;
+        
+        if (index == null)
+            return super.implodeParseNode(parse, parseNode, leftToken, rightToken);
+        
+        int entry = index.add(parseNode.startOffset, parseNode.endOffset - 1); // Added before the subterms are
+        
+        IStrategoTerm term = super.implodeParseNode(parse, parseNode, leftToken, rightToken);
+        
+        index.setTerm(entry, term); // Null for layout and literals, which are not indexed
+        
+        return term;
     }
 
     protected void tokenTreeBinding(IToken token, IStrategoTerm term) {
         token.setAstNode(term);
     }
+    
+    protected void tokenTreeBinding(AbstractTokens tokens, int token, IStrategoTerm term) {
+        tokens.setAstNode(token, term);
+    }
 
 }
@@ -4,6 +4,7 @@ import static org.spoofax.jsglr.client.imploder.ImploderAttachment.putImploderAt
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
 
 import org.spoofax.interpreter.terms.IStrategoConstructor;
 import org.spoofax.interpreter.terms.IStrategoTerm;
@@ -35,6 +36,18 @@ public class TermTreeFactory implements ITreeFactory<IStrategoTerm> {
         return nonTerminalTerm;
 	}
     
+    /*
+     * A non-terminal of which the children are only created when they are first accessed (see LazyStrategoAppl).
+     */
+    public IStrategoTerm createLazyNonTerminal(String sort, String constructor, int arity, Function<IStrategoTerm, List<IStrategoTerm>> children, IToken leftToken, IToken rightToken) {
+        IStrategoConstructor constructorTerm = termFactory.makeConstructor(constructor != null ? constructor : sort, arity);
+        IStrategoTerm nonTerminalTerm = new LazyStrategoAppl(constructorTerm, children, termFactory.makeList(), termFactory.getDefaultStorageType());
+        
+        configure(nonTerminalTerm, sort, leftToken, rightToken);
+        
+        return nonTerminalTerm;
+    }
+    
     public IStrategoTerm createList(String sort, List<IStrategoTerm> children, IToken leftToken, IToken rightToken) {
         IStrategoTerm listTerm = termFactory.makeList(toArray(children));
         
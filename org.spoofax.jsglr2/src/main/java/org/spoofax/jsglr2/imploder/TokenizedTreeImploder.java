@@ -8,6 +8,8 @@ import org.spoofax.jsglr2.parseforest.IDerivation;
 import org.spoofax.jsglr2.parser.Parse;
 import org.spoofax.jsglr2.parsetable.IProduction;
 import org.spoofax.jsglr2.stack.AbstractStackNode;
+import org.spoofax.jsglr2.tokenizer.AbstractTokens;
+import org.spoofax.jsglr2.tokenizer.ColumnarTokens;
 import org.spoofax.jsglr2.tokenizer.Tokenizer;
 import org.spoofax.jsglr2.tokenizer.Tokens;
 
@@ -15,17 +17,58 @@ public abstract class TokenizedTreeImploder<StackNode extends AbstractStackNode<
 	
     protected final ITreeFactory<Tree> treeFactory;
     protected final Tokenizer<ParseForest, ParseNode, Derivation> tokenizer;
+    private boolean singlePass;
+    private boolean columnarTokens;
     
     public TokenizedTreeImploder(ITreeFactory<Tree> treeFactory, Tokenizer<ParseForest, ParseNode, Derivation> tokenizer) {
         this.treeFactory = treeFactory;
         this.tokenizer = tokenizer;
+        this.singlePass = false;
+        this.columnarTokens = false;
+    }
+    
+    /*
+     * Tokenize while imploding instead of tokenizing the whole parse forest first (see SinglePassImplosion). Tokens are
+     * then only created for the derivations that are imploded and are not stored in the parse forest.
+     */
+    public void singlePass() {
+        this.singlePass = true;
+    }
+    
+    /*
+     * Store the tokens in parallel arrays instead of as token objects (see ColumnarTokens), which reduces the memory that
+     * is retained by the tokens of imploded trees.
+     */
+    public void columnarTokens() {
+        this.columnarTokens = true;
     }
 	
 	public ImplodeResult<StackNode, ParseForest, Tree> implode(Parse<StackNode, ParseForest> parse, ParseForest parseForest) {
-        Tokens tokens = new Tokens(parse.inputString, parse.filename);
+	    if (singlePass)
+	        return new ImplodeResult<StackNode, ParseForest, Tree>(parse, new SinglePassImplosion<ParseForest, ParseNode, Derivation, Tree>(this, parse).implode(parseForest));
+	    
+        AbstractTokens tokens = tokenize(parse, parseForest);
+        
+        return implode(parse, parseForest, tokens);
+	}
+	
+	public AbstractTokens tokenize(Parse<StackNode, ParseForest> parse, ParseForest parseForest) {
+        AbstractTokens tokens = createTokens(parse);
         
         tokenizer.tokenize(tokens, parseForest);
         
+        return tokens;
+	}
+	
+	protected AbstractTokens createTokens(Parse<?, ParseForest> parse) {
+	    if (columnarTokens)
+	        return new ColumnarTokens(parse.inputString, parse.filename);
+	    else
+	        return new Tokens(parse.inputString, parse.filename);
+	}
+	
+	// Implodes a parse forest that has already been tokenized into the given tokens
+	public ImplodeResult<StackNode, ParseForest, Tree> implode(Parse<StackNode, ParseForest> parse, ParseForest parseForest, AbstractTokens tokens) {
         @SuppressWarnings("unchecked")
         ParseNode topParseNode = (ParseNode) parseForest;
         
@@ -58,7 +101,7 @@ public abstract class TokenizedTreeImploder<StackNode extends AbstractStackNode<
         } else if (production.isLayout() || production.isLiteral()) {
             return null;
         } else if (production.isLexical() || production.isLexicalRhs()) {
-            return createLexicalTerm(production, parseNode.inputPart(), leftToken, parseNode.token);
+            return createLexicalTerm(production, parseNode.inputPart(), leftToken, tokens(leftToken).getToken(parseNode.token));
         } else {
             throw new RuntimeException("invalid term type");
         }
@@ -78,7 +121,7 @@ public abstract class TokenizedTreeImploder<StackNode extends AbstractStackNode<
         Tree resultAst = createContextFreeTerm(derivation.production(), childASTs, leftToken, rightToken);
         
         for (ParseForest nonAstLexical : nonAstLexicals)
-            tokenTreeBinding(nonAstLexical.token, resultAst);
+            tokenTreeBinding(tokens(leftToken), nonAstLexical.token, resultAst);
         
         return resultAst;
     }
@@ -107,12 +150,12 @@ public abstract class TokenizedTreeImploder<StackNode extends AbstractStackNode<
 	                if (childAST != null)
 	                    childASTs.add(childAST);
 	                
-	                if (childAST == null && parseNode.token != null)
+	                if (childAST == null && parseNode.token != -1)
 	                    nonAstLexicals.add(parseNode);
 	            }
 	            
-	            if (parseNode.lastToken != null)
-	                childLeftToken = parseNode.lastToken;
+	            if (parseNode.lastToken != -1)
+	                childLeftToken = tokens(leftToken).getToken(parseNode.lastToken);
             }
         }
     }
@@ -123,8 +166,8 @@ public abstract class TokenizedTreeImploder<StackNode extends AbstractStackNode<
         for (int i = parseNodes.length - 1; i >= 0; i--) {
             if (i == parseNodes.length - 1)
                 rightTokenPerParseNode[i] = rightToken;
-            else if (parseNodes[i + 1] != null && parseNodes[i + 1].firstToken != null)
-                rightTokenPerParseNode[i] = parseNodes[i + 1].firstToken;
+            else if (parseNodes[i + 1] != null && parseNodes[i + 1].firstToken != -1)
+                rightTokenPerParseNode[i] = tokens(rightToken).getToken(parseNodes[i + 1].firstToken);
             else
                 rightTokenPerParseNode[i] = rightTokenPerParseNode[i + 1];
         }
@@ -158,6 +201,14 @@ public abstract class TokenizedTreeImploder<StackNode extends AbstractStackNode<
     
     protected abstract void tokenTreeBinding(IToken token, Tree tree);
     
+    // Binds a token that the parse forest refers to by id, without accessing it as an object
+    protected abstract void tokenTreeBinding(AbstractTokens tokens, int token, Tree tree);
+    
+    // The tokens that contain a token, through which the tokens that the parse forest refers to are accessed
+    protected static AbstractTokens tokens(IToken token) {
+        return (AbstractTokens) token.getTokenizer();
+    }
+    
     protected abstract IProduction parseNodeProduction(ParseNode parseNode);
     
     protected abstract Derivation parseNodeOnlyDerivation(ParseNode parseNode);
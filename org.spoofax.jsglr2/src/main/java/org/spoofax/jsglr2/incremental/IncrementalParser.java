@@ -0,0 +1,139 @@
+package org.spoofax.jsglr2.incremental;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.spoofax.jsglr2.actions.IAction;
+import org.spoofax.jsglr2.actions.IReduceLookahead;
+import org.spoofax.jsglr2.parseforest.AbstractParseForest;
+import org.spoofax.jsglr2.parser.Parse;
+import org.spoofax.jsglr2.parser.ParseCheckpoint;
+import org.spoofax.jsglr2.parser.ParseCheckpoints;
+import org.spoofax.jsglr2.parser.ParseResult;
+import org.spoofax.jsglr2.parser.Parser;
+import org.spoofax.jsglr2.parsetable.IParseTable;
+import org.spoofax.jsglr2.parsetable.IState;
+import org.spoofax.jsglr2.stack.AbstractStackNode;
+
+/*
+ * Reparses edited inputs by resuming from the last checkpoint of the previous parse before the first edit (see
+ * ParseCheckpoint). Everything the previous parse constructed before that checkpoint, i.e. the stack up to it and the
+ * parse forests for the unchanged prefix, is copied into the new parse instead of parsed again, such that the new
+ * result does not share anything with the previous one. If there is no usable checkpoint, the edited input is parsed
+ * from the start. After the last edit, the parse of the previous input is reused as soon as the parse synchronizes with
+ * it, i.e. reaches a single active stack with the same state as the previous parse at the corresponding offset (see
+ * ParseCheckpoints). Only the damaged region around the edits is thus parsed again.
+ *
+ * The checkpoints are kept by the incremental parser rather than by the parse results, and only for the last result it
+ * returned, since they keep the graph-structured stack of that parse alive. Other results are reparsed from scratch.
+ */
+public class IncrementalParser<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest> {
+
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 256;
+
+    private final Parser<StackNode, ParseForest, ?, ?> parser;
+    private final int checkpointInterval;
+    private final int maxLookahead;
+
+    private Parse<StackNode, ParseForest> lastParse;
+    private ParseCheckpoints<StackNode, ParseForest> lastCheckpoints; // Of the last parse
+
+    public IncrementalParser(IParseTable parseTable, Parser<StackNode, ParseForest, ?, ?> parser) {
+        this(parseTable, parser, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    public IncrementalParser(IParseTable parseTable, Parser<StackNode, ParseForest, ?, ?> parser, int checkpointInterval) {
+        if (checkpointInterval <= 0)
+            throw new IllegalArgumentException("Checkpoint interval should be positive");
+
+        this.parser = parser;
+        this.checkpointInterval = checkpointInterval;
+        this.maxLookahead = maxLookahead(parseTable);
+    }
+
+    public ParseResult<StackNode, ParseForest, ?> parse(String input, String filename, String startSymbol) {
+        return parse(input, filename, startSymbol, new ParseCheckpoints<StackNode, ParseForest>(checkpointInterval));
+    }
+
+    /*
+     * Parses the input of the previous parse result with the edits applied. Edits should not overlap and their
+     * offsets are relative to the previous input. The previous result is returned as is if there are no edits.
+     */
+    public ParseResult<StackNode, ParseForest, ?> parse(ParseResult<StackNode, ParseForest, ?> previous, List<TextEdit> edits, String startSymbol) {
+        if (edits.isEmpty())
+            return previous;
+
+        Parse<StackNode, ParseForest> previousParse = previous.parse;
+
+        List<TextEdit> sortedEdits = new ArrayList<TextEdit>(edits);
+
+        sortedEdits.sort(Comparator.comparingInt(edit -> edit.offset));
+
+        String input = applyEdits(previousParse.inputString, sortedEdits);
+
+        if (previousParse != lastParse)
+            return parse(input, previousParse.filename, startSymbol);
+
+        ParseCheckpoint<StackNode, ParseForest> checkpoint = lastCheckpointBefore(sortedEdits.get(0).offset);
+        int delta = input.length() - previousParse.inputLength;
+        int reuseFrom = sortedEdits.get(sortedEdits.size() - 1).end() + delta;
+
+        return parse(input, previousParse.filename, startSymbol, lastCheckpoints.forEditedInput(checkpoint, reuseFrom, delta));
+    }
+
+    private ParseResult<StackNode, ParseForest, ?> parse(String input, String filename, String startSymbol, ParseCheckpoints<StackNode, ParseForest> checkpoints) {
+        ParseResult<StackNode, ParseForest, ?> result = parser.parse(input, filename, startSymbol, checkpoints);
+
+        lastParse = result.parse;
+        lastCheckpoints = checkpoints;
+
+        return result;
+    }
+
+    static String applyEdits(String input, List<TextEdit> sortedEdits) {
+        StringBuilder result = new StringBuilder(input.length());
+        int offset = 0;
+
+        for (TextEdit edit : sortedEdits) {
+            if (edit.offset < offset || edit.end() > input.length())
+                throw new IllegalArgumentException("Overlapping or out of bounds edit " + edit);
+
+            result.append(input, offset, edit.offset);
+            result.append(edit.replacement);
+
+            offset = edit.end();
+        }
+
+        result.append(input, offset, input.length());
+
+        return result.toString();
+    }
+
+    /*
+     * The actions for the characters before a checkpoint depend on the characters up to the maximum lookahead after
+     * it, thus those should not be edited.
+     */
+    private ParseCheckpoint<StackNode, ParseForest> lastCheckpointBefore(int damageStart) {
+        return lastCheckpoints.lastAtOrBefore(damageStart - maxLookahead);
+    }
+
+    private static int maxLookahead(IParseTable parseTable) {
+        int maxLookahead = 0;
+
+        for (int i = 0; i < parseTable.stateCount(); i++) {
+            IState state = parseTable.getState(i);
+
+            if (state == null)
+                continue;
+
+            for (IAction action : state.actions()) {
+                if (action instanceof IReduceLookahead)
+                    maxLookahead = Math.max(maxLookahead, ((IReduceLookahead) action).followRestriction().length);
+            }
+        }
+
+        return maxLookahead;
+    }
+
+}
@@ -0,0 +1,39 @@
+package org.spoofax.jsglr2.incremental;
+
+/*
+ * Replaces the characters [offset, offset + length) of an input by the replacement text. Offsets are relative to the
+ * input before applying any of the edits.
+ */
+public class TextEdit {
+
+    public final int offset;
+    public final int length;
+    public final String replacement;
+
+    public TextEdit(int offset, int length, String replacement) {
+        if (offset < 0 || length < 0)
+            throw new IllegalArgumentException("Negative offset or length");
+
+        this.offset = offset;
+        this.length = length;
+        this.replacement = replacement;
+    }
+
+    public static TextEdit insert(int offset, String text) {
+        return new TextEdit(offset, 0, text);
+    }
+
+    public static TextEdit delete(int offset, int length) {
+        return new TextEdit(offset, length, "");
+    }
+
+    public int end() {
+        return offset + length;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + offset + ", " + end() + ") -> \"" + replacement + "\"";
+    }
+
+}
@@ -1,6 +1,5 @@
 package org.spoofax.jsglr2.parseforest;
 
-import org.spoofax.jsglr.client.imploder.IToken;
 import org.spoofax.jsglr2.parser.Parse;
 import org.spoofax.jsglr2.parser.Position;
 
@@ -9,24 +8,32 @@ public abstract class AbstractParseForest {
     public final int nodeNumber;
     public final Parse<?, AbstractParseForest> parse;
     
-    public Position startPosition, endPosition;
+    public int startOffset, endOffset; // Line and column are resolved on demand, see startPosition() and endPosition()
     
-    public IToken token, firstToken, lastToken;
+    public int token, firstToken, lastToken; // Token ids (see AbstractTokens.getToken), -1 if there is no token
 
-    protected AbstractParseForest(int nodeNumber, Parse<?, AbstractParseForest> parse, Position startPosition, Position endPosition) {
+    protected AbstractParseForest(int nodeNumber, Parse<?, AbstractParseForest> parse, int startOffset, int endOffset) {
         this.nodeNumber = nodeNumber;
         this.parse = parse;
 
-        this.startPosition = startPosition;
-        this.endPosition = endPosition;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
 
-        this.token = null;
-        this.firstToken = null;
-        this.lastToken = null;
+        this.token = -1;
+        this.firstToken = -1;
+        this.lastToken = -1;
     }
     
     public String inputPart() {
-        return parse.getPart(startPosition.offset, endPosition.offset);
+        return parse.getPart(startOffset, endOffset);
+    }
+    
+    public Position startPosition() {
+        return parse.position(startOffset);
+    }
+    
+    public Position endPosition() {
+        return parse.position(endOffset);
     }
     
     public abstract String descriptor();
@@ -1,15 +1,42 @@
 package org.spoofax.jsglr2.parseforest;
 
+import java.util.Map;
+
 import org.spoofax.jsglr2.parser.Parse;
-import org.spoofax.jsglr2.parser.Position;
 import org.spoofax.jsglr2.parsetable.IProduction;
 import org.spoofax.jsglr2.parsetable.ProductionType;
 
 public abstract class ParseForestManager<ParseForest extends AbstractParseForest, ParseNode extends ParseForest, Derivation> {
 
-    abstract public ParseNode createParseNode(Parse<?, ParseForest> parse, Position beginPosition, IProduction production, Derivation firstDerivation);
+    protected boolean preferAvoidEagerly = false;
+    protected int maxDerivations = Integer.MAX_VALUE;
+    
+    /*
+     * Apply prefer/avoid filtering when a derivation is added to an ambiguous parse node instead of when imploding. A
+     * derivation with a lower priority than the derivations of the node is discarded immediately, one with a higher
+     * priority replaces them, such that the forest does not keep (and the tokenizer does not walk) losing derivations.
+     */
+    public void preferAvoidEagerly() {
+        this.preferAvoidEagerly = true;
+    }
     
-    abstract public Derivation createDerivation(Parse<?, ParseForest> parse, Position beginPosition, IProduction production, ProductionType productionType, ParseForest[] parseForests);
+    /*
+     * The maximum number of derivations per parse node, further derivations are discarded when they are added.
+     */
+    public void maxDerivations(int maxDerivations) {
+        if (maxDerivations < 1)
+            throw new IllegalArgumentException("A parse node needs at least one derivation");
+        
+        this.maxDerivations = maxDerivations;
+    }
+    
+    protected boolean disambiguatesEagerly() {
+        return preferAvoidEagerly || maxDerivations != Integer.MAX_VALUE;
+    }
+
+    abstract public ParseNode createParseNode(Parse<?, ParseForest> parse, int beginOffset, IProduction production, Derivation firstDerivation);
+    
+    abstract public Derivation createDerivation(Parse<?, ParseForest> parse, int beginOffset, IProduction production, ProductionType productionType, ParseForest[] parseForests);
     
     abstract public void addDerivation(Parse<?, ParseForest> parse, ParseNode parseNode, Derivation derivation);
     
@@ -19,4 +46,23 @@ public abstract class ParseForestManager<ParseForest extends AbstractParseForest
     
     abstract public ParseForest filterStartSymbol(ParseForest parseForest, String startSymbol);
     
+    /*
+     * A copy of a parse forest of a previous parse, for a parse in which the input that it covers starts delta
+     * characters further (see ParseCheckpoints). Parts of the parse forest that are shared are copied once, the copies
+     * made so far are kept in the relocated map.
+     */
+    abstract public ParseForest relocate(Parse<?, ParseForest> parse, ParseForest parseForest, int delta, Map<Object, Object> relocated);
+    
+    protected ParseForest[] relocate(Parse<?, ParseForest> parse, ParseForest[] parseForests, int delta, Map<Object, Object> relocated) {
+        if (parseForests == null)
+            return null;
+        
+        ParseForest[] copies = parseForestsArray(parseForests.length);
+        
+        for (int i = 0; i < parseForests.length; i++)
+            copies[i] = relocate(parse, parseForests[i], delta, relocated);
+        
+        return copies;
+    }
+    
 }
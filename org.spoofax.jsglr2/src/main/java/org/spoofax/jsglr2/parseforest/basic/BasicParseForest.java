@@ -2,12 +2,11 @@ package org.spoofax.jsglr2.parseforest.basic;
 
 import org.spoofax.jsglr2.parseforest.AbstractParseForest;
 import org.spoofax.jsglr2.parser.Parse;
-import org.spoofax.jsglr2.parser.Position;
 
 public abstract class BasicParseForest extends AbstractParseForest {
 	
-	protected BasicParseForest(int nodeNumber, Parse<?, AbstractParseForest> parse, Position startPosition, Position endPosition) {
-		super(nodeNumber, parse, startPosition, endPosition);
+	protected BasicParseForest(int nodeNumber, Parse<?, AbstractParseForest> parse, int startOffset, int endOffset) {
+		super(nodeNumber, parse, startOffset, endOffset);
 	}
 	
 }
@@ -2,19 +2,20 @@ package org.spoofax.jsglr2.parseforest.basic;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.spoofax.jsglr2.parseforest.ParseForestManager;
 import org.spoofax.jsglr2.parser.Parse;
-import org.spoofax.jsglr2.parser.Position;
 import org.spoofax.jsglr2.parsetable.IProduction;
 import org.spoofax.jsglr2.parsetable.ProductionType;
 
-public class BasicParseForestManager extends ParseForestManager<BasicParseForest, SymbolNode, RuleNode> {
+public final class BasicParseForestManager extends ParseForestManager<BasicParseForest, SymbolNode, RuleNode> {
 
-    public SymbolNode createParseNode(Parse<?, BasicParseForest> parse, Position beginPosition, IProduction production, RuleNode firstDerivation) {
-        SymbolNode symbolNode = new SymbolNode(parse.parseNodeCount++, parse, beginPosition, parse.currentPosition(), production);
+    public SymbolNode createParseNode(Parse<?, BasicParseForest> parse, int beginOffset, IProduction production, RuleNode firstDerivation) {
+        SymbolNode symbolNode = new SymbolNode(parse.parseNodeCount++, parse, beginOffset, parse.currentOffset, production);
         
-        parse.notify(observer -> observer.createParseNode(symbolNode, production));
+        if (parse.observing)
+            parse.notify(observer -> observer.createParseNode(symbolNode, production));
         
         addDerivation(parse, symbolNode, firstDerivation);
                 
@@ -35,7 +36,7 @@ public class BasicParseForestManager extends ParseForestManager<BasicParseForest
 		if (result.isEmpty())
 			return null;
 		else {
-			SymbolNode filteredTopNode = new SymbolNode(topNode.nodeNumber, topNode.parse, topNode.startPosition, topNode.endPosition, topNode.production);
+			SymbolNode filteredTopNode = new SymbolNode(topNode.nodeNumber, topNode.parse, topNode.startOffset, topNode.endOffset, topNode.production);
 			
 			for (RuleNode derivation : result)
 				filteredTopNode.addDerivation(derivation);				
@@ -44,29 +45,35 @@ public class BasicParseForestManager extends ParseForestManager<BasicParseForest
 		}
 	}
     
-    public RuleNode createDerivation(Parse<?, BasicParseForest> parse, Position beginPosition, IProduction production, ProductionType productionType, BasicParseForest[] parseForests) {
-        RuleNode ruleNode = new RuleNode(parse.parseNodeCount++, parse, beginPosition, parse.currentPosition(), production, productionType, parseForests);
+    public RuleNode createDerivation(Parse<?, BasicParseForest> parse, int beginOffset, IProduction production, ProductionType productionType, BasicParseForest[] parseForests) {
+        RuleNode ruleNode = new RuleNode(parse.parseNodeCount++, parse, beginOffset, parse.currentOffset, production, productionType, parseForests);
         
-        parse.notify(observer -> observer.createDerivation(ruleNode.nodeNumber, production, parseForests));
+        if (parse.observing)
+            parse.notify(observer -> observer.createDerivation(ruleNode.nodeNumber, production, parseForests));
                 
         return ruleNode;
     }
     
     public void addDerivation(Parse<?, BasicParseForest> parse, SymbolNode symbolNode, RuleNode ruleNode) {
-        parse.notify(observer -> observer.addDerivation(symbolNode));
+        if (parse.observing)
+            parse.notify(observer -> observer.addDerivation(symbolNode));
         
         boolean initNonAmbiguous = symbolNode.isAmbiguous();
         
-        symbolNode.addDerivation(ruleNode);
+        if (disambiguatesEagerly())
+            symbolNode.addDerivation(ruleNode, preferAvoidEagerly, maxDerivations);
+        else
+            symbolNode.addDerivation(ruleNode);
         
         if (initNonAmbiguous && symbolNode.isAmbiguous())
         		parse.ambiguousParseNodes++;
     }
     
     public TermNode createCharacterNode(Parse<?, BasicParseForest> parse) {
-        TermNode termNode = new TermNode(parse.parseNodeCount++, parse, parse.currentPosition(), parse.currentChar);
+        TermNode termNode = new TermNode(parse.parseNodeCount++, parse, parse.currentOffset, parse.currentChar);
         
-        parse.notify(observer -> observer.createCharacterNode(termNode, termNode.character));
+        if (parse.observing)
+            parse.notify(observer -> observer.createCharacterNode(termNode, termNode.character));
         
         return termNode;
     }
@@ -74,5 +81,40 @@ public class BasicParseForestManager extends ParseForestManager<BasicParseForest
     public BasicParseForest[] parseForestsArray(int length) {
     		return new BasicParseForest[length];
     }
+    
+    public BasicParseForest relocate(Parse<?, BasicParseForest> parse, BasicParseForest parseForest, int delta, Map<Object, Object> relocated) {
+        if (parseForest == null)
+            return null;
+        
+        BasicParseForest copy = (BasicParseForest) relocated.get(parseForest);
+        
+        if (copy != null)
+            return copy;
+        
+        if (parseForest instanceof TermNode) {
+            TermNode termNode = (TermNode) parseForest;
+            
+            copy = new TermNode(parse.parseNodeCount++, parse, termNode.startOffset + delta, termNode.character);
+        } else if (parseForest instanceof SymbolNode) {
+            SymbolNode symbolNode = (SymbolNode) parseForest;
+            SymbolNode symbolNodeCopy = new SymbolNode(parse.parseNodeCount++, parse, symbolNode.startOffset + delta, symbolNode.endOffset + delta, symbolNode.production);
+            
+            for (RuleNode derivation : symbolNode.getDerivations())
+                symbolNodeCopy.addDerivation((RuleNode) relocate(parse, derivation, delta, relocated));
+            
+            if (symbolNodeCopy.isAmbiguous())
+                parse.ambiguousParseNodes++;
+            
+            copy = symbolNodeCopy;
+        } else {
+            RuleNode ruleNode = (RuleNode) parseForest;
+            
+            copy = new RuleNode(parse.parseNodeCount++, parse, ruleNode.startOffset + delta, ruleNode.endOffset + delta, ruleNode.production, ruleNode.productionType, relocate(parse, ruleNode.parseForests, delta, relocated));
+        }
+        
+        relocated.put(parseForest, copy);
+        
+        return copy;
+    }
    
 }
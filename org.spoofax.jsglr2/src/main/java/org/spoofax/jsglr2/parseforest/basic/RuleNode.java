@@ -2,7 +2,6 @@ package org.spoofax.jsglr2.parseforest.basic;
 
 import org.spoofax.jsglr2.parseforest.IDerivation;
 import org.spoofax.jsglr2.parser.Parse;
-import org.spoofax.jsglr2.parser.Position;
 import org.spoofax.jsglr2.parsetable.IProduction;
 import org.spoofax.jsglr2.parsetable.ProductionType;
 
@@ -12,8 +11,8 @@ public class RuleNode extends BasicParseForest implements IDerivation<BasicParse
     public final ProductionType productionType;
 	public final BasicParseForest[] parseForests;
 	
-	public RuleNode(int nodeNumber, Parse parse, Position startPosition, Position endPosition, IProduction production, ProductionType productionType, BasicParseForest[] parseForests) {
-		super(nodeNumber, parse, startPosition, endPosition);
+	public RuleNode(int nodeNumber, Parse parse, int startOffset, int endOffset, IProduction production, ProductionType productionType, BasicParseForest[] parseForests) {
+		super(nodeNumber, parse, startOffset, endOffset);
 		this.production = production;
         this.productionType = productionType;
 		this.parseForests = parseForests;
@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.spoofax.jsglr2.parser.Parse;
-import org.spoofax.jsglr2.parser.Position;
 import org.spoofax.jsglr2.parsetable.IProduction;
 
 public class SymbolNode extends BasicParseForest {
@@ -12,8 +11,8 @@ public class SymbolNode extends BasicParseForest {
 	public final IProduction production;
 	private final List<RuleNode> derivations;
 	
-	public SymbolNode(int nodeNumber, Parse parse, Position startPosition, Position endPosition, IProduction production) {
-		super(nodeNumber, parse, startPosition, endPosition);
+	public SymbolNode(int nodeNumber, Parse parse, int startOffset, int endOffset, IProduction production) {
+		super(nodeNumber, parse, startOffset, endOffset);
 		this.production = production;
 		this.derivations = new ArrayList<RuleNode>();
 	}
@@ -22,6 +21,25 @@ public class SymbolNode extends BasicParseForest {
 		this.derivations.add(derivation);
 	}
 	
+	/*
+	 * Adds the derivation while disambiguating eagerly (see ParseForestManager.preferAvoidEagerly), in which case all
+	 * derivations of the node have the same prefer/avoid priority.
+	 */
+	public void addDerivation(RuleNode derivation, boolean preferAvoid, int maxDerivations) {
+		if (preferAvoid && !derivations.isEmpty()) {
+			int priority = derivation.productionType.preferAvoidPriority();
+			int currentPriority = derivations.get(0).productionType.preferAvoidPriority();
+			
+			if (priority < currentPriority)
+				return;
+			else if (priority > currentPriority)
+				derivations.clear();
+		}
+		
+		if (derivations.size() < maxDerivations)
+			derivations.add(derivation);
+	}
+	
 	public List<RuleNode> getDerivations() {
 		return derivations;
 	}
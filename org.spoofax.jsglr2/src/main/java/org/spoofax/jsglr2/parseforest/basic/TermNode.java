@@ -2,14 +2,13 @@ package org.spoofax.jsglr2.parseforest.basic;
 
 import org.spoofax.jsglr2.characters.ICharacters;
 import org.spoofax.jsglr2.parser.Parse;
-import org.spoofax.jsglr2.parser.Position;
 
 public class TermNode extends BasicParseForest {
 
 	public final int character;
 	
-	public TermNode(int nodeNumber, Parse parse, Position position, int character) {
-		super(nodeNumber, parse, position, ICharacters.isNewLine(character) ? position.nextLine() : position.nextColumn());
+	public TermNode(int nodeNumber, Parse parse, int offset, int character) {
+		super(nodeNumber, parse, offset, offset + 1);
 		this.character = character;
 	}
 	
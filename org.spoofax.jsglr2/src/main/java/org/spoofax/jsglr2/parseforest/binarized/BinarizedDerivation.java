@@ -0,0 +1,32 @@
+package org.spoofax.jsglr2.parseforest.binarized;
+
+import org.spoofax.jsglr2.parseforest.IDerivation;
+import org.spoofax.jsglr2.parsetable.IProduction;
+import org.spoofax.jsglr2.parsetable.ProductionType;
+
+/*
+ * A derivation with all its children. Derivations are only created temporarily: when reducing, before they are
+ * binarized into the intermediate nodes of a parse node, and when expanding the intermediate nodes for tokenization
+ * and imploding.
+ */
+public class BinarizedDerivation implements IDerivation<BinarizedParseForest> {
+
+    public final IProduction production;
+    public final ProductionType productionType;
+    public final BinarizedParseForest[] parseForests;
+    
+    public BinarizedDerivation(IProduction production, ProductionType productionType, BinarizedParseForest[] parseForests) {
+        this.production = production;
+        this.productionType = productionType;
+        this.parseForests = parseForests;
+    }
+
+    public IProduction production() {
+        return production;
+    }
+    
+    public BinarizedParseForest[] parseForests() {
+        return parseForests;
+    }
+    
+}
@@ -0,0 +1,12 @@
+package org.spoofax.jsglr2.parseforest.binarized;
+
+import org.spoofax.jsglr2.parseforest.AbstractParseForest;
+import org.spoofax.jsglr2.parser.Parse;
+
+public abstract class BinarizedParseForest extends AbstractParseForest {
+	
+	protected BinarizedParseForest(int nodeNumber, Parse<?, AbstractParseForest> parse, int startOffset, int endOffset) {
+		super(nodeNumber, parse, startOffset, endOffset);
+	}
+	
+}
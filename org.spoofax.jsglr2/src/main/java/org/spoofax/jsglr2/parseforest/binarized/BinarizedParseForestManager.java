@@ -0,0 +1,137 @@
+package org.spoofax.jsglr2.parseforest.binarized;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.spoofax.jsglr2.parseforest.ParseForestManager;
+import org.spoofax.jsglr2.parser.Parse;
+import org.spoofax.jsglr2.parsetable.IProduction;
+import org.spoofax.jsglr2.parsetable.ProductionType;
+
+public final class BinarizedParseForestManager extends ParseForestManager<BinarizedParseForest, BinarizedParseNode, BinarizedDerivation> {
+
+    public BinarizedParseNode createParseNode(Parse<?, BinarizedParseForest> parse, int beginOffset, IProduction production, BinarizedDerivation firstDerivation) {
+        BinarizedParseNode parseNode = new BinarizedParseNode(parse.parseNodeCount++, parse, beginOffset, parse.currentOffset, production, firstDerivation);
+        
+        if (parse.observing) {
+            parse.notify(observer -> observer.createParseNode(parseNode, production));
+            parse.notify(observer -> observer.addDerivation(parseNode));
+        }
+                
+        return parseNode;
+    }
+
+	public BinarizedParseForest filterStartSymbol(BinarizedParseForest parseForest, String startSymbol) {
+		BinarizedParseNode topNode = (BinarizedParseNode) parseForest;
+		List<IntermediateNode> result = new ArrayList<IntermediateNode>();
+		
+		for (IntermediateNode derivation : topNode.getDerivationNodes()) {
+			String derivationStartSymbol = derivation.production.startSymbolSort(); 
+			
+			if (derivationStartSymbol != null && derivationStartSymbol.equals(startSymbol))
+				result.add(derivation);
+		}
+		
+		if (result.isEmpty())
+			return null;
+		else
+			return new BinarizedParseNode(topNode, result);
+	}
+    
+    public BinarizedDerivation createDerivation(Parse<?, BinarizedParseForest> parse, int beginOffset, IProduction production, ProductionType productionType, BinarizedParseForest[] parseForests) {
+        BinarizedDerivation derivation = new BinarizedDerivation(production, productionType, parseForests);
+        
+        int derivationNumber = parse.parseNodeCount++;
+        
+        if (parse.observing)
+            parse.notify(observer -> observer.createDerivation(derivationNumber, production, derivation.parseForests));
+                
+        return derivation;
+    }
+    
+    public void addDerivation(Parse<?, BinarizedParseForest> parse, BinarizedParseNode parseNode, BinarizedDerivation derivation) {
+        if (parse.observing)
+            parse.notify(observer -> observer.addDerivation(parseNode));
+        
+        boolean initNonAmbiguous = parseNode.isAmbiguous();
+        
+        if (disambiguatesEagerly())
+            parseNode.addDerivation(derivation, preferAvoidEagerly, maxDerivations);
+        else
+            parseNode.addDerivation(derivation);
+        
+        if (initNonAmbiguous && parseNode.isAmbiguous())
+        		parse.ambiguousParseNodes++;
+    }
+    
+    public TerminalNode createCharacterNode(Parse<?, BinarizedParseForest> parse) {
+        if (!parse.observing)
+            return TerminalNode.of(parse.currentChar);
+        
+        TerminalNode terminalNode = new TerminalNode(parse.parseNodeCount++, parse, parse.currentOffset, parse.currentChar);
+        
+        parse.notify(observer -> observer.createCharacterNode(terminalNode, terminalNode.character));
+        
+        return terminalNode;
+    }
+    
+    public BinarizedParseForest[] parseForestsArray(int length) {
+    		return new BinarizedParseForest[length];
+    }
+    
+    public BinarizedParseForest relocate(Parse<?, BinarizedParseForest> parse, BinarizedParseForest parseForest, int delta, Map<Object, Object> relocated) {
+        if (parseForest == null)
+            return null;
+        
+        BinarizedParseForest copy = (BinarizedParseForest) relocated.get(parseForest);
+        
+        if (copy != null)
+            return copy;
+        
+        if (parseForest instanceof TerminalNode) {
+            TerminalNode terminalNode = (TerminalNode) parseForest;
+            
+            // Interned terminal nodes have no offsets and are shared as is
+            copy = terminalNode.parse == null ? terminalNode : new TerminalNode(parse.parseNodeCount++, parse, terminalNode.startOffset + delta, terminalNode.character);
+        } else {
+            BinarizedParseNode parseNode = (BinarizedParseNode) parseForest;
+            List<IntermediateNode> derivationNodes = new ArrayList<IntermediateNode>();
+            
+            for (IntermediateNode derivationNode : parseNode.getDerivationNodes())
+                derivationNodes.add(relocateIntermediateNode(parse, derivationNode, delta, relocated));
+            
+            copy = new BinarizedParseNode(parse.parseNodeCount++, parse, parseNode.startOffset + delta, parseNode.endOffset + delta, parseNode, derivationNodes);
+            
+            if (parseNode.isAmbiguous())
+                parse.ambiguousParseNodes++;
+        }
+        
+        relocated.put(parseForest, copy);
+        
+        return copy;
+    }
+    
+    // Intermediate nodes are shared between the derivations of a parse node, and thus copied once as well
+    private IntermediateNode relocateIntermediateNode(Parse<?, BinarizedParseForest> parse, IntermediateNode node, int delta, Map<Object, Object> relocated) {
+        if (node == null)
+            return null;
+        
+        IntermediateNode copy = (IntermediateNode) relocated.get(node);
+        
+        if (copy != null)
+            return copy;
+        
+        copy = new IntermediateNode(node.production, node.productionType, node.dot, relocateIntermediateNode(parse, node.left, delta, relocated), relocate(parse, node.right, delta, relocated));
+        
+        if (node.otherPackedNodes() != null) {
+            for (PackedNode packedNode : node.otherPackedNodes())
+                copy.addPackedNode(relocateIntermediateNode(parse, packedNode.left, delta, relocated), relocate(parse, packedNode.right, delta, relocated), true);
+        }
+        
+        relocated.put(node, copy);
+        
+        return copy;
+    }
+   
+}
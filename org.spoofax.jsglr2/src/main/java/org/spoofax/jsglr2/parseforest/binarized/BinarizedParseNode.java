@@ -0,0 +1,253 @@
+package org.spoofax.jsglr2.parseforest.binarized;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.spoofax.jsglr2.parser.Parse;
+import org.spoofax.jsglr2.parsetable.IProduction;
+
+/*
+ * A parse node whose derivations are binarized into intermediate nodes (see IntermediateNode), such that derivations
+ * that only differ in some children share the intermediate nodes for the children before. The intermediate nodes of a
+ * parse node are only indexed once it gets a second derivation.
+ */
+public class BinarizedParseNode extends BinarizedParseForest {
+
+	public final IProduction production;
+    private IntermediateNode firstDerivation;
+    private List<IntermediateNode> otherDerivations;
+    private IntermediateNodeTable intermediateNodes;
+    private int derivationCount; // Of added derivations that were new, expanding might yield more due to sharing
+    private boolean ambiguous;
+	
+	public BinarizedParseNode(int nodeNumber, Parse parse, int startOffset, int endOffset, IProduction production, BinarizedDerivation firstDerivation) {
+		super(nodeNumber, parse, startOffset, endOffset);
+        this.production = production;
+        this.otherDerivations = null;
+        this.intermediateNodes = null;
+        this.derivationCount = 0;
+        this.ambiguous = false;
+        this.firstDerivation = binarize(firstDerivation);
+	}
+	
+	// For filtering the derivations of an existing parse node, which are not binarized again
+	BinarizedParseNode(BinarizedParseNode parseNode, List<IntermediateNode> derivations) {
+		this(parseNode.nodeNumber, parseNode.parse, parseNode.startOffset, parseNode.endOffset, parseNode, derivations);
+	}
+	
+	// For copies of an existing parse node (see BinarizedParseForestManager.relocate) with copies of its derivations
+	BinarizedParseNode(int nodeNumber, Parse parse, int startOffset, int endOffset, BinarizedParseNode parseNode, List<IntermediateNode> derivations) {
+		super(nodeNumber, parse, startOffset, endOffset);
+        this.production = parseNode.production;
+        this.firstDerivation = derivations.get(0);
+        this.otherDerivations = derivations.size() > 1 ? new ArrayList<IntermediateNode>(derivations.subList(1, derivations.size())) : null;
+        this.intermediateNodes = null;
+        this.derivationCount = parseNode.derivationCount;
+        this.ambiguous = parseNode.ambiguous;
+	}
+	
+	public void addDerivation(BinarizedDerivation derivation) {
+	    ambiguous = true;
+	    
+	    if (intermediateNodes == null) {
+	        intermediateNodes = new IntermediateNodeTable();
+	        
+	        for (IntermediateNode derivationNode : getDerivationNodes())
+	            index(derivationNode);
+	    }
+	    
+	    IntermediateNode derivationNode = binarize(derivation);
+	    
+	    if (derivationNode != null) {
+	        if (otherDerivations == null)
+	            otherDerivations = new ArrayList<IntermediateNode>();
+	        
+	        otherDerivations.add(derivationNode);
+	    }
+	}
+	
+	/*
+	 * Adds the derivation while disambiguating eagerly (see ParseForestManager.preferAvoidEagerly), in which case all
+	 * derivations of the node have the same prefer/avoid priority.
+	 */
+	public void addDerivation(BinarizedDerivation derivation, boolean preferAvoid, int maxDerivations) {
+	    if (preferAvoid) {
+	        int priority = derivation.productionType.preferAvoidPriority();
+	        int currentPriority = firstDerivation.productionType.preferAvoidPriority();
+	        
+	        if (priority < currentPriority)
+	            return;
+	        else if (priority > currentPriority) {
+	            otherDerivations = null;
+	            intermediateNodes = null;
+	            derivationCount = 0;
+	            ambiguous = false;
+	            firstDerivation = binarize(derivation);
+	            
+	            return;
+	        }
+	    }
+	    
+	    if (derivationCount < maxDerivations)
+	        addDerivation(derivation);
+	}
+	
+	private void index(IntermediateNode node) {
+	    for (; node != null && intermediateNodes.find(node.production, node.dot, node.left, node.right) != node; node = node.left) {
+	        intermediateNodes.add(node);
+	        
+	        if (node.otherPackedNodes() != null) {
+	            for (PackedNode packedNode : node.otherPackedNodes())
+	                index(packedNode.left);
+	        }
+	    }
+	}
+	
+	/*
+	 * Adds the intermediate nodes for the derivation, from its first child to the last. Returns the intermediate node
+	 * for the complete derivation if it is new, or null if the derivation was added to an existing one.
+	 */
+	private IntermediateNode binarize(BinarizedDerivation derivation) {
+	    BinarizedParseForest[] parseForests = derivation.parseForests;
+	    int arity = parseForests.length;
+	    
+	    IntermediateNode left = null;
+	    boolean leftIsNew = false, isNew = false;
+	    
+	    for (int dot = arity == 0 ? 0 : 1; dot <= arity; dot++) {
+	        BinarizedParseForest right = dot > 0 ? parseForests[dot - 1] : null;
+	        IntermediateNode node = intermediateNodes != null ? intermediateNodes.find(derivation.production, dot, left, right) : null;
+	        
+	        if (node == null) {
+	            node = new IntermediateNode(derivation.production, derivation.productionType, dot, left, right);
+	            
+	            if (intermediateNodes != null)
+	                intermediateNodes.add(node);
+	            
+	            leftIsNew = true;
+	            isNew = true;
+	        } else {
+	            if (node.addPackedNode(left, right, leftIsNew))
+	                isNew = true;
+	            
+	            if (dot == arity) {
+	                if (isNew)
+	                    derivationCount++;
+	                
+	                return null;
+	            }
+	            
+	            leftIsNew = false;
+	        }
+	        
+	        left = node;
+	    }
+	    
+	    derivationCount++;
+	    
+	    return left;
+	}
+	
+	public List<IntermediateNode> getDerivationNodes() {
+	    if (otherDerivations == null)
+	        return Collections.singletonList(firstDerivation);
+	    
+	    List<IntermediateNode> derivationNodes = new ArrayList<IntermediateNode>(1 + otherDerivations.size());
+	    
+	    derivationNodes.add(firstDerivation);
+	    derivationNodes.addAll(otherDerivations);
+	    
+	    return derivationNodes;
+	}
+	
+	// All derivations with their children, expanded from the intermediate nodes
+    public List<BinarizedDerivation> getDerivations() {
+        return expand(getDerivationNodes());
+    }
+
+	public List<BinarizedDerivation> getPreferredAvoidedDerivations() {
+        if (!isAmbiguous())
+            return Collections.singletonList(getOnlyDerivation());
+        else {
+            List<IntermediateNode> preferred = null, avoided = null, other = null;
+            
+            for (IntermediateNode derivation : getDerivationNodes()) {
+                switch (derivation.productionType) {
+                    case PREFER:
+                        if (preferred == null)
+                            preferred = new ArrayList<IntermediateNode>();
+                        
+                        preferred.add(derivation);
+                        break;
+                    case AVOID:
+                        if (avoided == null)
+                            avoided = new ArrayList<IntermediateNode>();
+                        
+                        avoided.add(derivation);
+                        break;
+                    default:
+                        if (other == null)
+                            other = new ArrayList<IntermediateNode>();
+                        
+                        other.add(derivation);
+                }
+            }
+            
+            if (preferred != null && !preferred.isEmpty())
+                return expand(preferred);
+            else if (other != null && !other.isEmpty())
+                return expand(other);
+            else
+                return expand(avoided);
+        }
+    }
+	
+	// The derivation with the first alternative of every intermediate node
+	public BinarizedDerivation getOnlyDerivation() {
+	    BinarizedParseForest[] parseForests = new BinarizedParseForest[firstDerivation.dot];
+	    
+	    for (IntermediateNode node = firstDerivation; node != null && node.dot > 0; node = node.left)
+	        parseForests[node.dot - 1] = node.right;
+	    
+		return new BinarizedDerivation(firstDerivation.production, firstDerivation.productionType, parseForests);
+	}
+	
+	public boolean isAmbiguous() {
+		return ambiguous;
+	}
+	
+	public String descriptor() {
+		return production.descriptor();
+	}
+	
+	private static List<BinarizedDerivation> expand(List<IntermediateNode> derivationNodes) {
+	    List<BinarizedDerivation> derivations = new ArrayList<BinarizedDerivation>();
+	    
+	    for (IntermediateNode derivationNode : derivationNodes)
+	        expand(derivationNode, derivationNode, new BinarizedParseForest[derivationNode.dot], derivations);
+	    
+	    return derivations;
+	}
+	
+	private static void expand(IntermediateNode derivationNode, IntermediateNode node, BinarizedParseForest[] parseForests, List<BinarizedDerivation> derivations) {
+	    if (node == null || node.dot == 0) {
+	        derivations.add(new BinarizedDerivation(derivationNode.production, derivationNode.productionType, parseForests.clone()));
+	        
+	        return;
+	    }
+	    
+	    parseForests[node.dot - 1] = node.right;
+	    
+	    expand(derivationNode, node.left, parseForests, derivations);
+	    
+	    if (node.otherPackedNodes() != null) {
+	        for (PackedNode packedNode : node.otherPackedNodes()) {
+	            parseForests[node.dot - 1] = packedNode.right;
+	            
+	            expand(derivationNode, packedNode.left, parseForests, derivations);
+	        }
+	    }
+	}
+	
+}
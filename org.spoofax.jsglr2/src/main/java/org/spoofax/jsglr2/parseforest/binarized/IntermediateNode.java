@@ -0,0 +1,71 @@
+package org.spoofax.jsglr2.parseforest.binarized;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.spoofax.jsglr2.parsetable.IProduction;
+import org.spoofax.jsglr2.parsetable.ProductionType;
+
+/*
+ * The first dot children of derivations of a parse node with the production. Its packed nodes are the alternatives for
+ * these children, the first of which is stored in the node itself. An intermediate node with dot equal to the arity of
+ * the production is a derivation, and derivations that share a prefix of their children share its intermediate nodes.
+ */
+public class IntermediateNode {
+
+	public final IProduction production;
+	public final ProductionType productionType;
+	public final int dot;
+	public final IntermediateNode left; // Of the first packed node
+	public final BinarizedParseForest right;
+	private List<PackedNode> otherPackedNodes;
+	
+	IntermediateNode(IProduction production, ProductionType productionType, int dot, IntermediateNode left, BinarizedParseForest right) {
+		this.production = production;
+		this.productionType = productionType;
+		this.dot = dot;
+		this.left = left;
+		this.right = right;
+		this.otherPackedNodes = null;
+	}
+	
+	/*
+	 * Intermediate nodes that end with a parse node are shared by all prefixes that end with it. Parse nodes are created
+	 * per stack link, so these prefixes all end at the same stack node and can be combined with any continuation of one
+	 * of them. Prefixes that end with a terminal or with a child that is not in the parse forest are only shared if the
+	 * rest of the prefix is shared as well.
+	 */
+	static boolean sharedByLastChild(BinarizedParseForest lastChild) {
+		return lastChild instanceof BinarizedParseNode;
+	}
+	
+	/*
+	 * The packed node is known to be new if its left node has just been created, otherwise the existing packed nodes are
+	 * checked. Returns whether the packed node is added.
+	 */
+	boolean addPackedNode(IntermediateNode left, BinarizedParseForest right, boolean isNew) {
+		if (!isNew) {
+			if (this.left == left && this.right == right)
+				return false;
+			
+			if (otherPackedNodes != null) {
+				for (PackedNode packedNode : otherPackedNodes) {
+					if (packedNode.left == left && packedNode.right == right)
+						return false;
+				}
+			}
+		}
+		
+		if (otherPackedNodes == null)
+			otherPackedNodes = new ArrayList<PackedNode>();
+		
+		otherPackedNodes.add(new PackedNode(left, right));
+		
+		return true;
+	}
+	
+	List<PackedNode> otherPackedNodes() {
+		return otherPackedNodes; // Null if there is only one alternative
+	}
+	
+}
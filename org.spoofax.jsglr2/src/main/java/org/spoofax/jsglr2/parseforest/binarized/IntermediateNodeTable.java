@@ -0,0 +1,71 @@
+package org.spoofax.jsglr2.parseforest.binarized;
+
+import org.spoofax.jsglr2.parsetable.IProduction;
+
+/*
+ * The intermediate nodes of an ambiguous parse node, indexed by production, dot and the packed node that identifies
+ * them (see IntermediateNode.sharedByLastChild), for finding the intermediate node a prefix of a new derivation
+ * belongs to. Uses open addressing with linear probing.
+ */
+final class IntermediateNodeTable {
+
+	private IntermediateNode[] nodes;
+	private int size;
+	
+	IntermediateNodeTable() {
+		this.nodes = new IntermediateNode[16];
+		this.size = 0;
+	}
+	
+	IntermediateNode find(IProduction production, int dot, IntermediateNode left, BinarizedParseForest right) {
+		int mask = nodes.length - 1;
+		
+		for (int i = hash(production, dot, left, right) & mask; nodes[i] != null; i = (i + 1) & mask) {
+			IntermediateNode node = nodes[i];
+			
+			if (node.production == production && node.dot == dot && node.right == right && (node.left == left || IntermediateNode.sharedByLastChild(right)))
+				return node;
+		}
+		
+		return null;
+	}
+	
+	void add(IntermediateNode node) {
+		if (2 * (size + 1) > nodes.length) {
+			IntermediateNode[] previousNodes = nodes;
+			
+			nodes = new IntermediateNode[2 * previousNodes.length];
+			
+			for (IntermediateNode previousNode : previousNodes) {
+				if (previousNode != null)
+					insert(previousNode);
+			}
+		}
+		
+		insert(node);
+		
+		size++;
+	}
+	
+	private void insert(IntermediateNode node) {
+		int mask = nodes.length - 1;
+		int i = hash(node.production, node.dot, node.left, node.right) & mask;
+		
+		while (nodes[i] != null)
+			i = (i + 1) & mask;
+		
+		nodes[i] = node;
+	}
+	
+	private static int hash(IProduction production, int dot, IntermediateNode left, BinarizedParseForest right) {
+		int hash = 31 * production.productionNumber() + dot;
+		
+		hash = 31 * hash + System.identityHashCode(right);
+		
+		if (!IntermediateNode.sharedByLastChild(right))
+			hash = 31 * hash + System.identityHashCode(left);
+		
+		return hash ^ (hash >>> 16);
+	}
+	
+}
@@ -0,0 +1,18 @@
+package org.spoofax.jsglr2.parseforest.binarized;
+
+/*
+ * An alternative for the children of an intermediate node: the intermediate node for all children but the last (null
+ * if there is only one child) and the last child (null if it is not in the parse forest, see
+ * ParseForestConstruction.Optimized).
+ */
+public class PackedNode {
+
+	public final IntermediateNode left;
+	public final BinarizedParseForest right;
+	
+	PackedNode(IntermediateNode left, BinarizedParseForest right) {
+		this.left = left;
+		this.right = right;
+	}
+	
+}
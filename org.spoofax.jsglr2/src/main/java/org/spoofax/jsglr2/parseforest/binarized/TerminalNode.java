@@ -0,0 +1,45 @@
+package org.spoofax.jsglr2.parseforest.binarized;
+
+import org.spoofax.jsglr2.characters.ICharacters;
+import org.spoofax.jsglr2.parser.Parse;
+
+/*
+ * Terminal nodes are interned per character and shared by all parses that are not observed, see the CharacterNode of the
+ * hybrid parse forest.
+ */
+public class TerminalNode extends BinarizedParseForest {
+
+	private static final TerminalNode[] terminalNodes = new TerminalNode[ICharacters.EOF + 1];
+	
+	static {
+		for (int character = 0; character <= ICharacters.EOF; character++)
+			terminalNodes[character] = new TerminalNode(character);
+	}
+	
+	public final int character;
+	
+	private TerminalNode(int character) {
+		super(-1, null, -1, -1);
+		this.character = character;
+	}
+	
+	// A node of its own, for parses that are observed
+	public TerminalNode(int nodeNumber, Parse parse, int offset, int character) {
+		super(nodeNumber, parse, offset, offset + 1);
+		this.character = character;
+	}
+	
+	public static TerminalNode of(int character) {
+		return terminalNodes[character];
+	}
+	
+	@Override
+	public String inputPart() {
+		return character == ICharacters.EOF ? "" : String.valueOf((char) character);
+	}
+	
+	public String descriptor() {
+		return "'" + ICharacters.charToString(this.character) + "'";
+	}
+	
+}
@@ -1,18 +1,19 @@
 package org.spoofax.jsglr2.parseforest.empty;
 
+import java.util.Map;
+
 import org.spoofax.jsglr2.parseforest.ParseForestManager;
 import org.spoofax.jsglr2.parseforest.hybrid.CharacterNode;
 import org.spoofax.jsglr2.parseforest.hybrid.Derivation;
 import org.spoofax.jsglr2.parseforest.hybrid.HybridParseForest;
 import org.spoofax.jsglr2.parseforest.hybrid.ParseNode;
 import org.spoofax.jsglr2.parser.Parse;
-import org.spoofax.jsglr2.parser.Position;
 import org.spoofax.jsglr2.parsetable.IProduction;
 import org.spoofax.jsglr2.parsetable.ProductionType;
 
-public class NullParseForestManager extends ParseForestManager<HybridParseForest, ParseNode, Derivation> {
+public final class NullParseForestManager extends ParseForestManager<HybridParseForest, ParseNode, Derivation> {
 
-    public ParseNode createParseNode(Parse<?, HybridParseForest> parse, Position beginPosition, IProduction production, Derivation firstDerivation) {
+    public ParseNode createParseNode(Parse<?, HybridParseForest> parse, int beginOffset, IProduction production, Derivation firstDerivation) {
         return null;
     }
 
@@ -20,7 +21,7 @@ public class NullParseForestManager extends ParseForestManager<HybridParseForest
 		return null;
 	}
     
-    public Derivation createDerivation(Parse<?, HybridParseForest> parse, Position beginPosition, IProduction production, ProductionType productionType, HybridParseForest[] parseForests) {
+    public Derivation createDerivation(Parse<?, HybridParseForest> parse, int beginOffset, IProduction production, ProductionType productionType, HybridParseForest[] parseForests) {
         return null;
     }
     
@@ -33,5 +34,9 @@ public class NullParseForestManager extends ParseForestManager<HybridParseForest
     public HybridParseForest[] parseForestsArray(int length) {
     		return null;
     }
+    
+    public HybridParseForest relocate(Parse<?, HybridParseForest> parse, HybridParseForest parseForest, int delta, Map<Object, Object> relocated) {
+        return null;
+    }
    
 }
@@ -2,17 +2,46 @@ package org.spoofax.jsglr2.parseforest.hybrid;
 
 import org.spoofax.jsglr2.characters.ICharacters;
 import org.spoofax.jsglr2.parser.Parse;
-import org.spoofax.jsglr2.parser.Position;
 
+/*
+ * Character nodes are interned per character and shared by all parses, such that shifting a character does not allocate.
+ * They therefore do not store a node number, parse or offsets. The position of a character node follows from its
+ * context: it starts at the offset of the stack node it was shifted from (the "to" node of the stack link that holds it)
+ * and, within a derivation, where its preceding sibling ends. Its (mutable) token fields are never set, since the
+ * tokenizer creates tokens for lexical and literal parse nodes as a whole. Observed parses get a numbered node with
+ * offsets per character instead, such that observers can tell the nodes apart.
+ */
 public class CharacterNode extends HybridParseForest {
 
+	private static final CharacterNode[] characterNodes = new CharacterNode[ICharacters.EOF + 1];
+	
+	static {
+		for (int character = 0; character <= ICharacters.EOF; character++)
+			characterNodes[character] = new CharacterNode(character);
+	}
+	
 	public final int character;
 	
-	public CharacterNode(int nodeNumber, Parse parse, Position position, int character) {
-		super(nodeNumber, parse, position, ICharacters.isNewLine(character) ? position.nextLine() : position.nextColumn());
+	private CharacterNode(int character) {
+		super(-1, null, -1, -1);
+		this.character = character;
+	}
+	
+	// A node of its own, for parses that are observed
+	public CharacterNode(int nodeNumber, Parse parse, int offset, int character) {
+		super(nodeNumber, parse, offset, offset + 1);
 		this.character = character;
 	}
 	
+	public static CharacterNode of(int character) {
+		return characterNodes[character];
+	}
+	
+	@Override
+	public String inputPart() {
+		return character == ICharacters.EOF ? "" : String.valueOf((char) character);
+	}
+	
 	public String descriptor() {
 		return "'" + ICharacters.charToString(this.character) + "'";
 	}
@@ -2,20 +2,22 @@ package org.spoofax.jsglr2.parseforest.hybrid;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.spoofax.jsglr2.parseforest.ParseForestManager;
 import org.spoofax.jsglr2.parser.Parse;
-import org.spoofax.jsglr2.parser.Position;
 import org.spoofax.jsglr2.parsetable.IProduction;
 import org.spoofax.jsglr2.parsetable.ProductionType;
 
-public class HybridParseForestManager extends ParseForestManager<HybridParseForest, ParseNode, Derivation> {
+public final class HybridParseForestManager extends ParseForestManager<HybridParseForest, ParseNode, Derivation> {
 
-    public ParseNode createParseNode(Parse<?, HybridParseForest> parse, Position beginPosition, IProduction production, Derivation firstDerivation) {
-        ParseNode parseNode = new ParseNode(parse.parseNodeCount++, parse, beginPosition, parse.currentPosition(), production, firstDerivation);
+    public ParseNode createParseNode(Parse<?, HybridParseForest> parse, int beginOffset, IProduction production, Derivation firstDerivation) {
+        ParseNode parseNode = new ParseNode(parse.parseNodeCount++, parse, beginOffset, parse.currentOffset, production, firstDerivation);
         
-        parse.notify(observer -> observer.createParseNode(parseNode, production));
-        parse.notify(observer -> observer.addDerivation(parseNode));
+        if (parse.observing) {
+            parse.notify(observer -> observer.createParseNode(parseNode, production));
+            parse.notify(observer -> observer.addDerivation(parseNode));
+        }
                 
         return parseNode;
     }
@@ -34,7 +36,7 @@ public class HybridParseForestManager extends ParseForestManager<HybridParseFore
 		if (result.isEmpty())
 			return null;
 		else {
-			ParseNode filteredTopNode = new ParseNode(topNode.nodeNumber, topNode.parse, topNode.startPosition, topNode.endPosition, topNode.production, result.get(0));
+			ParseNode filteredTopNode = new ParseNode(topNode.nodeNumber, topNode.parse, topNode.startOffset, topNode.endOffset, topNode.production, result.get(0));
 			
 			for (int i = 1; i < result.size(); i++)
 				filteredTopNode.addDerivation(result.get(i));				
@@ -43,29 +45,37 @@ public class HybridParseForestManager extends ParseForestManager<HybridParseFore
 		}
 	}
     
-    public Derivation createDerivation(Parse<?, HybridParseForest> parse, Position beginPosition, IProduction production, ProductionType productionType, HybridParseForest[] parseForests) {
+    public Derivation createDerivation(Parse<?, HybridParseForest> parse, int beginOffset, IProduction production, ProductionType productionType, HybridParseForest[] parseForests) {
         Derivation derivation = new Derivation(production, productionType, parseForests);
         
         int derivationNumber = parse.parseNodeCount++;
         
-        parse.notify(observer -> observer.createDerivation(derivationNumber, production, derivation.parseForests));
+        if (parse.observing)
+            parse.notify(observer -> observer.createDerivation(derivationNumber, production, derivation.parseForests));
                 
         return derivation;
     }
     
     public void addDerivation(Parse<?, HybridParseForest> parse, ParseNode parseNode, Derivation derivation) {
-        parse.notify(observer -> observer.addDerivation(parseNode));
+        if (parse.observing)
+            parse.notify(observer -> observer.addDerivation(parseNode));
         
         boolean initNonAmbiguous = parseNode.isAmbiguous();
         
-        parseNode.addDerivation(derivation);
+        if (disambiguatesEagerly())
+            parseNode.addDerivation(derivation, preferAvoidEagerly, maxDerivations);
+        else
+            parseNode.addDerivation(derivation);
         
         if (initNonAmbiguous && parseNode.isAmbiguous())
         		parse.ambiguousParseNodes++;
     }
     
     public CharacterNode createCharacterNode(Parse<?, HybridParseForest> parse) {
-        CharacterNode characterNode = new CharacterNode(parse.parseNodeCount++, parse, parse.currentPosition(), parse.currentChar);
+        if (!parse.observing)
+            return CharacterNode.of(parse.currentChar);
+        
+        CharacterNode characterNode = new CharacterNode(parse.parseNodeCount++, parse, parse.currentOffset, parse.currentChar);
         
         parse.notify(observer -> observer.createCharacterNode(characterNode, characterNode.character));
         
@@ -75,5 +85,43 @@ public class HybridParseForestManager extends ParseForestManager<HybridParseFore
     public HybridParseForest[] parseForestsArray(int length) {
     		return new HybridParseForest[length];
     }
+    
+    public HybridParseForest relocate(Parse<?, HybridParseForest> parse, HybridParseForest parseForest, int delta, Map<Object, Object> relocated) {
+        if (parseForest == null)
+            return null;
+        
+        HybridParseForest copy = (HybridParseForest) relocated.get(parseForest);
+        
+        if (copy != null)
+            return copy;
+        
+        if (parseForest instanceof CharacterNode) {
+            CharacterNode characterNode = (CharacterNode) parseForest;
+            
+            // Interned character nodes have no offsets and are shared as is
+            copy = characterNode.parse == null ? characterNode : new CharacterNode(parse.parseNodeCount++, parse, characterNode.startOffset + delta, characterNode.character);
+        } else {
+            ParseNode parseNode = (ParseNode) parseForest;
+            ParseNode parseNodeCopy = null;
+            
+            for (Derivation derivation : parseNode.getDerivations()) {
+                Derivation derivationCopy = new Derivation(derivation.production, derivation.productionType, relocate(parse, derivation.parseForests, delta, relocated));
+                
+                if (parseNodeCopy == null)
+                    parseNodeCopy = new ParseNode(parse.parseNodeCount++, parse, parseNode.startOffset + delta, parseNode.endOffset + delta, parseNode.production, derivationCopy);
+                else
+                    parseNodeCopy.addDerivation(derivationCopy);
+            }
+            
+            if (parseNodeCopy.isAmbiguous())
+                parse.ambiguousParseNodes++;
+            
+            copy = parseNodeCopy;
+        }
+        
+        relocated.put(parseForest, copy);
+        
+        return copy;
+    }
    
 }
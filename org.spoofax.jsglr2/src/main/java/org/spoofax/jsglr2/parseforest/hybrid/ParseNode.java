@@ -1,7 +1,6 @@
 package org.spoofax.jsglr2.parseforest.hybrid;
 
 import org.spoofax.jsglr2.parser.Parse;
-import org.spoofax.jsglr2.parser.Position;
 import org.spoofax.jsglr2.parsetable.IProduction;
 import org.spoofax.jsglr2.util.iterators.SingleElementWithListIterable;
 
@@ -13,11 +12,11 @@ import java.util.List;
 public class ParseNode extends HybridParseForest {
 
 	public final IProduction production;
-    private final Derivation firstDerivation;
+    private Derivation firstDerivation;
     private List<Derivation> otherDerivations;
 	
-	public ParseNode(int nodeNumber, Parse parse, Position startPosition, Position endPosition, IProduction production, Derivation firstDerivation) {
-		super(nodeNumber, parse, startPosition, endPosition);
+	public ParseNode(int nodeNumber, Parse parse, int startOffset, int endOffset, IProduction production, Derivation firstDerivation) {
+		super(nodeNumber, parse, startOffset, endOffset);
         this.production = production;
         this.firstDerivation = firstDerivation;
         this.otherDerivations = null;
@@ -29,6 +28,33 @@ public class ParseNode extends HybridParseForest {
 	    
 	    otherDerivations.add(derivation);
 	}
+	
+	/*
+	 * Adds the derivation while disambiguating eagerly (see ParseForestManager.preferAvoidEagerly), in which case all
+	 * derivations of the node have the same prefer/avoid priority.
+	 */
+	public void addDerivation(Derivation derivation, boolean preferAvoid, int maxDerivations) {
+	    if (preferAvoid) {
+	        int priority = derivation.productionType.preferAvoidPriority();
+	        int currentPriority = firstDerivation.productionType.preferAvoidPriority();
+	        
+	        if (priority < currentPriority)
+	            return;
+	        else if (priority > currentPriority) {
+	            firstDerivation = derivation;
+	            otherDerivations = null;
+	            
+	            return;
+	        }
+	    }
+	    
+	    if (derivationCount() < maxDerivations)
+	        addDerivation(derivation);
+	}
+	
+	private int derivationCount() {
+	    return otherDerivations == null ? 1 : 1 + otherDerivations.size();
+	}
 
     public Iterable<Derivation> getDerivations() {
         if (otherDerivations == null) {
@@ -0,0 +1,263 @@
+package org.spoofax.jsglr2.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.spoofax.jsglr2.actions.IAction;
+import org.spoofax.jsglr2.actions.IShift;
+import org.spoofax.jsglr2.characters.ICharacters;
+import org.spoofax.jsglr2.parsetable.IParseTable;
+import org.spoofax.jsglr2.parsetable.IState;
+import org.spoofax.jsglr2.parsetable.ParseTableReadException;
+import org.spoofax.jsglr2.parsetable.ParseTableReader;
+import org.spoofax.terms.ParseError;
+
+/*
+ * Generates the Java source of a GeneratedActor subclass for a specific parse table. Every state gets a case with a
+ * switch on the current character, of which the cases perform the applicable actions with their shift states and
+ * reduce actions inlined as constants. Characters in long ranges with the same actions are checked by range instead of
+ * by case. The generated class is instantiated with the parse table it was generated from. Usage:
+ *
+ *   ActorGenerator <input.tbl> <package.ClassName> <output.java>
+ *
+ * The states are spread over multiple methods to stay below the code size limit of the JVM for large parse tables.
+ */
+public class ActorGenerator {
+
+	private static final int MAX_CASE_RANGE = 8; // Longer ranges of characters are checked by range instead of by case
+	private static final int MAX_ESTIMATED_METHOD_SIZE = 16 * 1024; // In bytes of bytecode, the JVM limit is 64KB
+
+	public static void main(String[] args) throws ParseTableReadException, ParseError, IOException {
+		if (args.length != 3) {
+			System.err.println("Usage: ActorGenerator <input.tbl> <package.ClassName> <output.java>");
+			System.exit(1);
+		}
+
+		Path input = Paths.get(args[0]);
+		Path output = Paths.get(args[2]);
+
+		IParseTable parseTable;
+
+		try (InputStream inputStream = Files.newInputStream(input)) {
+			parseTable = ParseTableReader.read(inputStream);
+		}
+
+		int lastDot = args[1].lastIndexOf('.');
+		String packageName = lastDot == -1 ? null : args[1].substring(0, lastDot);
+		String className = args[1].substring(lastDot + 1);
+
+		Files.write(output, generate(parseTable, packageName, className).getBytes(StandardCharsets.UTF_8));
+
+		System.out.println("Generated " + output + " from " + input + " (" + parseTable.stateCount() + " states)");
+	}
+
+	public static String generate(IParseTable parseTable, String packageName, String className) {
+		StringBuilder sb = new StringBuilder();
+
+		if (packageName != null)
+			sb.append("package ").append(packageName).append(";\n\n");
+
+		sb.append("import org.spoofax.jsglr2.actions.IReduceLookahead;\n");
+		sb.append("import org.spoofax.jsglr2.parseforest.AbstractParseForest;\n");
+		sb.append("import org.spoofax.jsglr2.parser.GeneratedActor;\n");
+		sb.append("import org.spoofax.jsglr2.parser.Parse;\n");
+		sb.append("import org.spoofax.jsglr2.parsetable.IParseTable;\n");
+		sb.append("import org.spoofax.jsglr2.stack.AbstractStackNode;\n\n");
+		sb.append("// Generated by ActorGenerator, do not edit\n");
+		sb.append("@SuppressWarnings({ \"rawtypes\", \"unchecked\" })\n");
+		sb.append("public final class ").append(className).append(" extends GeneratedActor {\n\n");
+		sb.append("\tpublic ").append(className).append("(IParseTable parseTable) {\n");
+		sb.append("\t\tsuper(parseTable);\n");
+		sb.append("\t}\n\n");
+		sb.append("\tprotected long fingerprint() {\n");
+		sb.append("\t\treturn ").append(GeneratedActor.fingerprint(parseTable)).append("L;\n");
+		sb.append("\t}\n\n");
+
+		int[] actionIndices = GeneratedActor.actionIndices(parseTable);
+		List<Integer> stateNumbers = new ArrayList<Integer>();
+		List<String> stateCases = new ArrayList<String>();
+
+		for (int stateNumber = 0; stateNumber < parseTable.stateCount(); stateNumber++) {
+			IState state = parseTable.getState(stateNumber);
+
+			if (state == null)
+				continue;
+
+			stateNumbers.add(stateNumber);
+			stateCases.add(stateCase(state, actionIndices[stateNumber]));
+		}
+
+		appendDispatch(sb, stateNumbers, stateCases);
+
+		return sb.append("}\n").toString();
+	}
+
+	/*
+	 * Appends the actor method, which dispatches on the state to chunks of consecutive states, each chunk being a method
+	 * with a switch on the state that contains the cases of its states.
+	 */
+	private static void appendDispatch(StringBuilder sb, List<Integer> stateNumbers, List<String> stateCases) {
+		List<StringBuilder> chunks = new ArrayList<StringBuilder>();
+		List<Integer> chunkEnds = new ArrayList<Integer>(); // Exclusive upper bound of the state numbers per chunk
+
+		StringBuilder chunk = null;
+		int chunkSize = 0;
+
+		for (int i = 0; i < stateCases.size(); i++) {
+			String stateCase = stateCases.get(i);
+
+			// Roughly one byte of bytecode per four characters of source
+			int caseSize = stateCase.length() / 4;
+
+			if (chunk == null || chunkSize + caseSize > MAX_ESTIMATED_METHOD_SIZE) {
+				chunk = new StringBuilder();
+				chunkSize = 0;
+
+				chunks.add(chunk);
+				chunkEnds.add(0);
+			}
+
+			chunk.append(stateCase);
+			chunkSize += caseSize;
+
+			chunkEnds.set(chunks.size() - 1, stateNumbers.get(i) + 1);
+		}
+
+		sb.append("\tpublic <StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest> void actor(Actions<StackNode, ParseForest> actions, Parse<StackNode, ParseForest> parse, StackNode stack) {\n");
+		sb.append("\t\tint state = stack.state.stateNumber();\n\n");
+
+		for (int i = 0; i < chunks.size(); i++) {
+			if (i < chunks.size() - 1)
+				sb.append(i == 0 ? "\t\tif" : "\t\telse if").append(" (state < ").append(chunkEnds.get(i)).append(")\n\t");
+			else if (i > 0)
+				sb.append("\t\telse\n\t");
+
+			sb.append("\t\tactor").append(i).append("(actions, parse, stack, state);\n");
+		}
+
+		sb.append("\t}\n\n");
+
+		for (int i = 0; i < chunks.size(); i++) {
+			sb.append("\tprivate void actor").append(i).append("(Actions actions, Parse parse, AbstractStackNode stack, int state) {\n");
+			sb.append("\t\tint character = parse.currentChar;\n\n");
+			sb.append("\t\tswitch (state) {\n");
+			sb.append(chunks.get(i));
+			sb.append("\t\t}\n");
+			sb.append("\t}\n\n");
+		}
+	}
+
+	/*
+	 * The case of a state, with a switch on the character. Characters with the same applicable actions share a case,
+	 * except for long ranges of characters, which are checked by range in the default case.
+	 */
+	private static String stateCase(IState state, int actionIndex) {
+		int[][] positionsPerCharacter = GeneratedActor.applicableActionPositions(state);
+		Map<List<Integer>, List<int[]>> rangesPerActions = new LinkedHashMap<List<Integer>, List<int[]>>();
+
+		for (int character = 0; character <= ICharacters.EOF; character++) {
+			int[] positions = positionsPerCharacter[character];
+			int end = character;
+
+			while (end + 1 <= ICharacters.EOF && Arrays.equals(positionsPerCharacter[end + 1], positions))
+				end++;
+
+			if (positions.length > 0) {
+				List<Integer> actions = new ArrayList<Integer>(positions.length);
+
+				for (int position : positions)
+					actions.add(position);
+
+				if (!rangesPerActions.containsKey(actions))
+					rangesPerActions.put(actions, new ArrayList<int[]>());
+
+				rangesPerActions.get(actions).add(new int[] { character, end });
+			}
+
+			character = end;
+		}
+
+		StringBuilder sb = new StringBuilder();
+		StringBuilder rangeChecks = new StringBuilder();
+
+		sb.append("\t\t\tcase ").append(state.stateNumber()).append(":\n");
+		sb.append("\t\t\t\tswitch (character) {\n");
+
+		for (Map.Entry<List<Integer>, List<int[]>> rangesForActions : rangesPerActions.entrySet()) {
+			StringBuilder cases = new StringBuilder();
+			List<String> conditions = new ArrayList<String>();
+
+			for (int[] range : rangesForActions.getValue()) {
+				if (range[1] - range[0] < MAX_CASE_RANGE) {
+					for (int character = range[0]; character <= range[1]; character++)
+						cases.append("\t\t\t\t\tcase ").append(character).append(":\n");
+				} else
+					conditions.add("character >= " + range[0] + " && character <= " + range[1]);
+			}
+
+			if (cases.length() > 0) {
+				sb.append(cases);
+
+				appendActions(sb, "\t\t\t\t\t\t", state, actionIndex, rangesForActions.getKey());
+
+				sb.append("\t\t\t\t\t\treturn;\n");
+			}
+
+			if (!conditions.isEmpty()) {
+				rangeChecks.append("\t\t\t\t\t\tif (").append(String.join(" || ", conditions)).append(") {\n");
+
+				appendActions(rangeChecks, "\t\t\t\t\t\t\t", state, actionIndex, rangesForActions.getKey());
+
+				rangeChecks.append("\t\t\t\t\t\t\treturn;\n");
+				rangeChecks.append("\t\t\t\t\t\t}\n");
+			}
+		}
+
+		if (rangeChecks.length() > 0) {
+			sb.append("\t\t\t\t\tdefault:\n");
+			sb.append(rangeChecks);
+		}
+
+		sb.append("\t\t\t\t}\n");
+		sb.append("\t\t\t\treturn;\n");
+
+		return sb.toString();
+	}
+
+	private static void appendActions(StringBuilder sb, String indent, IState state, int actionIndex, List<Integer> positions) {
+		for (int position : positions) {
+			IAction action = state.actions()[position];
+			int reduceIndex = actionIndex + position;
+
+			switch (action.actionType()) {
+				case SHIFT:
+					sb.append(indent).append("actions.shift(parse, stack, states[").append(((IShift) action).shiftState()).append("]);\n");
+
+					break;
+				case REDUCE:
+					sb.append(indent).append("actions.reduce(parse, stack, reduces[").append(reduceIndex).append("]);\n");
+
+					break;
+				case REDUCE_LOOKAHEAD:
+					sb.append(indent).append("if (((IReduceLookahead) reduces[").append(reduceIndex).append("]).allowsLookahead(parse))\n");
+					sb.append(indent).append("\tactions.reduce(parse, stack, reduces[").append(reduceIndex).append("]);\n");
+
+					break;
+				case ACCEPT:
+					sb.append(indent).append("actions.accept(parse, stack);\n");
+
+					break;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,19 @@
+package org.spoofax.jsglr2.parser;
+
+/*
+ * Cancels parses cooperatively: a parse with this token in its budget fails at the next character boundary after
+ * cancel is called, which can be done from any thread.
+ */
+public class CancellationToken {
+
+	private volatile boolean cancelled = false;
+
+	public void cancel() {
+		cancelled = true;
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+}
@@ -0,0 +1,172 @@
+package org.spoofax.jsglr2.parser;
+
+import org.spoofax.jsglr2.actions.ActionType;
+import org.spoofax.jsglr2.actions.IAction;
+import org.spoofax.jsglr2.actions.IReduce;
+import org.spoofax.jsglr2.actions.IShift;
+import org.spoofax.jsglr2.characters.ICharacters;
+import org.spoofax.jsglr2.parseforest.AbstractParseForest;
+import org.spoofax.jsglr2.parsetable.IParseTable;
+import org.spoofax.jsglr2.parsetable.IState;
+import org.spoofax.jsglr2.stack.AbstractStackNode;
+
+/*
+ * Base class of the actors that ActorGenerator generates for a specific parse table. A generated actor performs the
+ * actions of a stack for the current character with a switch on the character per state, in which the shift states and
+ * reduce actions are inlined as constants, instead of looking up the action objects of the state and dispatching on
+ * their type. The states and reduce actions are taken from the parse table the actor is instantiated with, such that
+ * the parser constructs exactly the same parse forests as when it interprets that table (see Parser.generatedActor).
+ */
+public abstract class GeneratedActor {
+
+	final IParseTable parseTable;
+	protected final IState[] states; // Per state number
+	protected final IReduce[] reduces; // Per action of every state (see actionIndices), null for other actions
+
+	protected GeneratedActor(IParseTable parseTable) {
+		if (fingerprint(parseTable) != fingerprint())
+			throw new IllegalArgumentException("Parse table does not match the parse table the actor was generated from");
+
+		this.parseTable = parseTable;
+		this.states = new IState[parseTable.stateCount()];
+
+		int actionCount = 0;
+
+		for (int stateNumber = 0; stateNumber < states.length; stateNumber++) {
+			IState state = parseTable.getState(stateNumber);
+
+			states[stateNumber] = state;
+
+			if (state != null)
+				actionCount += state.actions().length;
+		}
+
+		this.reduces = new IReduce[actionCount];
+
+		int actionIndex = 0;
+
+		for (IState state : states) {
+			if (state == null)
+				continue;
+
+			for (IAction action : state.actions()) {
+				if (IAction.typeMatchesReduceOrReduceLookahead(action))
+					reduces[actionIndex] = (IReduce) action;
+
+				actionIndex++;
+			}
+		}
+	}
+
+	/*
+	 * Performs the actions of the state of the stack that apply to the current character of the parse, in the same order
+	 * as the parser would when interpreting them.
+	 */
+	public abstract <StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest> void actor(Actions<StackNode, ParseForest> actions, Parse<StackNode, ParseForest> parse, StackNode stack);
+
+	protected abstract long fingerprint();
+
+	/*
+	 * The operations of the parser that the actions of a generated actor perform.
+	 */
+	public interface Actions<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest> {
+
+		void shift(Parse<StackNode, ParseForest> parse, StackNode stack, IState shiftState);
+
+		void reduce(Parse<StackNode, ParseForest> parse, StackNode stack, IReduce reduce);
+
+		void accept(Parse<StackNode, ParseForest> parse, StackNode stack);
+
+	}
+
+	/*
+	 * The index of the first action of every state in the actions of all states (in order of state number), which is the
+	 * index of its reduce actions in the reduces array. Both the generator and the generated actor derive the indices
+	 * from this method, which makes the indices in the generated code valid for the actions at runtime.
+	 */
+	static int[] actionIndices(IParseTable parseTable) {
+		int[] actionIndices = new int[parseTable.stateCount()];
+		int actionIndex = 0;
+
+		for (int stateNumber = 0; stateNumber < actionIndices.length; stateNumber++) {
+			IState state = parseTable.getState(stateNumber);
+
+			actionIndices[stateNumber] = actionIndex;
+
+			if (state != null)
+				actionIndex += state.actions().length;
+		}
+
+		return actionIndices;
+	}
+
+	/*
+	 * For every character (0 - 256) the positions in the actions of the state of the actions that apply to it, in the
+	 * order of State.applicableActions.
+	 */
+	static int[][] applicableActionPositions(IState state) {
+		IAction[] actions = state.actions();
+		int[][] positions = new int[ICharacters.EOF + 1][];
+
+		for (int character = 0; character <= ICharacters.EOF; character++) {
+			IAction[] applicableActions = state.applicableActions(character);
+
+			positions[character] = new int[applicableActions.length];
+
+			for (int i = 0; i < applicableActions.length; i++)
+				positions[character][i] = position(actions, applicableActions[i]);
+		}
+
+		return positions;
+	}
+
+	private static int position(IAction[] actions, IAction action) {
+		for (int position = 0; position < actions.length; position++) {
+			if (actions[position] == action)
+				return position;
+		}
+
+		for (int position = 0; position < actions.length; position++) {
+			if (actions[position].equals(action))
+				return position;
+		}
+
+		throw new IllegalArgumentException("Applicable action is not an action of the state");
+	}
+
+	/*
+	 * Summarizes the actions of a parse table per state and character, to detect that a generated actor is instantiated
+	 * with a different parse table than it was generated from.
+	 */
+	static long fingerprint(IParseTable parseTable) {
+		long fingerprint = parseTable.stateCount();
+
+		for (int stateNumber = 0; stateNumber < parseTable.stateCount(); stateNumber++) {
+			IState state = parseTable.getState(stateNumber);
+
+			if (state == null)
+				continue;
+
+			fingerprint = 31 * fingerprint + state.actions().length;
+
+			for (IAction action : state.actions()) {
+				fingerprint = 31 * fingerprint + action.actionType().ordinal();
+
+				if (action.actionType() == ActionType.SHIFT)
+					fingerprint = 31 * fingerprint + ((IShift) action).shiftState();
+				else if (IAction.typeMatchesReduceOrReduceLookahead(action))
+					fingerprint = 31 * fingerprint + ((IReduce) action).production().productionNumber();
+			}
+
+			for (int[] positions : applicableActionPositions(state)) {
+				for (int position : positions)
+					fingerprint = 31 * fingerprint + position;
+
+				fingerprint = 31 * fingerprint - 1;
+			}
+		}
+
+		return fingerprint;
+	}
+
+}
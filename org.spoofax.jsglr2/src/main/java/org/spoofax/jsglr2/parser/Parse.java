@@ -2,16 +2,20 @@ package org.spoofax.jsglr2.parser;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Queue;
 
+import org.spoofax.jsglr2.JSGLR2Variants.ActiveStacksRepresentation;
 import org.spoofax.jsglr2.characters.ICharacters;
 import org.spoofax.jsglr2.parseforest.AbstractParseForest;
 import org.spoofax.jsglr2.stack.AbstractStackNode;
 import org.spoofax.jsglr2.stack.ActiveStacks;
 import org.spoofax.jsglr2.stack.IActiveStacks;
+import org.spoofax.jsglr2.stack.PathBuffers;
+import org.spoofax.jsglr2.stack.StateIndexedActiveStacks;
 
 public class Parse<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest> {
 
@@ -19,20 +23,44 @@ public class Parse<StackNode extends AbstractStackNode<ParseForest>, ParseForest
     final public String inputString;
 	final public int inputLength;
 
-    public int currentOffset, currentLine, currentColumn, currentChar;
+    public int currentOffset, currentChar;
+    
+    private int[] lineStarts; // Offsets at which lines start, only built when a line or column is requested
 	
 	public StackNode acceptingStack;
 	public IActiveStacks<StackNode> activeStacks;
 	public Queue<StackNode> forActor, forActorDelayed;
 	public Queue<ForShifterElement<StackNode, ParseForest>> forShifter;
+	private int forActorEpoch;
+	public PathBuffers<ParseForest> pathBuffers;
+	
+	private ParseBudget budget; // Null if the parse is not bounded
+	private long deadline;
 
     public int stackNodeCount, stackLinkCount, parseNodeCount;
 
     public int ambiguousParseNodes, ambiguousTreeNodes;
     
+    public int reusedCharacterCount; // Number of characters for which the parse of a previous input was reused (see ParseCheckpoints)
+    
     private final List<IParserObserver<StackNode, ParseForest>> observers;
+    
+    // Notifications should be guarded by this flag, such that their lambdas are not allocated if there are no observers
+    public final boolean observing;
 	
 	public Parse(String inputString, String filename, List<IParserObserver<StackNode, ParseForest>> observers) {
+		this(inputString, filename, observers, null);
+	}
+	
+	/*
+	 * When a previous parse is given, its scratch structures (active stacks and the for-actor and for-shifter queues)
+	 * are cleared and reused instead of allocating new ones. The previous parse should not be used afterwards.
+	 */
+	public Parse(String inputString, String filename, List<IParserObserver<StackNode, ParseForest>> observers, Parse<StackNode, ParseForest> previous) {
+		this(inputString, filename, observers, previous, ActiveStacksRepresentation.ArrayList);
+	}
+	
+	public Parse(String inputString, String filename, List<IParserObserver<StackNode, ParseForest>> observers, Parse<StackNode, ParseForest> previous, ActiveStacksRepresentation activeStacksRepresentation) {
         this.filename = filename;
         this.inputString = inputString;
 		this.inputLength = inputString.length();
@@ -43,29 +71,88 @@ public class Parse<StackNode extends AbstractStackNode<ParseForest>, ParseForest
 
         this.ambiguousParseNodes = 0; // Number of ambiguities in the parse forest
         this.ambiguousTreeNodes = 0; // Number of ambiguities in the imploded AST (after applying post-parse filters), only available after imploding
+        this.reusedCharacterCount = 0;
 
-        Comparator<StackNode> stackNodePriorityComparator = new Comparator<StackNode>() {
-            public int compare(StackNode stackNode1, StackNode stackNode2) {
-                return 0; // TODO: implement priority (see P9707 Section 8.4)
-            }
-        };
-        
         this.acceptingStack = null;
-        this.activeStacks = new ActiveStacks<ParseForest, StackNode>();
-        this.forActor = new ArrayDeque<StackNode>();
-        this.forActorDelayed = new PriorityQueue<StackNode>(stackNodePriorityComparator);
-        this.forShifter = new ArrayDeque<ForShifterElement<StackNode, ParseForest>>();
+        this.forActorEpoch = 0;
+        
+        if (previous != null) {
+            this.activeStacks = previous.activeStacks;
+            this.forActor = previous.forActor;
+            this.forActorDelayed = previous.forActorDelayed;
+            this.forShifter = previous.forShifter;
+            this.pathBuffers = previous.pathBuffers;
+            
+            this.activeStacks.clear();
+            this.forActor.clear();
+            this.forActorDelayed.clear();
+            this.forShifter.clear();
+        } else {
+            Comparator<StackNode> stackNodePriorityComparator = new Comparator<StackNode>() {
+                public int compare(StackNode stackNode1, StackNode stackNode2) {
+                    return 0; // TODO: implement priority (see P9707 Section 8.4)
+                }
+            };
+            
+            switch (activeStacksRepresentation) {
+                case StateIndexed:
+                    this.activeStacks = new StateIndexedActiveStacks<ParseForest, StackNode>();
+                    break;
+                case ArrayList:
+                default:
+                    this.activeStacks = new ActiveStacks<ParseForest, StackNode>();
+                    break;
+            }
+            
+            this.forActor = new ArrayDeque<StackNode>();
+            this.forActorDelayed = new PriorityQueue<StackNode>(stackNodePriorityComparator);
+            this.forShifter = new ArrayDeque<ForShifterElement<StackNode, ParseForest>>();
+            this.pathBuffers = new PathBuffers<ParseForest>();
+        }
 
         this.currentOffset = 0;
-        this.currentLine = 1;
-        this.currentColumn = 1;
+        this.lineStarts = null;
 		this.currentChar = getChar(currentOffset);
 		
 		this.observers = new ArrayList<IParserObserver<StackNode, ParseForest>>(observers);
+		this.observing = !observers.isEmpty();
 	}
 	
 	public Position currentPosition() {
-	    return new Position(currentOffset, currentLine, currentColumn);
+	    return position(currentOffset);
+	}
+	
+	public Position position(int offset) {
+	    return new Position(offset, line(offset), column(offset));
+	}
+	
+	public int line(int offset) {
+	    int[] lineStarts = lineStarts();
+	    int index = Arrays.binarySearch(lineStarts, offset);
+	    
+	    return index >= 0 ? index + 1 : -index - 1; // Lines are 1-based
+	}
+	
+	public int column(int offset) {
+	    return offset - lineStarts()[line(offset) - 1] + 1; // Columns are 1-based
+	}
+	
+	private int[] lineStarts() {
+	    if (lineStarts == null) {
+	        int lineCount = 1;
+	        
+	        for (int i = 0; i < inputLength; i++)
+	            if (inputString.charAt(i) == '\n')
+	                lineCount++;
+	        
+	        lineStarts = new int[lineCount];
+	        
+	        for (int i = 0, line = 1; i < inputLength; i++)
+	            if (inputString.charAt(i) == '\n')
+	                lineStarts[line++] = i + 1;
+	    }
+	    
+	    return lineStarts;
 	}
 	
 	public boolean hasNext() {
@@ -80,16 +167,18 @@ public class Parse<StackNode extends AbstractStackNode<ParseForest>, ParseForest
 		if (currentChar > 256)
 		    throw new ParseException("Unicode not supported");
 		
-		if (ICharacters.isNewLine(currentChar)) {
-		    currentLine++;
-		    currentColumn = 1;
-		} else {
-		    currentColumn++;
-		}
-		
 		return currentChar;
 	}
 	
+	/*
+	 * Continue at the given offset, for resuming from a checkpoint of a parse of an input with the same prefix or for
+	 * skipping input of which the parse is reused.
+	 */
+	void resumeAt(int offset) {
+	    currentOffset = offset;
+	    currentChar = getChar(offset);
+	}
+	
 	private int getChar(int position) {
 		return position < inputLength ? inputString.charAt(position) : ICharacters.EOF;
 	}
@@ -102,17 +191,74 @@ public class Parse<StackNode extends AbstractStackNode<ParseForest>, ParseForest
 	    return getPart(currentOffset + 1, Math.min(currentOffset + 1 + length, inputLength));
 	}
 	
+	/*
+	 * Releases the graph-structured stack when the parse is finished. Parse forests reference their parse for the input,
+	 * so a retained forest or result would otherwise keep all stack nodes and links alive through the accepting stack and
+	 * the scratch structures. The scratch structures are cleared instead of dropped, such that a next parse can still
+	 * reuse them. Checkpoints are not part of the parse (see ParseCheckpoints), such that they do not keep the stack
+	 * alive either.
+	 */
+	void detach() {
+		acceptingStack = null;
+		
+		activeStacks.release();
+		clearForActor();
+		forShifter.clear();
+	}
+	
+	void startBudget(ParseBudget budget) {
+		this.budget = budget;
+		this.deadline = budget != null ? budget.deadline() : 0;
+	}
+	
+	void checkBudget() throws ParseBudgetException {
+		if (budget != null)
+			budget.check(this, deadline);
+	}
+	
+	/*
+	 * Stacks that are queued for the actor are marked with the current epoch, such that membership can be checked in
+	 * constant time. Clearing the queues starts a new epoch, which invalidates all marks at once.
+	 */
+	public void clearForActor() {
+		forActor.clear();
+		forActorDelayed.clear();
+		
+		forActorEpoch++;
+	}
+	
+	public void addForActor(StackNode stack) {
+		stack.forActorEpoch = forActorEpoch;
+		
+		forActor.add(stack);
+	}
+	
+	public void addForActorDelayed(StackNode stack) {
+		stack.forActorEpoch = forActorEpoch;
+		
+		forActorDelayed.add(stack);
+	}
+	
+	public boolean isQueuedForActor(StackNode stack) {
+		return stack.forActorEpoch == forActorEpoch;
+	}
+	
 	public boolean hasNextActorStack() {
 		return !forActor.isEmpty() || !forActorDelayed.isEmpty();
 	}
 	
 	public StackNode getNextActorStack() {
-		// First return all actors in forActor
+		StackNode stack;
+		
+		// First return all actors in forActor, then return actors from forActorDelayed
 		if (!forActor.isEmpty())
-			return forActor.remove();
+			stack = forActor.remove();
+		else
+			stack = forActorDelayed.remove();
+		
+		stack.forActorEpoch = forActorEpoch - 1;
 		
-		// Then return actors from forActorDelayed
-		return forActorDelayed.remove();
+		return stack;
 	}
     
     public void notify(IParserNotification<StackNode, ParseForest> notification) {
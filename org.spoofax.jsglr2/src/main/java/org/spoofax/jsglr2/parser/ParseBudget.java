@@ -0,0 +1,61 @@
+package org.spoofax.jsglr2.parser;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Bounds the resources a single parse can use: wall-clock time, the number of created stack nodes and parse nodes,
+ * and cooperative cancellation. The budget is checked at every character boundary; a parse that exceeds it fails
+ * with a ParseBudgetException. Budgets are immutable, a limit of 0 means unlimited.
+ */
+public final class ParseBudget {
+
+	public static final ParseBudget UNLIMITED = new ParseBudget(0, 0, 0, null);
+
+	public final long timeoutNanos;
+	public final int maxStackNodes;
+	public final int maxParseNodes;
+	public final CancellationToken cancellationToken; // Null if the parse cannot be cancelled
+
+	private ParseBudget(long timeoutNanos, int maxStackNodes, int maxParseNodes, CancellationToken cancellationToken) {
+		this.timeoutNanos = timeoutNanos;
+		this.maxStackNodes = maxStackNodes;
+		this.maxParseNodes = maxParseNodes;
+		this.cancellationToken = cancellationToken;
+	}
+
+	public ParseBudget withTimeout(long timeout, TimeUnit unit) {
+		return new ParseBudget(unit.toNanos(timeout), maxStackNodes, maxParseNodes, cancellationToken);
+	}
+
+	public ParseBudget withMaxStackNodes(int maxStackNodes) {
+		return new ParseBudget(timeoutNanos, maxStackNodes, maxParseNodes, cancellationToken);
+	}
+
+	public ParseBudget withMaxParseNodes(int maxParseNodes) {
+		return new ParseBudget(timeoutNanos, maxStackNodes, maxParseNodes, cancellationToken);
+	}
+
+	public ParseBudget withCancellationToken(CancellationToken cancellationToken) {
+		return new ParseBudget(timeoutNanos, maxStackNodes, maxParseNodes, cancellationToken);
+	}
+
+	// The deadline (in terms of System.nanoTime) for a parse that starts now, if the budget has a timeout
+	long deadline() {
+		return System.nanoTime() + timeoutNanos;
+	}
+
+	void check(Parse<?, ?> parse, long deadline) throws ParseBudgetException {
+		if (cancellationToken != null && cancellationToken.isCancelled())
+			throw new ParseBudgetException(ParseFailure.Reason.Cancelled, "parse cancelled at offset " + parse.currentOffset);
+
+		if (maxStackNodes > 0 && parse.stackNodeCount > maxStackNodes)
+			throw new ParseBudgetException(ParseFailure.Reason.StackNodeLimit, "stack node limit of " + maxStackNodes + " exceeded at offset " + parse.currentOffset);
+
+		if (maxParseNodes > 0 && parse.parseNodeCount > maxParseNodes)
+			throw new ParseBudgetException(ParseFailure.Reason.ParseNodeLimit, "parse node limit of " + maxParseNodes + " exceeded at offset " + parse.currentOffset);
+
+		if (timeoutNanos > 0 && System.nanoTime() - deadline > 0)
+			throw new ParseBudgetException(ParseFailure.Reason.Timeout, "timeout of " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms exceeded at offset " + parse.currentOffset);
+	}
+
+}
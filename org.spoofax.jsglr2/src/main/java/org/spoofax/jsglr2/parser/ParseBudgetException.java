@@ -0,0 +1,13 @@
+package org.spoofax.jsglr2.parser;
+
+public class ParseBudgetException extends ParseException {
+
+	public final ParseFailure.Reason reason;
+
+	public ParseBudgetException(ParseFailure.Reason reason, String message) {
+		super(message);
+
+		this.reason = reason;
+	}
+
+}
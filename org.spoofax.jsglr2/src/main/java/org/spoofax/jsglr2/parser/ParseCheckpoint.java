@@ -0,0 +1,87 @@
+package org.spoofax.jsglr2.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.spoofax.jsglr2.parseforest.AbstractParseForest;
+import org.spoofax.jsglr2.parseforest.ParseForestManager;
+import org.spoofax.jsglr2.parsetable.IState;
+import org.spoofax.jsglr2.stack.AbstractStackNode;
+import org.spoofax.jsglr2.stack.StackLink;
+import org.spoofax.jsglr2.stack.StackManager;
+
+/*
+ * A snapshot of the active stacks at the start of parsing a character, from which a parse of an input with the same
+ * prefix can be resumed. At that moment the active stacks only have the out links created by the shifter, of which the
+ * stack nodes they point to and their parse forests are recorded. A resumed parse copies those stack nodes, the stack
+ * nodes they reach and their parse forests (see ParseCheckpoints.resume), since the parse would otherwise add in links
+ * to the stack nodes of the previous parse and tokenize its parse forests. The active stacks themselves are recreated
+ * from their state and the recorded links. The node and link counts are recorded as well, such that the stack nodes of
+ * the resumed parse are numbered after the copied ones.
+ */
+public class ParseCheckpoint<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest> {
+
+    public final int offset;
+    final int stackNodeCount, stackLinkCount, parseNodeCount, ambiguousParseNodes;
+    final StackNode initialStackNode;
+    final List<ActiveStack<StackNode, ParseForest>> activeStacks;
+
+    static class ActiveStack<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest> {
+        final IState state;
+        final List<StackNode> linksTo; // Per out link the stack node it points to...
+        final List<ParseForest> parseForests; // ... and its parse forest
+
+        ActiveStack(IState state) {
+            this.state = state;
+            this.linksTo = new ArrayList<StackNode>();
+            this.parseForests = new ArrayList<ParseForest>();
+        }
+    }
+
+    ParseCheckpoint(Parse<StackNode, ParseForest> parse, StackNode initialStackNode, StackManager<StackNode, ParseForest> stackManager) {
+        this.offset = parse.currentOffset;
+        this.stackNodeCount = parse.stackNodeCount;
+        this.stackLinkCount = parse.stackLinkCount;
+        this.parseNodeCount = parse.parseNodeCount;
+        this.ambiguousParseNodes = parse.ambiguousParseNodes;
+        this.initialStackNode = initialStackNode;
+        this.activeStacks = new ArrayList<ActiveStack<StackNode, ParseForest>>();
+
+        for (StackNode activeStack : parse.activeStacks) {
+            ActiveStack<StackNode, ParseForest> recorded = new ActiveStack<StackNode, ParseForest>(activeStack.state);
+
+            for (StackLink<StackNode, ParseForest> link : stackManager.stackLinksOut(activeStack)) {
+                recorded.linksTo.add(link.to);
+                recorded.parseForests.add(link.parseForest);
+            }
+
+            activeStacks.add(recorded);
+        }
+    }
+
+    /*
+     * The checkpoint for a parse that copied the stack nodes and parse forests of the parse of this checkpoint.
+     */
+    ParseCheckpoint(ParseCheckpoint<StackNode, ParseForest> checkpoint, Map<StackNode, StackNode> copies, Parse<StackNode, ParseForest> parse, ParseForestManager<ParseForest, ?, ?> parseForestManager, Map<Object, Object> relocated) {
+        this.offset = checkpoint.offset;
+        this.stackNodeCount = checkpoint.stackNodeCount;
+        this.stackLinkCount = checkpoint.stackLinkCount;
+        this.parseNodeCount = checkpoint.parseNodeCount;
+        this.ambiguousParseNodes = checkpoint.ambiguousParseNodes;
+        this.initialStackNode = copies.get(checkpoint.initialStackNode);
+        this.activeStacks = new ArrayList<ActiveStack<StackNode, ParseForest>>();
+
+        for (ActiveStack<StackNode, ParseForest> activeStack : checkpoint.activeStacks) {
+            ActiveStack<StackNode, ParseForest> copy = new ActiveStack<StackNode, ParseForest>(activeStack.state);
+
+            for (int i = 0; i < activeStack.linksTo.size(); i++) {
+                copy.linksTo.add(copies.get(activeStack.linksTo.get(i)));
+                copy.parseForests.add(parseForestManager.relocate(parse, activeStack.parseForests.get(i), 0, relocated));
+            }
+
+            activeStacks.add(copy);
+        }
+    }
+
+}
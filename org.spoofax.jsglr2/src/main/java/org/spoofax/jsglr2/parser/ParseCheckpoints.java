@@ -0,0 +1,400 @@
+package org.spoofax.jsglr2.parser;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.spoofax.jsglr2.parseforest.AbstractParseForest;
+import org.spoofax.jsglr2.parseforest.ParseForestManager;
+import org.spoofax.jsglr2.stack.AbstractStackNode;
+import org.spoofax.jsglr2.stack.StackLink;
+import org.spoofax.jsglr2.stack.StackManager;
+
+/*
+ * The checkpoints that a parse records every interval characters (see ParseCheckpoint), for resuming parses of edited
+ * versions of its input. They are not part of the parse itself, since they reference the graph-structured stack that a
+ * parse releases when it is finished. Instead, they are kept by the caller for as long as they are needed (see
+ * IncrementalParser).
+ *
+ * Besides the checkpoints, a parse records its synchronization points: the offsets at which it has a single active
+ * stack. Everything the parse constructs after a synchronization point is built on top of that stack, until a
+ * reduction reaches below it. The parse of the characters in between is thus determined by the state of the stack
+ * and the input from there on, and not by the input before. A parse of an edited input that reaches a stack with the
+ * same state at the same position relative to the end of the edits reuses the stack nodes and parse forests that the
+ * previous parse constructed on top of that stack, copied with their offsets shifted, and continues after them.
+ */
+public class ParseCheckpoints<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest> {
+
+    final int interval;
+    private final List<ParseCheckpoint<StackNode, ParseForest>> checkpoints;
+    ParseCheckpoint<StackNode, ParseForest> resumeFrom; // Null if the parse starts at the beginning of the input
+
+    private ParseCheckpoints<StackNode, ParseForest> previous; // Null if the parse does not reuse a previous parse
+    private int reuseFrom; // Offset from which the input is equal to the input of the previous parse...
+    private int delta; // ... after shifting it by this delta
+
+    private StackNode[] syncStacks; // Per offset the single active stack at the start of that character, if any
+    private int[] syncLinksOut; // Per synchronization point the number of out links its stack had at that moment
+    private int[] reducedBelow; // Per synchronization point the first character for which a reduction reached below it
+    private int[] openSyncs; // Synchronization points that were not reduced below yet, in order of their offset
+    private int openSyncsSize;
+    private int linkCountAtCharacter;
+
+    public ParseCheckpoints(int interval) {
+        if (interval <= 0)
+            throw new IllegalArgumentException("Checkpoint interval should be positive");
+
+        this.interval = interval;
+        this.checkpoints = new ArrayList<ParseCheckpoint<StackNode, ParseForest>>();
+        this.resumeFrom = null;
+        this.previous = null;
+    }
+
+    /*
+     * Checkpoints for a parse of an edited input, which resumes from the given checkpoint of this parse (if not null)
+     * and reuses this parse after the edits. The edits should end at reuseFrom in the edited input and change its
+     * length by delta. The checkpoints before the one resumed from remain valid for the edited input and are taken over
+     * (see resume).
+     */
+    public ParseCheckpoints<StackNode, ParseForest> forEditedInput(ParseCheckpoint<StackNode, ParseForest> checkpoint, int reuseFrom, int delta) {
+        ParseCheckpoints<StackNode, ParseForest> edited = new ParseCheckpoints<StackNode, ParseForest>(interval);
+
+        if (checkpoint != null) {
+            for (ParseCheckpoint<StackNode, ParseForest> previousCheckpoint : checkpoints) {
+                if (previousCheckpoint.offset <= checkpoint.offset)
+                    edited.checkpoints.add(previousCheckpoint);
+            }
+        }
+
+        edited.resumeFrom = checkpoint;
+        edited.previous = this;
+        edited.reuseFrom = reuseFrom;
+        edited.delta = delta;
+
+        return edited;
+    }
+
+    /*
+     * The last checkpoint at or before the offset, null if there is none.
+     */
+    public ParseCheckpoint<StackNode, ParseForest> lastAtOrBefore(int offset) {
+        for (int i = checkpoints.size() - 1; i >= 0; i--) {
+            ParseCheckpoint<StackNode, ParseForest> checkpoint = checkpoints.get(i);
+
+            if (checkpoint.offset <= offset)
+                return checkpoint;
+        }
+
+        return null;
+    }
+
+    /*
+     * Called before the parse starts, i.e. before the initial stack node is created or the parse resumes.
+     */
+    @SuppressWarnings("unchecked")
+    void start(Parse<StackNode, ParseForest> parse) {
+        syncStacks = (StackNode[]) new AbstractStackNode[parse.inputLength + 1];
+        syncLinksOut = new int[parse.inputLength + 1];
+        reducedBelow = new int[parse.inputLength + 1];
+        openSyncs = new int[parse.inputLength + 1];
+        openSyncsSize = 0;
+    }
+
+    /*
+     * Resumes the parse from the checkpoint of the previous parse and returns the (copied) initial stack node. The
+     * stack nodes of the previous parse before the checkpoint are copied, in order of their stack number, together with
+     * their parse forests. Sharing them would let the previous parse and its result grow with every resumed parse, by
+     * the in links that Elkhound stack nodes keep and the tokens the imploder attaches to parse forests. The stack
+     * nodes referenced by the checkpoints and synchronization points before the checkpoint are copied as well, such
+     * that those can be taken over without keeping the previous parse alive.
+     */
+    StackNode resume(Parse<StackNode, ParseForest> parse, StackManager<StackNode, ParseForest> stackManager, ParseForestManager<ParseForest, ?, ?> parseForestManager) {
+        ParseCheckpoint<StackNode, ParseForest> checkpoint = resumeFrom;
+        Set<StackNode> visited = Collections.newSetFromMap(new IdentityHashMap<StackNode, Boolean>());
+        List<StackNode> toCopy = new ArrayList<StackNode>();
+        Deque<StackNode> toVisit = new ArrayDeque<StackNode>();
+
+        toVisit.push(checkpoint.initialStackNode);
+
+        for (ParseCheckpoint<StackNode, ParseForest> previousCheckpoint : checkpoints) {
+            for (ParseCheckpoint.ActiveStack<StackNode, ParseForest> activeStack : previousCheckpoint.activeStacks)
+                toVisit.addAll(activeStack.linksTo);
+        }
+
+        for (int offset = 0; offset < checkpoint.offset; offset++) {
+            if (previous.syncStacks[offset] != null)
+                toVisit.push(previous.syncStacks[offset]);
+        }
+
+        while (!toVisit.isEmpty()) {
+            StackNode node = toVisit.pop();
+
+            if (!visited.add(node))
+                continue;
+
+            toCopy.add(node);
+
+            for (StackLink<StackNode, ParseForest> link : stackManager.stackLinksOut(node)) {
+                if (link == null)
+                    break;
+
+                toVisit.push(link.to);
+            }
+        }
+
+        // Stack links point to stack nodes with a lower stack number, which are thus copied first
+        toCopy.sort(Comparator.comparingInt(node -> node.stackNumber));
+
+        Map<StackNode, StackNode> copies = new IdentityHashMap<StackNode, StackNode>();
+        Map<Object, Object> relocated = new IdentityHashMap<Object, Object>();
+
+        for (StackNode node : toCopy) {
+            StackNode copy = node == checkpoint.initialStackNode ? stackManager.createInitialStackNode(parse, node.state) : stackManager.createStackNode(parse, node.state, node.offset);
+
+            for (StackLink<StackNode, ParseForest> link : stackManager.stackLinksOut(node)) {
+                if (link == null)
+                    break;
+
+                StackLink<StackNode, ParseForest> linkCopy = stackManager.createStackLink(parse, copy, copies.get(link.to), parseForestManager.relocate(parse, link.parseForest, 0, relocated));
+
+                if (link.isRejected())
+                    linkCopy.reject();
+            }
+
+            copies.put(node, copy);
+        }
+
+        for (int i = 0; i < checkpoints.size(); i++)
+            checkpoints.set(i, new ParseCheckpoint<StackNode, ParseForest>(checkpoints.get(i), copies, parse, parseForestManager, relocated));
+
+        for (int offset = 0; offset < checkpoint.offset; offset++) {
+            if (previous.syncStacks[offset] == null)
+                continue;
+
+            syncStacks[offset] = copies.get(previous.syncStacks[offset]);
+            syncLinksOut[offset] = previous.syncLinksOut[offset];
+
+            // Reductions after the checkpoint can be different for the edited input
+            if (previous.reducedBelow[offset] < checkpoint.offset)
+                reducedBelow[offset] = previous.reducedBelow[offset];
+            else
+                openSync(offset);
+        }
+
+        // The copies are numbered as in the previous parse, the new stack nodes and parse forests after them
+        parse.stackNodeCount = checkpoint.stackNodeCount;
+        parse.stackLinkCount = checkpoint.stackLinkCount;
+        parse.parseNodeCount = checkpoint.parseNodeCount;
+        parse.ambiguousParseNodes = checkpoint.ambiguousParseNodes;
+
+        parse.resumeAt(checkpoint.offset);
+
+        ParseCheckpoint<StackNode, ParseForest> resumed = lastAtOrBefore(checkpoint.offset);
+
+        for (ParseCheckpoint.ActiveStack<StackNode, ParseForest> activeStack : resumed.activeStacks) {
+            StackNode stack = stackManager.createStackNode(parse, activeStack.state);
+
+            for (int i = 0; i < activeStack.linksTo.size(); i++)
+                stackManager.createStackLink(parse, stack, activeStack.linksTo.get(i), activeStack.parseForests.get(i));
+
+            parse.activeStacks.add(stack);
+        }
+
+        parse.reusedCharacterCount += checkpoint.offset;
+
+        resumeFrom = null; // Does not keep the previous parse alive any longer than needed
+
+        return copies.get(checkpoint.initialStackNode);
+    }
+
+    /*
+     * Called at the start of each character, before the actor. If the parse of the previous input can be reused from
+     * here, the parse continues after the reused part instead.
+     */
+    void startCharacter(Parse<StackNode, ParseForest> parse, StackNode initialStackNode, StackManager<StackNode, ParseForest> stackManager, ParseForestManager<ParseForest, ?, ?> parseForestManager) {
+        record(parse, initialStackNode, stackManager);
+        recordSync(parse, stackManager);
+
+        while (reuse(parse, stackManager, parseForestManager)) {
+            record(parse, initialStackNode, stackManager);
+            recordSync(parse, stackManager);
+        }
+
+        linkCountAtCharacter = parse.stackLinkCount;
+    }
+
+    /*
+     * Called after the actor, before the shifter. The links that were created for the character are out links of the
+     * active stacks, a link to a stack node numbered below a synchronization point reduced below it.
+     */
+    void recordReductions(Parse<StackNode, ParseForest> parse, StackManager<StackNode, ParseForest> stackManager) {
+        int lowestStackNumber = Integer.MAX_VALUE;
+
+        for (StackNode stack : parse.activeStacks) {
+            for (StackLink<StackNode, ParseForest> link : stackManager.stackLinksOut(stack)) {
+                if (link != null && link.linkNumber >= linkCountAtCharacter)
+                    lowestStackNumber = Math.min(lowestStackNumber, link.to.stackNumber);
+            }
+        }
+
+        while (openSyncsSize > 0 && syncStacks[openSyncs[openSyncsSize - 1]].stackNumber > lowestStackNumber)
+            reducedBelow[openSyncs[--openSyncsSize]] = parse.currentOffset;
+    }
+
+    void finish() {
+        previous = null;
+        resumeFrom = null;
+    }
+
+    private void record(Parse<StackNode, ParseForest> parse, StackNode initialStackNode, StackManager<StackNode, ParseForest> stackManager) {
+        int lastCheckpointOffset = checkpoints.isEmpty() ? 0 : checkpoints.get(checkpoints.size() - 1).offset;
+
+        if (parse.currentOffset >= lastCheckpointOffset + interval)
+            checkpoints.add(new ParseCheckpoint<StackNode, ParseForest>(parse, initialStackNode, stackManager));
+    }
+
+    private void recordSync(Parse<StackNode, ParseForest> parse, StackManager<StackNode, ParseForest> stackManager) {
+        if (parse.activeStacks.size() != 1)
+            return;
+
+        StackNode stack = parse.activeStacks.get(0);
+
+        syncStacks[parse.currentOffset] = stack;
+        syncLinksOut[parse.currentOffset] = linksOutCount(stack, stackManager);
+
+        openSync(parse.currentOffset);
+    }
+
+    private void openSync(int offset) {
+        reducedBelow[offset] = Integer.MAX_VALUE;
+        openSyncs[openSyncsSize++] = offset;
+    }
+
+    /*
+     * Reuses the previous parse if its synchronization point that corresponds to the current offset has a stack with
+     * the same state as the single active stack. The stack nodes that the previous parse constructed on top of it, up
+     * to the last synchronization point before a reduction reached below it, are copied on top of the active stack.
+     * Only the links that existed when that last synchronization point was reached are copied, later links depend on
+     * the input after it.
+     */
+    private boolean reuse(Parse<StackNode, ParseForest> parse, StackManager<StackNode, ParseForest> stackManager, ParseForestManager<ParseForest, ?, ?> parseForestManager) {
+        if (previous == null || parse.currentOffset < reuseFrom || parse.activeStacks.size() != 1)
+            return false;
+
+        int start = parse.currentOffset - delta;
+        int previousLength = previous.syncStacks.length - 1;
+
+        if (start > previousLength)
+            return false;
+
+        StackNode stack = parse.activeStacks.get(0);
+        StackNode previousStart = previous.syncStacks[start];
+
+        if (previousStart == null || previousStart.state.stateNumber() != stack.state.stateNumber() || stack.allOutLinksRejected())
+            return false;
+
+        int end = Math.min(previous.reducedBelow[start], previousLength);
+
+        while (end > start && previous.syncStacks[end] == null)
+            end--;
+
+        if (end == start)
+            return false;
+
+        StackNode previousEnd = previous.syncStacks[end];
+        Map<StackNode, StackNode> copies = new IdentityHashMap<StackNode, StackNode>();
+        Map<Object, Object> relocated = new IdentityHashMap<Object, Object>();
+        Deque<StackNode> toCopy = new ArrayDeque<StackNode>();
+
+        copies.put(previousStart, stack);
+        toCopy.push(previousEnd);
+
+        // Copies the stack nodes after the stack nodes their links point to, which Elkhound stack nodes require
+        while (!toCopy.isEmpty()) {
+            StackNode node = toCopy.peek();
+
+            if (copies.containsKey(node)) {
+                toCopy.pop();
+
+                continue;
+            }
+
+            int linksOut = node == previousEnd ? previous.syncLinksOut[end] : Integer.MAX_VALUE;
+            boolean linksOutCopied = true;
+            int i = 0;
+
+            for (StackLink<StackNode, ParseForest> link : stackManager.stackLinksOut(node)) {
+                if (link == null || i++ == linksOut)
+                    break;
+
+                if (!copies.containsKey(link.to)) {
+                    if (link.to.stackNumber < previousStart.stackNumber)
+                        throw new IllegalStateException("reused stack node " + node.stackNumber + " reaches below synchronization point " + start);
+
+                    toCopy.push(link.to);
+
+                    linksOutCopied = false;
+                }
+            }
+
+            if (linksOutCopied) {
+                toCopy.pop();
+
+                StackNode copy = stackManager.createStackNode(parse, node.state, node.offset + delta);
+
+                i = 0;
+
+                for (StackLink<StackNode, ParseForest> link : stackManager.stackLinksOut(node)) {
+                    if (link == null || i++ == linksOut)
+                        break;
+
+                    StackLink<StackNode, ParseForest> linkCopy = stackManager.createStackLink(parse, copy, copies.get(link.to), parseForestManager.relocate(parse, link.parseForest, delta, relocated));
+
+                    if (link.isRejected())
+                        linkCopy.reject();
+                }
+
+                copies.put(node, copy);
+            }
+        }
+
+        for (int offset = start + 1; offset < end; offset++) {
+            if (previous.syncStacks[offset] == null)
+                continue;
+
+            syncStacks[offset + delta] = copies.get(previous.syncStacks[offset]);
+            syncLinksOut[offset + delta] = previous.syncLinksOut[offset];
+
+            // Reductions from the end onwards are not reused and can be different for the edited input
+            if (previous.reducedBelow[offset] < end)
+                reducedBelow[offset + delta] = previous.reducedBelow[offset] + delta;
+            else
+                openSync(offset + delta);
+        }
+
+        parse.activeStacks.clear();
+        parse.activeStacks.add(copies.get(previousEnd));
+        parse.resumeAt(end + delta);
+        parse.reusedCharacterCount += end - start;
+
+        return true;
+    }
+
+    private int linksOutCount(StackNode stack, StackManager<StackNode, ParseForest> stackManager) {
+        int count = 0;
+
+        for (StackLink<StackNode, ParseForest> link : stackManager.stackLinksOut(stack)) {
+            if (link != null)
+                count++;
+        }
+
+        return count;
+    }
+
+}
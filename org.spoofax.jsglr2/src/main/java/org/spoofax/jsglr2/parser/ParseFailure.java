@@ -5,12 +5,18 @@ import org.spoofax.jsglr2.stack.AbstractStackNode;
 
 public class ParseFailure<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest, AbstractSyntaxTree> extends ParseResult<StackNode, ParseForest, AbstractSyntaxTree> {
 	
+	public enum Reason {
+		ParseError, Timeout, StackNodeLimit, ParseNodeLimit, Cancelled
+	}
+	
 	public final ParseException parseException;
+	public final Reason reason;
 	
 	public ParseFailure(Parse<StackNode, ParseForest> parse, ParseException parseException) {
         super(parse, false);
         
 		this.parseException = parseException;
+		this.reason = parseException instanceof ParseBudgetException ? ((ParseBudgetException) parseException).reason : Reason.ParseError;
 	}
 
 }
@@ -1,8 +1,10 @@
 package org.spoofax.jsglr2.parser;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import org.spoofax.jsglr2.JSGLR2Variants.ActiveStacksRepresentation;
 import org.spoofax.jsglr2.JSGLR2Variants.ParseForestConstruction;
 import org.spoofax.jsglr2.actions.IAction;
 import org.spoofax.jsglr2.actions.IReduce;
@@ -17,13 +19,33 @@ import org.spoofax.jsglr2.reducing.ReduceManager;
 import org.spoofax.jsglr2.stack.AbstractStackNode;
 import org.spoofax.jsglr2.stack.StackManager;
 
-public class Parser<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest, ParseNode extends ParseForest, Derivation> implements IParser<StackNode, ParseForest> {
+public final class Parser<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest, ParseNode extends ParseForest, Derivation> implements IParser<StackNode, ParseForest> {
 
     private final IParseTable parseTable;
     private final StackManager<StackNode, ParseForest> stackManager;
     private final ParseForestManager<ParseForest, ParseNode, Derivation> parseForestManager;
     private final ReduceManager<StackNode, ParseForest, ParseNode, Derivation> reducer;
 	private final List<IParserObserver<StackNode, ParseForest>> observers;
+	private boolean reuseParseStructures;
+	private Parse<StackNode, ParseForest> previousParse;
+	private ActiveStacksRepresentation activeStacksRepresentation;
+	private ParseBudget budget;
+	private GeneratedActor generatedActor; // Null if the actions of the parse table are interpreted
+	
+	// The operations that a generated actor performs on this parser
+	private final GeneratedActor.Actions<StackNode, ParseForest> actions = new GeneratedActor.Actions<StackNode, ParseForest>() {
+		public void shift(Parse<StackNode, ParseForest> parse, StackNode stack, IState shiftState) {
+			addForShifter(parse, stack, shiftState);
+		}
+		
+		public void reduce(Parse<StackNode, ParseForest> parse, StackNode stack, IReduce reduce) {
+			reducer.doReductions(parse, stack, reduce);
+		}
+		
+		public void accept(Parse<StackNode, ParseForest> parse, StackNode stack) {
+			Parser.this.accept(parse, stack);
+		}
+	};
     
     public Parser(IParseTable parseTable, StackManager<StackNode, ParseForest> stackManager, ParseForestManager<ParseForest, ParseNode, Derivation> parseForestManager) {
         this.parseTable = parseTable;
@@ -31,6 +53,8 @@ public class Parser<StackNode extends AbstractStackNode<ParseForest>, ParseFores
         this.parseForestManager = parseForestManager;
         this.reducer = new ReduceManager<StackNode, ParseForest, ParseNode, Derivation>(parseTable, stackManager, parseForestManager, ParseForestConstruction.Full);
         this.observers = new ArrayList<IParserObserver<StackNode, ParseForest>>();
+        this.reuseParseStructures = false;
+        this.activeStacksRepresentation = ActiveStacksRepresentation.ArrayList;
     }
     
     public Parser(IParseTable parseTable, StackManager<StackNode, ParseForest> stackManager, ParseForestManager<ParseForest, ParseNode, Derivation> parseForestManager, ReduceManager<StackNode, ParseForest, ParseNode, Derivation> reducer) {
@@ -39,24 +63,78 @@ public class Parser<StackNode extends AbstractStackNode<ParseForest>, ParseFores
         this.parseForestManager = parseForestManager;
         this.reducer = reducer;
         this.observers = new ArrayList<IParserObserver<StackNode, ParseForest>>();
+        this.reuseParseStructures = false;
+        this.activeStacksRepresentation = ActiveStacksRepresentation.ArrayList;
     }
 	
 	public ParseResult<StackNode, ParseForest, ?> parse(String inputString, String filename, String startSymbol) {
-		Parse<StackNode, ParseForest> parse = new Parse<StackNode, ParseForest>(inputString, filename, observers);
-        
-		notify(observer -> observer.parseStart(parse));
+		return parse(inputString, filename, startSymbol, budget);
+	}
+	
+	/*
+	 * Parses with the given budget instead of the default budget of the parser. The parse fails with a
+	 * ParseBudgetException if the budget is exceeded.
+	 */
+	public ParseResult<StackNode, ParseForest, ?> parse(String inputString, String filename, String startSymbol, ParseBudget budget) {
+		return parse(inputString, filename, startSymbol, budget, null);
+	}
+	
+	/*
+	 * Parses while recording checkpoints, from which later parses of edited versions of the input can resume (see
+	 * IncrementalParser). If the checkpoints are to resume from a checkpoint of a previous parse, the input should be
+	 * equal to the input of the previous parse up to the checkpoint offset plus the maximum lookahead of the parse table,
+	 * since the actions taken before the checkpoint depend on those characters. The stack nodes and parse forests of the
+	 * previous parse up to the checkpoint are then copied instead of parsed again. After the edits, the parse of the
+	 * previous input is reused where the parse synchronizes with it (see ParseCheckpoints).
+	 */
+	public ParseResult<StackNode, ParseForest, ?> parse(String inputString, String filename, String startSymbol, ParseCheckpoints<StackNode, ParseForest> checkpoints) {
+		if (checkpoints.resumeFrom == null)
+			return parse(inputString, filename, startSymbol, budget, checkpoints);
+		
+		Parse<StackNode, ParseForest> parse = startParse(inputString, filename, budget);
+		
+		checkpoints.start(parse);
+		
+		StackNode initialStackNode = checkpoints.resume(parse, stackManager, parseForestManager);
+		
+		return parse(parse, initialStackNode, startSymbol, checkpoints);
+	}
+	
+	private ParseResult<StackNode, ParseForest, ?> parse(String inputString, String filename, String startSymbol, ParseBudget budget, ParseCheckpoints<StackNode, ParseForest> checkpoints) {
+		Parse<StackNode, ParseForest> parse = startParse(inputString, filename, budget);
+		
+		if (checkpoints != null)
+		    checkpoints.start(parse);
 		
 		StackNode initialStackNode = stackManager.createInitialStackNode(parse, parseTable.startState());
 
         parse.activeStacks.add(initialStackNode);
+        
+        return parse(parse, initialStackNode, startSymbol, checkpoints);
+	}
+	
+	private Parse<StackNode, ParseForest> startParse(String inputString, String filename, ParseBudget budget) {
+		Parse<StackNode, ParseForest> parse = new Parse<StackNode, ParseForest>(inputString, filename, observers, previousParse, activeStacksRepresentation);
+		
+		parse.startBudget(budget);
 		
+		if (reuseParseStructures)
+			previousParse = parse;
+        
+		if (parse.observing)
+		    notify(observer -> observer.parseStart(parse));
+		
+		return parse;
+	}
+	
+	private ParseResult<StackNode, ParseForest, ?> parse(Parse<StackNode, ParseForest> parse, StackNode initialStackNode, String startSymbol, ParseCheckpoints<StackNode, ParseForest> checkpoints) {
 		try {
-			parseCharacter(parse);
+			parseCharacter(parse, initialStackNode, checkpoints);
 			
 			while (parse.hasNext() && !parse.activeStacks.isEmpty()) {
 				parse.next();
 				
-				parseCharacter(parse);
+				parseCharacter(parse, initialStackNode, checkpoints);
 			}
 			
 			ParseResult<StackNode, ParseForest, ?> result;
@@ -70,13 +148,15 @@ public class Parser<StackNode extends AbstractStackNode<ParseForest>, ParseFores
 				
 				ParseSuccess<StackNode, ParseForest, ?> success = new ParseSuccess(parse, parseForestWithStartSymbol);
 				
-				notify(observer -> observer.success(success));
+				if (parse.observing)
+				    notify(observer -> observer.success(success));
 				
 				result = success;
 			} else {
 				ParseFailure<StackNode, ParseForest, ?> failure = new ParseFailure(parse, new ParseException("unknown parse fail (file: " + parse.filename + ", char: " + parse.currentChar + "/'" + ICharacters.charToString(parse.currentChar) + "', position: " + parse.currentPosition().coordinatesToString() + " [" + parse.currentPosition().offset + "/" + parse.inputLength + "])"));
 				
-				notify(observer -> observer.failure(failure));
+				if (parse.observing)
+				    notify(observer -> observer.failure(failure));
 				
 				result = failure;
 			}
@@ -85,42 +165,67 @@ public class Parser<StackNode extends AbstractStackNode<ParseForest>, ParseFores
 		} catch (ParseException parseException) {
 			ParseFailure<StackNode, ParseForest, ?> failure = new ParseFailure(parse, parseException);
 			
-			notify(observer -> observer.failure(failure));
+			if (parse.observing)
+			    notify(observer -> observer.failure(failure));
 			
 			return failure;
+		} finally {
+			parse.detach();
+			
+			if (checkpoints != null)
+			    checkpoints.finish();
 		}
 	}
 	
-	private void parseCharacter(Parse<StackNode, ParseForest> parse) {
-		notify(observer -> observer.parseCharacter(parse.currentChar, parse.activeStacks)); 
+	private void parseCharacter(Parse<StackNode, ParseForest> parse, StackNode initialStackNode, ParseCheckpoints<StackNode, ParseForest> checkpoints) throws ParseException {
+		parse.checkBudget();
+		
+		if (checkpoints != null)
+		    checkpoints.startCharacter(parse, initialStackNode, stackManager, parseForestManager);
+		
+		if (parse.observing)
+		    notify(observer -> observer.parseCharacter(parse.currentChar, parse.activeStacks));
 		
-		parse.forActor.clear();
-		parse.forActorDelayed.clear();
+		parse.clearForActor();
 		
-		parse.activeStacks.addAllTo(parse.forActor);
+		for (StackNode stack : parse.activeStacks)
+		    parse.addForActor(stack);
 		
 		parse.forShifter.clear();
 		
-		notify(observer -> observer.forActorStacks(parse.forActor, parse.forActorDelayed));
+		if (parse.observing)
+		    notify(observer -> observer.forActorStacks(parse.forActor, parse.forActorDelayed));
 		
 		while (parse.hasNextActorStack()) {
 			StackNode stack = parse.getNextActorStack();
 			
 			if (!stack.allOutLinksRejected())
 				actor(stack, parse);
-			else
+			else if (parse.observing)
 			    notify(observer -> observer.skipRejectedStack(stack));
 	        
-	        notify(observer -> observer.forActorStacks(parse.forActor, parse.forActorDelayed));
+	        if (parse.observing)
+	            notify(observer -> observer.forActorStacks(parse.forActor, parse.forActorDelayed));
 		}
 		
+		if (checkpoints != null)
+		    checkpoints.recordReductions(parse, stackManager);
+		
 		shifter(parse);
 	}
 	
 	private void actor(StackNode stack, Parse<StackNode, ParseForest> parse) {
-		Iterable<IAction> applicableActions = stack.state.applicableActions(parse.currentChar);
+		// Observed parses interpret the actions, such that observers are notified of the applicable actions
+		if (generatedActor != null && !parse.observing) {
+			generatedActor.actor(actions, parse, stack);
+			
+			return;
+		}
 		
-		notify(observer -> observer.actor(stack, parse.currentChar, applicableActions));
+		IAction[] applicableActions = stack.state.applicableActions(parse.currentChar);
+		
+		if (parse.observing)
+		    notify(observer -> observer.actor(stack, parse.currentChar, Arrays.asList(applicableActions)));
 		
 		for (IAction action : applicableActions)
 			switch (action.actionType()) {
@@ -146,20 +251,26 @@ public class Parser<StackNode extends AbstractStackNode<ParseForest>, ParseFores
                 
                 break;
 			case ACCEPT:
-			    parse.acceptingStack = stack;
-				
-				notify(observer -> observer.accept(stack));
+			    accept(parse, stack);
 				
 				break;
 			}
 	}
 	
+	private void accept(Parse<StackNode, ParseForest> parse, StackNode stack) {
+		parse.acceptingStack = stack;
+		
+		if (parse.observing)
+		    notify(observer -> observer.accept(stack));
+	}
+	
 	private void shifter(Parse<StackNode, ParseForest> parse) {
 	    parse.activeStacks.clear();
 		
 		ParseForest characterNode = parseForestManager.createCharacterNode(parse);
 		
-		notify(observer -> observer.shifter(characterNode, parse.forShifter));
+		if (parse.observing)
+		    notify(observer -> observer.shifter(characterNode, parse.forShifter));
 		
 		for (ForShifterElement<StackNode, ParseForest> forShifterElement : parse.forShifter) {
 		    StackNode activeStackForState = parse.activeStacks.findWithState(forShifterElement.state);
@@ -179,11 +290,57 @@ public class Parser<StackNode extends AbstractStackNode<ParseForest>, ParseFores
 	private void addForShifter(Parse<StackNode, ParseForest> parse, StackNode stack, IState shiftState) {
 		ForShifterElement<StackNode, ParseForest> forShifterElement = new ForShifterElement<StackNode, ParseForest>(stack, shiftState);
 		
-		notify(observer -> observer.addForShifter(forShifterElement));
+		if (parse.observing)
+		    notify(observer -> observer.addForShifter(forShifterElement));
 		
 		parse.forShifter.add(forShifterElement);
 	}
 	
+	/*
+	 * Reuse the scratch structures of the previous parse (see Parse) for the next one. Parsers are stateless otherwise
+	 * and can be shared between threads; with reuse enabled a parser should only be used by a single thread.
+	 */
+	public void reuseParseStructures() {
+		this.reuseParseStructures = true;
+	}
+	
+	public void activeStacksRepresentation(ActiveStacksRepresentation activeStacksRepresentation) {
+		this.activeStacksRepresentation = activeStacksRepresentation;
+		this.previousParse = null; // Reused parse structures might have a different representation
+	}
+	
+	/*
+	 * The budget for parses without an explicit budget, null for unbounded parses.
+	 */
+	public void budget(ParseBudget budget) {
+		this.budget = budget;
+	}
+	
+	/*
+	 * Apply prefer/avoid filtering while parsing instead of when imploding (see ParseForestManager.preferAvoidEagerly).
+	 */
+	public void preferAvoidEagerly() {
+		parseForestManager.preferAvoidEagerly();
+	}
+	
+	/*
+	 * Limit the number of derivations per parse node, further derivations are discarded while parsing.
+	 */
+	public void maxDerivations(int maxDerivations) {
+		parseForestManager.maxDerivations(maxDerivations);
+	}
+	
+	/*
+	 * Perform the actions of the parse table with an actor that was generated for it (see ActorGenerator) instead of
+	 * interpreting them. The actor should be instantiated with the parse table of this parser.
+	 */
+	public void generatedActor(GeneratedActor generatedActor) {
+		if (generatedActor.parseTable != parseTable)
+			throw new IllegalArgumentException("Generated actor was instantiated with a different parse table");
+		
+		this.generatedActor = generatedActor;
+	}
+	
 	public void attachObserver(IParserObserver<StackNode, ParseForest> observer) {
 		observers.add(observer);
 	}
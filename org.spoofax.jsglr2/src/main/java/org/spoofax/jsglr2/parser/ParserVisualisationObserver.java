@@ -87,7 +87,7 @@ public class ParserVisualisationObserver<StackNode extends AbstractStackNode<Par
 	}
 	
 	public void createCharacterNode(ParseForest parseNode, int character) {
-		trace("{\"action\":\"createCharacterNode\",\"nodeNumber\":" + parseNode.nodeNumber + ",\"character\":\"" + ICharacters.charToString(character) + "\"" + ",\"startPosition\":" + parseNode.startPosition.offset + ",\"endPosition\":" + parseNode.endPosition.offset + "}");
+		trace("{\"action\":\"createCharacterNode\",\"nodeNumber\":" + parseNode.nodeNumber + ",\"character\":\"" + ICharacters.charToString(character) + "\"" + ",\"startPosition\":" + parseNode.startOffset + ",\"endPosition\":" + parseNode.endOffset + "}");
 	}
 	
 	public void addDerivation(AbstractParseForest parseNode) {
@@ -0,0 +1,354 @@
+// Generated from Parser by StandardSources, do not edit
+package org.spoofax.jsglr2.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.spoofax.jsglr2.JSGLR2Variants.ActiveStacksRepresentation;
+import org.spoofax.jsglr2.JSGLR2Variants.ParseForestConstruction;
+import org.spoofax.jsglr2.actions.IAction;
+import org.spoofax.jsglr2.actions.IReduce;
+import org.spoofax.jsglr2.actions.IReduceLookahead;
+import org.spoofax.jsglr2.actions.IShift;
+import org.spoofax.jsglr2.characters.ICharacters;
+import org.spoofax.jsglr2.parseforest.AbstractParseForest;
+import org.spoofax.jsglr2.parseforest.ParseForestManager;
+import org.spoofax.jsglr2.parsetable.IParseTable;
+import org.spoofax.jsglr2.parsetable.IState;
+import org.spoofax.jsglr2.reducing.StandardReduceManager;
+import org.spoofax.jsglr2.stack.AbstractStackNode;
+import org.spoofax.jsglr2.stack.StackManager;
+
+public final class StandardParser<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest, ParseNode extends ParseForest, Derivation> implements IParser<StackNode, ParseForest> {
+
+    private final IParseTable parseTable;
+    private final StackManager<StackNode, ParseForest> stackManager;
+    private final ParseForestManager<ParseForest, ParseNode, Derivation> parseForestManager;
+    private final StandardReduceManager<StackNode, ParseForest, ParseNode, Derivation> reducer;
+	private final List<IParserObserver<StackNode, ParseForest>> observers;
+	private boolean reuseParseStructures;
+	private Parse<StackNode, ParseForest> previousParse;
+	private ActiveStacksRepresentation activeStacksRepresentation;
+	private ParseBudget budget;
+	private GeneratedActor generatedActor; // Null if the actions of the parse table are interpreted
+	
+	// The operations that a generated actor performs on this parser
+	private final GeneratedActor.Actions<StackNode, ParseForest> actions = new GeneratedActor.Actions<StackNode, ParseForest>() {
+		public void shift(Parse<StackNode, ParseForest> parse, StackNode stack, IState shiftState) {
+			addForShifter(parse, stack, shiftState);
+		}
+		
+		public void reduce(Parse<StackNode, ParseForest> parse, StackNode stack, IReduce reduce) {
+			reducer.doReductions(parse, stack, reduce);
+		}
+		
+		public void accept(Parse<StackNode, ParseForest> parse, StackNode stack) {
+			StandardParser.this.accept(parse, stack);
+		}
+	};
+    
+    public StandardParser(IParseTable parseTable, StackManager<StackNode, ParseForest> stackManager, ParseForestManager<ParseForest, ParseNode, Derivation> parseForestManager) {
+        this.parseTable = parseTable;
+        this.stackManager = stackManager;
+        this.parseForestManager = parseForestManager;
+        this.reducer = new StandardReduceManager<StackNode, ParseForest, ParseNode, Derivation>(parseTable, stackManager, parseForestManager, ParseForestConstruction.Full);
+        this.observers = new ArrayList<IParserObserver<StackNode, ParseForest>>();
+        this.reuseParseStructures = false;
+        this.activeStacksRepresentation = ActiveStacksRepresentation.ArrayList;
+    }
+    
+    public StandardParser(IParseTable parseTable, StackManager<StackNode, ParseForest> stackManager, ParseForestManager<ParseForest, ParseNode, Derivation> parseForestManager, StandardReduceManager<StackNode, ParseForest, ParseNode, Derivation> reducer) {
+        this.parseTable = parseTable;
+        this.stackManager = stackManager;
+        this.parseForestManager = parseForestManager;
+        this.reducer = reducer;
+        this.observers = new ArrayList<IParserObserver<StackNode, ParseForest>>();
+        this.reuseParseStructures = false;
+        this.activeStacksRepresentation = ActiveStacksRepresentation.ArrayList;
+    }
+	
+	public ParseResult<StackNode, ParseForest, ?> parse(String inputString, String filename, String startSymbol) {
+		return parse(inputString, filename, startSymbol, budget);
+	}
+	
+	/*
+	 * Parses with the given budget instead of the default budget of the parser. The parse fails with a
+	 * ParseBudgetException if the budget is exceeded.
+	 */
+	public ParseResult<StackNode, ParseForest, ?> parse(String inputString, String filename, String startSymbol, ParseBudget budget) {
+		return parse(inputString, filename, startSymbol, budget, null);
+	}
+	
+	/*
+	 * Parses while recording checkpoints, from which later parses of edited versions of the input can resume (see
+	 * IncrementalParser). If the checkpoints are to resume from a checkpoint of a previous parse, the input should be
+	 * equal to the input of the previous parse up to the checkpoint offset plus the maximum lookahead of the parse table,
+	 * since the actions taken before the checkpoint depend on those characters. The stack nodes and parse forests of the
+	 * previous parse up to the checkpoint are then copied instead of parsed again. After the edits, the parse of the
+	 * previous input is reused where the parse synchronizes with it (see ParseCheckpoints).
+	 */
+	public ParseResult<StackNode, ParseForest, ?> parse(String inputString, String filename, String startSymbol, ParseCheckpoints<StackNode, ParseForest> checkpoints) {
+		if (checkpoints.resumeFrom == null)
+			return parse(inputString, filename, startSymbol, budget, checkpoints);
+		
+		Parse<StackNode, ParseForest> parse = startParse(inputString, filename, budget);
+		
+		checkpoints.start(parse);
+		
+		StackNode initialStackNode = checkpoints.resume(parse, stackManager, parseForestManager);
+		
+		return parse(parse, initialStackNode, startSymbol, checkpoints);
+	}
+	
+	private ParseResult<StackNode, ParseForest, ?> parse(String inputString, String filename, String startSymbol, ParseBudget budget, ParseCheckpoints<StackNode, ParseForest> checkpoints) {
+		Parse<StackNode, ParseForest> parse = startParse(inputString, filename, budget);
+		
+		if (checkpoints != null)
+		    checkpoints.start(parse);
+		
+		StackNode initialStackNode = stackManager.createInitialStackNode(parse, parseTable.startState());
+
+        parse.activeStacks.add(initialStackNode);
+        
+        return parse(parse, initialStackNode, startSymbol, checkpoints);
+	}
+	
+	private Parse<StackNode, ParseForest> startParse(String inputString, String filename, ParseBudget budget) {
+		Parse<StackNode, ParseForest> parse = new Parse<StackNode, ParseForest>(inputString, filename, observers, previousParse, activeStacksRepresentation);
+		
+		parse.startBudget(budget);
+		
+		if (reuseParseStructures)
+			previousParse = parse;
+        
+		if (parse.observing)
+		    notify(observer -> observer.parseStart(parse));
+		
+		return parse;
+	}
+	
+	private ParseResult<StackNode, ParseForest, ?> parse(Parse<StackNode, ParseForest> parse, StackNode initialStackNode, String startSymbol, ParseCheckpoints<StackNode, ParseForest> checkpoints) {
+		try {
+			parseCharacter(parse, initialStackNode, checkpoints);
+			
+			while (parse.hasNext() && !parse.activeStacks.isEmpty()) {
+				parse.next();
+				
+				parseCharacter(parse, initialStackNode, checkpoints);
+			}
+			
+			ParseResult<StackNode, ParseForest, ?> result;
+			
+			if (parse.acceptingStack != null) {
+				ParseForest parseForest = stackManager.findDirectLink(parse.acceptingStack, initialStackNode).parseForest;
+				ParseForest parseForestWithStartSymbol = startSymbol != null ? parseForestManager.filterStartSymbol(parseForest, startSymbol) : parseForest;
+				
+				if (parseForest != null && parseForestWithStartSymbol == null)
+					throw new ParseException("invalid start symbol");
+				
+				ParseSuccess<StackNode, ParseForest, ?> success = new ParseSuccess(parse, parseForestWithStartSymbol);
+				
+				if (parse.observing)
+				    notify(observer -> observer.success(success));
+				
+				result = success;
+			} else {
+				ParseFailure<StackNode, ParseForest, ?> failure = new ParseFailure(parse, new ParseException("unknown parse fail (file: " + parse.filename + ", char: " + parse.currentChar + "/'" + ICharacters.charToString(parse.currentChar) + "', position: " + parse.currentPosition().coordinatesToString() + " [" + parse.currentPosition().offset + "/" + parse.inputLength + "])"));
+				
+				if (parse.observing)
+				    notify(observer -> observer.failure(failure));
+				
+				result = failure;
+			}
+			
+			return result;
+		} catch (ParseException parseException) {
+			ParseFailure<StackNode, ParseForest, ?> failure = new ParseFailure(parse, parseException);
+			
+			if (parse.observing)
+			    notify(observer -> observer.failure(failure));
+			
+			return failure;
+		} finally {
+			parse.detach();
+			
+			if (checkpoints != null)
+			    checkpoints.finish();
+		}
+	}
+	
+	private void parseCharacter(Parse<StackNode, ParseForest> parse, StackNode initialStackNode, ParseCheckpoints<StackNode, ParseForest> checkpoints) throws ParseException {
+		parse.checkBudget();
+		
+		if (checkpoints != null)
+		    checkpoints.startCharacter(parse, initialStackNode, stackManager, parseForestManager);
+		
+		if (parse.observing)
+		    notify(observer -> observer.parseCharacter(parse.currentChar, parse.activeStacks));
+		
+		parse.clearForActor();
+		
+		for (StackNode stack : parse.activeStacks)
+		    parse.addForActor(stack);
+		
+		parse.forShifter.clear();
+		
+		if (parse.observing)
+		    notify(observer -> observer.forActorStacks(parse.forActor, parse.forActorDelayed));
+		
+		while (parse.hasNextActorStack()) {
+			StackNode stack = parse.getNextActorStack();
+			
+			if (!stack.allOutLinksRejected())
+				actor(stack, parse);
+			else if (parse.observing)
+			    notify(observer -> observer.skipRejectedStack(stack));
+	        
+	        if (parse.observing)
+	            notify(observer -> observer.forActorStacks(parse.forActor, parse.forActorDelayed));
+		}
+		
+		if (checkpoints != null)
+		    checkpoints.recordReductions(parse, stackManager);
+		
+		shifter(parse);
+	}
+	
+	private void actor(StackNode stack, Parse<StackNode, ParseForest> parse) {
+		// Observed parses interpret the actions, such that observers are notified of the applicable actions
+		if (generatedActor != null && !parse.observing) {
+			generatedActor.actor(actions, parse, stack);
+			
+			return;
+		}
+		
+		IAction[] applicableActions = stack.state.applicableActions(parse.currentChar);
+		
+		if (parse.observing)
+		    notify(observer -> observer.actor(stack, parse.currentChar, Arrays.asList(applicableActions)));
+		
+		for (IAction action : applicableActions)
+			switch (action.actionType()) {
+			case SHIFT:
+				IShift shiftAction = (IShift) action;
+				IState shiftState = parseTable.getState(shiftAction.shiftState());
+
+				addForShifter(parse, stack, shiftState);
+				
+				break;
+            case REDUCE:
+                IReduce reduceAction = (IReduce) action;
+                
+                reducer.doReductions(parse, stack, reduceAction);
+                
+                break;
+            case REDUCE_LOOKAHEAD:
+                IReduceLookahead reduceLookaheadAction = (IReduceLookahead) action;
+                
+                if (reduceLookaheadAction.allowsLookahead(parse)) {
+                    reducer.doReductions(parse, stack, reduceLookaheadAction);
+                }
+                
+                break;
+			case ACCEPT:
+			    accept(parse, stack);
+				
+				break;
+			}
+	}
+	
+	private void accept(Parse<StackNode, ParseForest> parse, StackNode stack) {
+		parse.acceptingStack = stack;
+		
+		if (parse.observing)
+		    notify(observer -> observer.accept(stack));
+	}
+	
+	private void shifter(Parse<StackNode, ParseForest> parse) {
+	    parse.activeStacks.clear();
+		
+		ParseForest characterNode = parseForestManager.createCharacterNode(parse);
+		
+		if (parse.observing)
+		    notify(observer -> observer.shifter(characterNode, parse.forShifter));
+		
+		for (ForShifterElement<StackNode, ParseForest> forShifterElement : parse.forShifter) {
+		    StackNode activeStackForState = parse.activeStacks.findWithState(forShifterElement.state);
+			
+			if (activeStackForState != null) {
+			    stackManager.createStackLink(parse, activeStackForState, forShifterElement.stack, characterNode);
+			} else {
+			    StackNode newStack = stackManager.createStackNode(parse, forShifterElement.state);
+				
+				stackManager.createStackLink(parse, newStack, forShifterElement.stack, characterNode);
+				
+				parse.activeStacks.add(newStack);
+			}
+		}
+	}
+	
+	private void addForShifter(Parse<StackNode, ParseForest> parse, StackNode stack, IState shiftState) {
+		ForShifterElement<StackNode, ParseForest> forShifterElement = new ForShifterElement<StackNode, ParseForest>(stack, shiftState);
+		
+		if (parse.observing)
+		    notify(observer -> observer.addForShifter(forShifterElement));
+		
+		parse.forShifter.add(forShifterElement);
+	}
+	
+	/*
+	 * Reuse the scratch structures of the previous parse (see Parse) for the next one. Parsers are stateless otherwise
+	 * and can be shared between threads; with reuse enabled a parser should only be used by a single thread.
+	 */
+	public void reuseParseStructures() {
+		this.reuseParseStructures = true;
+	}
+	
+	public void activeStacksRepresentation(ActiveStacksRepresentation activeStacksRepresentation) {
+		this.activeStacksRepresentation = activeStacksRepresentation;
+		this.previousParse = null; // Reused parse structures might have a different representation
+	}
+	
+	/*
+	 * The budget for parses without an explicit budget, null for unbounded parses.
+	 */
+	public void budget(ParseBudget budget) {
+		this.budget = budget;
+	}
+	
+	/*
+	 * Apply prefer/avoid filtering while parsing instead of when imploding (see ParseForestManager.preferAvoidEagerly).
+	 */
+	public void preferAvoidEagerly() {
+		parseForestManager.preferAvoidEagerly();
+	}
+	
+	/*
+	 * Limit the number of derivations per parse node, further derivations are discarded while parsing.
+	 */
+	public void maxDerivations(int maxDerivations) {
+		parseForestManager.maxDerivations(maxDerivations);
+	}
+	
+	/*
+	 * Perform the actions of the parse table with an actor that was generated for it (see ActorGenerator) instead of
+	 * interpreting them. The actor should be instantiated with the parse table of this parser.
+	 */
+	public void generatedActor(GeneratedActor generatedActor) {
+		if (generatedActor.parseTable != parseTable)
+			throw new IllegalArgumentException("Generated actor was instantiated with a different parse table");
+		
+		this.generatedActor = generatedActor;
+	}
+	
+	public void attachObserver(IParserObserver<StackNode, ParseForest> observer) {
+		observers.add(observer);
+	}
+	
+	private void notify(IParserNotification<StackNode, ParseForest> notification) {
+		for (IParserObserver<StackNode, ParseForest> observer : observers)
+			notification.notify(observer);
+	}
+	
+}
@@ -0,0 +1,40 @@
+package org.spoofax.jsglr2.parsetable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.spoofax.terms.ParseError;
+
+/*
+ * Converts a term based parse table (.tbl) to the binary parse table format. Usage:
+ *
+ *   BinaryParseTableConverter <input.tbl> <output>
+ */
+public class BinaryParseTableConverter {
+
+	public static void main(String[] args) throws ParseTableReadException, ParseError, IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: BinaryParseTableConverter <input.tbl> <output>");
+			System.exit(1);
+		}
+
+		Path input = Paths.get(args[0]);
+		Path output = Paths.get(args[1]);
+
+		long start = System.currentTimeMillis();
+
+		IParseTable parseTable;
+
+		try (InputStream inputStream = Files.newInputStream(input)) {
+			parseTable = ParseTableReader.read(inputStream);
+		}
+
+		BinaryParseTableWriter.write(parseTable, output);
+
+		System.out.println("Converted " + input + " to " + output + " (" + Files.size(input) + " -> " + Files.size(output) + " bytes) in " + (System.currentTimeMillis() - start) + "ms");
+	}
+
+}
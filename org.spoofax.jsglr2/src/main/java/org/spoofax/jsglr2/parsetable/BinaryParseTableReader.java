@@ -0,0 +1,201 @@
+package org.spoofax.jsglr2.parsetable;
+
+import org.spoofax.jsglr2.actions.*;
+import org.spoofax.jsglr2.characters.CharacterClassBitSet;
+import org.spoofax.jsglr2.characters.ICharacters;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Reads parse tables in the binary format written by BinaryParseTableWriter. Since the format is a flat sequence of
+ * numbers, states, actions and productions are instantiated directly from the buffer, without an intermediate term.
+ */
+public class BinaryParseTableReader {
+
+	public static IParseTable read(Path path) throws ParseTableReadException, IOException {
+		return read(path, ActionsForCharacterRepresentation.Dense);
+	}
+
+	public static IParseTable read(Path path, ActionsForCharacterRepresentation actionsForCharacterRepresentation) throws ParseTableReadException, IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			return read(buffer, actionsForCharacterRepresentation);
+		}
+	}
+
+	public static IParseTable read(InputStream inputStream) throws ParseTableReadException, IOException {
+		return read(inputStream, ActionsForCharacterRepresentation.Dense);
+	}
+
+	public static IParseTable read(InputStream inputStream, ActionsForCharacterRepresentation actionsForCharacterRepresentation) throws ParseTableReadException, IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] chunk = new byte[8192];
+		int read;
+
+		while ((read = inputStream.read(chunk)) != -1)
+			bytes.write(chunk, 0, read);
+
+		return read(ByteBuffer.wrap(bytes.toByteArray()), actionsForCharacterRepresentation);
+	}
+
+	public static IParseTable read(ByteBuffer buffer, ActionsForCharacterRepresentation actionsForCharacterRepresentation) throws ParseTableReadException {
+		try {
+			if (buffer.getInt() != BinaryParseTableWriter.MAGIC)
+				throw new ParseTableReadException("Not a binary parse table");
+
+			int version = buffer.getInt();
+
+			if (version != BinaryParseTableWriter.VERSION)
+				throw new ParseTableReadException("Unsupported binary parse table version: " + version);
+
+			int startStateNumber = buffer.getInt();
+
+			ICharacters[] characterClasses = readCharacterClasses(buffer);
+			Production[] productions = readProductions(buffer);
+			State[] states = readStates(buffer, characterClasses, productions, actionsForCharacterRepresentation);
+
+			return new ParseTable(productions, states, startStateNumber);
+		} catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+			throw new ParseTableReadException("Truncated or corrupt binary parse table");
+		}
+	}
+
+	private static ICharacters[] readCharacterClasses(ByteBuffer buffer) {
+		ICharacters[] characterClasses = new ICharacters[buffer.getInt()];
+
+		for (int i = 0; i < characterClasses.length; i++) {
+			long[] words = new long[CharacterClassBitSet.WORD_COUNT];
+
+			for (int j = 0; j < words.length; j++)
+				words[j] = buffer.getLong();
+
+			characterClasses[i] = new CharacterClassBitSet(words);
+		}
+
+		return characterClasses;
+	}
+
+	private static Production[] readProductions(ByteBuffer buffer) {
+		Production[] productions = new Production[buffer.getInt()];
+
+		for (int i = 0; i < productions.length; i++) {
+			if (buffer.get() == 0) // Indices 0 - 256 are reserved for characters
+				continue;
+
+			int productionNumber = buffer.getInt();
+			String sort = readString(buffer);
+			String startSymbolSort = readString(buffer);
+			String descriptor = readString(buffer);
+			String constructor = readString(buffer);
+			ProductionType type = ProductionType.values()[buffer.get()];
+			int flags = buffer.getInt();
+			int attributeFlags = buffer.getInt();
+
+			ProductionAttributes attributes = new ProductionAttributes(type, constructor,
+				flag(attributeFlags, 0), flag(attributeFlags, 1), flag(attributeFlags, 2), flag(attributeFlags, 3),
+				flag(attributeFlags, 4), flag(attributeFlags, 5), flag(attributeFlags, 6), flag(attributeFlags, 7),
+				flag(attributeFlags, 8), flag(attributeFlags, 9), flag(attributeFlags, 10));
+
+			productions[i] = new Production(productionNumber, sort, startSymbolSort, descriptor,
+				flag(flags, 0), flag(flags, 1), flag(flags, 2), flag(flags, 3), flag(flags, 4), flag(flags, 5),
+				flag(flags, 6), flag(flags, 7), flag(flags, 8), flag(flags, 9), flag(flags, 10), attributes);
+		}
+
+		return productions;
+	}
+
+	private static State[] readStates(ByteBuffer buffer, ICharacters[] characterClasses, IProduction[] productions, ActionsForCharacterRepresentation actionsForCharacterRepresentation) {
+		State[] states = new State[buffer.getInt()];
+
+		for (int i = 0; i < states.length; i++) {
+			int stateNumber = buffer.getInt();
+			boolean rejectable = buffer.get() != 0;
+
+			int gotoCount = buffer.getInt();
+			int[] gotoProductions = readInts(buffer, gotoCount);
+			int[] gotoStates = readInts(buffer, gotoCount);
+
+			IAction[] actions = readActions(buffer, characterClasses, productions);
+
+			IActionsForCharacter actionsForCharacter = ParseTableReader.readActionsForCharacter(actions, actionsForCharacterRepresentation);
+
+			states[stateNumber] = new State(stateNumber, gotoProductions, gotoStates, actions, actionsForCharacter, rejectable);
+		}
+
+		return states;
+	}
+
+	private static IAction[] readActions(ByteBuffer buffer, ICharacters[] characterClasses, IProduction[] productions) {
+		IAction[] actions = new IAction[buffer.getInt()];
+
+		for (int i = 0; i < actions.length; i++) {
+			ActionType actionType = ActionType.values()[buffer.get()];
+			ICharacters characters = characterClasses[buffer.getInt()];
+
+			switch (actionType) {
+				case SHIFT:
+					actions[i] = new Shift(characters, buffer.getInt());
+					break;
+				case REDUCE:
+				case REDUCE_LOOKAHEAD:
+					IProduction production = productions[buffer.getInt()];
+					ProductionType productionType = ProductionType.values()[buffer.get()];
+					int arity = buffer.getInt();
+
+					if (actionType == ActionType.REDUCE) {
+						actions[i] = new Reduce(characters, production, productionType, arity);
+					} else {
+						ICharacters[] followRestriction = new ICharacters[buffer.getInt()];
+
+						for (int j = 0; j < followRestriction.length; j++)
+							followRestriction[j] = characterClasses[buffer.getInt()];
+
+						actions[i] = new ReduceLookahead(characters, production, productionType, arity, followRestriction);
+					}
+					break;
+				case ACCEPT:
+				default:
+					actions[i] = new Accept();
+					break;
+			}
+		}
+
+		return actions;
+	}
+
+	private static int[] readInts(ByteBuffer buffer, int count) {
+		int[] ints = new int[count];
+
+		for (int i = 0; i < count; i++)
+			ints[i] = buffer.getInt();
+
+		return ints;
+	}
+
+	private static boolean flag(int flags, int index) {
+		return (flags & (1 << index)) != 0;
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+
+		if (length == -1)
+			return null;
+
+		byte[] bytes = new byte[length];
+
+		buffer.get(bytes);
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
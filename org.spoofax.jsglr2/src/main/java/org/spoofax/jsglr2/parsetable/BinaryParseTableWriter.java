@@ -0,0 +1,223 @@
+package org.spoofax.jsglr2.parsetable;
+
+import org.spoofax.jsglr2.actions.*;
+import org.spoofax.jsglr2.characters.CharacterClassBitSet;
+import org.spoofax.jsglr2.characters.ICharacters;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Writes a parse table in the JSGLR2-native binary format, which is read back by BinaryParseTableReader without going
+ * through the term layer. All numbers are big endian. The format consists of:
+ *  - header: magic number, format version, start state number
+ *  - character classes: count, followed by CharacterClassBitSet.WORD_COUNT longs per (deduplicated) character class
+ *  - productions: length of the productions array, followed per index by a presence byte and, if present, the
+ *    production number, sort, start symbol sort, descriptor, constructor, production type and a bitmask of flags
+ *  - states: count, followed per state by its number, rejectable byte, gotos as two flat int arrays (productions and
+ *    goto states, sorted by production) and its actions (action type, character class index and type specific fields)
+ *
+ * Strings are stored as their UTF-8 byte length (-1 for null) followed by the bytes.
+ */
+public class BinaryParseTableWriter {
+
+	static final int MAGIC = 0x4A534732; // "JSG2"
+	static final int VERSION = 1;
+
+	public static void write(IParseTable parseTable, Path path) throws IOException {
+		try (OutputStream outputStream = Files.newOutputStream(path)) {
+			write(parseTable, outputStream);
+		}
+	}
+
+	public static void write(IParseTable parseTable, OutputStream outputStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(parseTable.startState().stateNumber());
+
+		Map<CharacterClassBitSet, Integer> characterClassIndices = new HashMap<CharacterClassBitSet, Integer>();
+		List<CharacterClassBitSet> characterClasses = new ArrayList<CharacterClassBitSet>();
+
+		for (int stateNumber = 0; stateNumber < parseTable.stateCount(); stateNumber++) {
+			for (IAction action : parseTable.getState(stateNumber).actions()) {
+				indexCharacterClass(action.characters(), characterClassIndices, characterClasses);
+
+				if (action.actionType() == ActionType.REDUCE_LOOKAHEAD) {
+					for (ICharacters followRestriction : ((IReduceLookahead) action).followRestriction())
+						indexCharacterClass(followRestriction, characterClassIndices, characterClasses);
+				}
+			}
+		}
+
+		writeCharacterClasses(out, characterClasses);
+		writeProductions(out, parseTable.productions());
+		writeStates(out, parseTable, characterClassIndices);
+
+		out.flush();
+	}
+
+	private static void indexCharacterClass(ICharacters characters, Map<CharacterClassBitSet, Integer> characterClassIndices, List<CharacterClassBitSet> characterClasses) {
+		CharacterClassBitSet characterClass = new CharacterClassBitSet(CharacterClassBitSet.toWords(characters));
+
+		if (!characterClassIndices.containsKey(characterClass)) {
+			characterClassIndices.put(characterClass, characterClasses.size());
+			characterClasses.add(characterClass);
+		}
+	}
+
+	private static int characterClassIndex(ICharacters characters, Map<CharacterClassBitSet, Integer> characterClassIndices) {
+		return characterClassIndices.get(new CharacterClassBitSet(CharacterClassBitSet.toWords(characters)));
+	}
+
+	private static void writeCharacterClasses(DataOutputStream out, List<CharacterClassBitSet> characterClasses) throws IOException {
+		out.writeInt(characterClasses.size());
+
+		for (CharacterClassBitSet characterClass : characterClasses) {
+			for (long word : CharacterClassBitSet.toWords(characterClass))
+				out.writeLong(word);
+		}
+	}
+
+	private static void writeProductions(DataOutputStream out, IProduction[] productions) throws IOException {
+		out.writeInt(productions.length);
+
+		for (IProduction production : productions) {
+			if (production == null) { // Indices 0 - 256 are reserved for characters
+				out.writeByte(0);
+
+				continue;
+			}
+
+			if (!(production instanceof Production))
+				throw new IllegalArgumentException(String.format("Expected productions of type %s", Production.class));
+
+			ProductionAttributes attributes = ((Production) production).attributes();
+
+			out.writeByte(1);
+			out.writeInt(production.productionNumber());
+			writeString(out, production.sort());
+			writeString(out, production.startSymbolSort());
+			writeString(out, production.descriptor());
+			writeString(out, attributes.constructor);
+			out.writeByte(attributes.type.ordinal());
+			out.writeInt(flags(
+				production.isContextFree(),
+				production.isLayout(),
+				production.isLiteral(),
+				production.isLexical(),
+				production.isLexicalRhs(),
+				production.isSkippableInParseForest(),
+				production.isList(),
+				production.isOptional(),
+				production.isStringLiteral(),
+				production.isNumberLiteral(),
+				production.isOperator()
+			));
+			out.writeInt(flags(
+				attributes.isRecover,
+				attributes.isBracket,
+				attributes.isCompletion,
+				attributes.isPlaceholderInsertion,
+				attributes.isLiteralCompletion,
+				attributes.isIgnoreLayout,
+				attributes.isNewlineEnforced,
+				attributes.isLongestMatch,
+				attributes.isCaseInsensitive,
+				attributes.isIndentPaddingLexical,
+				attributes.isFlatten
+			));
+		}
+	}
+
+	private static void writeStates(DataOutputStream out, IParseTable parseTable, Map<CharacterClassBitSet, Integer> characterClassIndices) throws IOException {
+		out.writeInt(parseTable.stateCount());
+
+		for (int stateNumber = 0; stateNumber < parseTable.stateCount(); stateNumber++) {
+			IState state = parseTable.getState(stateNumber);
+
+			if (!(state instanceof State))
+				throw new IllegalArgumentException(String.format("Expected states of type %s", State.class));
+
+			int[] gotoProductions = ((State) state).gotoProductions();
+			int[] gotoStates = ((State) state).gotoStates();
+
+			out.writeInt(state.stateNumber());
+			out.writeByte(state.isRejectable() ? 1 : 0);
+
+			out.writeInt(gotoProductions.length);
+
+			for (int gotoProduction : gotoProductions)
+				out.writeInt(gotoProduction);
+
+			for (int gotoState : gotoStates)
+				out.writeInt(gotoState);
+
+			out.writeInt(state.actions().length);
+
+			for (IAction action : state.actions()) {
+				out.writeByte(action.actionType().ordinal());
+				out.writeInt(characterClassIndex(action.characters(), characterClassIndices));
+
+				switch (action.actionType()) {
+					case SHIFT:
+						out.writeInt(((IShift) action).shiftState());
+						break;
+					case REDUCE:
+					case REDUCE_LOOKAHEAD:
+						IReduce reduce = (IReduce) action;
+
+						out.writeInt(reduce.production().productionNumber());
+						out.writeByte(reduce.productionType().ordinal());
+						out.writeInt(reduce.arity());
+
+						if (action.actionType() == ActionType.REDUCE_LOOKAHEAD) {
+							ICharacters[] followRestriction = ((IReduceLookahead) action).followRestriction();
+
+							out.writeInt(followRestriction.length);
+
+							for (ICharacters characters : followRestriction)
+								out.writeInt(characterClassIndex(characters, characterClassIndices));
+						}
+						break;
+					case ACCEPT:
+					default:
+						break;
+				}
+			}
+		}
+	}
+
+	private static int flags(boolean... values) {
+		int flags = 0;
+
+		for (int i = 0; i < values.length; i++) {
+			if (values[i])
+				flags |= 1 << i;
+		}
+
+		return flags;
+	}
+
+	private static void writeString(DataOutputStream out, String string) throws IOException {
+		if (string == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+}
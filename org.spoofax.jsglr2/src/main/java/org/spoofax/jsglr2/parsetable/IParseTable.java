@@ -8,4 +8,6 @@ public interface IParseTable {
 	
 	public IState getState(int stateNumber);
 	
+	public int stateCount();
+	
 }
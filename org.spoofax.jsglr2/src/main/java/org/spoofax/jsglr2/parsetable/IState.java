@@ -4,8 +4,6 @@ import org.spoofax.jsglr2.actions.IAction;
 import org.spoofax.jsglr2.actions.IReduce;
 import org.spoofax.jsglr2.parser.Parse;
 
-import java.util.Optional;
-
 public interface IState {
 
     int stateNumber();
@@ -14,10 +12,10 @@ public interface IState {
     
     boolean isRejectable();
     
-    Iterable<IAction> applicableActions(int character);
+    IAction[] applicableActions(int character);
     
     Iterable<IReduce> applicableReduceActions(Parse parse);
 
-    Optional<Integer> getGotoId(int productionId);
+    int gotoState(int productionId); // Returns -1 if there is no goto for the production
 
 }
@@ -1,5 +1,9 @@
 package org.spoofax.jsglr2.parsetable;
 
+/*
+ * Parse tables, and the states and productions they consist of, are immutable after reading. A single parse table can
+ * therefore be shared by parsers that run concurrently on different threads.
+ */
 public class ParseTable implements IParseTable {
 
 	final private IProduction[] productions;
@@ -23,5 +27,9 @@ public class ParseTable implements IParseTable {
 	public IState getState(int stateNumber) {
 		return states[stateNumber];
 	}
+	
+	public int stateCount() {
+		return states.length;
+	}
 
 }
@@ -16,7 +16,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Stream;
 
 import static org.spoofax.terms.Term.*;
@@ -32,25 +31,31 @@ public class ParseTableReader {
 	 *  - list of priorities (not used since priorities are now encoded in the parse table itself and do not have to be implemented separately during parsing)
 	 */
 	public static IParseTable read(IStrategoTerm pt) throws ParseTableReadException {
+		return read(pt, ActionsForCharacterRepresentation.Dense);
+	}
+
+	public static IParseTable read(IStrategoTerm pt, ActionsForCharacterRepresentation actionsForCharacterRepresentation) throws ParseTableReadException {
 		int startStateNumber = intAt(pt, 1);
 		IStrategoList productionsTermList = termAt(pt, 2);
         IStrategoNamed statesTerm = termAt(pt, 3);
 
         Production[] productions = readProductions(productionsTermList);
-        State[] states = readStates(statesTerm, productions);
-
-        markRejectableStates(states);
+        State[] states = readStates(statesTerm, productions, actionsForCharacterRepresentation);
 
         return new ParseTable(productions, states, startStateNumber);
 	}
 
 	public static IParseTable read(InputStream inputStream) throws ParseTableReadException, ParseError, IOException {
+		return read(inputStream, ActionsForCharacterRepresentation.Dense);
+	}
+
+	public static IParseTable read(InputStream inputStream, ActionsForCharacterRepresentation actionsForCharacterRepresentation) throws ParseTableReadException, ParseError, IOException {
 		TermFactory factory = new TermFactory();
 		TermReader termReader = new TermReader(factory);
 
 		IStrategoTerm parseTableTerm = termReader.parseFromStream(inputStream);
 
-		return read(parseTableTerm);
+		return read(parseTableTerm, actionsForCharacterRepresentation);
 	}
 
 	private static Production[] readProductions(IStrategoList productionsTermList) throws ParseTableReadException {
@@ -67,11 +72,12 @@ public class ParseTableReader {
 		return productions;
 	}
 
-	private static State[] readStates(IStrategoNamed statesTermNamed, IProduction[] productions) throws ParseTableReadException {
+	private static State[] readStates(IStrategoNamed statesTermNamed, IProduction[] productions, ActionsForCharacterRepresentation actionsForCharacterRepresentation) throws ParseTableReadException {
 		IStrategoList statesTermList = termAt(statesTermNamed, 0);
 		int stateCount = statesTermList.getSubtermCount();
 
-		State[] states = new State[stateCount];
+		IGoto[][] gotosPerState = new IGoto[stateCount][];
+		IAction[][] actionsPerState = new IAction[stateCount][];
 
 		for (IStrategoTerm stateTerm : statesTermList) {
 			IStrategoNamed stateTermNamed = (IStrategoNamed) stateTerm;
@@ -81,15 +87,34 @@ public class ParseTableReader {
 			IStrategoList gotosTermList = (IStrategoList) termAt(stateTermNamed, 1);
 			IStrategoList actionsTermList = (IStrategoList) termAt(stateTermNamed, 2);
 
-			IGoto[] gotos = readGotos(gotosTermList);
-			IAction[] actions = readActions(actionsTermList, productions);
+			gotosPerState[stateNumber] = readGotos(gotosTermList);
+			actionsPerState[stateNumber] = readActions(actionsTermList, productions);
+		}
+
+		// Rejectability depends on the gotos of all states, so it is determined before any (immutable) state is created
+		boolean[] rejectable = rejectableStates(gotosPerState, actionsPerState);
+
+		State[] states = new State[stateCount];
 
-			states[stateNumber] = new State(stateNumber, gotos, actions);
+		for (int stateNumber = 0; stateNumber < stateCount; stateNumber++) {
+			IActionsForCharacter actionsForCharacter = readActionsForCharacter(actionsPerState[stateNumber], actionsForCharacterRepresentation);
+
+			states[stateNumber] = new State(stateNumber, gotosPerState[stateNumber], actionsPerState[stateNumber], actionsForCharacter, rejectable[stateNumber]);
 		}
 
 		return states;
 	}
 
+	static IActionsForCharacter readActionsForCharacter(IAction[] actions, ActionsForCharacterRepresentation actionsForCharacterRepresentation) {
+		switch (actionsForCharacterRepresentation) {
+			case Dense:
+				return new ActionsForCharacterDense(actions);
+			case Separated:
+			default:
+				return new ActionsForCharacterSeparated(actions);
+		}
+	}
+
 	private static IGoto[] readGotos(IStrategoList gotosTermList) {
 		int gotoCount = gotosTermList.getSubtermCount();
 
@@ -238,11 +263,11 @@ public class ParseTableReader {
 		return actions;
 	}
 
-	// Mark states that are reachable by a reject production as rejectable
+	// States that are reachable by a reject production are rejectable
     // That means the parser transitions into such state by means of a goto action after there is reduced by the reject production
-	private static void markRejectableStates(State[] states) {
+	private static boolean[] rejectableStates(IGoto[][] gotosPerState, IAction[][] actionsPerState) {
         final Set.Immutable<Integer> rejectProductionIdentifiers =
-                Stream.of(states).flatMap(state -> Stream.of(state.actions()))
+                Stream.of(actionsPerState).flatMap(Stream::of)
                         .filter (IAction::typeMatchesReduceOrReduceLookahead)
                         .map    (IReduce.class::cast)
                         .map    (IReduce::production)
@@ -250,24 +275,21 @@ public class ParseTableReader {
                         .map    (IProduction::productionNumber)
                         .collect(CapsuleCollectors.toSet());
 
-        final Set.Immutable<Integer> gotoStateIdentifiers =
-                Stream.of(states).flatMap(state -> rejectProductionIdentifiers.stream().map(state::getGotoId))
-                        .flatMap(ParseTableReader::optionalToStream)
-                        .collect(CapsuleCollectors.toSet());
+        boolean[] rejectable = new boolean[gotosPerState.length];
 
         /*
-         * A state for is marked as rejectable if it is reachable by at least one reject production.
+         * A state is rejectable if it is reachable by at least one reject production.
          */
-        gotoStateIdentifiers.forEach(gotoId -> states[gotoId].markRejectable());
-    }
-
-    // TODO: move to Capsule stream utils
-    static final <T> Stream<T> optionalToStream(Optional<T> o) {
-        if (o.isPresent()) {
-            return Stream.of(o.get());
-        } else {
-            return Stream.empty();
+        for (IGoto[] gotos : gotosPerState) {
+            for (IGoto gotoAction : gotos) {
+                for (int productionId : gotoAction.productions()) {
+                    if (rejectProductionIdentifiers.contains(productionId))
+                        rejectable[gotoAction.gotoState()] = true;
+                }
+            }
         }
+
+        return rejectable;
     }
 
 }
@@ -56,6 +56,10 @@ public class Production implements IProduction {
 
 	public ProductionType productionType() { return attributes.type; }
 
+	ProductionAttributes attributes() {
+		return attributes;
+	}
+
     public String sort() {
         return sort;
     }
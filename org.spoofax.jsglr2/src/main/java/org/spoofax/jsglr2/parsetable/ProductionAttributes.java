@@ -21,9 +21,18 @@ public class ProductionAttributes {
 	public final boolean isFlatten;
     
     ProductionAttributes(ProductionType type, IStrategoTerm constructorTerm, boolean isRecover, boolean isBracket, boolean isCompletion, boolean isPlaceholderInsertion, boolean isLiteralCompletion, boolean isIgnoreIndent, boolean isNewlineEnforced, boolean isLongestMatch, boolean isCaseInsensitive, boolean isIndentPaddingLexical, boolean isFlatten) {
+        this(type, constructorTerm, constructorTerm == null ? null : ((IStrategoNamed) constructorTerm).getName(), isRecover, isBracket, isCompletion, isPlaceholderInsertion, isLiteralCompletion, isIgnoreIndent, isNewlineEnforced, isLongestMatch, isCaseInsensitive, isIndentPaddingLexical, isFlatten);
+    }
+    
+    // Used by the binary parse table reader, which only stores the constructor name (constructorTerm is null then)
+    ProductionAttributes(ProductionType type, String constructor, boolean isRecover, boolean isBracket, boolean isCompletion, boolean isPlaceholderInsertion, boolean isLiteralCompletion, boolean isIgnoreIndent, boolean isNewlineEnforced, boolean isLongestMatch, boolean isCaseInsensitive, boolean isIndentPaddingLexical, boolean isFlatten) {
+        this(type, null, constructor, isRecover, isBracket, isCompletion, isPlaceholderInsertion, isLiteralCompletion, isIgnoreIndent, isNewlineEnforced, isLongestMatch, isCaseInsensitive, isIndentPaddingLexical, isFlatten);
+    }
+    
+    private ProductionAttributes(ProductionType type, IStrategoTerm constructorTerm, String constructor, boolean isRecover, boolean isBracket, boolean isCompletion, boolean isPlaceholderInsertion, boolean isLiteralCompletion, boolean isIgnoreIndent, boolean isNewlineEnforced, boolean isLongestMatch, boolean isCaseInsensitive, boolean isIndentPaddingLexical, boolean isFlatten) {
         this.type = type;
         this.constructorTerm = constructorTerm;
-        this.constructor = constructorTerm == null ? null : ((IStrategoNamed) constructorTerm).getName();
+        this.constructor = constructor;
         this.isRecover = isRecover;
         this.isBracket = isBracket;
         this.isCompletion = isCompletion;
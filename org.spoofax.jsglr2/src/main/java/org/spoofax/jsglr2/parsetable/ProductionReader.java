@@ -385,7 +385,7 @@ public class ProductionReader {
             
             return new ProductionAttributes(type, constructor, isRecover, isBracket, isCompletion, isPlaceholderInsertion, isLiteralCompletion, isIgnoreLayout, isNewlineEnforced, isLongestMatch, isCaseInsensitive, isIndentPaddingLexical, isFlatten);
 		} else if (attributesTerm.getName().equals("no-attrs")) {
-            return new ProductionAttributes(ProductionType.NO_TYPE, null, false, false, false, false, false, false, false, false, false, false, false);
+            return new ProductionAttributes(ProductionType.NO_TYPE, (IStrategoTerm) null, false, false, false, false, false, false, false, false, false, false, false);
         }
 		
 		throw new ParseTableReadException("Unknown production attribute type: " + attributesTerm);
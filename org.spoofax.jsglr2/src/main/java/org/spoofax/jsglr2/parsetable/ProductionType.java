@@ -2,6 +2,18 @@ package org.spoofax.jsglr2.parsetable;
 
 public enum ProductionType {
 	
-	NO_TYPE, REJECT, PREFER, BRACKET, AVOID, LEFT_ASSOCIATIVE, RIGHT_ASSOCIATIVE
+	NO_TYPE, REJECT, PREFER, BRACKET, AVOID, LEFT_ASSOCIATIVE, RIGHT_ASSOCIATIVE;
+	
+	// Of derivations with this type when disambiguating by prefer and avoid, where only those with the highest remain
+	public int preferAvoidPriority() {
+		switch (this) {
+			case PREFER:
+				return 1;
+			case AVOID:
+				return -1;
+			default:
+				return 0;
+		}
+	}
 
 }
@@ -1,35 +1,74 @@
 package org.spoofax.jsglr2.parsetable;
 
-import io.usethesource.capsule.BinaryRelation;
 import org.spoofax.jsglr2.actions.*;
 import org.spoofax.jsglr2.parser.Parse;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.Optional;
-import java.util.stream.IntStream;
 
+/*
+ * States are immutable after construction (rejectability is determined by the parse table reader up front), such that
+ * a parse table can be safely shared between parsers on different threads.
+ */
 public final class State implements IState {
 
 	private final int stateNumber;
 	private final IAction[] actions;
-	private boolean rejectable;
+	private final IActionsForCharacter actionsForCharacter;
+	private final boolean rejectable;
 
-	final BinaryRelation.Immutable<Integer, Integer> productionToGoto;
+	// Gotos stored as parallel arrays, sorted by production number, such that lookups do not box or allocate
+	private final int[] gotoProductions;
+	private final int[] gotoStates;
 
 	public State(int stateNumber, IGoto[] gotos, IAction[] actions) {
+		this(stateNumber, gotos, actions, new ActionsForCharacterSeparated(actions), false);
+	}
+
+	public State(int stateNumber, IGoto[] gotos, IAction[] actions, IActionsForCharacter actionsForCharacter, boolean rejectable) {
 		this.stateNumber = stateNumber;
 		this.actions = actions;
-		this.rejectable = false;
+		this.actionsForCharacter = actionsForCharacter;
+		this.rejectable = rejectable;
+
+		int gotoCount = 0;
+
+		for (IGoto gotoAction : gotos)
+			gotoCount += gotoAction.productions().length;
+
+		// Pack (production, goto state) pairs in longs to sort them by production number
+		long[] productionToGoto = new long[gotoCount];
+		int i = 0;
+
+		for (IGoto gotoAction : gotos) {
+			for (int productionId : gotoAction.productions())
+				productionToGoto[i++] = ((long) productionId << 32) | gotoAction.gotoState();
+		}
 
-		final BinaryRelation.Transient<Integer, Integer> tmpProductionToGoto = BinaryRelation.Transient.of();
+		Arrays.sort(productionToGoto);
 
-		for (IGoto action : gotos) {
-			int gotoId = action.gotoState();
-			IntStream.of(action.productions()).forEach(productionId -> tmpProductionToGoto.__put(productionId, gotoId));
+		this.gotoProductions = new int[gotoCount];
+		this.gotoStates = new int[gotoCount];
+
+		for (i = 0; i < gotoCount; i++) {
+			gotoProductions[i] = (int) (productionToGoto[i] >>> 32);
+			gotoStates[i] = (int) productionToGoto[i];
+
+			assert i == 0 || gotoProductions[i - 1] != gotoProductions[i];
 		}
+	}
+
+	// Used by the binary parse table reader, which stores gotos in the same flat representation
+	State(int stateNumber, int[] gotoProductions, int[] gotoStates, IAction[] actions, IActionsForCharacter actionsForCharacter, boolean rejectable) {
+		assert gotoProductions.length == gotoStates.length;
 
-		this.productionToGoto = tmpProductionToGoto.freeze();
+		this.stateNumber = stateNumber;
+		this.actions = actions;
+		this.actionsForCharacter = actionsForCharacter;
+		this.rejectable = rejectable;
+		this.gotoProductions = gotoProductions;
+		this.gotoStates = gotoStates;
 	}
 
 	public int stateNumber() {
@@ -44,77 +83,47 @@ public final class State implements IState {
         return rejectable;
     }
 
-    public void markRejectable() {
-        this.rejectable = true;
-    }
-
-	public Iterable<IAction> applicableActions(int character) {
-//		// NOTE: simple code
-//		final Iterator<IAction> iterator = Stream.of(actions)
-//				.filter(action -> action.appliesTo(character))
-//				.iterator();
-//
-//		return () -> iterator;
-
-		// NOTE: faster code
-		return () -> new Iterator<IAction>() {
-			int index = 0;
-
-			public boolean hasNext() {
-				// skip non-applicable actions
-				while (index < actions.length && !actions[index].appliesTo(character)) {
-					index++;
-				}
-				return index < actions.length;
-			}
-
-			public IAction next() {
-				if (!hasNext()) {
-					throw new NoSuchElementException();
-				}
-				return actions[index++];
-			}
-		};
+	public IAction[] applicableActions(int character) {
+		return actionsForCharacter.getApplicableActions(character);
 	}
 
 	public Iterable<IReduce> applicableReduceActions(Parse parse) {
-//		// NOTE: simple code
-//		final Iterator<IReduce> iterator = Stream.of(actions)
-//				.filter(action -> action.appliesTo(parse.currentChar))
-//				.filter(action -> action.actionType() == ActionType.REDUCE ||
-//						action.actionType() == ActionType.REDUCE_LOOKAHEAD && ((IReduceLookahead) action).allowsLookahead(parse))
-//				.map(action -> (IReduce) action)
-//				.iterator();
-//
-//		return () -> iterator;
-
-		// NOTE: faster code
+		final IAction[] applicableActions = applicableActions(parse.currentChar);
+
 		return () -> new Iterator<IReduce>() {
             int index = 0;
 
             public boolean hasNext() {
-				while (index < actions.length &&
-						!(actions[index].appliesTo(parse.currentChar) &&
-								(actions[index].actionType() == ActionType.REDUCE ||
-										actions[index].actionType() == ActionType.REDUCE_LOOKAHEAD &&
-												((IReduceLookahead) actions[index]).allowsLookahead(parse)))) {
+				while (index < applicableActions.length &&
+						!(applicableActions[index].actionType() == ActionType.REDUCE ||
+								applicableActions[index].actionType() == ActionType.REDUCE_LOOKAHEAD &&
+										((IReduceLookahead) applicableActions[index]).allowsLookahead(parse))) {
 					index++;
 				}
-				return index < actions.length;
+				return index < applicableActions.length;
             }
 
             public IReduce next() {
 				if (!hasNext()) {
 					throw new NoSuchElementException();
 				}
-                return (IReduce) actions[index++];
+                return (IReduce) applicableActions[index++];
             }
         };
 	}
 
-	public Optional<Integer> getGotoId(int productionId) {
-		assert productionToGoto.get(productionId).size() <= 1;
-		return productionToGoto.get(productionId).findFirst();
+	public int gotoState(int productionId) {
+		int index = Arrays.binarySearch(gotoProductions, productionId);
+
+		return index >= 0 ? gotoStates[index] : -1;
+	}
+
+	int[] gotoProductions() {
+		return gotoProductions;
+	}
+
+	int[] gotoStates() {
+		return gotoStates;
 	}
 
 	public boolean equals(Object obj) {
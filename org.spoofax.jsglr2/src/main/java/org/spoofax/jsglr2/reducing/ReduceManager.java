@@ -10,7 +10,6 @@ import org.spoofax.jsglr2.parsetable.IState;
 import org.spoofax.jsglr2.stack.AbstractStackNode;
 import org.spoofax.jsglr2.stack.StackLink;
 import org.spoofax.jsglr2.stack.StackManager;
-import org.spoofax.jsglr2.stack.StackPath;
 
 public class ReduceManager<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest, ParseNode extends ParseForest, Derivation> {
 
@@ -34,7 +33,8 @@ public class ReduceManager<StackNode extends AbstractStackNode<ParseForest>, Par
         if (reduce.production().isCompletionOrRecovery())
             return;
         
-        parse.notify(observer -> observer.doReductions(parse, stack, reduce));
+        if (parse.observing)
+            parse.notify(observer -> observer.doReductions(parse, stack, reduce));
         
         doReductionsHelper(parse, stack, reduce, null);
     }
@@ -43,27 +43,18 @@ public class ReduceManager<StackNode extends AbstractStackNode<ParseForest>, Par
         if (reduce.production().isCompletionOrRecovery())
             return;
         
-        parse.notify(observer -> observer.doLimitedReductions(parse, stack, reduce, throughLink));
+        if (parse.observing)
+            parse.notify(observer -> observer.doLimitedReductions(parse, stack, reduce, throughLink));
         
         doReductionsHelper(parse, stack, reduce, throughLink);
     }
     
     protected void doReductionsHelper(Parse<StackNode, ParseForest> parse, StackNode stack, IReduce reduce, StackLink<StackNode, ParseForest> throughLink) {
-    		for (StackPath<StackNode, ParseForest> path : stackManager.findAllPathsOfLength(stack, reduce.arity())) {
-            if (throughLink == null || path.contains(throughLink))
-                reducePath(parse, path, reduce);
-        }
-    }
-    
-    protected void reducePath(Parse<StackNode, ParseForest> parse, StackPath<StackNode, ParseForest> path, IReduce reduce) {
-    		ParseForest[] parseNodes = stackManager.getParseForests(parseForestManager, path);
-    		StackNode pathBegin = path.head();
-    		
-    		reducePath(parse, parseNodes, pathBegin, reduce);    		
+    		stackManager.visitAllPathsOfLength(parse.pathBuffers, parseForestManager, stack, reduce.arity(), throughLink, (parseForests, pathBegin) -> reducePath(parse, parseForests, pathBegin, reduce));
     }
     
     protected void reducePath(Parse<StackNode, ParseForest> parse, ParseForest[] parseNodes, StackNode pathBegin, IReduce reduce) {
-        int gotoId = pathBegin.state.getGotoId(reduce.production().productionNumber()).get();
+        int gotoId = pathBegin.state.gotoState(reduce.production().productionNumber());
         IState gotoState = parseTable.getState(gotoId);
         
         reducer(parse, pathBegin, gotoState, reduce, parseNodes);
@@ -79,12 +70,14 @@ public class ReduceManager<StackNode extends AbstractStackNode<ParseForest>, Par
     private void reducer(Parse<StackNode, ParseForest> parse, StackNode stack, IState gotoState, IReduce reduce, ParseForest[] parseForests) {
     		StackNode activeStackWithGotoState = parse.activeStacks.findWithState(gotoState);
         
-        parse.notify(observer -> observer.reducer(reduce, parseForests, activeStackWithGotoState));
+        if (parse.observing)
+            parse.notify(observer -> observer.reducer(reduce, parseForests, activeStackWithGotoState));
         
         if (activeStackWithGotoState != null) {
             StackLink<StackNode, ParseForest> directLink = stackManager.findDirectLink(activeStackWithGotoState, stack);
             
-            parse.notify(observer -> observer.directLinkFound(directLink));
+            if (parse.observing)
+                parse.notify(observer -> observer.directLinkFound(directLink));
             
             if (directLink != null) {
             		reducer.reducerExistingStackWithDirectLink(parse, reduce, directLink, parseForests);
@@ -98,7 +91,7 @@ public class ReduceManager<StackNode extends AbstractStackNode<ParseForest>, Par
                 for (int i = 0; i < size; i++) {
                 		StackNode activeStack = parse.activeStacks.get(i);
                 	
-                    if (!activeStack.allOutLinksRejected() && !parse.forActor.contains(activeStack) && !parse.forActorDelayed.contains(activeStack))
+                    if (!activeStack.allOutLinksRejected() && !parse.isQueuedForActor(activeStack))
                         for (IReduce reduceAction : activeStack.state.applicableReduceActions(parse))
                             doLimitedRedutions(parse, activeStack, reduceAction, link);
                 }
@@ -109,9 +102,9 @@ public class ReduceManager<StackNode extends AbstractStackNode<ParseForest>, Par
             parse.activeStacks.add(newStack);
             
             if (newStack.state.isRejectable())
-                parse.forActorDelayed.add(newStack);
+                parse.addForActorDelayed(newStack);
             else
-                parse.forActor.add(newStack);
+                parse.addForActor(newStack);
         }
     }
 
@@ -8,12 +8,10 @@ import org.spoofax.jsglr2.parser.Parse;
 import org.spoofax.jsglr2.parsetable.IParseTable;
 import org.spoofax.jsglr2.parsetable.IState;
 import org.spoofax.jsglr2.stack.StackLink;
-import org.spoofax.jsglr2.stack.StackPath;
 import org.spoofax.jsglr2.stack.elkhound.AbstractElkhoundStackManager;
 import org.spoofax.jsglr2.stack.elkhound.AbstractElkhoundStackNode;
-import org.spoofax.jsglr2.stack.elkhound.DeterministicStackPath;
 
-public class ReduceManagerElkhound<ParseForest extends AbstractParseForest, ParseNode extends ParseForest, Derivation> extends ReduceManager<AbstractElkhoundStackNode<ParseForest>, ParseForest, ParseNode, Derivation> {
+public final class ReduceManagerElkhound<ParseForest extends AbstractParseForest, ParseNode extends ParseForest, Derivation> extends ReduceManager<AbstractElkhoundStackNode<ParseForest>, ParseForest, ParseNode, Derivation> {
 
     protected final AbstractElkhoundStackManager<AbstractElkhoundStackNode<ParseForest>, ParseForest> stackManager;
     
@@ -26,36 +24,39 @@ public class ReduceManagerElkhound<ParseForest extends AbstractParseForest, Pars
     @Override
     protected void doReductionsHelper(Parse<AbstractElkhoundStackNode<ParseForest>, ParseForest> parse, AbstractElkhoundStackNode<ParseForest> stack, IReduce reduce, StackLink<AbstractElkhoundStackNode<ParseForest>, ParseForest> throughLink) {
 	    	if (stack.deterministicDepth >= reduce.arity()) {
-	    		DeterministicStackPath<AbstractElkhoundStackNode<ParseForest>, ParseForest> deterministicPath = stackManager.findDeterministicPathOfLength(parseForestManager, stack, reduce.arity());
-	        
-	    		if (throughLink == null || deterministicPath.contains(throughLink)) {
+	    		// Limited reductions (through a link) are not done on deterministic paths, since they only occur in a non-LR context
+	    		if (throughLink == null) {
+	    			ParseForest[] parseForests = parse.pathBuffers.acquire(parseForestManager, reduce.arity());
+	    			AbstractElkhoundStackNode<ParseForest> pathBegin = stackManager.findDeterministicPathOfLength(stack, reduce.arity(), parseForests);
+	    			
 		        if (parse.activeStacks.size() == 1)
-		            reduceElkhoundPath(parse, deterministicPath.parseForests, deterministicPath.head(), reduce); // Do standard LR if there is only 1 active stack
+		            reduceElkhoundPath(parse, parseForests, pathBegin, reduce); // Do standard LR if there is only 1 active stack
 		        else
-		            reducePath(parse, deterministicPath.parseForests, deterministicPath.head(), reduce); // Benefit from faster path retrieval, but still do extra checks since there are other active stacks
+		            reducePath(parse, parseForests, pathBegin, reduce); // Benefit from faster path retrieval, but still do extra checks since there are other active stacks
+		        
+		        parse.pathBuffers.release(parseForests);
 	    		}
 	    } else {
 	        // Fall back to regular GLR
-	        for (StackPath<AbstractElkhoundStackNode<ParseForest>, ParseForest> path : stackManager.findAllPathsOfLength(stack, reduce.arity()))
-		        	if (throughLink == null || path.contains(throughLink))
-		            reducePath(parse, path, reduce);
+	        super.doReductionsHelper(parse, stack, reduce, throughLink);
 	    }
     }
     
     private void reduceElkhoundPath(Parse<AbstractElkhoundStackNode<ParseForest>, ParseForest> parse, ParseForest[] parseNodes, AbstractElkhoundStackNode<ParseForest> pathBegin, IReduce reduce) {
-        int gotoId = pathBegin.state.getGotoId(reduce.production().productionNumber()).get();
+        int gotoId = pathBegin.state.gotoState(reduce.production().productionNumber());
         IState gotoState = parseTable.getState(gotoId);
         
         reducerElkhound(parse, pathBegin, gotoState, reduce, parseNodes);
     }
     
     private void reducerElkhound(Parse<AbstractElkhoundStackNode<ParseForest>, ParseForest> parse, AbstractElkhoundStackNode<ParseForest> stack, IState gotoState, IReduce reduce, ParseForest[] parseForests) {
-    		parse.notify(observer -> observer.reducerElkhound(reduce, parseForests));
+    		if (parse.observing)
+    		    parse.notify(observer -> observer.reducerElkhound(reduce, parseForests));
         
     		AbstractElkhoundStackNode<ParseForest> newStack = reducer.reducerNoExistingStack(parse, reduce, stack, gotoState, parseForests);
         
         parse.activeStacks.add(newStack);
-        parse.forActor.add(newStack);
+        parse.addForActor(newStack);
     }
 
 }
@@ -19,13 +19,21 @@ public class Reducer<StackNode extends AbstractStackNode<ParseForest>, ParseFore
         this.parseForestManager = parseForestManager;
     }
     
+    /*
+     * The parse forests are passed in a buffer that is reused for other stack paths (see StackManager.PathVisitor), thus
+     * a copy is kept in the derivation.
+     */
+    protected Derivation createDerivation(Parse<StackNode, ParseForest> parse, int beginOffset, IReduce reduce, ParseForest[] parseForests) {
+        return parseForestManager.createDerivation(parse, beginOffset, reduce.production(), reduce.productionType(), parseForests != null ? parseForests.clone() : null);
+    }
+    
     /**
      * Performs a reduction when an existing active stack is found with the required goto state and when there is a direct
      * link found between this active stack and the stack from where the reduction started. This means the currently reduced
      * derivation will be added as an alternative to the parse node on the link. This means the parse node is ambiguous.
      */
     public void reducerExistingStackWithDirectLink(Parse<StackNode, ParseForest> parse, IReduce reduce, StackLink<StackNode, ParseForest> existingDirectLinkToActiveStateWithGoto, ParseForest[] parseForests) {
-		Derivation derivation = parseForestManager.createDerivation(parse, existingDirectLinkToActiveStateWithGoto.to.position, reduce.production(), reduce.productionType(), parseForests);
+		Derivation derivation = createDerivation(parse, existingDirectLinkToActiveStateWithGoto.to.offset, reduce, parseForests);
 		
     		@SuppressWarnings("unchecked")
         ParseNode parseNode = (ParseNode) existingDirectLinkToActiveStateWithGoto.parseForest;
@@ -42,8 +50,8 @@ public class Reducer<StackNode extends AbstractStackNode<ParseForest>, ParseFore
      * stacks is created and the currently reduced derivation is added as the first derivation for the parse node on the link.
      */
     public StackLink<StackNode, ParseForest> reducerExistingStackWithoutDirectLink(Parse<StackNode, ParseForest> parse, IReduce reduce, StackNode existingActiveStackWithGotoState, StackNode stack, ParseForest[] parseForests) {
-    		Derivation derivation = parseForestManager.createDerivation(parse, stack.position, reduce.production(), reduce.productionType(), parseForests);
-        ParseForest parseNode = parseForestManager.createParseNode(parse, stack.position, reduce.production(), derivation);
+    		Derivation derivation = createDerivation(parse, stack.offset, reduce, parseForests);
+        ParseForest parseNode = parseForestManager.createParseNode(parse, stack.offset, reduce.production(), derivation);
         
         StackLink<StackNode, ParseForest> newDirectLinkToActiveStateWithGoto = stackManager.createStackLink(parse, existingActiveStackWithGotoState, stack, parseNode);
         
@@ -59,8 +67,8 @@ public class Reducer<StackNode extends AbstractStackNode<ParseForest>, ParseFore
      * reduced derivation is added as the first derivation for the parse node on the link.
      */
     public StackNode reducerNoExistingStack(Parse<StackNode, ParseForest> parse, IReduce reduce, StackNode stack, IState gotoState, ParseForest[] parseForests) {
-    		Derivation derivation = parseForestManager.createDerivation(parse, stack.position, reduce.production(), reduce.productionType(), parseForests);
-        ParseForest parseNode = parseForestManager.createParseNode(parse, stack.position, reduce.production(), derivation);
+    		Derivation derivation = createDerivation(parse, stack.offset, reduce, parseForests);
+        ParseForest parseNode = parseForestManager.createParseNode(parse, stack.offset, reduce.production(), derivation);
         
         StackNode newStackWithGotoState = stackManager.createStackNode(parse, gotoState);
 		StackLink<StackNode, ParseForest> link = stackManager.createStackLink(parse, newStackWithGotoState, stack, parseNode);
@@ -9,7 +9,7 @@ import org.spoofax.jsglr2.stack.AbstractStackNode;
 import org.spoofax.jsglr2.stack.StackLink;
 import org.spoofax.jsglr2.stack.StackManager;
 
-public class ReducerSkipLayoutAndLexical<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest, ParseNode extends ParseForest, Derivation> extends Reducer<StackNode, ParseForest, ParseNode, Derivation> {
+public final class ReducerSkipLayoutAndLexical<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest, ParseNode extends ParseForest, Derivation> extends Reducer<StackNode, ParseForest, ParseNode, Derivation> {
 
     public ReducerSkipLayoutAndLexical(StackManager<StackNode, ParseForest> stackManager, ParseForestManager<ParseForest, ParseNode, Derivation> parseForestManager) {
     		super(stackManager, parseForestManager);
@@ -21,7 +21,7 @@ public class ReducerSkipLayoutAndLexical<StackNode extends AbstractStackNode<Par
         ParseNode parseNode = (ParseNode) existingDirectLinkToActiveStateWithGoto.parseForest;
     		
     		if (parseNode != null) {
-    			Derivation derivation = parseForestManager.createDerivation(parse, existingDirectLinkToActiveStateWithGoto.to.position, reduce.production(), reduce.productionType(), parseForests);
+    			Derivation derivation = createDerivation(parse, existingDirectLinkToActiveStateWithGoto.to.offset, reduce, parseForests);
         		parseForestManager.addDerivation(parse, parseNode, derivation);
     		}
         
@@ -36,8 +36,8 @@ public class ReducerSkipLayoutAndLexical<StackNode extends AbstractStackNode<Par
     		if (reduce.production().isSkippableInParseForest())
     			parseNode = null;
     		else {
-        		Derivation derivation = parseForestManager.createDerivation(parse, stack.position, reduce.production(), reduce.productionType(), parseForests);
-            parseNode = parseForestManager.createParseNode(parse, stack.position, reduce.production(), derivation);		
+        		Derivation derivation = createDerivation(parse, stack.offset, reduce, parseForests);
+            parseNode = parseForestManager.createParseNode(parse, stack.offset, reduce.production(), derivation);		
     		}
         
         StackLink<StackNode, ParseForest> newDirectLinkToActiveStateWithGoto = stackManager.createStackLink(parse, existingActiveStackWithGotoState, stack, parseNode);
@@ -55,8 +55,8 @@ public class ReducerSkipLayoutAndLexical<StackNode extends AbstractStackNode<Par
 		if (reduce.production().isSkippableInParseForest())
 			parseNode = null;
 		else {
-	    		Derivation derivation = parseForestManager.createDerivation(parse, stack.position, reduce.production(), reduce.productionType(), parseForests);
-	        parseNode = parseForestManager.createParseNode(parse, stack.position, reduce.production(), derivation);		
+	    		Derivation derivation = createDerivation(parse, stack.offset, reduce, parseForests);
+	        parseNode = parseForestManager.createParseNode(parse, stack.offset, reduce.production(), derivation);		
 		}
         
         StackNode newStackWithGotoState = stackManager.createStackNode(parse, gotoState);
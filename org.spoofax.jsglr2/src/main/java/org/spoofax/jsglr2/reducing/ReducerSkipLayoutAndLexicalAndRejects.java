@@ -9,7 +9,7 @@ import org.spoofax.jsglr2.stack.AbstractStackNode;
 import org.spoofax.jsglr2.stack.StackLink;
 import org.spoofax.jsglr2.stack.StackManager;
 
-public class ReducerSkipLayoutAndLexicalAndRejects<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest, ParseNode extends ParseForest, Derivation> extends Reducer<StackNode, ParseForest, ParseNode, Derivation> {
+public final class ReducerSkipLayoutAndLexicalAndRejects<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest, ParseNode extends ParseForest, Derivation> extends Reducer<StackNode, ParseForest, ParseNode, Derivation> {
 
     public ReducerSkipLayoutAndLexicalAndRejects(StackManager<StackNode, ParseForest> stackManager, ParseForestManager<ParseForest, ParseNode, Derivation> parseForestManager) {
     		super(stackManager, parseForestManager);
@@ -23,7 +23,7 @@ public class ReducerSkipLayoutAndLexicalAndRejects<StackNode extends AbstractSta
         if (reduce.isRejectProduction())
             stackManager.rejectStackLink(parse, existingDirectLinkToActiveStateWithGoto);
         else if (!existingDirectLinkToActiveStateWithGoto.isRejected() && parseNode != null) {
-    			Derivation derivation = parseForestManager.createDerivation(parse, existingDirectLinkToActiveStateWithGoto.to.position, reduce.production(), reduce.productionType(), parseForests);
+    			Derivation derivation = createDerivation(parse, existingDirectLinkToActiveStateWithGoto.to.offset, reduce, parseForests);
         		parseForestManager.addDerivation(parse, parseNode, derivation);
         }
     }
@@ -42,8 +42,8 @@ public class ReducerSkipLayoutAndLexicalAndRejects<StackNode extends AbstractSta
 	        	if (reduce.production().isSkippableInParseForest())
 	    			parseNode = null;
 	    		else {
-	        		Derivation derivation = parseForestManager.createDerivation(parse, stack.position, reduce.production(), reduce.productionType(), parseForests);
-	            parseNode = parseForestManager.createParseNode(parse, stack.position, reduce.production(), derivation);		
+	        		Derivation derivation = createDerivation(parse, stack.offset, reduce, parseForests);
+	            parseNode = parseForestManager.createParseNode(parse, stack.offset, reduce.production(), derivation);		
 	    		}
 	    		
         		newDirectLinkToActiveStateWithGoto = stackManager.createStackLink(parse, existingActiveStackWithGotoState, stack, parseNode);
@@ -68,8 +68,8 @@ public class ReducerSkipLayoutAndLexicalAndRejects<StackNode extends AbstractSta
 	    		if (reduce.production().isSkippableInParseForest())
 				parseNode = null;
 			else {
-		    		Derivation derivation = parseForestManager.createDerivation(parse, stack.position, reduce.production(), reduce.productionType(), parseForests);
-		        parseNode = parseForestManager.createParseNode(parse, stack.position, reduce.production(), derivation);		
+		    		Derivation derivation = createDerivation(parse, stack.offset, reduce, parseForests);
+		        parseNode = parseForestManager.createParseNode(parse, stack.offset, reduce.production(), derivation);		
 			}
 		    
 		    link = stackManager.createStackLink(parse, newStackWithGotoState, stack, parseNode);
@@ -9,7 +9,7 @@ import org.spoofax.jsglr2.stack.AbstractStackNode;
 import org.spoofax.jsglr2.stack.StackLink;
 import org.spoofax.jsglr2.stack.StackManager;
 
-public class ReducerSkipRejects<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest, ParseNode extends ParseForest, Derivation> extends Reducer<StackNode, ParseForest, ParseNode, Derivation> {
+public final class ReducerSkipRejects<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest, ParseNode extends ParseForest, Derivation> extends Reducer<StackNode, ParseForest, ParseNode, Derivation> {
 
     public ReducerSkipRejects(StackManager<StackNode, ParseForest> stackManager, ParseForestManager<ParseForest, ParseNode, Derivation> parseForestManager) {
     		super(stackManager, parseForestManager);
@@ -23,7 +23,7 @@ public class ReducerSkipRejects<StackNode extends AbstractStackNode<ParseForest>
         if (reduce.isRejectProduction())
             stackManager.rejectStackLink(parse, existingDirectLinkToActiveStateWithGoto);
         else if (!existingDirectLinkToActiveStateWithGoto.isRejected()) {
-	    		Derivation derivation = parseForestManager.createDerivation(parse, existingDirectLinkToActiveStateWithGoto.to.position, reduce.production(), reduce.productionType(), parseForests);
+	    		Derivation derivation = createDerivation(parse, existingDirectLinkToActiveStateWithGoto.to.offset, reduce, parseForests);
 	    		
 	    		parseForestManager.addDerivation(parse, parseNode, derivation);
         }
@@ -38,8 +38,8 @@ public class ReducerSkipRejects<StackNode extends AbstractStackNode<ParseForest>
         	
             stackManager.rejectStackLink(parse, newDirectLinkToActiveStateWithGoto);
         } else {
-        		Derivation derivation = parseForestManager.createDerivation(parse, stack.position, reduce.production(), reduce.productionType(), parseForests);
-            ParseForest parseNode = parseForestManager.createParseNode(parse, stack.position, reduce.production(), derivation);
+        		Derivation derivation = createDerivation(parse, stack.offset, reduce, parseForests);
+            ParseForest parseNode = parseForestManager.createParseNode(parse, stack.offset, reduce.production(), derivation);
             
             newDirectLinkToActiveStateWithGoto = stackManager.createStackLink(parse, existingActiveStackWithGotoState, stack, parseNode);
         }
@@ -58,8 +58,8 @@ public class ReducerSkipRejects<StackNode extends AbstractStackNode<ParseForest>
 	    	
 	        stackManager.rejectStackLink(parse, link);
 	    } else {
-	    		Derivation derivation = parseForestManager.createDerivation(parse, stack.position, reduce.production(), reduce.productionType(), parseForests);
-		    ParseForest parseNode = parseForestManager.createParseNode(parse, stack.position, reduce.production(), derivation);
+	    		Derivation derivation = createDerivation(parse, stack.offset, reduce, parseForests);
+		    ParseForest parseNode = parseForestManager.createParseNode(parse, stack.offset, reduce.production(), derivation);
 		    
 		    link = stackManager.createStackLink(parse, newStackWithGotoState, stack, parseNode);
 	    }
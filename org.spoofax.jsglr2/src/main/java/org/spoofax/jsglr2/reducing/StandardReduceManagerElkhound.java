@@ -0,0 +1,63 @@
+// Generated from ReduceManagerElkhound by StandardSources, do not edit
+package org.spoofax.jsglr2.reducing;
+
+import org.spoofax.jsglr2.JSGLR2Variants.ParseForestConstruction;
+import org.spoofax.jsglr2.actions.IReduce;
+import org.spoofax.jsglr2.parseforest.AbstractParseForest;
+import org.spoofax.jsglr2.parseforest.ParseForestManager;
+import org.spoofax.jsglr2.parser.Parse;
+import org.spoofax.jsglr2.parsetable.IParseTable;
+import org.spoofax.jsglr2.parsetable.IState;
+import org.spoofax.jsglr2.stack.StackLink;
+import org.spoofax.jsglr2.stack.elkhound.AbstractElkhoundStackManager;
+import org.spoofax.jsglr2.stack.elkhound.AbstractElkhoundStackNode;
+
+public final class StandardReduceManagerElkhound<ParseForest extends AbstractParseForest, ParseNode extends ParseForest, Derivation> extends StandardReduceManager<AbstractElkhoundStackNode<ParseForest>, ParseForest, ParseNode, Derivation> {
+
+    protected final AbstractElkhoundStackManager<AbstractElkhoundStackNode<ParseForest>, ParseForest> stackManager;
+    
+    public StandardReduceManagerElkhound(IParseTable parseTable, AbstractElkhoundStackManager<AbstractElkhoundStackNode<ParseForest>, ParseForest> stackManager, ParseForestManager<ParseForest, ParseNode, Derivation> parseForestManager, ParseForestConstruction parseForestConstruction) {
+        super(parseTable, stackManager, parseForestManager, parseForestConstruction);
+        
+        this.stackManager = stackManager;
+    }
+    
+    @Override
+    protected void doReductionsHelper(Parse<AbstractElkhoundStackNode<ParseForest>, ParseForest> parse, AbstractElkhoundStackNode<ParseForest> stack, IReduce reduce, StackLink<AbstractElkhoundStackNode<ParseForest>, ParseForest> throughLink) {
+	    	if (stack.deterministicDepth >= reduce.arity()) {
+	    		// Limited reductions (through a link) are not done on deterministic paths, since they only occur in a non-LR context
+	    		if (throughLink == null) {
+	    			ParseForest[] parseForests = parse.pathBuffers.acquire(parseForestManager, reduce.arity());
+	    			AbstractElkhoundStackNode<ParseForest> pathBegin = stackManager.findDeterministicPathOfLength(stack, reduce.arity(), parseForests);
+	    			
+		        if (parse.activeStacks.size() == 1)
+		            reduceElkhoundPath(parse, parseForests, pathBegin, reduce); // Do standard LR if there is only 1 active stack
+		        else
+		            reducePath(parse, parseForests, pathBegin, reduce); // Benefit from faster path retrieval, but still do extra checks since there are other active stacks
+		        
+		        parse.pathBuffers.release(parseForests);
+	    		}
+	    } else {
+	        // Fall back to regular GLR
+	        super.doReductionsHelper(parse, stack, reduce, throughLink);
+	    }
+    }
+    
+    private void reduceElkhoundPath(Parse<AbstractElkhoundStackNode<ParseForest>, ParseForest> parse, ParseForest[] parseNodes, AbstractElkhoundStackNode<ParseForest> pathBegin, IReduce reduce) {
+        int gotoId = pathBegin.state.gotoState(reduce.production().productionNumber());
+        IState gotoState = parseTable.getState(gotoId);
+        
+        reducerElkhound(parse, pathBegin, gotoState, reduce, parseNodes);
+    }
+    
+    private void reducerElkhound(Parse<AbstractElkhoundStackNode<ParseForest>, ParseForest> parse, AbstractElkhoundStackNode<ParseForest> stack, IState gotoState, IReduce reduce, ParseForest[] parseForests) {
+    		if (parse.observing)
+    		    parse.notify(observer -> observer.reducerElkhound(reduce, parseForests));
+        
+    		AbstractElkhoundStackNode<ParseForest> newStack = reducer.reducerNoExistingStack(parse, reduce, stack, gotoState, parseForests);
+        
+        parse.activeStacks.add(newStack);
+        parse.addForActor(newStack);
+    }
+
+}
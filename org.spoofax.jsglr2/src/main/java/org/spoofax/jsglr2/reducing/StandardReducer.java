@@ -0,0 +1,83 @@
+// Generated from Reducer by StandardSources, do not edit
+package org.spoofax.jsglr2.reducing;
+
+import org.spoofax.jsglr2.actions.IReduce;
+import org.spoofax.jsglr2.parseforest.AbstractParseForest;
+import org.spoofax.jsglr2.parseforest.ParseForestManager;
+import org.spoofax.jsglr2.parser.Parse;
+import org.spoofax.jsglr2.parsetable.IState;
+import org.spoofax.jsglr2.stack.AbstractStackNode;
+import org.spoofax.jsglr2.stack.StackLink;
+import org.spoofax.jsglr2.stack.StackManager;
+
+public class StandardReducer<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest, ParseNode extends ParseForest, Derivation> {
+
+    protected final StackManager<StackNode, ParseForest> stackManager;
+    protected final ParseForestManager<ParseForest, ParseNode, Derivation> parseForestManager;
+    
+    public StandardReducer(StackManager<StackNode, ParseForest> stackManager, ParseForestManager<ParseForest, ParseNode, Derivation> parseForestManager) {
+    		this.stackManager = stackManager;
+        this.parseForestManager = parseForestManager;
+    }
+    
+    /*
+     * The parse forests are passed in a buffer that is reused for other stack paths (see StackManager.PathVisitor), thus
+     * a copy is kept in the derivation.
+     */
+    protected Derivation createDerivation(Parse<StackNode, ParseForest> parse, int beginOffset, IReduce reduce, ParseForest[] parseForests) {
+        return parseForestManager.createDerivation(parse, beginOffset, reduce.production(), reduce.productionType(), parseForests != null ? parseForests.clone() : null);
+    }
+    
+    /**
+     * Performs a reduction when an existing active stack is found with the required goto state and when there is a direct
+     * link found between this active stack and the stack from where the reduction started. This means the currently reduced
+     * derivation will be added as an alternative to the parse node on the link. This means the parse node is ambiguous.
+     */
+    public void reducerExistingStackWithDirectLink(Parse<StackNode, ParseForest> parse, IReduce reduce, StackLink<StackNode, ParseForest> existingDirectLinkToActiveStateWithGoto, ParseForest[] parseForests) {
+		Derivation derivation = createDerivation(parse, existingDirectLinkToActiveStateWithGoto.to.offset, reduce, parseForests);
+		
+    		@SuppressWarnings("unchecked")
+        ParseNode parseNode = (ParseNode) existingDirectLinkToActiveStateWithGoto.parseForest;
+    		
+        parseForestManager.addDerivation(parse, parseNode, derivation);
+        
+        if (reduce.isRejectProduction())
+            stackManager.rejectStackLink(parse, existingDirectLinkToActiveStateWithGoto);
+    }
+    
+    /**
+     * Performs a reduction when an existing active stack is found with the required goto state but when there is not already
+     * a direct link present between this active stack and the stack from where the reduction started. The link between these
+     * stacks is created and the currently reduced derivation is added as the first derivation for the parse node on the link.
+     */
+    public StackLink<StackNode, ParseForest> reducerExistingStackWithoutDirectLink(Parse<StackNode, ParseForest> parse, IReduce reduce, StackNode existingActiveStackWithGotoState, StackNode stack, ParseForest[] parseForests) {
+    		Derivation derivation = createDerivation(parse, stack.offset, reduce, parseForests);
+        ParseForest parseNode = parseForestManager.createParseNode(parse, stack.offset, reduce.production(), derivation);
+        
+        StackLink<StackNode, ParseForest> newDirectLinkToActiveStateWithGoto = stackManager.createStackLink(parse, existingActiveStackWithGotoState, stack, parseNode);
+        
+        if (reduce.isRejectProduction())
+            stackManager.rejectStackLink(parse, newDirectLinkToActiveStateWithGoto);
+        
+        return newDirectLinkToActiveStateWithGoto;
+    }
+    
+    /**
+     * Performs a reduction when no active stack is found with the required goto state. A new stack with the required goto
+     * state is created and a link between this stack and the stack from where the reduction started is created. The currently
+     * reduced derivation is added as the first derivation for the parse node on the link.
+     */
+    public StackNode reducerNoExistingStack(Parse<StackNode, ParseForest> parse, IReduce reduce, StackNode stack, IState gotoState, ParseForest[] parseForests) {
+    		Derivation derivation = createDerivation(parse, stack.offset, reduce, parseForests);
+        ParseForest parseNode = parseForestManager.createParseNode(parse, stack.offset, reduce.production(), derivation);
+        
+        StackNode newStackWithGotoState = stackManager.createStackNode(parse, gotoState);
+		StackLink<StackNode, ParseForest> link = stackManager.createStackLink(parse, newStackWithGotoState, stack, parseNode);
+        
+        if (reduce.isRejectProduction())
+            stackManager.rejectStackLink(parse, link);
+        
+        return newStackWithGotoState;
+    }
+    
+}
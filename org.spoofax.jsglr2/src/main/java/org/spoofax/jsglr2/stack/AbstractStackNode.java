@@ -1,18 +1,18 @@
 package org.spoofax.jsglr2.stack;
 
-import org.spoofax.jsglr2.parser.Position;
 import org.spoofax.jsglr2.parsetable.IState;
 
 public abstract class AbstractStackNode<ParseForest> {
 
 	public final int stackNumber;
 	public final IState state;
-	public final Position position;
+	public final int offset;
+	public int forActorEpoch; // Equal to the for actor epoch of the parse iff this stack is queued for the actor (see Parse)
 	
-	public AbstractStackNode(int stackNumber, IState state, Position position) {
+	public AbstractStackNode(int stackNumber, IState state, int offset) {
 		this.stackNumber = stackNumber;
         this.state = state;
-        this.position = position;
+        this.offset = offset;
 	}
     
 	// True if non-empty and all out links are rejected
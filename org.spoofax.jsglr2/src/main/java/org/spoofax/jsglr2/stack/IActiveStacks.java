@@ -22,4 +22,9 @@ public interface IActiveStacks<StackNode> extends Iterable<StackNode> {
 	
 	public void clear();
 	
+	// Clears the stacks and drops any other references to them, for when the stacks are not used anymore
+	public default void release() {
+		clear();
+	}
+	
 }
@@ -0,0 +1,79 @@
+package org.spoofax.jsglr2.stack;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.spoofax.jsglr2.parseforest.AbstractParseForest;
+import org.spoofax.jsglr2.parseforest.ParseForestManager;
+
+/*
+ * Reusable buffers for enumerating stack paths (see StackManager.visitAllPathsOfLength): parse forest arrays per path
+ * length, and a flat store in which the enumerated paths are collected before they are visited. Reductions on a path
+ * can trigger other reductions (and thus path enumerations) before the enumeration of the path is finished. Therefore,
+ * parse forest arrays are only handed out again after they have been released, and nested enumerations add their
+ * paths to the store after the paths of the enclosing enumeration.
+ */
+public class PathBuffers<ParseForest extends AbstractParseForest> {
+
+	private final List<ArrayDeque<ParseForest[]>> released = new ArrayList<ArrayDeque<ParseForest[]>>();
+	private Object[] paths = new Object[64];
+	private int pathsSize = 0;
+	
+	public ParseForest[] acquire(ParseForestManager<ParseForest, ?, ?> parseForestManager, int length) {
+		if (length < released.size() && !released.get(length).isEmpty())
+			return released.get(length).pop();
+		
+		return parseForestManager.parseForestsArray(length); // Null if parse forests are not constructed
+	}
+	
+	public void release(ParseForest[] buffer) {
+		if (buffer == null)
+			return;
+		
+		Arrays.fill(buffer, null); // Pooled buffers should not retain the parse forests of a finished parse
+		
+		while (released.size() <= buffer.length)
+			released.add(new ArrayDeque<ParseForest[]>());
+		
+		released.get(buffer.length).push(buffer);
+	}
+	
+	int pathsSize() {
+		return pathsSize;
+	}
+	
+	// Stores a path as its parse forests (if any) followed by the stack node at its end
+	void addPath(ParseForest[] parseForests, Object pathBegin) {
+		int length = parseForests != null ? parseForests.length : 0;
+		
+		if (pathsSize + length + 1 > paths.length)
+			paths = Arrays.copyOf(paths, Math.max(paths.length * 2, pathsSize + length + 1));
+		
+		if (parseForests != null) {
+			System.arraycopy(parseForests, 0, paths, pathsSize, length);
+			pathsSize += length;
+		}
+		
+		paths[pathsSize++] = pathBegin;
+	}
+	
+	// Loads the parse forests of the path at the given index into the buffer and returns the stack node at its end
+	@SuppressWarnings("unchecked")
+	Object loadPath(int index, ParseForest[] parseForests) {
+		int length = parseForests != null ? parseForests.length : 0;
+		
+		for (int i = 0; i < length; i++)
+			parseForests[i] = (ParseForest) paths[index + i];
+		
+		return paths[index + length];
+	}
+	
+	void truncatePaths(int size) {
+		Arrays.fill(paths, size, pathsSize, null); // Do not retain stack nodes and parse forests
+		
+		pathsSize = size;
+	}
+	
+}
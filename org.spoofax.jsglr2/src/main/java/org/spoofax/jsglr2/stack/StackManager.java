@@ -1,8 +1,5 @@
 package org.spoofax.jsglr2.stack;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.spoofax.jsglr2.parseforest.AbstractParseForest;
 import org.spoofax.jsglr2.parseforest.ParseForestManager;
 import org.spoofax.jsglr2.parser.Parse;
@@ -12,14 +9,20 @@ public abstract class StackManager<StackNode extends AbstractStackNode<ParseFore
     
     public abstract StackNode createInitialStackNode(Parse<StackNode, ParseForest> parse, IState state);
     
-    public abstract StackNode createStackNode(Parse<StackNode, ParseForest> parse, IState state);
+    public StackNode createStackNode(Parse<StackNode, ParseForest> parse, IState state) {
+        return createStackNode(parse, state, parse.currentOffset);
+    }
+    
+    // For stack nodes that are copied from a previous parse (see ParseCheckpoints), which keep their relative offset
+    public abstract StackNode createStackNode(Parse<StackNode, ParseForest> parse, IState state, int offset);
     
     public abstract StackLink<StackNode, ParseForest> createStackLink(Parse<StackNode, ParseForest> parse, StackNode from, StackNode to, ParseForest parseNode);
     
     public void rejectStackLink(Parse<StackNode, ParseForest> parse, StackLink<StackNode, ParseForest> link) {
         link.reject();
         
-        parse.notify(observer -> observer.rejectStackLink(link));
+        if (parse.observing)
+            parse.notify(observer -> observer.rejectStackLink(link));
     }
     
     public StackLink<StackNode, ParseForest> findDirectLink(StackNode from, StackNode to) {
@@ -31,50 +34,60 @@ public abstract class StackManager<StackNode extends AbstractStackNode<ParseFore
         return null;
     }
     
-    public List<StackPath<StackNode, ParseForest>> findAllPathsOfLength(StackNode stack, int length) {
-        List<StackPath<StackNode, ParseForest>> paths = new ArrayList<StackPath<StackNode, ParseForest>>();
-    	
-    		StackPath<StackNode, ParseForest> pathsOrigin = new EmptyStackPath<StackNode, ParseForest>(stack);
-    		
-    		findAllPathsOfLength(pathsOrigin, length, paths);
-    		
-    		return paths;
+    public interface PathVisitor<StackNode, ParseForest> {
+        
+        /*
+         * The parse forests are in a buffer that is reused after the visit, it should be copied to be kept.
+         */
+        void visit(ParseForest[] parseForests, StackNode pathBegin);
+        
     }
     
-    private void findAllPathsOfLength(StackPath<StackNode, ParseForest> path, int length, List<StackPath<StackNode, ParseForest>> paths) {
-    		if (length == 0)
-    			paths.add(path);
-    		else {
-    			StackNode lastStackNode = path.head();
-    			
-    			for (StackLink<StackNode, ParseForest> linkOut : stackLinksOut(lastStackNode)) {
-    				StackPath<StackNode, ParseForest> extendedPath = new NonEmptyStackPath<StackNode, ParseForest>(linkOut, path);
-    				
-    				findAllPathsOfLength(extendedPath, length - 1, paths);
-    			}
-    		}
+    /*
+     * Visits all paths of the given length from the stack, without allocating path objects or parse forest arrays. The
+     * paths are first collected, since visiting a path might add links to stacks on other paths. If a link is given,
+     * only the paths that contain it are visited. Since stack links never point to stack nodes with a larger offset,
+     * the search does then not continue into stack nodes before the link's from node.
+     */
+    public void visitAllPathsOfLength(PathBuffers<ParseForest> pathBuffers, ParseForestManager<ParseForest, ?, ?> parseForestManager, StackNode stack, int length, StackLink<StackNode, ParseForest> throughLink, PathVisitor<StackNode, ParseForest> visitor) {
+        ParseForest[] parseForests = pathBuffers.acquire(parseForestManager, length);
+        int pathsStart = pathBuffers.pathsSize();
+        
+        collectAllPathsOfLength(pathBuffers, stack, length, throughLink, throughLink == null, parseForests);
+        
+        int pathsEnd = pathBuffers.pathsSize();
+        int pathSize = (parseForests != null ? length : 0) + 1;
+        
+        for (int path = pathsStart; path < pathsEnd; path += pathSize) {
+            @SuppressWarnings("unchecked")
+            StackNode pathBegin = (StackNode) pathBuffers.loadPath(path, parseForests);
+            
+            visitor.visit(parseForests, pathBegin);
+        }
+        
+        pathBuffers.truncatePaths(pathsStart);
+        pathBuffers.release(parseForests);
     }
     
-    protected abstract Iterable<StackLink<StackNode, ParseForest>> stackLinksOut(StackNode stack);
-    
-    public ParseForest[] getParseForests(ParseForestManager<ParseForest, ?, ?> parseForestManager, StackPath<StackNode, ParseForest> pathBegin) {
-		ParseForest[] res = parseForestManager.parseForestsArray(pathBegin.length);
-		
-		if (res != null) {
-			StackPath<StackNode, ParseForest> path = pathBegin;
-			
-			for (int i = 0; i < pathBegin.length; i++) {
-				NonEmptyStackPath<StackNode, ParseForest> nonEmptyPath = (NonEmptyStackPath<StackNode, ParseForest>) path;
-				
-				res[i] = nonEmptyPath.link.parseForest;
-				
-				path = nonEmptyPath.tail;
-			}
-			
-			return res;
-		}
-		
-		return null;
+    private void collectAllPathsOfLength(PathBuffers<ParseForest> pathBuffers, StackNode stack, int length, StackLink<StackNode, ParseForest> throughLink, boolean throughLinkFound, ParseForest[] parseForests) {
+        if (length == 0)
+            pathBuffers.addPath(parseForests, stack);
+        else {
+            for (StackLink<StackNode, ParseForest> linkOut : stackLinksOut(stack)) {
+                boolean throughLinkFoundExtended = throughLinkFound || linkOut == throughLink;
+                
+                // Without the link, the rest of the path should still be able to reach it
+                if (!throughLinkFoundExtended && (length == 1 || linkOut.to.offset < throughLink.from.offset))
+                    continue;
+                
+                if (parseForests != null)
+                    parseForests[length - 1] = linkOut.parseForest;
+                
+                collectAllPathsOfLength(pathBuffers, linkOut.to, length - 1, throughLink, throughLinkFoundExtended, parseForests);
+            }
+        }
     }
     
+    public abstract Iterable<StackLink<StackNode, ParseForest>> stackLinksOut(StackNode stack);
+    
 }
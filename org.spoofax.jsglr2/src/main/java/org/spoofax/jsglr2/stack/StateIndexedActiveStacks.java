@@ -0,0 +1,91 @@
+package org.spoofax.jsglr2.stack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import org.spoofax.jsglr2.parsetable.IState;
+
+/*
+ * Active stacks with constant time lookup by state. Next to the list of active stacks, the stacks are indexed by state
+ * number in an array that grows on demand. Entries are only valid if stamped with the current epoch, such that
+ * clearing does not have to touch the index.
+ */
+public class StateIndexedActiveStacks<ParseForest, StackNode extends AbstractStackNode<ParseForest>> implements IActiveStacks<StackNode> {
+
+	private final List<StackNode> activeStacks;
+	private Object[] stackForState;
+	private int[] epochForState;
+	private int epoch;
+	
+	public StateIndexedActiveStacks() {
+		this.activeStacks = new ArrayList<StackNode>();
+		this.stackForState = new Object[256];
+		this.epochForState = new int[256];
+		this.epoch = 1;
+	}
+	
+	public Iterator<StackNode> iterator() {
+		return activeStacks.iterator();
+	}
+
+	public void add(StackNode stack) {
+		int stateNumber = stack.state.stateNumber();
+		
+		if (stateNumber >= epochForState.length) {
+			int length = Math.max(stateNumber + 1, epochForState.length * 2);
+			
+			stackForState = Arrays.copyOf(stackForState, length);
+			epochForState = Arrays.copyOf(epochForState, length);
+		}
+		
+		if (epochForState[stateNumber] != epoch) { // Lookup returns the first stack added for a state
+			stackForState[stateNumber] = stack;
+			epochForState[stateNumber] = epoch;
+		}
+		
+		activeStacks.add(stack);
+	}
+
+	public StackNode get(int i) {
+		return activeStacks.get(i);
+	}
+
+	public int size() {
+		return activeStacks.size();
+	}
+
+	@SuppressWarnings("unchecked")
+	public StackNode findWithState(IState state) {
+		int stateNumber = state.stateNumber();
+		
+		if (stateNumber < epochForState.length && epochForState[stateNumber] == epoch)
+			return (StackNode) stackForState[stateNumber];
+		
+		return null;
+	}
+
+	public void addAllTo(Collection<StackNode> other) {
+		for (StackNode stack : activeStacks)
+			other.add(stack);
+	}
+
+	public void clear() {
+		activeStacks.clear();
+		
+		if (++epoch == Integer.MAX_VALUE) {
+			Arrays.fill(epochForState, 0);
+			
+			epoch = 1;
+		}
+	}
+	
+	public void release() {
+		clear();
+		
+		Arrays.fill(stackForState, null);
+	}
+
+}
@@ -2,27 +2,28 @@ package org.spoofax.jsglr2.stack.basic;
 
 import org.spoofax.jsglr2.parseforest.AbstractParseForest;
 import org.spoofax.jsglr2.parser.Parse;
-import org.spoofax.jsglr2.parser.Position;
 import org.spoofax.jsglr2.parsetable.IState;
 import org.spoofax.jsglr2.stack.StackLink;
 import org.spoofax.jsglr2.stack.StackManager;
 
 public abstract class AbstractBasicStackManager<StackNode extends AbstractBasicStackNode<ParseForest>,ParseForest extends AbstractParseForest> extends StackManager<AbstractBasicStackNode<ParseForest>, ParseForest> {
     
-	protected abstract StackNode createStackNode(int stackNumber, IState state, Position position);
+	protected abstract StackNode createStackNode(int stackNumber, IState state, int offset);
 	
     public AbstractBasicStackNode<ParseForest> createInitialStackNode(Parse<AbstractBasicStackNode<ParseForest>, ParseForest> parse, IState state) {
-        AbstractBasicStackNode<ParseForest> newStackNode = createStackNode(parse.stackNodeCount++, state, parse.currentPosition());
+        AbstractBasicStackNode<ParseForest> newStackNode = createStackNode(parse.stackNodeCount++, state, parse.currentOffset);
         
-        parse.notify(observer -> observer.createStackNode(newStackNode));
+        if (parse.observing)
+            parse.notify(observer -> observer.createStackNode(newStackNode));
                 
         return newStackNode;
     }
     
-    public AbstractBasicStackNode<ParseForest> createStackNode(Parse<AbstractBasicStackNode<ParseForest>, ParseForest> parse, IState state) {
-        AbstractBasicStackNode<ParseForest> newStackNode = createStackNode(parse.stackNodeCount++, state, parse.currentPosition());
+    public AbstractBasicStackNode<ParseForest> createStackNode(Parse<AbstractBasicStackNode<ParseForest>, ParseForest> parse, IState state, int offset) {
+        AbstractBasicStackNode<ParseForest> newStackNode = createStackNode(parse.stackNodeCount++, state, offset);
         
-        parse.notify(observer -> observer.createStackNode(newStackNode));
+        if (parse.observing)
+            parse.notify(observer -> observer.createStackNode(newStackNode));
                 
         return newStackNode;
     }
@@ -30,12 +31,13 @@ public abstract class AbstractBasicStackManager<StackNode extends AbstractBasicS
     public StackLink<AbstractBasicStackNode<ParseForest>, ParseForest> createStackLink(Parse<AbstractBasicStackNode<ParseForest>, ParseForest> parse, AbstractBasicStackNode<ParseForest> from, AbstractBasicStackNode<ParseForest> to, ParseForest parseNode) {
         StackLink<AbstractBasicStackNode<ParseForest>, ParseForest> link = from.addOutLink(parse.stackLinkCount++, to, parseNode);
         
-        parse.notify(observer -> observer.createStackLink(link));
+        if (parse.observing)
+            parse.notify(observer -> observer.createStackLink(link));
         
         return link;
     }
     
-    protected Iterable<StackLink<AbstractBasicStackNode<ParseForest>, ParseForest>> stackLinksOut(AbstractBasicStackNode<ParseForest> stack) {
+    public Iterable<StackLink<AbstractBasicStackNode<ParseForest>, ParseForest>> stackLinksOut(AbstractBasicStackNode<ParseForest> stack) {
         return stack.getLinksOut();
     }
     
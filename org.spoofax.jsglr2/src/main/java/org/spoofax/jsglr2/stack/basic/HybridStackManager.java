@@ -1,13 +1,12 @@
 package org.spoofax.jsglr2.stack.basic;
 
 import org.spoofax.jsglr2.parseforest.AbstractParseForest;
-import org.spoofax.jsglr2.parser.Position;
 import org.spoofax.jsglr2.parsetable.IState;
 
-public class HybridStackManager<ParseForest extends AbstractParseForest> extends AbstractBasicStackManager<HybridStackNode<ParseForest>, ParseForest> {
+public final class HybridStackManager<ParseForest extends AbstractParseForest> extends AbstractBasicStackManager<HybridStackNode<ParseForest>, ParseForest> {
     
-	protected HybridStackNode<ParseForest> createStackNode(int stackNumber, IState state, Position position) {
-		return new HybridStackNode<ParseForest>(stackNumber, state, position);
+	protected HybridStackNode<ParseForest> createStackNode(int stackNumber, IState state, int offset) {
+		return new HybridStackNode<ParseForest>(stackNumber, state, offset);
 	}
     
 }
@@ -1,6 +1,5 @@
 package org.spoofax.jsglr2.stack.basic;
 
-import org.spoofax.jsglr2.parser.Position;
 import org.spoofax.jsglr2.parsetable.IState;
 import org.spoofax.jsglr2.stack.StackLink;
 import org.spoofax.jsglr2.util.iterators.SingleElementWithListIterable;
@@ -8,13 +7,13 @@ import org.spoofax.jsglr2.util.iterators.SingleElementWithListIterable;
 import java.util.ArrayList;
 import java.util.Collections;
 
-public class HybridStackNode<ParseForest> extends AbstractBasicStackNode<ParseForest> {
+public final class HybridStackNode<ParseForest> extends AbstractBasicStackNode<ParseForest> {
 
     private StackLink<AbstractBasicStackNode<ParseForest>, ParseForest> firstLinkOut;
     private ArrayList<StackLink<AbstractBasicStackNode<ParseForest>, ParseForest>> otherLinksOut;
 	
-	public HybridStackNode(int stackNumber, IState state, Position position) {
-		super(stackNumber, state, position);
+	public HybridStackNode(int stackNumber, IState state, int offset) {
+		super(stackNumber, state, offset);
 	}
 
 	public Iterable<StackLink<AbstractBasicStackNode<ParseForest>, ParseForest>> getLinksOut() {
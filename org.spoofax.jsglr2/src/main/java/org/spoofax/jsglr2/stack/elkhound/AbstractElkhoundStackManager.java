@@ -1,29 +1,29 @@
 package org.spoofax.jsglr2.stack.elkhound;
 
 import org.spoofax.jsglr2.parseforest.AbstractParseForest;
-import org.spoofax.jsglr2.parseforest.ParseForestManager;
 import org.spoofax.jsglr2.parser.Parse;
-import org.spoofax.jsglr2.parser.Position;
 import org.spoofax.jsglr2.parsetable.IState;
 import org.spoofax.jsglr2.stack.StackLink;
 import org.spoofax.jsglr2.stack.StackManager;
 
 public abstract class AbstractElkhoundStackManager<StackNode extends AbstractElkhoundStackNode<ParseForest>, ParseForest extends AbstractParseForest> extends StackManager<AbstractElkhoundStackNode<ParseForest>, ParseForest> {
     
-	protected abstract StackNode createStackNode(int stackNumber, IState state, Position position, int deterministicDepth);
+	protected abstract StackNode createStackNode(int stackNumber, IState state, int offset, int deterministicDepth);
 	
     public AbstractElkhoundStackNode<ParseForest> createInitialStackNode(Parse<AbstractElkhoundStackNode<ParseForest>, ParseForest> parse, IState state) {
-        AbstractElkhoundStackNode<ParseForest> newStackNode = createStackNode(parse.stackNodeCount++, state, parse.currentPosition(), 1);
+        AbstractElkhoundStackNode<ParseForest> newStackNode = createStackNode(parse.stackNodeCount++, state, parse.currentOffset, 1);
         
-        parse.notify(observer -> observer.createStackNode(newStackNode));
+        if (parse.observing)
+            parse.notify(observer -> observer.createStackNode(newStackNode));
                 
         return newStackNode;
     }
     
-    public AbstractElkhoundStackNode<ParseForest> createStackNode(Parse<AbstractElkhoundStackNode<ParseForest>, ParseForest> parse, IState state) {
-        AbstractElkhoundStackNode<ParseForest> newStackNode = createStackNode(parse.stackNodeCount++, state, parse.currentPosition(), 0);
+    public AbstractElkhoundStackNode<ParseForest> createStackNode(Parse<AbstractElkhoundStackNode<ParseForest>, ParseForest> parse, IState state, int offset) {
+        AbstractElkhoundStackNode<ParseForest> newStackNode = createStackNode(parse.stackNodeCount++, state, offset, 0);
         
-        parse.notify(observer -> observer.createStackNode(newStackNode));
+        if (parse.observing)
+            parse.notify(observer -> observer.createStackNode(newStackNode));
                 
         return newStackNode;
     }
@@ -31,16 +31,19 @@ public abstract class AbstractElkhoundStackManager<StackNode extends AbstractElk
     public StackLink<AbstractElkhoundStackNode<ParseForest>, ParseForest> createStackLink(Parse<AbstractElkhoundStackNode<ParseForest>, ParseForest> parse, AbstractElkhoundStackNode<ParseForest> from, AbstractElkhoundStackNode<ParseForest> to, ParseForest parseNode) {
         StackLink<AbstractElkhoundStackNode<ParseForest>, ParseForest> link = from.addOutLink(parse.stackLinkCount++, to, parseNode, parse);
         
-        parse.notify(observer -> observer.createStackLink(link));
+        if (parse.observing)
+            parse.notify(observer -> observer.createStackLink(link));
         
         return link;
     }
     
-    public DeterministicStackPath<AbstractElkhoundStackNode<ParseForest>, ParseForest> findDeterministicPathOfLength(ParseForestManager<ParseForest, ?, ?> parseForestManager, AbstractElkhoundStackNode<ParseForest> stack, int length) {
+    /*
+     * Collects the parse forests of the deterministic path of the given length in the given buffer (which can be null if
+     * parse forests are not constructed) and returns the stack node at the end of the path.
+     */
+    public AbstractElkhoundStackNode<ParseForest> findDeterministicPathOfLength(AbstractElkhoundStackNode<ParseForest> stack, int length, ParseForest[] parseForests) {
 		AbstractElkhoundStackNode<ParseForest> lastStackNode = stack;
 		AbstractElkhoundStackNode<ParseForest> currentStackNode = stack;
-    		
-		ParseForest[] parseForests = parseForestManager.parseForestsArray(length);
 		
 		for (int i = length - 1; i >= 0; i--) {
 			StackLink<AbstractElkhoundStackNode<ParseForest>, ParseForest> link = currentStackNode.getOnlyLinkOut();
@@ -55,10 +58,10 @@ public abstract class AbstractElkhoundStackManager<StackNode extends AbstractElk
 				currentStackNode = link.to;
 		}
     		
-    		return new DeterministicStackPath<AbstractElkhoundStackNode<ParseForest>, ParseForest>(parseForests, lastStackNode);
+    		return lastStackNode;
     }
     
-    protected Iterable<StackLink<AbstractElkhoundStackNode<ParseForest>, ParseForest>> stackLinksOut(AbstractElkhoundStackNode<ParseForest> stack) {
+    public Iterable<StackLink<AbstractElkhoundStackNode<ParseForest>, ParseForest>> stackLinksOut(AbstractElkhoundStackNode<ParseForest> stack) {
         return stack.getLinksOut();
     }
     
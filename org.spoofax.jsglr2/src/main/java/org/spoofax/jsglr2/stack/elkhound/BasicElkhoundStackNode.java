@@ -4,11 +4,10 @@ import java.util.ArrayList;
 
 import org.spoofax.jsglr2.parseforest.AbstractParseForest;
 import org.spoofax.jsglr2.parser.Parse;
-import org.spoofax.jsglr2.parser.Position;
 import org.spoofax.jsglr2.parsetable.IState;
 import org.spoofax.jsglr2.stack.StackLink;
 
-public class BasicElkhoundStackNode<ParseForest extends AbstractParseForest> extends AbstractElkhoundStackNode<ParseForest> {
+public final class BasicElkhoundStackNode<ParseForest extends AbstractParseForest> extends AbstractElkhoundStackNode<ParseForest> {
 
     // Directed to the initial stack node
     private ArrayList<StackLink<AbstractElkhoundStackNode<ParseForest>, ParseForest>> linksOut = new ArrayList<StackLink<AbstractElkhoundStackNode<ParseForest>, ParseForest>>();
@@ -16,8 +15,8 @@ public class BasicElkhoundStackNode<ParseForest extends AbstractParseForest> ext
     // Directed from the initial stack node
     private ArrayList<StackLink<AbstractElkhoundStackNode<ParseForest>, ParseForest>> linksIn = new ArrayList<StackLink<AbstractElkhoundStackNode<ParseForest>, ParseForest>>();
     
-	public BasicElkhoundStackNode(int stackNumber, IState state, Position position, int deterministicDepth) {
-		super(stackNumber, state, position, deterministicDepth);
+	public BasicElkhoundStackNode(int stackNumber, IState state, int offset, int deterministicDepth) {
+		super(stackNumber, state, offset, deterministicDepth);
 	}
     
     public Iterable<StackLink<AbstractElkhoundStackNode<ParseForest>, ParseForest>> getLinksOut() {
@@ -42,7 +41,8 @@ public class BasicElkhoundStackNode<ParseForest extends AbstractParseForest> ext
         } else if (linksOut.size() == 2) { // The second link is added; this means non-determinism
             deterministicDepth = 0;
             
-            parse.notify(observer -> observer.resetDeterministicDepth(this));
+            if (parse.observing)
+                parse.notify(observer -> observer.resetDeterministicDepth(this));
             
             for (StackLink<AbstractElkhoundStackNode<ParseForest>, ParseForest> linkIn : getLinksIn())
                 linkIn.from.resetDeterministicDepth(1);
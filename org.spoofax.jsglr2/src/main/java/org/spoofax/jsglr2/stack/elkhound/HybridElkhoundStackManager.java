@@ -1,13 +1,12 @@
 package org.spoofax.jsglr2.stack.elkhound;
 
 import org.spoofax.jsglr2.parseforest.AbstractParseForest;
-import org.spoofax.jsglr2.parser.Position;
 import org.spoofax.jsglr2.parsetable.IState;
 
-public class HybridElkhoundStackManager<ParseForest extends AbstractParseForest> extends AbstractElkhoundStackManager<AbstractElkhoundStackNode<ParseForest>, ParseForest> {
+public final class HybridElkhoundStackManager<ParseForest extends AbstractParseForest> extends AbstractElkhoundStackManager<AbstractElkhoundStackNode<ParseForest>, ParseForest> {
 
-	protected HybridElkhoundStackNode<ParseForest> createStackNode(int stackNumber, IState state, Position position, int deterministicDepth) {
-		return new HybridElkhoundStackNode<ParseForest>(stackNumber, state, position, deterministicDepth);
+	protected HybridElkhoundStackNode<ParseForest> createStackNode(int stackNumber, IState state, int offset, int deterministicDepth) {
+		return new HybridElkhoundStackNode<ParseForest>(stackNumber, state, offset, deterministicDepth);
 	}
 	
 }
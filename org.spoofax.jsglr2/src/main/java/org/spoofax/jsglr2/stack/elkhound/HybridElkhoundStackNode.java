@@ -5,12 +5,11 @@ import java.util.Collections;
 
 import org.spoofax.jsglr2.parseforest.AbstractParseForest;
 import org.spoofax.jsglr2.parser.Parse;
-import org.spoofax.jsglr2.parser.Position;
 import org.spoofax.jsglr2.parsetable.IState;
 import org.spoofax.jsglr2.stack.StackLink;
 import org.spoofax.jsglr2.util.iterators.SingleElementWithListIterable;
 
-public class HybridElkhoundStackNode<ParseForest extends AbstractParseForest> extends AbstractElkhoundStackNode<ParseForest> {
+public final class HybridElkhoundStackNode<ParseForest extends AbstractParseForest> extends AbstractElkhoundStackNode<ParseForest> {
 
     // Directed to the initial stack node (to the origin)
     private StackLink<AbstractElkhoundStackNode<ParseForest>, ParseForest> firstLinkOut;
@@ -20,8 +19,8 @@ public class HybridElkhoundStackNode<ParseForest extends AbstractParseForest> ex
     private StackLink<AbstractElkhoundStackNode<ParseForest>, ParseForest> firstLinkIn;
     private ArrayList<StackLink<AbstractElkhoundStackNode<ParseForest>, ParseForest>> otherLinksIn;
     
-	public HybridElkhoundStackNode(int stackNumber, IState state, Position position, int deterministicDepth) {
-		super(stackNumber, state, position, deterministicDepth);
+	public HybridElkhoundStackNode(int stackNumber, IState state, int offset, int deterministicDepth) {
+		super(stackNumber, state, offset, deterministicDepth);
 	}
     
     public Iterable<StackLink<AbstractElkhoundStackNode<ParseForest>, ParseForest>> getLinksOut() {
@@ -59,7 +58,8 @@ public class HybridElkhoundStackNode<ParseForest extends AbstractParseForest> ex
     			
     			deterministicDepth = 0;
                 
-    			parse.notify(observer -> observer.resetDeterministicDepth(this));
+    			if (parse.observing)
+    			    parse.notify(observer -> observer.resetDeterministicDepth(this));
                 
             for (StackLink<AbstractElkhoundStackNode<ParseForest>, ParseForest> linkIn : getLinksIn())
                 linkIn.from.resetDeterministicDepth(1);
@@ -0,0 +1,152 @@
+package org.spoofax.jsglr2.streaming;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.spoofax.jsglr2.JSGLR2;
+import org.spoofax.jsglr2.parser.ParseException;
+
+/*
+ * Parses inputs that are a (possibly very large) list of elements separated by a separator, such as the rows of a CSV
+ * file or the lines of a log, from a stream with memory bounded by the size of a single element. Every element is
+ * parsed on its own and passed to a consumer, after which its text, stack and parse forest can be released.
+ *
+ * The grammar should accept a single element as input, which is the case for separated lists. At every occurrence of
+ * the separator, the text read since the previous element is parsed. By default, the separator cannot occur inside an
+ * element and a failure is reported immediately. For grammars in which it can (e.g. a newline in a string literal), a
+ * grammar specific predicate decides whether the failed text may be the start of a longer element, up to a maximum
+ * number of separators per element (see elementsMayContinue). The separator should not occur at a position where the
+ * text before it is a complete element but the element continues.
+ */
+public class StreamingParser<AbstractSyntaxTree> {
+
+    public static final int DEFAULT_MAX_ELEMENT_LENGTH = 1 << 20;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    public static class Element<AbstractSyntaxTree> {
+        public final long offset; // In the stream
+        public final String text;
+        public final AbstractSyntaxTree ast;
+
+        Element(long offset, String text, AbstractSyntaxTree ast) {
+            this.offset = offset;
+            this.text = text;
+            this.ast = ast;
+        }
+    }
+
+    private final JSGLR2<?, ?, AbstractSyntaxTree> jsglr2;
+    private final String separator;
+    private final int maxElementLength;
+    private Predicate<String> mayContinue;
+    private int maxSeparatorsPerElement;
+
+    public StreamingParser(JSGLR2<?, ?, AbstractSyntaxTree> jsglr2, String separator) {
+        this(jsglr2, separator, DEFAULT_MAX_ELEMENT_LENGTH);
+    }
+
+    public StreamingParser(JSGLR2<?, ?, AbstractSyntaxTree> jsglr2, String separator, int maxElementLength) {
+        if (separator.isEmpty())
+            throw new IllegalArgumentException("Separator should not be empty");
+
+        this.jsglr2 = jsglr2;
+        this.separator = separator;
+        this.maxElementLength = maxElementLength;
+        this.mayContinue = text -> false;
+        this.maxSeparatorsPerElement = 0;
+    }
+
+    /*
+     * Allow elements to contain the separator: if the text before a separator does not parse and the predicate holds
+     * for it (e.g. it contains an unterminated string), the separator is considered part of the element. After the
+     * given number of separators inside an element, or if the predicate does not hold, the first failure of the
+     * element is reported. This bounds the number of times an element is parsed.
+     */
+    public void elementsMayContinue(Predicate<String> mayContinue, int maxSeparatorsPerElement) {
+        this.mayContinue = mayContinue;
+        this.maxSeparatorsPerElement = maxSeparatorsPerElement;
+    }
+
+    public int parse(ReadableByteChannel channel, Charset charset, String filename, String startSymbol, Consumer<Element<AbstractSyntaxTree>> consumer) throws IOException, ParseException {
+        return parse(Channels.newReader(channel, charset.newDecoder(), BUFFER_SIZE), filename, startSymbol, consumer);
+    }
+
+    /*
+     * Parses all elements from the reader and passes them to the consumer in order. Returns the number of elements, or
+     * throws a ParseException for the first element that does not parse.
+     */
+    public int parse(Reader reader, String filename, String startSymbol, Consumer<Element<AbstractSyntaxTree>> consumer) throws IOException, ParseException {
+        StringBuilder pending = new StringBuilder(); // The text read since the previous chunk was appended
+        int start = 0; // Of the pending element in pending, the text before it is removed once per chunk
+        long pendingOffset = 0;
+        int searchFrom = 0;
+        int separators = 0; // Inside the pending element
+        ParseException firstFailure = null; // Of the pending element
+        int elements = 0;
+
+        char[] buffer = new char[BUFFER_SIZE];
+        int read;
+
+        while ((read = reader.read(buffer)) != -1) {
+            pending.delete(0, start);
+            searchFrom -= start;
+            start = 0;
+
+            pending.append(buffer, 0, read);
+
+            int separatorIndex;
+
+            while ((separatorIndex = pending.indexOf(separator, searchFrom)) != -1) {
+                String text = pending.substring(start, separatorIndex);
+
+                try {
+                    AbstractSyntaxTree ast = jsglr2.parseUnsafe(text, filename, startSymbol);
+
+                    consumer.accept(new Element<AbstractSyntaxTree>(pendingOffset, text, ast));
+                    elements++;
+
+                    int end = separatorIndex + separator.length();
+
+                    pendingOffset += end - start;
+                    start = end;
+                    searchFrom = end;
+                    separators = 0;
+                    firstFailure = null;
+                } catch (ParseException e) {
+                    if (firstFailure == null)
+                        firstFailure = e;
+
+                    if (separators++ < maxSeparatorsPerElement && mayContinue.test(text))
+                        searchFrom = separatorIndex + separator.length(); // The separator is part of the element
+                    else
+                        throw failure(pendingOffset, firstFailure);
+                }
+            }
+
+            if (pending.length() - start > maxElementLength)
+                throw new ParseException("element at offset " + pendingOffset + " exceeds the maximum element length of " + maxElementLength);
+        }
+
+        // The text after the last separator is the last element, as in a separated list
+        String text = pending.substring(start);
+
+        try {
+            consumer.accept(new Element<AbstractSyntaxTree>(pendingOffset, text, jsglr2.parseUnsafe(text, filename, startSymbol)));
+        } catch (ParseException e) {
+            throw failure(pendingOffset, firstFailure != null ? firstFailure : e);
+        }
+
+        return elements + 1;
+    }
+
+    private ParseException failure(long offset, ParseException e) {
+        return new ParseException("element at offset " + offset + ": " + e.getMessage());
+    }
+
+}
@@ -0,0 +1,136 @@
+package org.spoofax.jsglr2.tokenizer;
+
+import static org.spoofax.jsglr.client.imploder.IToken.TK_EOF;
+import static org.spoofax.jsglr.client.imploder.IToken.TK_RESERVED;
+
+import java.util.function.IntPredicate;
+
+import org.spoofax.interpreter.terms.ISimpleTerm;
+import org.spoofax.jsglr.client.imploder.IToken;
+import org.spoofax.jsglr.client.imploder.ITermOffsetIndexProvider;
+import org.spoofax.jsglr.client.imploder.ITokens;
+import org.spoofax.jsglr.client.imploder.TermOffsetIndex;
+import org.spoofax.jsglr2.parseforest.AbstractParseForest;
+import org.spoofax.jsglr2.parsetable.IProduction;
+
+/*
+ * The tokens of a parse forest, created in order by a tokenizer. Subclasses determine how the tokens are stored (see
+ * Tokens and ColumnarTokens). The tokenizer refers to tokens by their id, which is the index at which they were added,
+ * such that token objects are only needed for the tokens that are accessed as objects (see getToken).
+ */
+public abstract class AbstractTokens implements ITokens, ITermOffsetIndexProvider {
+
+    protected final String filename;
+    protected final String input;
+
+    public IToken startToken, endToken;
+
+    private TermOffsetIndex termOffsetIndex; // Null if not recorded while imploding
+    private IntPredicate materializer; // Null if all tokens are bound while imploding
+
+    protected AbstractTokens(String input, String filename) {
+        this.input = input;
+        this.filename = filename;
+    }
+
+    // Returns the id of the start token, like the other make methods
+    public int makeStartToken(AbstractParseForest parseForest) {
+        int id = makeToken(parseForest.parse.line(parseForest.startOffset), parseForest.parse.column(parseForest.startOffset), parseForest.startOffset, -1, TK_RESERVED);
+
+        startToken = getToken(id);
+
+        return id;
+    }
+
+    public int makeEndToken(AbstractParseForest parseForest) {
+        int id = makeToken(parseForest.parse.line(parseForest.endOffset), parseForest.parse.column(parseForest.endOffset), parseForest.endOffset, -1, TK_EOF);
+
+        endToken = getToken(id);
+
+        return id;
+    }
+
+    public int makeToken(AbstractParseForest parseForest, IProduction production) {
+        int tokenKind;
+
+        if (production.isLayout()) {
+            tokenKind = IToken.TK_LAYOUT;
+        } else if (production.isStringLiteral()) {
+            tokenKind = IToken.TK_STRING;
+        } else if (production.isNumberLiteral()) {
+            tokenKind = IToken.TK_NUMBER;
+        } else if (production.isOperator()) {
+            tokenKind = IToken.TK_OPERATOR;
+        } else if (production.isLexical()) {
+            tokenKind = IToken.TK_IDENTIFIER;
+        } else {
+            tokenKind = IToken.TK_KEYWORD;
+        }
+
+        return makeToken(parseForest.parse.line(parseForest.startOffset), parseForest.parse.column(parseForest.startOffset), parseForest.startOffset, parseForest.endOffset - 1, tokenKind);
+    }
+
+    // Adds a token at the next index and returns its id, the end offset is inclusive
+    protected abstract int makeToken(int line, int column, int startOffset, int endOffset, int kind);
+
+    // The token with the given id, which equals its index unless the tokens are reordered after they are added, or null for -1
+    public abstract IToken getToken(int id);
+
+    public void setAstNode(int id, ISimpleTerm astNode) {
+        getToken(id).setAstNode(astNode);
+    }
+
+    public TermOffsetIndex getTermOffsetIndex() {
+        return termOffsetIndex;
+    }
+
+    public void setTermOffsetIndex(TermOffsetIndex termOffsetIndex) {
+        this.termOffsetIndex = termOffsetIndex;
+    }
+
+    /*
+     * For trees that are created lazily, of which the tokens are only bound once they are created (see
+     * LazyHybridParseForestStrategoImploder). The materializer creates a lazy tree that covers the given offset and
+     * returns whether there was one, which token objects repeat while they are not bound (see materialize).
+     */
+    public IntPredicate getMaterializer() {
+        return materializer;
+    }
+
+    public void setMaterializer(IntPredicate materializer) {
+        this.materializer = materializer;
+    }
+
+    // Creates a lazy tree that covers a token that is not bound yet, returns false if there is none
+    protected boolean materialize(IToken token) {
+        // The start and end tokens are empty and bound to the top tree, if at all
+        return materializer != null && token.getEndOffset() >= token.getStartOffset() && materializer.test(token.getStartOffset());
+    }
+
+    public String getInput() {
+        return input;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public String toString(IToken left, IToken right) {
+        int startOffset = left.getStartOffset();
+        int endOffset = right.getEndOffset();
+
+        if (startOffset >= 0 && endOffset >= 0)
+            return toString(startOffset, endOffset);
+        else
+            return "";
+    }
+
+    public String toString(int startOffset, int endOffset) {
+        return input.substring(startOffset, endOffset + 1);
+    }
+
+    public boolean isAmbigous() {
+        return false; // TODO: implement
+    }
+
+}
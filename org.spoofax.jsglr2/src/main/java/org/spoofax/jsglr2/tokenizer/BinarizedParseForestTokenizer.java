@@ -0,0 +1,18 @@
+package org.spoofax.jsglr2.tokenizer;
+
+import org.spoofax.jsglr2.parseforest.binarized.BinarizedDerivation;
+import org.spoofax.jsglr2.parseforest.binarized.BinarizedParseForest;
+import org.spoofax.jsglr2.parseforest.binarized.BinarizedParseNode;
+import org.spoofax.jsglr2.parsetable.IProduction;
+
+public class BinarizedParseForestTokenizer extends Tokenizer<BinarizedParseForest, BinarizedParseNode, BinarizedDerivation> {
+
+    protected IProduction parseNodeProduction(BinarizedParseNode parseNode) {
+        return parseNode.production;
+    }
+
+    protected Iterable<BinarizedDerivation> parseNodeDerivations(BinarizedParseNode parseNode) {
+        return parseNode.getDerivations();
+    }
+
+}
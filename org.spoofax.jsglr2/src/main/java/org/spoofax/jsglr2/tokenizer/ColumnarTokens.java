@@ -0,0 +1,329 @@
+package org.spoofax.jsglr2.tokenizer;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.spoofax.interpreter.terms.ISimpleTerm;
+import org.spoofax.jsglr.client.imploder.IToken;
+import org.spoofax.jsglr.client.imploder.ITokens;
+import org.spoofax.jsglr.client.imploder.Token;
+import org.spoofax.jsglr2.parseforest.AbstractParseForest;
+
+/*
+ * Stores tokens in parallel arrays instead of as token objects. The parse forest refers to tokens by id, and token
+ * objects are flyweights that only refer to their index, of which there is at most one per token, created when the
+ * token is first accessed as an object (by the imploder for the left and right tokens of trees, not for the tokens that
+ * are only bound to trees). Tokens are added in order of their offsets, except for ambiguous parse forests of which the
+ * tokens of all derivations are added. Those are sorted by start offset (keeping the order of tokens with the same
+ * start offset) when the end token is added, such that a token is always looked up by offset with a binary search.
+ * Like Tokens, the tokens are not serializable, while a flyweight is serialized as a token object (see writeReplace).
+ */
+public class ColumnarTokens extends AbstractTokens {
+
+    private int count;
+    private int[] startOffsets, endOffsets, lines, columns;
+    private byte[] kinds; // Token kinds are at most TK_NO_TOKEN_KIND
+    private ISimpleTerm[] astNodes;
+    private ColumnarToken[] flyweights; // Created on access
+    private boolean sorted; // Whether the start offsets are non-decreasing
+    private int[] indices; // Per id the index of the token if the tokens were sorted, otherwise null
+
+    public ColumnarTokens(String input, String filename) {
+        super(input, filename);
+
+        int capacity = 16;
+
+        this.count = 0;
+        this.startOffsets = new int[capacity];
+        this.endOffsets = new int[capacity];
+        this.lines = new int[capacity];
+        this.columns = new int[capacity];
+        this.kinds = new byte[capacity];
+        this.astNodes = new ISimpleTerm[capacity];
+        this.flyweights = new ColumnarToken[capacity];
+        this.sorted = true;
+        this.indices = null;
+    }
+
+    protected int makeToken(int line, int column, int startOffset, int endOffset, int kind) {
+        if (count == startOffsets.length) {
+            int capacity = Math.max(16, 2 * count);
+
+            startOffsets = Arrays.copyOf(startOffsets, capacity);
+            endOffsets = Arrays.copyOf(endOffsets, capacity);
+            lines = Arrays.copyOf(lines, capacity);
+            columns = Arrays.copyOf(columns, capacity);
+            kinds = Arrays.copyOf(kinds, capacity);
+            astNodes = Arrays.copyOf(astNodes, capacity);
+            flyweights = Arrays.copyOf(flyweights, capacity);
+        }
+
+        if (count > 0 && startOffset < startOffsets[count - 1])
+            sorted = false;
+
+        startOffsets[count] = startOffset;
+        endOffsets[count] = endOffset;
+        lines[count] = line;
+        columns[count] = column;
+        kinds[count] = (byte) kind;
+
+        return count++;
+    }
+
+    public IToken getToken(int id) {
+        if (id == -1)
+            return null;
+
+        return token(indices == null ? id : indices[id]);
+    }
+
+    @Override
+    public void setAstNode(int id, ISimpleTerm astNode) {
+        astNodes[indices == null ? id : indices[id]] = astNode;
+    }
+
+    private ColumnarToken token(int index) {
+        ColumnarToken token = flyweights[index];
+
+        if (token == null)
+            flyweights[index] = token = new ColumnarToken(this, index);
+
+        return token;
+    }
+
+    // The end token is the last token, after which the tokens are sorted and the unused capacity is released
+    @Override
+    public int makeEndToken(AbstractParseForest parseForest) {
+        int id = super.makeEndToken(parseForest);
+
+        if (sorted) {
+            startOffsets = Arrays.copyOf(startOffsets, count);
+            endOffsets = Arrays.copyOf(endOffsets, count);
+            lines = Arrays.copyOf(lines, count);
+            columns = Arrays.copyOf(columns, count);
+            kinds = Arrays.copyOf(kinds, count);
+            astNodes = Arrays.copyOf(astNodes, count);
+            flyweights = Arrays.copyOf(flyweights, count);
+        } else
+            sort();
+
+        return id;
+    }
+
+    // Stable, such that the start token precedes the first token and alternative tokens keep their order
+    private void sort() {
+        Integer[] order = new Integer[count];
+
+        for (int i = 0; i < count; i++)
+            order[i] = i;
+
+        Arrays.sort(order, (i, j) -> Integer.compare(startOffsets[i], startOffsets[j]));
+
+        int[] sortedStartOffsets = new int[count], sortedEndOffsets = new int[count], sortedLines = new int[count], sortedColumns = new int[count];
+        byte[] sortedKinds = new byte[count];
+        ISimpleTerm[] sortedAstNodes = new ISimpleTerm[count];
+        ColumnarToken[] sortedFlyweights = new ColumnarToken[count];
+
+        indices = new int[count];
+
+        for (int index = 0; index < count; index++) {
+            int previousIndex = order[index];
+
+            sortedStartOffsets[index] = startOffsets[previousIndex];
+            sortedEndOffsets[index] = endOffsets[previousIndex];
+            sortedLines[index] = lines[previousIndex];
+            sortedColumns[index] = columns[previousIndex];
+            sortedKinds[index] = kinds[previousIndex];
+            sortedAstNodes[index] = astNodes[previousIndex];
+            sortedFlyweights[index] = flyweights[previousIndex];
+            indices[previousIndex] = index; // Before sorting, the index of a token is its id
+
+            if (sortedFlyweights[index] != null)
+                sortedFlyweights[index].index = index; // Flyweights that are already referenced follow their token
+        }
+
+        startOffsets = sortedStartOffsets;
+        endOffsets = sortedEndOffsets;
+        lines = sortedLines;
+        columns = sortedColumns;
+        kinds = sortedKinds;
+        astNodes = sortedAstNodes;
+        flyweights = sortedFlyweights;
+        sorted = true;
+    }
+
+    public Iterator<IToken> iterator() {
+        return new Iterator<IToken>() {
+            int index = 0;
+
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            public IToken next() {
+                if (index >= count)
+                    throw new NoSuchElementException();
+
+                return token(index++);
+            }
+        };
+    }
+
+    public int getTokenCount() {
+        return count;
+    }
+
+    public IToken getTokenAt(int index) {
+        if (index < 0 || index >= count)
+            throw new IndexOutOfBoundsException("index " + index + ", token count " + count);
+
+        return token(index);
+    }
+
+    // Like Tokens.getTokenAtOffset, returns the first token that starts at the offset
+    public IToken getTokenAtOffset(int offset) {
+        if (!sorted)
+            throw new IllegalStateException("tokens are looked up by offset before the end token is added");
+
+        int low = 0, high = count;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (startOffsets[middle] < offset)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+
+        if (low < count && startOffsets[low] == offset)
+            return token(low);
+
+        return null;
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+
+        for (int index = 0; index < count; index++) {
+            if (index > 0)
+                sb.append(", ");
+
+            sb.append(toString(startOffsets[index], endOffsets[index]));
+        }
+
+        return sb.append("]").toString();
+    }
+
+    private static final class ColumnarToken implements IToken {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ColumnarTokens tokens;
+        private int index; // Updated when the tokens are sorted
+
+        ColumnarToken(ColumnarTokens tokens, int index) {
+            this.tokens = tokens;
+            this.index = index;
+        }
+
+        public int getKind() {
+            return tokens.kinds[index];
+        }
+
+        public void setKind(int kind) {
+            tokens.kinds[index] = (byte) kind;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getStartOffset() {
+            return tokens.startOffsets[index];
+        }
+
+        public int getEndOffset() {
+            return tokens.endOffsets[index];
+        }
+
+        public int getLine() {
+            return tokens.lines[index];
+        }
+
+        public int getEndLine() {
+            return getLine(); // Like Token, assumes that tokens span one line
+        }
+
+        public int getColumn() {
+            return tokens.columns[index];
+        }
+
+        public int getEndColumn() {
+            return getColumn() + getEndOffset() - getStartOffset();
+        }
+
+        public int getLength() {
+            return getEndOffset() - getStartOffset() + 1;
+        }
+
+        public char charAt(int index) {
+            return tokens.input.charAt(index + getStartOffset());
+        }
+
+        public String getError() {
+            return null;
+        }
+
+        public void setAstNode(ISimpleTerm astNode) {
+            tokens.astNodes[index] = astNode;
+        }
+
+        public ISimpleTerm getAstNode() {
+            ISimpleTerm astNode = tokens.astNodes[index];
+
+            while (astNode == null && tokens.materialize(this))
+                astNode = tokens.astNodes[index];
+
+            return astNode;
+        }
+
+        public String getFilename() {
+            return tokens.filename;
+        }
+
+        public ITokens getTokenizer() {
+            return tokens;
+        }
+
+        public IToken clone() {
+            return new ColumnarToken(tokens, index);
+        }
+
+        public int compareTo(IToken other) {
+            if (getEndOffset() <= other.getEndOffset())
+                return -1;
+            else if (getStartOffset() > other.getStartOffset())
+                return 1;
+            else
+                return 0;
+        }
+
+        @Override
+        public String toString() {
+            return tokens.toString(this, this);
+        }
+
+        // A snapshot without the tokens, like a serialized Token of which the tokens are transient
+        private Object writeReplace() {
+            Token token = new Token(null, tokens.filename, index, getLine(), getColumn(), getStartOffset(), getEndOffset(), getKind());
+
+            token.setAstNode(getAstNode());
+
+            return token;
+        }
+
+    }
+
+}
@@ -1,12 +1,10 @@
 package org.spoofax.jsglr2.tokenizer;
 
-import org.spoofax.jsglr.client.imploder.IToken;
-
 public final class TokenizationCover {
 
-    public final IToken firstToken, lastToken;
+    public final int firstToken, lastToken; // Token ids, -1 if there is no token
     
-    public TokenizationCover(IToken firstToken, IToken lastToken) {
+    public TokenizationCover(int firstToken, int lastToken) {
         this.firstToken = firstToken;
         this.lastToken = lastToken;
     }
@@ -1,14 +1,12 @@
 package org.spoofax.jsglr2.tokenizer;
 
-import org.spoofax.jsglr.client.imploder.IToken;
 import org.spoofax.jsglr2.parseforest.AbstractParseForest;
 import org.spoofax.jsglr2.parseforest.IDerivation;
 import org.spoofax.jsglr2.parsetable.IProduction;
-import org.spoofax.jsglr2.tokenizer.Tokens;
 
 public abstract class Tokenizer<ParseForest extends AbstractParseForest, ParseNode extends ParseForest, Derivation extends IDerivation<ParseForest>> {
     
-    public void tokenize(Tokens tokens, ParseForest parseForest) {
+    public void tokenize(AbstractTokens tokens, ParseForest parseForest) {
         tokens.makeStartToken(parseForest);
         
         @SuppressWarnings("unchecked")
@@ -19,10 +17,10 @@ public abstract class Tokenizer<ParseForest extends AbstractParseForest, ParseNo
         tokens.makeEndToken(parseForest);
     }
     
-    protected TokenizationCover tokenizeParseNode(Tokens tokens, ParseNode parseNode) {
+    protected TokenizationCover tokenizeParseNode(AbstractTokens tokens, ParseNode parseNode) {
         TokenizationCover result = null;
         
-        if (parseNode != null && parseNode.startPosition.offset < parseNode.endPosition.offset) {
+        if (parseNode != null && parseNode.startOffset < parseNode.endOffset) {
             IProduction production = parseNodeProduction(parseNode);
             
             if (production.isContextFree()) {
@@ -37,7 +35,7 @@ public abstract class Tokenizer<ParseForest extends AbstractParseForest, ParseNo
                 
                 return result;
             } else {
-                IToken token = tokens.makeToken(parseNode, production);
+                int token = tokens.makeToken(parseNode, production);
                 
                 parseNode.token = token;
                 
@@ -56,8 +54,8 @@ public abstract class Tokenizer<ParseForest extends AbstractParseForest, ParseNo
         return result;
     }
     
-    protected TokenizationCover tokenizeDerivation(Tokens tokens, Derivation derivation, IProduction production) {
-        IToken firstToken = null, lastToken = null;
+    protected TokenizationCover tokenizeDerivation(AbstractTokens tokens, Derivation derivation, IProduction production) {
+        int firstToken = -1, lastToken = -1;
         
         for (ParseForest parseForest : derivation.parseForests()) {
             @SuppressWarnings("unchecked")
@@ -66,10 +64,10 @@ public abstract class Tokenizer<ParseForest extends AbstractParseForest, ParseNo
             TokenizationCover tokenizationCover = tokenizeParseNode(tokens, parseNode);
             
             if (tokenizationCover != null) {
-                if (firstToken == null && tokenizationCover.firstToken != null)
+                if (firstToken == -1 && tokenizationCover.firstToken != -1)
                     firstToken = tokenizationCover.firstToken;
                 
-                if (tokenizationCover.lastToken != null)
+                if (tokenizationCover.lastToken != -1)
                     lastToken = tokenizationCover.lastToken;
             }
         }
@@ -1,67 +1,30 @@
 package org.spoofax.jsglr2.tokenizer;
 
-import static org.spoofax.jsglr.client.imploder.IToken.TK_EOF;
-import static org.spoofax.jsglr.client.imploder.IToken.TK_RESERVED;
-
 import java.util.ArrayList;
 import java.util.Iterator;
 
+import org.spoofax.interpreter.terms.ISimpleTerm;
 import org.spoofax.jsglr.client.imploder.IToken;
-import org.spoofax.jsglr.client.imploder.ITokens;
 import org.spoofax.jsglr.client.imploder.Token;
-import org.spoofax.jsglr2.parseforest.AbstractParseForest;
-import org.spoofax.jsglr2.parsetable.IProduction;
-
-public class Tokens implements ITokens {
 
-    private final String filename;
-    private final String input;
-    
-    public IToken startToken, endToken;
+public class Tokens extends AbstractTokens {
     
     private final ArrayList<IToken> tokens;
     
     public Tokens(String input, String filename) {
-        this.input = input;
-        this.filename = filename;
+        super(input, filename);
         
         this.tokens = new ArrayList<IToken>();
     }
     
-    public void makeStartToken(AbstractParseForest parseForest) {
-        startToken = new Token(this, filename, 0, parseForest.startPosition.line, parseForest.startPosition.column, parseForest.startPosition.offset, -1, TK_RESERVED);
+    protected int makeToken(int line, int column, int startOffset, int endOffset, int kind) {
+        IToken token = new LazilyBoundToken(this, filename, tokens.size(), line, column, startOffset, endOffset, kind);
         
-        addToken(startToken);
+        return addToken(token);
     }
     
-    public void makeEndToken(AbstractParseForest parseForest) {
-        endToken = new Token(this, filename, tokens.size(), parseForest.endPosition.line, parseForest.endPosition.column, parseForest.endPosition.offset, -1, TK_EOF);
-        
-        addToken(endToken);
-    }
-    
-    public IToken makeToken(AbstractParseForest parseForest, IProduction production) {
-        int tokenKind;
-        
-        if (production.isLayout()) {
-            tokenKind = IToken.TK_LAYOUT;
-        } else if (production.isStringLiteral()) {
-            tokenKind = IToken.TK_STRING;
-        } else if (production.isNumberLiteral()) {
-            tokenKind = IToken.TK_NUMBER;
-        } else if (production.isOperator()) {
-            tokenKind = IToken.TK_OPERATOR;
-        } else if (production.isLexical()) {
-            tokenKind = IToken.TK_IDENTIFIER;
-        } else {
-            tokenKind = IToken.TK_KEYWORD;
-        }
-        
-        IToken endToken = new Token(this, filename, tokens.size(), parseForest.startPosition.line, parseForest.startPosition.column, parseForest.startPosition.offset, parseForest.endPosition.offset - 1, tokenKind);
-        
-        addToken(endToken);
-        
-        return endToken;
+    public IToken getToken(int id) {
+        return id == -1 ? null : tokens.get(id);
     }
     
     public int addToken(IToken token) {
@@ -78,10 +41,6 @@ public class Tokens implements ITokens {
         return result;
     }
 
-    public String getInput() {
-        return input;
-    }
-
     public int getTokenCount() {
         return tokens.size();
     }
@@ -99,30 +58,30 @@ public class Tokens implements ITokens {
         return null;
     }
 
-    public String getFilename() {
-        return filename;
-    }
-
-    public String toString(IToken left, IToken right) {
-        int startOffset = left.getStartOffset();
-        int endOffset = right.getEndOffset();
-        
-        if (startOffset >= 0 && endOffset >= 0)
-            return toString(startOffset, endOffset);
-        else
-            return "";
-    }
-
-    public String toString(int startOffset, int endOffset) {
-        return input.substring(startOffset, endOffset + 1);
-    }
-
-    public boolean isAmbigous() {
-        return false; // TODO: implement
-    }
-    
     public String toString() {
         return tokens.toString();
     }
+    
+    // A token of which the tree is created on access if it is created lazily (see AbstractTokens.materialize)
+    private static final class LazilyBoundToken extends Token {
+        
+        private static final long serialVersionUID = 1L;
+        
+        LazilyBoundToken(Tokens tokens, String filename, int index, int line, int column, int startOffset, int endOffset, int kind) {
+            super(tokens, filename, index, line, column, startOffset, endOffset, kind);
+        }
+        
+        @Override
+        public ISimpleTerm getAstNode() {
+            ISimpleTerm astNode = super.getAstNode();
+            
+            // The tokens are transient
+            while (astNode == null && getTokenizer() != null && ((Tokens) getTokenizer()).materialize(this))
+                astNode = super.getAstNode();
+            
+            return astNode;
+        }
+        
+    }
 
 }
@@ -0,0 +1,63 @@
+package org.spoofax.jsglr2.tests.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+import org.spoofax.jsglr.client.InvalidParseTableException;
+import org.spoofax.jsglr2.BatchParser;
+import org.spoofax.jsglr2.JSGLR2Factory;
+import org.spoofax.jsglr2.parsetable.ParseTableReadException;
+import org.spoofax.jsglr2.testset.Input;
+import org.spoofax.jsglr2.tests.util.BaseTest;
+import org.spoofax.jsglr2.util.WithGrammar;
+import org.spoofax.terms.ParseError;
+
+public class BatchParserTest extends BaseTest implements WithGrammar {
+
+	private final List<Input> inputs = Arrays.asList(new Input("1", "baz"), new Input("2", "foo"), new Input("3", "qux"));
+
+	public BatchParserTest() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+	    setupParseTableFromDefFile("reject");
+	}
+
+	@Test
+	public void testInputOrder() {
+		BatchParser batchParser = new BatchParser(JSGLR2Factory.standard(getParseTable()), new ForkJoinPool(2));
+
+		List<BatchParser.Result> results = batchParser.parseAll(inputs);
+
+		assertEquals(3, results.size());
+
+		assertEquals("1", results.get(0).input.filename);
+		assertTrue(results.get(0).isSuccess());
+		assertEquals("Id(\"baz\")", results.get(0).ast.toString());
+
+		assertEquals("2", results.get(1).input.filename);
+		assertFalse(results.get(1).isSuccess()); // Rejected, but does not abort the batch
+
+		assertEquals("3", results.get(2).input.filename);
+		assertEquals("Id(\"qux\")", results.get(2).ast.toString());
+	}
+
+	@Test
+	public void testCompletionOrder() throws InterruptedException {
+		BatchParser batchParser = new BatchParser(JSGLR2Factory.standard(getParseTable()), new ForkJoinPool(2));
+
+		List<BatchParser.Result> results = new ArrayList<BatchParser.Result>();
+
+		batchParser.parseAll(inputs, results::add);
+
+		assertEquals(3, results.size());
+		assertEquals(2, results.stream().filter(BatchParser.Result::isSuccess).count());
+	}
+
+}
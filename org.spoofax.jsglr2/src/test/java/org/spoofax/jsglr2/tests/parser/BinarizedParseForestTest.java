@@ -0,0 +1,60 @@
+package org.spoofax.jsglr2.tests.parser;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+
+import org.junit.Test;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr.client.InvalidParseTableException;
+import org.spoofax.jsglr2.JSGLR2;
+import org.spoofax.jsglr2.JSGLR2Variants;
+import org.spoofax.jsglr2.JSGLR2Variants.ParseForestConstruction;
+import org.spoofax.jsglr2.JSGLR2Variants.ParseForestRepresentation;
+import org.spoofax.jsglr2.JSGLR2Variants.Reducing;
+import org.spoofax.jsglr2.JSGLR2Variants.StackRepresentation;
+import org.spoofax.jsglr2.parser.ParseResult;
+import org.spoofax.jsglr2.parsetable.ParseTableReadException;
+import org.spoofax.jsglr2.tests.util.BaseTest;
+import org.spoofax.jsglr2.util.WithGrammar;
+import org.spoofax.terms.ParseError;
+
+public class BinarizedParseForestTest extends BaseTest implements WithGrammar {
+
+	@Test
+	public void testSumAmbiguous() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		testSameAsHybrid("sum-ambiguous", "x", "x+x", "x+x+x", "x+x+x+x", "x+x+x+x+x+x", "x+", "");
+	}
+
+	@Test
+	public void testCSV() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		testSameAsHybrid("csv", "1,2\n3,4", "\"a\",-5\n\n6");
+	}
+
+	private void testSameAsHybrid(String grammar, String... inputs) throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		setupParseTableFromDefFile(grammar);
+
+		for (ParseForestConstruction parseForestConstruction : JSGLR2Variants.parseForestConstructionVariants) {
+			JSGLR2<?, ?, IStrategoTerm> hybrid = JSGLR2Variants.getJSGLR2(getParseTable(), ParseForestRepresentation.Hybrid, parseForestConstruction, StackRepresentation.HybridElkhound, Reducing.Elkhound);
+			JSGLR2<?, ?, IStrategoTerm> binarized = JSGLR2Variants.getJSGLR2(getParseTable(), ParseForestRepresentation.Binarized, parseForestConstruction, StackRepresentation.HybridElkhound, Reducing.Elkhound);
+
+			for (String input : inputs) {
+				ParseResult<?, ?, ?> hybridResult = hybrid.parser.parse(input);
+				ParseResult<?, ?, ?> binarizedResult = binarized.parser.parse(input);
+
+				assertEquals(hybridResult.isSuccess, binarizedResult.isSuccess);
+				assertEquals(hybridResult.parse.ambiguousParseNodes, binarizedResult.parse.ambiguousParseNodes);
+
+				IStrategoTerm hybridAst = hybrid.parse(input);
+				IStrategoTerm binarizedAst = binarized.parse(input);
+
+				if (hybridAst == null)
+					assertEquals(null, binarizedAst);
+				else
+					assertEqualTermExpansions(hybridAst, binarizedAst);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,75 @@
+package org.spoofax.jsglr2.tests.parser;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr.client.InvalidParseTableException;
+import org.spoofax.jsglr2.JSGLR2;
+import org.spoofax.jsglr2.JSGLR2Variants;
+import org.spoofax.jsglr2.actions.ActionsForCharacterRepresentation;
+import org.spoofax.jsglr2.parsetable.BinaryParseTableReader;
+import org.spoofax.jsglr2.parsetable.BinaryParseTableWriter;
+import org.spoofax.jsglr2.parsetable.IParseTable;
+import org.spoofax.jsglr2.parsetable.ParseTableReadException;
+import org.spoofax.jsglr2.tests.util.BaseTest;
+import org.spoofax.jsglr2.util.WithGrammar;
+import org.spoofax.terms.ParseError;
+
+/*
+ * Parse tables read from a binary parse table file, which is memory mapped, should parse the same as the parse table
+ * they were written from.
+ */
+public class BinaryParseTableTest extends BaseTest implements WithGrammar {
+
+	public BinaryParseTableTest() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		setupParseTableFromDefFile("csv");
+	}
+
+	@Test
+	public void testReadFromFile() throws ParseTableReadException, IOException {
+		Path path = Files.createTempFile("csv", ".bin");
+
+		path.toFile().deleteOnExit(); // Deleting a mapped file fails on some platforms until the mapping is collected
+
+		BinaryParseTableWriter.write(getParseTable(), path);
+
+		for (ActionsForCharacterRepresentation actionsForCharacterRepresentation : ActionsForCharacterRepresentation.values()) {
+			IParseTable parseTable = BinaryParseTableReader.read(path, actionsForCharacterRepresentation);
+
+			for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants()) {
+				JSGLR2<?, ?, IStrategoTerm> expected = JSGLR2Variants.getJSGLR2(getParseTable(actionsForCharacterRepresentation), variant);
+				JSGLR2<?, ?, IStrategoTerm> actual = JSGLR2Variants.getJSGLR2(parseTable, variant);
+
+				for (String input : new String[] { "1,2\n3,4", "\"a\",-5\n\n6", "1;2" }) {
+					String message = "Variant '" + variant.name() + "' with actions for character representation '" + actionsForCharacterRepresentation + "' on '" + input + "': ";
+
+					assertEquals(message, expected.parser.parse(input).isSuccess, actual.parser.parse(input).isSuccess);
+					assertEquals(message, String.valueOf(expected.parse(input)), String.valueOf(actual.parse(input)));
+				}
+			}
+		}
+	}
+
+	@Test(expected = ParseTableReadException.class)
+	public void testTruncatedFile() throws ParseTableReadException, IOException {
+		Path path = Files.createTempFile("csv", ".bin");
+
+		path.toFile().deleteOnExit();
+
+		BinaryParseTableWriter.write(getParseTable(), path);
+
+		byte[] bytes = Files.readAllBytes(path);
+
+		Files.write(path, Arrays.copyOf(bytes, bytes.length / 2));
+
+		BinaryParseTableReader.read(path);
+	}
+
+}
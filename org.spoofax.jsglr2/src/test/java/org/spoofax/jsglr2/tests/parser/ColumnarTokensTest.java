@@ -0,0 +1,191 @@
+package org.spoofax.jsglr2.tests.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr.client.InvalidParseTableException;
+import org.spoofax.jsglr.client.imploder.IToken;
+import org.spoofax.jsglr.client.imploder.ITokens;
+import org.spoofax.jsglr.client.imploder.ImploderAttachment;
+import org.spoofax.jsglr2.JSGLR2;
+import org.spoofax.jsglr2.JSGLR2Variants;
+import org.spoofax.jsglr2.imploder.TokenizedTreeImploder;
+import org.spoofax.jsglr2.parsetable.ParseTableReadException;
+import org.spoofax.jsglr2.tests.util.BaseTest;
+import org.spoofax.jsglr2.tokenizer.ColumnarTokens;
+import org.spoofax.jsglr2.util.WithGrammar;
+import org.spoofax.terms.ParseError;
+
+public class ColumnarTokensTest extends BaseTest implements WithGrammar {
+
+	@Test
+	public void testCSV() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		testSameAsTokenObjects("csv", "1,2\n3,4", "\"a\",-5\n\n6", "\"a,b\"");
+	}
+
+	@Test
+	public void testComments() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		testSameAsTokenObjects("comments", "x", "x x // x", "x /* \n */ x");
+	}
+
+	@Test
+	public void testSumAmbiguous() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		testSameAsTokenObjects("sum-ambiguous", "x+x", "x+x+x");
+	}
+
+	@Test
+	public void testTokenAtOffset() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		setupParseTableFromDefFile("sum-nonambiguous");
+
+		ITokens tokens = ImploderAttachment.getTokenizer(columnar(JSGLR2Variants.allVariants().get(0), false).parse("x+x"));
+
+		assertEquals(ColumnarTokens.class, tokens.getClass());
+		assertEquals(0, tokens.getTokenAtOffset(0).getIndex()); // The start token precedes the first token at the same offset
+		assertEquals("+", tokens.getTokenAtOffset(1).toString());
+		assertEquals(tokens.getTokenAt(tokens.getTokenCount() - 1), tokens.getTokenAtOffset(3));
+		assertNull(tokens.getTokenAtOffset(4));
+	}
+
+	@Test
+	public void testSerialization() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException, ClassNotFoundException {
+		setupParseTableFromDefFile("sum-ambiguous");
+
+		ITokens tokens = ImploderAttachment.getTokenizer(columnar(JSGLR2Variants.allVariants().get(0), false).parse("x+x+x"));
+
+		assertFalse(tokens instanceof Serializable); // Like Tokens
+
+		for (IToken token : tokens) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+			try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+				out.writeObject(token);
+			}
+
+			IToken deserialized;
+
+			try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+				deserialized = (IToken) in.readObject();
+			}
+
+			assertEquals(token.getIndex(), deserialized.getIndex());
+			assertEquals(token.getKind(), deserialized.getKind());
+			assertEquals(token.getStartOffset(), deserialized.getStartOffset());
+			assertEquals(token.getEndOffset(), deserialized.getEndOffset());
+			assertEquals(token.getLine(), deserialized.getLine());
+			assertEquals(token.getColumn(), deserialized.getColumn());
+			assertEquals(token.getFilename(), deserialized.getFilename());
+			assertEquals(String.valueOf(token.getAstNode()), String.valueOf(deserialized.getAstNode()));
+		}
+	}
+
+	private void testSameAsTokenObjects(String grammar, String... inputs) throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		setupParseTableFromDefFile(grammar);
+
+		for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants()) {
+			for (boolean singlePass : new boolean[] { false, true }) {
+				JSGLR2<?, ?, IStrategoTerm> tokenObjects = JSGLR2Variants.getJSGLR2(getParseTable(), variant);
+				JSGLR2<?, ?, IStrategoTerm> columnar = columnar(variant, singlePass);
+
+				if (singlePass)
+					((TokenizedTreeImploder<?, ?, ?, ?, ?>) tokenObjects.imploder).singlePass();
+
+				for (String input : inputs) {
+					List<IToken> expected = sortedByStartOffset(ImploderAttachment.getTokenizer(tokenObjects.parse(input)));
+					ITokens actual = ImploderAttachment.getTokenizer(columnar.parse(input));
+
+					assertEquals(variant.name(), tokens(expected), tokens(actual));
+
+					for (int offset = -1; offset <= input.length() + 1; offset++)
+						assertEquals(variant.name(), token(tokenAtOffset(expected, offset), expected), token(actual.getTokenAtOffset(offset)));
+
+					for (int index = 0; index < actual.getTokenCount(); index++)
+						assertSame(variant.name(), actual.getTokenAt(index), actual.getTokenAt(index));
+				}
+			}
+		}
+	}
+
+	private JSGLR2<?, ?, IStrategoTerm> columnar(JSGLR2Variants.Variant variant, boolean singlePass) throws ParseTableReadException {
+		JSGLR2<?, ?, IStrategoTerm> jsglr2 = JSGLR2Variants.getJSGLR2(getParseTable(), variant);
+		TokenizedTreeImploder<?, ?, ?, ?, ?> imploder = (TokenizedTreeImploder<?, ?, ?, ?, ?>) jsglr2.imploder;
+
+		imploder.columnarTokens();
+
+		if (singlePass)
+			imploder.singlePass();
+
+		return jsglr2;
+	}
+
+	/*
+	 * The tokens of ambiguous parse forests are added out of order, of which the columnar tokens are sorted by start
+	 * offset, keeping the order of tokens with the same start offset.
+	 */
+	private List<IToken> sortedByStartOffset(ITokens tokens) {
+		List<IToken> result = new ArrayList<IToken>();
+
+		for (IToken token : tokens)
+			result.add(token);
+
+		result.sort((token1, token2) -> Integer.compare(token1.getStartOffset(), token2.getStartOffset()));
+
+		return result;
+	}
+
+	private IToken tokenAtOffset(List<IToken> tokens, int offset) {
+		for (IToken token : tokens) {
+			if (token.getStartOffset() == offset)
+				return token;
+		}
+
+		return null;
+	}
+
+	private List<String> tokens(List<IToken> tokens) {
+		List<String> result = new ArrayList<String>();
+
+		for (IToken token : tokens)
+			result.add(token(token, tokens));
+
+		return result;
+	}
+
+	private List<String> tokens(ITokens tokens) {
+		List<String> result = new ArrayList<String>();
+
+		for (IToken token : tokens)
+			result.add(token(token));
+
+		assertEquals(tokens.getTokenCount(), result.size());
+
+		return result;
+	}
+
+	// With the index of the token in the sorted tokens instead of its own index
+	private String token(IToken token, List<IToken> tokens) {
+		return token == null ? null : token(tokens.indexOf(token), token);
+	}
+
+	private String token(IToken token) {
+		return token == null ? null : token(token.getIndex(), token);
+	}
+
+	private String token(int index, IToken token) {
+		return index + ":" + token.getKind() + ":" + token.getStartOffset() + "-" + token.getEndOffset() + ":" + token.getLine() + "," + token.getColumn() + ":" + token + ":" + (token.getAstNode() != null ? token.getAstNode().toString() : null);
+	}
+
+}
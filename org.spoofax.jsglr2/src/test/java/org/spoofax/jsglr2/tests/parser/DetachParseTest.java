@@ -0,0 +1,155 @@
+package org.spoofax.jsglr2.tests.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import org.junit.Test;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr.client.InvalidParseTableException;
+import org.spoofax.jsglr2.JSGLR2;
+import org.spoofax.jsglr2.JSGLR2Variants;
+import org.spoofax.jsglr2.actions.IAction;
+import org.spoofax.jsglr2.actions.IReduce;
+import org.spoofax.jsglr2.parseforest.AbstractParseForest;
+import org.spoofax.jsglr2.parser.ForShifterElement;
+import org.spoofax.jsglr2.parser.IParserObserver;
+import org.spoofax.jsglr2.parser.Parse;
+import org.spoofax.jsglr2.parser.ParseFailure;
+import org.spoofax.jsglr2.parser.ParseResult;
+import org.spoofax.jsglr2.parser.ParseSuccess;
+import org.spoofax.jsglr2.parser.Parser;
+import org.spoofax.jsglr2.parsetable.IProduction;
+import org.spoofax.jsglr2.parsetable.ParseTableReadException;
+import org.spoofax.jsglr2.stack.AbstractStackNode;
+import org.spoofax.jsglr2.stack.StackLink;
+import org.spoofax.jsglr2.stack.elkhound.AbstractElkhoundStackNode;
+import org.spoofax.jsglr2.tests.util.BaseTest;
+import org.spoofax.jsglr2.util.WithGrammar;
+import org.spoofax.terms.ParseError;
+
+public class DetachParseTest extends BaseTest implements WithGrammar {
+
+	public DetachParseTest() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+	    setupParseTableFromDefFile("sum-ambiguous");
+	}
+
+	@Test
+	public void testStacksReleased() throws InterruptedException {
+		for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants())
+			testStacksReleased(variant.name(), JSGLR2Variants.getJSGLR2(getParseTable(), variant));
+	}
+
+	private <StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest> void testStacksReleased(String name, JSGLR2<StackNode, ParseForest, IStrategoTerm> jsglr2) throws InterruptedException {
+		StackObserver<StackNode, ParseForest> observer = new StackObserver<StackNode, ParseForest>();
+
+		((Parser<StackNode, ParseForest, ?, ?>) jsglr2.parser).reuseParseStructures();
+		jsglr2.parser.attachObserver(observer);
+
+		ParseResult<StackNode, ParseForest, ?> result = jsglr2.parser.parse("x+x+x");
+		WeakReference<StackNode> acceptingStack = observer.acceptingStack;
+		ParseResult<StackNode, ParseForest, ?> failure = jsglr2.parser.parse("x+");
+		List<WeakReference<StackNode>> lastActiveStacks = observer.activeStacks;
+
+		assertTrue(name, result.isSuccess);
+		assertFalse(name, failure.isSuccess);
+		assertFalse(name, lastActiveStacks.isEmpty());
+
+		// The results are retained, but the stacks of their parses should be unreachable
+		assertCollected(name + ": accepting stack", acceptingStack);
+
+		for (WeakReference<StackNode> activeStack : lastActiveStacks)
+			assertCollected(name + ": active stack of failed parse", activeStack);
+
+		// The parse forest and input of the first parse remain usable after the scratch structures have been reused
+		ParseSuccess<StackNode, ParseForest, ?> success = (ParseSuccess<StackNode, ParseForest, ?>) result;
+
+		assertEquals(name, String.valueOf(jsglr2.parse("x+x+x")), jsglr2.imploder.implode(success.parse, success.parseResult).ast.toString());
+	}
+
+	private void assertCollected(String message, WeakReference<?> reference) throws InterruptedException {
+		for (int i = 0; i < 50 && reference.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+
+		assertNull(message, reference.get());
+	}
+
+	/*
+	 * Records weak references to the accepting stack and to the stacks that are active when parsing the last character,
+	 * such that the observer does not keep them alive itself.
+	 */
+	private static class StackObserver<StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest> implements IParserObserver<StackNode, ParseForest> {
+
+		WeakReference<StackNode> acceptingStack;
+		List<WeakReference<StackNode>> activeStacks = new ArrayList<WeakReference<StackNode>>();
+
+		public void parseStart(Parse<StackNode, ParseForest> parse) {
+			acceptingStack = null;
+		}
+
+		public void parseCharacter(int character, Iterable<StackNode> activeStacks) {
+			this.activeStacks = new ArrayList<WeakReference<StackNode>>();
+
+			for (StackNode activeStack : activeStacks)
+				this.activeStacks.add(new WeakReference<StackNode>(activeStack));
+		}
+
+		public void createStackNode(StackNode stack) {}
+
+		public void createStackLink(StackLink<StackNode, ParseForest> link) {}
+
+		public void resetDeterministicDepth(AbstractElkhoundStackNode<ParseForest> stack) {}
+
+		public void rejectStackLink(StackLink<StackNode, ParseForest> link) {}
+
+		public void forActorStacks(Queue<StackNode> forActor, Queue<StackNode> forActorDelayed) {}
+
+		public void actor(StackNode stack, int currentChar, Iterable<IAction> applicableActions) {}
+
+		public void skipRejectedStack(StackNode stack) {}
+
+		public void addForShifter(ForShifterElement<StackNode, ParseForest> forShifterElement) {}
+
+		public void doReductions(Parse<StackNode, ParseForest> parse, StackNode stack, IReduce reduce) {}
+
+		public void doLimitedReductions(Parse<StackNode, ParseForest> parse, StackNode stack, IReduce reduce, StackLink<StackNode, ParseForest> link) {}
+
+		public void reducer(IReduce reduce, ParseForest[] parseNodes, StackNode activeStackWithGotoState) {}
+
+		public void reducerElkhound(IReduce reduce, ParseForest[] parseNodes) {}
+
+		public void directLinkFound(StackLink<StackNode, ParseForest> directLink) {}
+
+		public void accept(StackNode acceptingStack) {
+			this.acceptingStack = new WeakReference<StackNode>(acceptingStack);
+		}
+
+		public void createParseNode(ParseForest parseNode, IProduction production) {}
+
+		public void createDerivation(int nodeNumber, IProduction production, ParseForest[] parseNodes) {}
+
+		public void createCharacterNode(ParseForest characterNode, int character) {}
+
+		public void addDerivation(ParseForest parseNode) {}
+
+		public void shifter(ParseForest termNode, Queue<ForShifterElement<StackNode, ParseForest>> forShifter) {}
+
+		public void remark(String remark) {}
+
+		public void success(ParseSuccess<StackNode, ParseForest, ?> success) {}
+
+		public void failure(ParseFailure<StackNode, ParseForest, ?> failure) {}
+
+	}
+
+}
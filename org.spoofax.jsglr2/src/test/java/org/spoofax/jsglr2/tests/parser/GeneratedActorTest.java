@@ -0,0 +1,143 @@
+package org.spoofax.jsglr2.tests.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Test;
+import org.spoofax.jsglr2.JSGLR2;
+import org.spoofax.jsglr2.JSGLR2Variants;
+import org.spoofax.jsglr2.parser.ActorGenerator;
+import org.spoofax.jsglr2.parser.GeneratedActor;
+import org.spoofax.jsglr2.parser.ParseResult;
+import org.spoofax.jsglr2.parser.Parser;
+import org.spoofax.jsglr2.parsetable.IParseTable;
+import org.spoofax.jsglr2.parsetable.ParseTableReader;
+import org.spoofax.jsglr2.testset.Input;
+import org.spoofax.jsglr2.testset.TestSet;
+import org.spoofax.jsglr2.testset.TestSetInput;
+import org.spoofax.jsglr2.testset.TestSetReader;
+import org.spoofax.jsglr2.tests.util.BaseTest;
+import org.spoofax.jsglr2.util.WithGrammar;
+
+/*
+ * Parsers with an actor generated for the parse table should construct the same parse forests as parsers that interpret
+ * the parse table, for the grammars and inputs of the test sets (except for those with inputs outside of this project).
+ */
+public class GeneratedActorTest extends BaseTest implements WithGrammar {
+
+	@Test
+	public void testSameParseForestsForTestSets() throws Exception {
+		for (TestSet testSet : TestSet.all) {
+			if (testSet.input.type == TestSetInput.Type.MULTIPLE)
+				continue;
+
+			TestSetReader testSetReader = new TestSetReader(testSet) {
+				public void setupParseTableFile(String name) {
+					// The parse tables are on the test class path
+				}
+
+				protected String getFileAsString(String filename) throws IOException {
+					try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream("samples/" + filename)) {
+						return inputStreamAsString(inputStream);
+					}
+				}
+			};
+
+			IParseTable parseTable = ParseTableReader.read(testSetReader.getParseTableTerm());
+			GeneratedActor generatedActor = generate(parseTable, testSet.name);
+			TestSetReader.InputBatch inputBatch = testSetReader.getInputBatches().iterator().next();
+
+			for (Input input : inputBatch.inputs)
+				testSameParseForests(parseTable, generatedActor, testSet.name, input.content);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDifferentParseTable() throws Exception {
+		setupParseTableFromDefFile("csv");
+
+		GeneratedActor generatedActor = generate(getParseTable(), "csv");
+
+		setupParseTableFromDefFile("lookahead");
+
+		try {
+			generatedActor.getClass().getConstructor(IParseTable.class).newInstance(getParseTable());
+		} catch (InvocationTargetException e) {
+			throw (Exception) e.getCause();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDifferentParserParseTable() throws Exception {
+		setupParseTableFromDefFile("csv");
+
+		GeneratedActor generatedActor = generate(getParseTable(), "csv");
+
+		JSGLR2Variants.getParser(getParseTable(), JSGLR2Variants.allVariants().get(0)).generatedActor(generatedActor);
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void testSameParseForests(IParseTable parseTable, GeneratedActor generatedActor, String name, String input) {
+		for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants()) {
+			if (variant.activeStacksRepresentation != JSGLR2Variants.ActiveStacksRepresentation.ArrayList)
+				continue;
+
+			Parser interpreted = JSGLR2Variants.getParser(parseTable, variant);
+			Parser generated = JSGLR2Variants.getParser(parseTable, variant);
+
+			generated.generatedActor(generatedActor);
+
+			String message = "Test set '" + name + "' with variant '" + variant.name() + "': ";
+			ParseResult<?, ?, ?> interpretedResult = interpreted.parse(input);
+			ParseResult<?, ?, ?> generatedResult = generated.parse(input);
+
+			assertEquals(message, interpretedResult.isSuccess, generatedResult.isSuccess);
+			assertEquals(message, interpretedResult.parse.stackNodeCount, generatedResult.parse.stackNodeCount);
+			assertEquals(message, interpretedResult.parse.stackLinkCount, generatedResult.parse.stackLinkCount);
+			assertEquals(message, interpretedResult.parse.parseNodeCount, generatedResult.parse.parseNodeCount);
+			assertEquals(message, interpretedResult.parse.ambiguousParseNodes, generatedResult.parse.ambiguousParseNodes);
+
+			Object interpretedAst = new JSGLR2(interpreted, JSGLR2Variants.getImploder(variant)).parse(input);
+			Object generatedAst = new JSGLR2(generated, JSGLR2Variants.getImploder(variant)).parse(input);
+
+			assertEquals(message, String.valueOf(interpretedAst), String.valueOf(generatedAst));
+		}
+	}
+
+	// Generates and compiles an actor for the parse table, for which a JDK compiler is required
+	private GeneratedActor generate(IParseTable parseTable, String name) throws Exception {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+		assumeNotNull(compiler);
+
+		String className = Character.toUpperCase(name.charAt(0)) + name.substring(1).replaceAll("[^A-Za-z0-9]", "") + "Actor";
+		Path directory = Files.createTempDirectory("jsglr2-generated");
+		Path source = directory.resolve("generated").resolve(className + ".java");
+
+		Files.createDirectories(source.getParent());
+		Files.write(source, ActorGenerator.generate(parseTable, "generated", className).getBytes(StandardCharsets.UTF_8));
+
+		String classPath = Paths.get(GeneratedActor.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString() + File.pathSeparator + System.getProperty("java.class.path");
+
+		assertEquals(0, compiler.run(null, null, null, "-nowarn", "-cp", classPath, "-d", directory.toString(), source.toString()));
+
+		ClassLoader classLoader = new URLClassLoader(new URL[] { directory.toUri().toURL() }, GeneratedActor.class.getClassLoader());
+
+		return (GeneratedActor) classLoader.loadClass("generated." + className).getConstructor(IParseTable.class).newInstance(parseTable);
+	}
+
+}
@@ -0,0 +1,208 @@
+package org.spoofax.jsglr2.tests.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr.client.InvalidParseTableException;
+import org.spoofax.jsglr2.JSGLR2;
+import org.spoofax.jsglr2.JSGLR2Variants;
+import org.spoofax.jsglr2.incremental.IncrementalParser;
+import org.spoofax.jsglr2.incremental.TextEdit;
+import org.spoofax.jsglr2.parseforest.AbstractParseForest;
+import org.spoofax.jsglr2.parser.ParseResult;
+import org.spoofax.jsglr2.parser.ParseSuccess;
+import org.spoofax.jsglr2.parser.Parser;
+import org.spoofax.jsglr2.parsetable.IParseTable;
+import org.spoofax.jsglr2.parsetable.ParseTableReadException;
+import org.spoofax.jsglr2.stack.AbstractStackNode;
+import org.spoofax.jsglr2.tests.util.BaseTest;
+import org.spoofax.jsglr2.util.WithGrammar;
+import org.spoofax.terms.ParseError;
+
+public class IncrementalParserTest extends BaseTest implements WithGrammar {
+
+	private static final String INPUT = "1,2\n3,4\n5,6\n7,8";
+
+	public IncrementalParserTest() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+	    setupParseTableFromDefFile("csv");
+	}
+
+	@Test
+	public void testEditAfterCheckpoint() {
+		testIncremental(INPUT, Arrays.asList(new TextEdit(12, 1, "9")), true);
+	}
+
+	@Test
+	public void testInsertedRow() {
+		testIncremental(INPUT, Arrays.asList(TextEdit.insert(11, "\n\"a\",\"b\"")), true);
+	}
+
+	@Test
+	public void testMultipleEdits() {
+		testIncremental(INPUT, Arrays.asList(TextEdit.delete(13, 2), new TextEdit(8, 3, "-10")), true);
+	}
+
+	@Test
+	public void testEditAtStart() {
+		testIncremental(INPUT, Arrays.asList(new TextEdit(0, 1, "42")), true);
+	}
+
+	@Test
+	public void testDeletedRowAtStart() {
+		testIncremental(INPUT, Arrays.asList(TextEdit.delete(0, 4)), true);
+	}
+
+	@Test
+	public void testReplacedInput() {
+		testIncremental(INPUT, Arrays.asList(new TextEdit(0, INPUT.length(), "9,8\n7,6")), false);
+	}
+
+	@Test
+	public void testAmbiguous() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		setupParseTableFromDefFile("sum-ambiguous");
+
+		testIncremental("x+x+x+x+x", Arrays.asList(new TextEdit(6, 1, "x+x")), true);
+	}
+
+	@Test
+	public void testLexicalAndLayout() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		setupParseTableFromDefFile("comments");
+
+		testIncremental("x x /* x */ x // x\nx x", Arrays.asList(TextEdit.insert(9, "*/ x /*")), true);
+		testIncremental("x x /* x */ x // x\nx x", Arrays.asList(TextEdit.delete(14, 5)), true);
+	}
+
+	@Test
+	public void testReject() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		setupParseTableFromDefFile("reject");
+
+		testIncremental("abcdefgh", Arrays.asList(new TextEdit(5, 2, "oo")), true);
+		testIncremental("abcdfoo", Arrays.asList(TextEdit.insert(7, "x")), true);
+	}
+
+	/*
+	 * Resumed parses copy what they take from the previous parse, such that the results of earlier parses are not
+	 * retained by later ones.
+	 */
+	@Test
+	public void testRepeatedReparsesDoNotRetainEarlierParses() {
+		IParseTable parseTable = getParseTable();
+
+		for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants())
+			testRepeatedReparses(parseTable, variant, JSGLR2Variants.getJSGLR2(parseTable, variant));
+	}
+
+	private <StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest> void testRepeatedReparses(IParseTable parseTable, JSGLR2Variants.Variant variant, JSGLR2<StackNode, ParseForest, IStrategoTerm> jsglr2) {
+		IncrementalParser<StackNode, ParseForest> incrementalParser = incrementalParser(parseTable, jsglr2);
+		List<WeakReference<Object>> parses = new ArrayList<WeakReference<Object>>();
+
+		ParseResult<StackNode, ParseForest, ?> result = incrementalParser.parse(INPUT, "", null);
+
+		for (int i = 0; i < 10; i++) {
+			parses.add(new WeakReference<Object>(result.parse));
+
+			result = incrementalParser.parse(result, Arrays.asList(new TextEdit(result.parse.inputLength - 1, 1, String.valueOf(i))), null);
+
+			assertTrue("Variant '" + variant.name() + "' did not resume from a checkpoint: ", result.parse.reusedCharacterCount > 0);
+		}
+
+		assertEquals(implode(jsglr2, jsglr2.parser.parse(result.parse.inputString)), implode(jsglr2, result));
+
+		for (int i = 0; i < 10 && !parses.stream().allMatch(parse -> parse.get() == null); i++)
+			System.gc();
+
+		for (int i = 0; i < parses.size(); i++)
+			assertNull("Variant '" + variant.name() + "' retained parse " + i + ": ", parses.get(i).get());
+	}
+
+	@Test
+	public void testEditIntroducingError() {
+		IParseTable parseTable = getParseTable();
+
+		for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants()) {
+			JSGLR2<?, ?, IStrategoTerm> jsglr2 = JSGLR2Variants.getJSGLR2(parseTable, variant);
+			IncrementalParser<?, ?> incrementalParser = incrementalParser(parseTable, jsglr2);
+
+			assertEquals(false, reparse(incrementalParser, INPUT, Arrays.asList(TextEdit.insert(13, "\""))).isSuccess);
+		}
+	}
+
+	@Test
+	public void testResultBeforeLastIsParsedFromScratch() {
+		IParseTable parseTable = getParseTable();
+
+		for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants())
+			testResultBeforeLast(parseTable, variant, JSGLR2Variants.getJSGLR2(parseTable, variant));
+	}
+
+	private <StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest> void testResultBeforeLast(IParseTable parseTable, JSGLR2Variants.Variant variant, JSGLR2<StackNode, ParseForest, IStrategoTerm> jsglr2) {
+		IncrementalParser<StackNode, ParseForest> incrementalParser = incrementalParser(parseTable, jsglr2);
+
+		ParseResult<StackNode, ParseForest, ?> previous = incrementalParser.parse(INPUT, "", null);
+
+		incrementalParser.parse("1,2", "", null); // Only the checkpoints of the last result are kept
+
+		ParseResult<StackNode, ParseForest, ?> incremental = incrementalParser.parse(previous, Arrays.asList(new TextEdit(12, 1, "9")), null);
+		ParseResult<StackNode, ParseForest, ?> batch = jsglr2.parser.parse(incremental.parse.inputString);
+
+		assertEquals("Variant '" + variant.name() + "' produced a different AST: ", implode(jsglr2, batch), implode(jsglr2, incremental));
+		assertEquals(0, incremental.parse.reusedCharacterCount);
+		assertEquals(batch.parse.stackNodeCount, incremental.parse.stackNodeCount);
+	}
+
+	private void testIncremental(String input, List<TextEdit> edits, boolean expectReuse) {
+		IParseTable parseTable = getParseTable();
+
+		for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants())
+			testIncremental(parseTable, variant, JSGLR2Variants.getJSGLR2(parseTable, variant), input, edits, expectReuse);
+	}
+
+	private <StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest> void testIncremental(IParseTable parseTable, JSGLR2Variants.Variant variant, JSGLR2<StackNode, ParseForest, IStrategoTerm> jsglr2, String input, List<TextEdit> edits, boolean expectReuse) {
+		IncrementalParser<StackNode, ParseForest> incrementalParser = incrementalParser(parseTable, jsglr2);
+
+		ParseResult<StackNode, ParseForest, ?> previous = incrementalParser.parse(input, "", null);
+		ParseResult<StackNode, ParseForest, ?> incremental = incrementalParser.parse(previous, edits, null);
+		ParseResult<StackNode, ParseForest, ?> batch = jsglr2.parser.parse(incremental.parse.inputString);
+
+		assertTrue("Variant '" + variant.name() + "' failed incremental parsing: ", incremental.isSuccess);
+		assertEquals("Variant '" + variant.name() + "' produced a different AST: ", implode(jsglr2, batch), implode(jsglr2, incremental));
+
+		if (expectReuse)
+			assertTrue("Variant '" + variant.name() + "' did not reuse the previous parse: ", incremental.parse.reusedCharacterCount > 0);
+		else {
+			assertEquals(0, incremental.parse.reusedCharacterCount);
+			assertEquals(batch.parse.stackNodeCount, incremental.parse.stackNodeCount);
+		}
+
+		// Parse results of incremental parses can be reparsed incrementally again
+		ParseResult<StackNode, ParseForest, ?> reverted = incrementalParser.parse(incremental, Collections.singletonList(new TextEdit(0, incremental.parse.inputLength, input)), null);
+
+		assertEquals(implode(jsglr2, jsglr2.parser.parse(input)), implode(jsglr2, reverted));
+	}
+
+	private <StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest> ParseResult<StackNode, ParseForest, ?> reparse(IncrementalParser<StackNode, ParseForest> incrementalParser, String input, List<TextEdit> edits) {
+		return incrementalParser.parse(incrementalParser.parse(input, "", null), edits, null);
+	}
+
+	private <StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest> IncrementalParser<StackNode, ParseForest> incrementalParser(IParseTable parseTable, JSGLR2<StackNode, ParseForest, IStrategoTerm> jsglr2) {
+		return new IncrementalParser<StackNode, ParseForest>(parseTable, (Parser<StackNode, ParseForest, ?, ?>) jsglr2.parser, 2);
+	}
+
+	private <StackNode extends AbstractStackNode<ParseForest>, ParseForest extends AbstractParseForest> String implode(JSGLR2<StackNode, ParseForest, IStrategoTerm> jsglr2, ParseResult<StackNode, ParseForest, ?> parseResult) {
+		ParseSuccess<StackNode, ParseForest, ?> success = (ParseSuccess<StackNode, ParseForest, ?>) parseResult;
+
+		return jsglr2.imploder.implode(success.parse, success.parseResult).ast.toString();
+	}
+
+}
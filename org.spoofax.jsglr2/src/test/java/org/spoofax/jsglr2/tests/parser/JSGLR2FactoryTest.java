@@ -0,0 +1,107 @@
+package org.spoofax.jsglr2.tests.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr.client.InvalidParseTableException;
+import org.spoofax.jsglr2.JSGLR2;
+import org.spoofax.jsglr2.JSGLR2Factory;
+import org.spoofax.jsglr2.parser.Parse;
+import org.spoofax.jsglr2.parser.ParserLogObserver;
+import org.spoofax.jsglr2.parsetable.ParseTableReadException;
+import org.spoofax.jsglr2.tests.util.BaseTest;
+import org.spoofax.jsglr2.util.WithGrammar;
+import org.spoofax.terms.ParseError;
+
+public class JSGLR2FactoryTest extends BaseTest implements WithGrammar {
+
+	public JSGLR2FactoryTest() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+	    setupParseTableFromDefFile("reject");
+	}
+
+	@Test
+	public void testReusedParseStructures() {
+		JSGLR2Factory factory = JSGLR2Factory.standard(getParseTable());
+		JSGLR2<?, ?, IStrategoTerm> jsglr2 = factory.acquire();
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals("Id(\"baz\")", jsglr2.parse("baz").toString());
+			assertNull(jsglr2.parse("foo"));
+		}
+
+		factory.release(jsglr2);
+
+		assertSame(jsglr2, factory.acquire());
+		assertNotSame(jsglr2, factory.acquire());
+	}
+
+	@Test
+	public void testClear() {
+		JSGLR2Factory factory = JSGLR2Factory.standard(getParseTable());
+		JSGLR2<?, ?, IStrategoTerm> jsglr2 = factory.acquire();
+
+		factory.release(jsglr2);
+		factory.clear();
+
+		assertNotSame(jsglr2, factory.acquire());
+	}
+
+	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void testObservedStandardParser() {
+		JSGLR2Factory factory = JSGLR2Factory.standard(getParseTable());
+		JSGLR2<?, ?, IStrategoTerm> jsglr2 = factory.acquire();
+		List<String> parsed = new ArrayList<String>();
+
+		jsglr2.parser.attachObserver(new ParserLogObserver() {
+			@Override
+			public void parseStart(Parse parse) {
+				parsed.add(parse.inputString);
+			}
+		});
+
+		assertEquals("Id(\"baz\")", jsglr2.parse("baz").toString());
+		assertEquals(1, parsed.size());
+		assertEquals("baz", parsed.get(0));
+	}
+
+	@Test
+	public void testConcurrentParsing() throws InterruptedException, ExecutionException {
+		JSGLR2Factory factory = JSGLR2Factory.standard(getParseTable());
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try {
+			List<Future<String>> results = new ArrayList<Future<String>>();
+
+			for (int i = 0; i < 100; i++)
+				results.add(executor.submit(() -> {
+					JSGLR2<?, ?, IStrategoTerm> jsglr2 = factory.acquire();
+
+					try {
+						return jsglr2.parse("baz").toString();
+					} finally {
+						factory.release(jsglr2);
+					}
+				}));
+
+			for (Future<String> result : results)
+				assertEquals("Id(\"baz\")", result.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
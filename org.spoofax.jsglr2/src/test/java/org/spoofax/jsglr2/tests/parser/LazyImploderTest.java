@@ -0,0 +1,220 @@
+package org.spoofax.jsglr2.tests.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.spoofax.interpreter.terms.ISimpleTerm;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.interpreter.terms.ITermFactory;
+import org.spoofax.jsglr.client.InvalidParseTableException;
+import org.spoofax.jsglr.client.imploder.IToken;
+import org.spoofax.jsglr.client.imploder.ITokens;
+import org.spoofax.jsglr.client.imploder.ImploderAttachment;
+import org.spoofax.jsglr2.JSGLR2;
+import org.spoofax.jsglr2.JSGLR2Variants.ParseForestConstruction;
+import org.spoofax.jsglr2.JSGLR2Variants.ParseForestRepresentation;
+import org.spoofax.jsglr2.JSGLR2Variants.Reducing;
+import org.spoofax.jsglr2.JSGLR2Variants.StackRepresentation;
+import org.spoofax.jsglr2.imploder.LazyHybridParseForestStrategoImploder;
+import org.spoofax.jsglr2.imploder.LazyStrategoAppl;
+import org.spoofax.jsglr2.parseforest.hybrid.HybridParseForest;
+import org.spoofax.jsglr2.parser.Parser;
+import org.spoofax.jsglr2.parsetable.ParseTableReadException;
+import org.spoofax.jsglr2.stack.elkhound.AbstractElkhoundStackNode;
+import org.spoofax.jsglr2.tests.util.BaseTest;
+import org.spoofax.jsglr2.tokenizer.AbstractTokens;
+import org.spoofax.jsglr2.util.WithGrammar;
+import org.spoofax.terms.ParseError;
+import org.spoofax.terms.TermFactory;
+
+public class LazyImploderTest extends BaseTest implements WithGrammar {
+
+	@Test
+	public void testSumNonAmbiguous() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		testSameAsEager("sum-nonambiguous", "x", "x+x", "x+x+x");
+	}
+
+	@Test
+	public void testSumAmbiguous() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		testSameAsEager("sum-ambiguous", "x+x", "x+x+x", "x+x+x+x");
+	}
+
+	@Test
+	public void testCSV() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		testSameAsEager("csv", "1,2\n3,4", "\"a\",-5\n\n6");
+	}
+
+	@Test
+	public void testLists() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		testSameAsEager("lists", "", "x", "x x x", "x,x , x");
+	}
+
+	@Test
+	public void testChildrenCreatedOnAccess() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		setupParseTableFromDefFile("sum-nonambiguous");
+
+		IStrategoTerm ast = lazy().parse("x+x+x");
+
+		assertTrue(ast instanceof LazyStrategoAppl);
+		assertFalse(((LazyStrategoAppl) ast).isMaterialized());
+		assertEquals(0, ImploderAttachment.getLeftToken(ast).getIndex());
+
+		IStrategoTerm left = ast.getSubterm(0);
+
+		assertTrue(((LazyStrategoAppl) ast).isMaterialized());
+		assertFalse(((LazyStrategoAppl) left).isMaterialized());
+		assertEquals("Add(Add(Term,Term),Term)", ast.toString());
+	}
+
+	@Test
+	public void testTokensBoundOnAccess() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		setupParseTableFromDefFile("sum-nonambiguous");
+
+		IStrategoTerm ast = lazy().parse("x+x+x");
+		ITokens tokens = ImploderAttachment.getTokenizer(ast);
+
+		// The literals of a term are bound when it is created
+		assertSame(ast, tokenAt(tokens, 3).getAstNode());
+		assertFalse(((LazyStrategoAppl) ast).isMaterialized());
+
+		// Other tokens create the trees that cover them when their tree is accessed
+		ISimpleTerm right = tokenAt(tokens, 4).getAstNode();
+
+		assertTrue(((LazyStrategoAppl) ast).isMaterialized());
+		assertSame(ast.getSubterm(1), right);
+		assertFalse(((LazyStrategoAppl) ast.getSubterm(0)).isMaterialized());
+
+		assertSame(ast.getSubterm(0).getSubterm(0), tokenAt(tokens, 0).getAstNode());
+		assertSame(ast.getSubterm(0), tokenAt(tokens, 1).getAstNode());
+	}
+
+	@Test
+	public void testDeepTokensBoundOnce() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		setupParseTableFromDefFile("sum-nonambiguous");
+
+		StringBuilder input = new StringBuilder("x");
+
+		for (int i = 1; i < 500; i++)
+			input.append("+x");
+
+		int[] bindings = new int[1];
+
+		IStrategoTerm ast = lazy(new LazyHybridParseForestStrategoImploder<AbstractElkhoundStackNode<HybridParseForest>>() {
+			@Override
+			protected void tokenTreeBinding(IToken token, IStrategoTerm term) {
+				bindings[0]++;
+
+				super.tokenTreeBinding(token, term);
+			}
+
+			@Override
+			protected void tokenTreeBinding(AbstractTokens tokens, int token, IStrategoTerm term) {
+				bindings[0]++;
+
+				super.tokenTreeBinding(tokens, token, term);
+			}
+		}).parse(input.toString());
+
+		ITokens tokens = ImploderAttachment.getTokenizer(ast);
+		ITokens expectedTokens = ImploderAttachment.getTokenizer(JSGLR2.standard(getParseTable()).parse(input.toString()));
+
+		// The tree of the first token is the deepest, of which the right siblings on the way down are not created
+		assertEquals("Term", String.valueOf(tokens.getTokenAt(1).getAstNode()));
+		assertFalse(((LazyStrategoAppl) ast.getSubterm(1)).isMaterialized());
+
+		for (int i = 0; i < tokens.getTokenCount(); i++)
+			assertEquals(String.valueOf(expectedTokens.getTokenAt(i).getAstNode()), String.valueOf(tokens.getTokenAt(i).getAstNode()));
+
+		// A token is bound when the tree of which it is a literal is created and when its children are, not per level
+		assertTrue(bindings[0] + " bindings", bindings[0] <= 2 * tokens.getTokenCount());
+	}
+
+	@Test
+	public void testSerializationCreatesChildren() throws IOException, ClassNotFoundException {
+		ITermFactory termFactory = new TermFactory().getFactoryWithStorageType(IStrategoTerm.MUTABLE);
+		IStrategoTerm term = termFactory.makeAppl(termFactory.makeConstructor("Term", 0));
+		LazyStrategoAppl ast = new LazyStrategoAppl(termFactory.makeConstructor("Add", 2), tree -> Arrays.asList(term, term), termFactory.makeList(), IStrategoTerm.MUTABLE);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+			output.writeObject(ast);
+		}
+
+		assertTrue(ast.isMaterialized());
+
+		try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			assertEquals("Add(Term,Term)", input.readObject().toString());
+		}
+	}
+
+	private void testSameAsEager(String grammar, String... inputs) throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		setupParseTableFromDefFile(grammar);
+
+		JSGLR2<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest, IStrategoTerm> eager = JSGLR2.standard(getParseTable());
+		JSGLR2<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest, IStrategoTerm> lazy = lazy();
+
+		for (String input : inputs) {
+			IStrategoTerm expected = eager.parse(input);
+			IStrategoTerm actual = lazy.parse(input);
+
+			assertEquals(expected.toString(), actual.toString());
+			assertSameTokens(expected, actual);
+
+			ITokens expectedTokens = ImploderAttachment.getTokenizer(expected);
+			ITokens actualTokens = ImploderAttachment.getTokenizer(actual);
+
+			assertEquals(expectedTokens.getTokenCount(), actualTokens.getTokenCount());
+
+			// All children are created by now, thus the tokens should be bound to the same trees
+			for (int i = 0; i < expectedTokens.getTokenCount(); i++) {
+				ISimpleTerm expectedAstNode = expectedTokens.getTokenAt(i).getAstNode();
+
+				if (expectedAstNode != null)
+					assertEquals(input, expectedAstNode.toString(), String.valueOf(actualTokens.getTokenAt(i).getAstNode()));
+			}
+		}
+	}
+
+	private void assertSameTokens(IStrategoTerm expected, IStrategoTerm actual) {
+		assertEquals(ImploderAttachment.getLeftToken(expected).getIndex(), ImploderAttachment.getLeftToken(actual).getIndex());
+		assertEquals(ImploderAttachment.getRightToken(expected).getIndex(), ImploderAttachment.getRightToken(actual).getIndex());
+
+		for (int i = 0; i < expected.getSubtermCount(); i++)
+			assertSameTokens(expected.getSubterm(i), actual.getSubterm(i));
+	}
+
+	private IToken tokenAt(ITokens tokens, int offset) {
+		for (int i = 0; i < tokens.getTokenCount(); i++) {
+			IToken token = tokens.getTokenAt(i);
+
+			if (token.getStartOffset() == offset && token.getEndOffset() == offset)
+				return token;
+		}
+
+		throw new IllegalArgumentException("no token at offset " + offset);
+	}
+
+	private JSGLR2<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest, IStrategoTerm> lazy() throws ParseTableReadException {
+		return lazy(new LazyHybridParseForestStrategoImploder<AbstractElkhoundStackNode<HybridParseForest>>());
+	}
+
+	@SuppressWarnings("unchecked")
+	private JSGLR2<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest, IStrategoTerm> lazy(LazyHybridParseForestStrategoImploder<AbstractElkhoundStackNode<HybridParseForest>> imploder) throws ParseTableReadException {
+		Parser<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest, ?, ?> parser = (Parser<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest, ?, ?>) org.spoofax.jsglr2.JSGLR2Variants.getParser(getParseTable(), ParseForestRepresentation.Hybrid, ParseForestConstruction.Optimized, StackRepresentation.HybridElkhound, Reducing.Elkhound);
+
+		return new JSGLR2<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest, IStrategoTerm>(parser, imploder);
+	}
+
+}
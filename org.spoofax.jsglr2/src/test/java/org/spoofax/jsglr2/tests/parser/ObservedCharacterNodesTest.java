@@ -0,0 +1,61 @@
+package org.spoofax.jsglr2.tests.parser;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.spoofax.jsglr.client.InvalidParseTableException;
+import org.spoofax.jsglr2.JSGLR2Variants;
+import org.spoofax.jsglr2.parseforest.AbstractParseForest;
+import org.spoofax.jsglr2.parser.Parser;
+import org.spoofax.jsglr2.parser.ParserLogObserver;
+import org.spoofax.jsglr2.parsetable.ParseTableReadException;
+import org.spoofax.jsglr2.tests.util.BaseTest;
+import org.spoofax.jsglr2.util.WithGrammar;
+import org.spoofax.terms.ParseError;
+
+/*
+ * Character nodes are shared between parses, except when a parse is observed, in which case observers should see a
+ * node per character with its own number and offsets.
+ */
+public class ObservedCharacterNodesTest extends BaseTest implements WithGrammar {
+
+	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void testNumberedCharacterNodes() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		setupParseTableFromDefFile("sum-nonambiguous");
+
+		for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants()) {
+			Parser parser = (Parser) JSGLR2Variants.getParser(getParseTable(), variant);
+			List<AbstractParseForest> characterNodes = new ArrayList<AbstractParseForest>();
+
+			parser.attachObserver(new ParserLogObserver() {
+				@Override
+				public void createCharacterNode(AbstractParseForest characterNode, int character) {
+					characterNodes.add(characterNode);
+				}
+			});
+
+			parser.parse("x+x", "", null);
+
+			Set<Integer> nodeNumbers = new HashSet<Integer>();
+
+			for (int offset = 0; offset < 3; offset++) {
+				assertEquals(variant.name(), offset, characterNodes.get(offset).startOffset);
+				assertEquals(variant.name(), offset + 1, characterNodes.get(offset).endOffset);
+			}
+
+			for (AbstractParseForest characterNode : characterNodes)
+				nodeNumbers.add(characterNode.nodeNumber);
+
+			assertEquals(variant.name(), characterNodes.size(), nodeNumbers.size());
+		}
+	}
+
+}
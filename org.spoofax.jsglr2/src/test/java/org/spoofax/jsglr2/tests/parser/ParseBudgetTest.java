@@ -0,0 +1,89 @@
+package org.spoofax.jsglr2.tests.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.spoofax.jsglr.client.InvalidParseTableException;
+import org.spoofax.jsglr2.JSGLR2Variants;
+import org.spoofax.jsglr2.parser.CancellationToken;
+import org.spoofax.jsglr2.parser.ParseBudget;
+import org.spoofax.jsglr2.parser.ParseFailure;
+import org.spoofax.jsglr2.parser.ParseResult;
+import org.spoofax.jsglr2.parser.Parser;
+import org.spoofax.jsglr2.parsetable.ParseTableReadException;
+import org.spoofax.jsglr2.tests.util.BaseTest;
+import org.spoofax.jsglr2.util.WithGrammar;
+import org.spoofax.terms.ParseError;
+
+public class ParseBudgetTest extends BaseTest implements WithGrammar {
+
+	private static final String INPUT = "x+x+x+x+x+x+x+x+x+x";
+
+	public ParseBudgetTest() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+	    setupParseTableFromDefFile("sum-ambiguous");
+	}
+
+	@Test
+	public void testUnlimited() {
+		testBudget(ParseBudget.UNLIMITED, null);
+		testBudget(ParseBudget.UNLIMITED.withTimeout(1, TimeUnit.HOURS).withMaxStackNodes(100000).withMaxParseNodes(100000), null);
+	}
+
+	@Test
+	public void testStackNodeLimit() {
+		testBudget(ParseBudget.UNLIMITED.withMaxStackNodes(10), ParseFailure.Reason.StackNodeLimit);
+	}
+
+	@Test
+	public void testParseNodeLimit() {
+		testBudget(ParseBudget.UNLIMITED.withMaxParseNodes(10), ParseFailure.Reason.ParseNodeLimit);
+	}
+
+	@Test
+	public void testTimeout() {
+		testBudget(ParseBudget.UNLIMITED.withTimeout(1, TimeUnit.NANOSECONDS), ParseFailure.Reason.Timeout);
+	}
+
+	@Test
+	public void testCancellation() {
+		CancellationToken cancellationToken = new CancellationToken();
+
+		cancellationToken.cancel();
+
+		testBudget(ParseBudget.UNLIMITED.withCancellationToken(cancellationToken), ParseFailure.Reason.Cancelled);
+	}
+
+	@Test
+	public void testParseError() {
+		ParseResult<?, ?, ?> result = JSGLR2Variants.getParser(getParseTable(), JSGLR2Variants.allVariants().get(0)).parse("x+");
+
+		assertEquals(ParseFailure.Reason.ParseError, ((ParseFailure<?, ?, ?>) result).reason);
+	}
+
+	// Checks the budget for all variants, the expected reason is null if the parse should succeed
+	private void testBudget(ParseBudget budget, ParseFailure.Reason expectedReason) {
+		for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants()) {
+			Parser<?, ?, ?, ?> parser = JSGLR2Variants.getParser(getParseTable(), variant);
+
+			assertResult(variant.name(), parser.parse(INPUT, "", null, budget), expectedReason);
+
+			// The default budget of the parser applies to parses without an explicit budget
+			parser.budget(budget);
+
+			assertResult(variant.name(), parser.parse(INPUT), expectedReason);
+		}
+	}
+
+	private void assertResult(String variant, ParseResult<?, ?, ?> result, ParseFailure.Reason expectedReason) {
+		if (expectedReason == null)
+			assertTrue("Variant '" + variant + "' failed: ", result.isSuccess);
+		else
+			assertEquals("Variant '" + variant + "' failed for a different reason: ", expectedReason, ((ParseFailure<?, ?, ?>) result).reason);
+	}
+
+}
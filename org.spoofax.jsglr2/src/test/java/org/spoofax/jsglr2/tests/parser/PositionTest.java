@@ -0,0 +1,96 @@
+package org.spoofax.jsglr2.tests.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr.client.InvalidParseTableException;
+import org.spoofax.jsglr.client.imploder.IToken;
+import org.spoofax.jsglr.client.imploder.ImploderAttachment;
+import org.spoofax.jsglr.shared.SGLRException;
+import org.spoofax.jsglr2.JSGLR2;
+import org.spoofax.jsglr2.JSGLR2Variants;
+import org.spoofax.jsglr2.parser.Parse;
+import org.spoofax.jsglr2.parsetable.ParseTableReadException;
+import org.spoofax.jsglr2.tests.util.BaseTestWithJSGLR1;
+import org.spoofax.jsglr2.util.WithGrammar;
+import org.spoofax.terms.ParseError;
+
+/*
+ * A newline is the last character of its line, and the character after it is in column 1 of the next line. Lines are
+ * the same as those of JSGLR1, of which columns are 0-based instead.
+ */
+public class PositionTest extends BaseTestWithJSGLR1 implements WithGrammar {
+
+	private static final String INPUT = "1,2\n3,-4\n\n\"5\"";
+
+	public PositionTest() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		setupParseTableFromDefFile("csv");
+	}
+
+	@Test
+	public void testPositions() {
+		for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants()) {
+			Parse<?, ?> parse = JSGLR2Variants.getParser(getParseTable(), variant).parse(INPUT).parse;
+
+			assertPosition(variant.name(), 1, 1, parse, 0); // 1
+			assertPosition(variant.name(), 1, 4, parse, 3); // Newline
+			assertPosition(variant.name(), 2, 1, parse, 4); // 3
+			assertPosition(variant.name(), 2, 3, parse, 6); // -4
+			assertPosition(variant.name(), 2, 5, parse, 8); // Newline
+			assertPosition(variant.name(), 3, 1, parse, 9); // Empty line
+			assertPosition(variant.name(), 4, 1, parse, 10); // "5"
+			assertPosition(variant.name(), 4, 4, parse, 13); // End of input
+		}
+	}
+
+	@Test
+	public void testTokensSameAsJSGLR1() throws SGLRException, InterruptedException, InvalidParseTableException {
+		Map<Integer, IToken> jsglr1Tokens = new HashMap<Integer, IToken>(); // By start offset, without empty tokens
+
+		for (IToken token : ImploderAttachment.getTokenizer((IStrategoTerm) getJSGLR1().parse(INPUT, null, null).output)) {
+			if (token.getEndOffset() >= token.getStartOffset() && !jsglr1Tokens.containsKey(token.getStartOffset()))
+				jsglr1Tokens.put(token.getStartOffset(), token);
+		}
+
+		for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants()) {
+			JSGLR2<?, ?, IStrategoTerm> jsglr2 = JSGLR2Variants.getJSGLR2(getParseTable(), variant);
+			Map<Integer, IToken> tokens = new HashMap<Integer, IToken>();
+
+			for (IToken token : ImploderAttachment.getTokenizer(jsglr2.parse(INPUT))) {
+				if (token.getEndOffset() >= token.getStartOffset())
+					tokens.put(token.getStartOffset(), token);
+			}
+
+			// The tokens of the cells after the newlines
+			assertToken(variant.name(), 2, 1, tokens.get(4));
+			assertToken(variant.name(), 2, 3, tokens.get(6));
+			assertToken(variant.name(), 4, 1, tokens.get(10));
+
+			for (IToken token : tokens.values()) {
+				IToken jsglr1Token = jsglr1Tokens.get(token.getStartOffset());
+
+				if (jsglr1Token != null)
+					assertToken(variant.name() + " at offset " + token.getStartOffset(), jsglr1Token.getLine(), jsglr1Token.getColumn() + 1, token);
+			}
+		}
+	}
+
+	private void assertPosition(String message, int line, int column, Parse<?, ?> parse, int offset) {
+		assertEquals(message, line, parse.position(offset).line);
+		assertEquals(message, column, parse.position(offset).column);
+	}
+
+	private void assertToken(String message, int line, int column, IToken token) {
+		assertNotNull(message, token);
+		assertEquals(message, line, token.getLine());
+		assertEquals(message, column, token.getColumn());
+	}
+
+}
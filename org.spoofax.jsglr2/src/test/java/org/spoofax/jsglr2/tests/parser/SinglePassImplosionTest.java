@@ -0,0 +1,95 @@
+package org.spoofax.jsglr2.tests.parser;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr.client.InvalidParseTableException;
+import org.spoofax.jsglr.client.imploder.IToken;
+import org.spoofax.jsglr.client.imploder.ImploderAttachment;
+import org.spoofax.jsglr2.JSGLR2;
+import org.spoofax.jsglr2.JSGLR2Variants;
+import org.spoofax.jsglr2.imploder.TokenizedTreeImploder;
+import org.spoofax.jsglr2.parsetable.ParseTableReadException;
+import org.spoofax.jsglr2.tests.util.BaseTest;
+import org.spoofax.jsglr2.util.WithGrammar;
+import org.spoofax.terms.ParseError;
+
+public class SinglePassImplosionTest extends BaseTest implements WithGrammar {
+
+	@Test
+	public void testCSV() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		testSameAsTwoPasses("csv", true, "1,2\n3,4", "\"a\",-5\n\n6", "\"a,b\"");
+	}
+
+	@Test
+	public void testComments() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		testSameAsTwoPasses("comments", true, "x", "x x // x", "x /* \n */ x");
+	}
+
+	@Test
+	public void testSumNonAmbiguous() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		testSameAsTwoPasses("sum-nonambiguous", true, "x", "x+x", "x+x+x");
+	}
+
+	@Test
+	public void testSumAmbiguous() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		testSameAsTwoPasses("sum-ambiguous", false, "x+x", "x+x+x", "x+x+x+x");
+	}
+
+	@Test
+	public void testLists() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		testSameAsTwoPasses("lists", false, "", "x", "x x x", "x,x , x");
+	}
+
+	/*
+	 * For ambiguous inputs, the tokenizer of the two pass implosion creates tokens for all derivations, of which the last
+	 * ones are stored in shared parse nodes. Only the trees are compared then, not the tokens they refer to.
+	 */
+	private void testSameAsTwoPasses(String grammar, boolean compareTokens, String... inputs) throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		setupParseTableFromDefFile(grammar);
+
+		for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants()) {
+			JSGLR2<?, ?, IStrategoTerm> twoPasses = JSGLR2Variants.getJSGLR2(getParseTable(), variant);
+			JSGLR2<?, ?, IStrategoTerm> singlePass = JSGLR2Variants.getJSGLR2(getParseTable(), variant);
+
+			((TokenizedTreeImploder<?, ?, ?, ?, ?>) singlePass.imploder).singlePass();
+
+			for (String input : inputs) {
+				IStrategoTerm expected = twoPasses.parse(input);
+				IStrategoTerm actual = singlePass.parse(input);
+
+				if (compareTokens) {
+					assertEquals(variant.name(), expected.toString(), actual.toString());
+					assertEquals(variant.name(), tokens(expected), tokens(actual));
+					assertEquals(variant.name(), tokenAttachments(expected, new ArrayList<String>()), tokenAttachments(actual, new ArrayList<String>()));
+				} else
+					assertEqualTermExpansions(expected, actual);
+			}
+		}
+	}
+
+	private List<String> tokens(IStrategoTerm ast) {
+		List<String> tokens = new ArrayList<String>();
+
+		for (IToken token : ImploderAttachment.getTokenizer(ast))
+			tokens.add(token.getKind() + ":" + token.getStartOffset() + "-" + token.getEndOffset() + ":" + (token.getAstNode() != null ? token.getAstNode().toString() : null));
+
+		return tokens;
+	}
+
+	private List<String> tokenAttachments(IStrategoTerm term, List<String> result) {
+		result.add(term + ":" + ImploderAttachment.getLeftToken(term).getIndex() + "-" + ImploderAttachment.getRightToken(term).getIndex());
+
+		for (IStrategoTerm subterm : term.getAllSubterms())
+			tokenAttachments(subterm, result);
+
+		return result;
+	}
+
+}
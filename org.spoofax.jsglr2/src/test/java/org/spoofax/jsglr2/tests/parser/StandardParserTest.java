@@ -0,0 +1,74 @@
+package org.spoofax.jsglr2.tests.parser;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Map;
+
+import org.junit.Test;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr.client.InvalidParseTableException;
+import org.spoofax.jsglr2.JSGLR2;
+import org.spoofax.jsglr2.JSGLR2Variants;
+import org.spoofax.jsglr2.imploder.HybridParseForestStrategoImploder;
+import org.spoofax.jsglr2.parseforest.hybrid.HybridParseForest;
+import org.spoofax.jsglr2.parser.ParseResult;
+import org.spoofax.jsglr2.parsetable.IParseTable;
+import org.spoofax.jsglr2.parsetable.ParseTableReadException;
+import org.spoofax.jsglr2.stack.elkhound.AbstractElkhoundStackNode;
+import org.spoofax.jsglr2.tests.util.BaseTest;
+import org.spoofax.jsglr2.tests.util.StandardSources;
+import org.spoofax.jsglr2.util.WithGrammar;
+import org.spoofax.terms.ParseError;
+
+public class StandardParserTest extends BaseTest implements WithGrammar {
+
+	@Test
+	public void testSourcesUpToDate() throws IOException {
+		for (Map.Entry<String, String> rename : StandardSources.RENAMES.entrySet())
+			assertEquals(StandardSources.path(rename.getValue()) + " is out of date, run StandardSources to regenerate it", StandardSources.generate(rename.getKey()), StandardSources.read(rename.getValue()));
+	}
+
+	@Test
+	public void testSumAmbiguous() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		testSameAsGeneric("sum-ambiguous", "x", "x+x", "x+x+x", "x+x+x+x", "x+", "");
+	}
+
+	@Test
+	public void testReject() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		testSameAsGeneric("reject", "foo", "bar", "baz");
+	}
+
+	@Test
+	public void testLookahead() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		testSameAsGeneric("lookahead", "1[x]", "1[ax]", "2[ax]", "2[abx]", "3[abx]", "3[abcx]");
+	}
+
+	@Test
+	public void testCSV() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		testSameAsGeneric("csv", "1,2\n3,4", "\"a\",-5\n\n6", "1;2");
+	}
+
+	private void testSameAsGeneric(String grammar, String... inputs) throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		setupParseTableFromDefFile(grammar);
+
+		IParseTable parseTable = getParseTable();
+
+		JSGLR2<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest, IStrategoTerm> generic = JSGLR2.standard(parseTable);
+		JSGLR2<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest, IStrategoTerm> specialized = new JSGLR2<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest, IStrategoTerm>(JSGLR2Variants.getStandardParser(parseTable), new HybridParseForestStrategoImploder());
+
+		for (String input : inputs) {
+			ParseResult<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest, ?> genericResult = generic.parser.parse(input);
+			ParseResult<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest, ?> specializedResult = specialized.parser.parse(input);
+
+			assertEquals(genericResult.isSuccess, specializedResult.isSuccess);
+			assertEquals(genericResult.parse.stackNodeCount, specializedResult.parse.stackNodeCount);
+			assertEquals(genericResult.parse.stackLinkCount, specializedResult.parse.stackLinkCount);
+			assertEquals(genericResult.parse.parseNodeCount, specializedResult.parse.parseNodeCount);
+			assertEquals(genericResult.parse.ambiguousParseNodes, specializedResult.parse.ambiguousParseNodes);
+			assertEquals(String.valueOf(generic.parse(input)), String.valueOf(specialized.parse(input)));
+		}
+	}
+
+}
@@ -0,0 +1,119 @@
+package org.spoofax.jsglr2.tests.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr.client.InvalidParseTableException;
+import org.spoofax.jsglr2.JSGLR2;
+import org.spoofax.jsglr2.parser.ParseException;
+import org.spoofax.jsglr2.parsetable.ParseTableReadException;
+import org.spoofax.jsglr2.streaming.StreamingParser;
+import org.spoofax.jsglr2.tests.util.BaseTest;
+import org.spoofax.jsglr2.util.WithGrammar;
+import org.spoofax.terms.ParseError;
+
+public class StreamingParserTest extends BaseTest implements WithGrammar {
+
+	public StreamingParserTest() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+	    setupParseTableFromDefFile("csv");
+	}
+
+	@Test
+	public void testElements() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException, ParseException {
+		setupParseTableFromDefFile("csv-multiline");
+
+		JSGLR2<?, ?, IStrategoTerm> jsglr2 = JSGLR2.standard(getParseTable());
+		List<StreamingParser.Element<IStrategoTerm>> elements = new ArrayList<StreamingParser.Element<IStrategoTerm>>();
+
+		// The newline in the string is part of the second element
+		int count = multiline(jsglr2, 1).parse(new StringReader("1,2\n\"a\nb\",3\n4"), "", null, elements::add);
+
+		assertEquals(3, count);
+		assertEquals(3, elements.size());
+
+		assertElement(jsglr2, 0, "1,2", elements.get(0));
+		assertElement(jsglr2, 4, "\"a\nb\",3", elements.get(1));
+		assertElement(jsglr2, 12, "4", elements.get(2));
+	}
+
+	@Test
+	public void testLargeInput() throws IOException, ParseException, ParseTableReadException {
+		StringBuilder input = new StringBuilder();
+
+		for (int i = 0; i < 10000; i++)
+			input.append(i == 0 ? "" : "\n").append(i).append(",\"").append(i).append("\"");
+
+		List<StreamingParser.Element<IStrategoTerm>> elements = new ArrayList<StreamingParser.Element<IStrategoTerm>>();
+		int count = new StreamingParser<IStrategoTerm>(JSGLR2.standard(getParseTable()), "\n", 64).parse(new StringReader(input.toString()), "", null, elements::add);
+
+		assertEquals(10000, count);
+
+		// Many elements per chunk that is read, and elements that span two chunks
+		for (int i = 0, offset = 0; i < 10000; offset += elements.get(i).text.length() + 1, i++) {
+			assertEquals(offset, elements.get(i).offset);
+			assertEquals(i + ",\"" + i + "\"", elements.get(i).text);
+		}
+	}
+
+	@Test(expected = ParseException.class)
+	public void testInvalidElement() throws IOException, ParseException, ParseTableReadException {
+		new StreamingParser<IStrategoTerm>(JSGLR2.standard(getParseTable()), "\n").parse(new StringReader("1,2\n3;4\n5"), "", null, element -> {});
+	}
+
+	@Test
+	public void testInvalidElementNotLast() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		setupParseTableFromDefFile("csv-multiline");
+
+		JSGLR2<?, ?, IStrategoTerm> jsglr2 = JSGLR2.standard(getParseTable());
+		List<StreamingParser.Element<IStrategoTerm>> elements = new ArrayList<StreamingParser.Element<IStrategoTerm>>();
+
+		// The invalid row is reported where it starts, without reading the following rows into it
+		assertFailsAt(4, multiline(jsglr2, 8), "1,2\n3;4\n5,6\n7,8", elements);
+		assertEquals(1, elements.size());
+
+		// After the maximum number of separators in an element, its first failure is reported
+		elements.clear();
+		assertFailsAt(4, multiline(jsglr2, 1), "1,2\n\"a\nb\nc\",3\n4", elements);
+		assertEquals(1, elements.size());
+	}
+
+	@Test(expected = ParseException.class)
+	public void testMaxElementLength() throws IOException, ParseException, ParseTableReadException {
+		new StreamingParser<IStrategoTerm>(JSGLR2.standard(getParseTable()), "\n", 4).parse(new StringReader("1,2\n\"3,4,5,6"), "", null, element -> {});
+	}
+
+	private void assertElement(JSGLR2<?, ?, IStrategoTerm> jsglr2, long offset, String text, StreamingParser.Element<IStrategoTerm> element) {
+		assertEquals(offset, element.offset);
+		assertEquals(text, element.text);
+		assertEquals(jsglr2.parse(text).toString(), element.ast.toString());
+	}
+
+	private void assertFailsAt(long offset, StreamingParser<IStrategoTerm> streamingParser, String input, List<StreamingParser.Element<IStrategoTerm>> elements) throws IOException {
+		try {
+			streamingParser.parse(new StringReader(input), "", null, elements::add);
+
+			fail("Expected a parse exception");
+		} catch (ParseException e) {
+			assertTrue(e.getMessage(), e.getMessage().startsWith("element at offset " + offset + ":"));
+		}
+	}
+
+	// A row may continue after a newline if it contains an unterminated string
+	private StreamingParser<IStrategoTerm> multiline(JSGLR2<?, ?, IStrategoTerm> jsglr2, int maxNewlinesPerRow) {
+		StreamingParser<IStrategoTerm> streamingParser = new StreamingParser<IStrategoTerm>(jsglr2, "\n");
+
+		streamingParser.elementsMayContinue(text -> text.chars().filter(c -> c == '"').count() % 2 == 1, maxNewlinesPerRow);
+
+		return streamingParser;
+	}
+
+}
@@ -0,0 +1,91 @@
+package org.spoofax.jsglr2.tests.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+
+import org.junit.Test;
+import org.spoofax.interpreter.terms.ISimpleTerm;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr.client.InvalidParseTableException;
+import org.spoofax.jsglr.client.imploder.TermOffsetIndex;
+import org.spoofax.jsglr2.JSGLR2;
+import org.spoofax.jsglr2.JSGLR2Variants;
+import org.spoofax.jsglr2.JSGLR2Variants.ParseForestConstruction;
+import org.spoofax.jsglr2.JSGLR2Variants.ParseForestRepresentation;
+import org.spoofax.jsglr2.JSGLR2Variants.Reducing;
+import org.spoofax.jsglr2.JSGLR2Variants.StackRepresentation;
+import org.spoofax.jsglr2.imploder.LazyHybridParseForestStrategoImploder;
+import org.spoofax.jsglr2.imploder.LazyStrategoAppl;
+import org.spoofax.jsglr2.imploder.StrategoTermImploder;
+import org.spoofax.jsglr2.imploder.TokenizedTreeImploder;
+import org.spoofax.jsglr2.parseforest.hybrid.HybridParseForest;
+import org.spoofax.jsglr2.parser.Parser;
+import org.spoofax.jsglr2.parsetable.ParseTableReadException;
+import org.spoofax.jsglr2.stack.elkhound.AbstractElkhoundStackNode;
+import org.spoofax.jsglr2.tests.util.BaseTest;
+import org.spoofax.jsglr2.util.WithGrammar;
+import org.spoofax.terms.ParseError;
+
+public class TermOffsetIndexTest extends BaseTest implements WithGrammar {
+
+	@Test
+	public void testInnermostAndOutermost() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		setupParseTableFromDefFile("comments");
+
+		for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants()) {
+			for (boolean singlePass : new boolean[] { false, true }) {
+				JSGLR2<?, ?, IStrategoTerm> jsglr2 = JSGLR2Variants.getJSGLR2(getParseTable(), variant);
+
+				((StrategoTermImploder<?, ?, ?, ?>) jsglr2.imploder).termOffsetIndex();
+
+				if (singlePass)
+					((TokenizedTreeImploder<?, ?, ?, ?, ?>) jsglr2.imploder).singlePass();
+
+				TermOffsetIndex index = TermOffsetIndex.get(jsglr2.parse("x x // c\nx"));
+
+				assertEquals(variant.name(), "X", string(index.getInnermostTerm(0)));
+				assertEquals(variant.name(), "X", string(index.getInnermostTerm(9)));
+				assertEquals(variant.name(), "[X,X,X]", string(index.getInnermostTerm(1))); // Layout
+				assertEquals(variant.name(), "[X,X,X]", string(index.getInnermostTerm(5))); // Comment
+				assertEquals(variant.name(), "[X,X,X]", string(index.getInnermostTerm(0, 2)));
+				assertEquals(variant.name(), "Xs([X,X,X])", string(index.getOutermostTerm(0, 2)));
+				assertEquals(variant.name(), "X", string(index.getOutermostTerm(2, 2)));
+				assertNull(variant.name(), index.getInnermostTerm(10));
+
+				// Restricted to the subtree of a term
+				assertEquals(variant.name(), "[X,X,X]", string(index.getOutermostTerm(index.getInnermostTerm(0, 2), 0, 2)));
+				assertEquals(variant.name(), "X", string(index.getOutermostTerm(index.getInnermostTerm(0, 2), 2, 2)));
+				assertNull(variant.name(), index.getInnermostTerm(index.getInnermostTerm(0), 9, 9));
+			}
+		}
+	}
+
+	@Test
+	public void testLazilyImplodedTerms() throws ParseError, ParseTableReadException, IOException, InvalidParseTableException, InterruptedException, URISyntaxException {
+		setupParseTableFromDefFile("sum-nonambiguous");
+
+		@SuppressWarnings("unchecked")
+		Parser<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest, ?, ?> parser = (Parser<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest, ?, ?>) JSGLR2Variants.getParser(getParseTable(), ParseForestRepresentation.Hybrid, ParseForestConstruction.Optimized, StackRepresentation.HybridElkhound, Reducing.Elkhound);
+		LazyHybridParseForestStrategoImploder<AbstractElkhoundStackNode<HybridParseForest>> imploder = new LazyHybridParseForestStrategoImploder<AbstractElkhoundStackNode<HybridParseForest>>();
+
+		imploder.termOffsetIndex();
+
+		IStrategoTerm ast = new JSGLR2<AbstractElkhoundStackNode<HybridParseForest>, HybridParseForest, IStrategoTerm>(parser, imploder).parse("x+x");
+		TermOffsetIndex index = TermOffsetIndex.get(ast);
+
+		// Queries create the children of the lazy trees they end at
+		assertEquals("Term", string(index.getInnermostTerm(0)));
+		assertTrue(((LazyStrategoAppl) ast).isMaterialized());
+		assertEquals("Add(Term,Term)", string(index.getInnermostTerm(1)));
+		assertEquals("Term", string(index.getOutermostTerm(2, 2)));
+	}
+
+	private String string(ISimpleTerm term) {
+		return term == null ? null : term.toString();
+	}
+
+}
@@ -1,10 +1,16 @@
 package org.spoofax.jsglr2.tests.sdf;
 
+import static org.junit.Assert.assertTrue;
+
 import java.io.IOException;
 import java.net.URISyntaxException;
 
 import org.junit.Test;
+import org.spoofax.interpreter.terms.IStrategoTerm;
 import org.spoofax.jsglr.client.InvalidParseTableException;
+import org.spoofax.jsglr2.JSGLR2;
+import org.spoofax.jsglr2.JSGLR2Variants;
+import org.spoofax.jsglr2.parser.Parser;
 import org.spoofax.jsglr2.parsetable.ParseTableReadException;
 import org.spoofax.jsglr2.tests.util.BaseTestWithJSGLR1;
 import org.spoofax.jsglr2.util.WithGrammar;
@@ -26,6 +32,30 @@ public class PreferAvoidTest extends BaseTestWithJSGLR1 implements WithGrammar {
         testSuccessByExpansions("p x", "Prefer(X1)");
     }
 
+    @Test
+    public void testAvoidEagerly() throws ParseError, ParseTableReadException, IOException {
+        testSuccessEagerly("a x", "Avoid(amb([X2, X3]))");
+    }
+
+    @Test
+    public void testPreferEagerly() throws ParseError, ParseTableReadException, IOException {
+        testSuccessEagerly("p x", "Prefer(X1)");
+    }
+
+    @Test
+    public void testMaxDerivations() throws ParseError, ParseTableReadException, IOException {
+        for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants()) {
+            JSGLR2<?, ?, IStrategoTerm> jsglr2 = JSGLR2Variants.getJSGLR2(getParseTable(), variant);
+            
+            ((Parser<?, ?, ?, ?>) jsglr2.parser).preferAvoidEagerly();
+            ((Parser<?, ?, ?, ?>) jsglr2.parser).maxDerivations(1);
+            
+            String ast = String.valueOf(jsglr2.parse("a x"));
+            
+            assertTrue("Variant '" + variant.name() + "' kept too many derivations: " + ast, ast.equals("Avoid(X2)") || ast.equals("Avoid(X3)"));
+        }
+    }
+
     @Test
     public void testAvoidByJSGLR1() throws ParseError, ParseTableReadException, IOException {
         testSuccessByJSGLR1("a x");
@@ -35,5 +65,15 @@ public class PreferAvoidTest extends BaseTestWithJSGLR1 implements WithGrammar {
     public void testPreferByJSGLR1() throws ParseError, ParseTableReadException, IOException {
         testSuccessByJSGLR1("p x");
     }
+    
+    private void testSuccessEagerly(String inputString, String expectedOutputAstString) {
+        for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants()) {
+            JSGLR2<?, ?, IStrategoTerm> jsglr2 = JSGLR2Variants.getJSGLR2(getParseTable(), variant);
+            
+            ((Parser<?, ?, ?, ?>) jsglr2.parser).preferAvoidEagerly();
+            
+            assertEqualTermExpansions(getTermReader().parseFromString(expectedOutputAstString), jsglr2.parse(inputString));
+        }
+    }
   
 }
\ No newline at end of file
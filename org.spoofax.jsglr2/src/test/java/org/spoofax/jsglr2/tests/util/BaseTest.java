@@ -5,6 +5,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
@@ -12,14 +14,18 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.BeforeClass;
 import org.spoofax.interpreter.terms.IStrategoTerm;
 import org.spoofax.jsglr2.JSGLR2;
 import org.spoofax.jsglr2.JSGLR2Variants;
+import org.spoofax.jsglr2.actions.ActionsForCharacterRepresentation;
 import org.spoofax.jsglr2.parser.ParseResult;
 import org.spoofax.jsglr2.parser.Parser;
+import org.spoofax.jsglr2.parsetable.BinaryParseTableReader;
+import org.spoofax.jsglr2.parsetable.BinaryParseTableWriter;
 import org.spoofax.jsglr2.parsetable.IParseTable;
 import org.spoofax.jsglr2.parsetable.ParseTableReadException;
 import org.spoofax.jsglr2.parsetable.ParseTableReader;
@@ -60,8 +66,12 @@ public abstract class BaseTest {
     }
     
     protected IParseTable getParseTable() {
+        return getParseTable(ActionsForCharacterRepresentation.Dense);
+    }
+    
+    protected IParseTable getParseTable(ActionsForCharacterRepresentation actionsForCharacterRepresentation) {
         try {
-            return ParseTableReader.read(getParseTableTerm());
+            return ParseTableReader.read(getParseTableTerm(), actionsForCharacterRepresentation);
         } catch(ParseTableReadException e) {
             e.printStackTrace();
             
@@ -70,28 +80,59 @@ public abstract class BaseTest {
             return null;
         }
     }
+    
+    // The parse table after a round trip through the binary parse table format
+    protected IParseTable getBinaryParseTable() {
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            
+            BinaryParseTableWriter.write(getParseTable(), outputStream);
+            
+            return BinaryParseTableReader.read(new ByteArrayInputStream(outputStream.toByteArray()));
+        } catch(ParseTableReadException | IOException e) {
+            e.printStackTrace();
+            
+            fail();
+            
+            return null;
+        }
+    }
 
 	public void testParseSuccess(String inputString) {
-		IParseTable parseTable = getParseTable();
-		
-		for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants()) {
-			Parser<?, ?, ?, ?> parser = JSGLR2Variants.getParser(parseTable, variant);
+		for (ActionsForCharacterRepresentation actionsForCharacterRepresentation : ActionsForCharacterRepresentation.values()) {
+			IParseTable parseTable = getParseTable(actionsForCharacterRepresentation);
 			
-	        ParseResult<?, ?, ?> parseResult = parser.parse(inputString);
-
-	        assertEquals("Variant '" + variant.name() + "' failed: ", true, parseResult.isSuccess);
+			for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants()) {
+				Parser<?, ?, ?, ?> parser = JSGLR2Variants.getParser(parseTable, variant);
+				
+		        ParseResult<?, ?, ?> parseResult = parser.parse(inputString);
+	
+		        assertEquals("Variant '" + variant.name() + "' with actions for character representation '" + actionsForCharacterRepresentation + "' failed: ", true, parseResult.isSuccess);
+			}
 		}
 	}
 
 	public void testParseFailure(String inputString) {
-		IParseTable parseTable = getParseTable();
+		for (ActionsForCharacterRepresentation actionsForCharacterRepresentation : ActionsForCharacterRepresentation.values()) {
+			IParseTable parseTable = getParseTable(actionsForCharacterRepresentation);
+			
+			for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants()) {
+				Parser<?, ?, ?, ?> parser = JSGLR2Variants.getParser(parseTable, variant);
+				
+		        ParseResult<?, ?, ?> parseResult = parser.parse(inputString);
+	
+		        assertEquals("Variant '" + variant.name() + "' with actions for character representation '" + actionsForCharacterRepresentation + "' failed: ", false, parseResult.isSuccess);
+			}
+		}
+		
+		IParseTable binaryParseTable = getBinaryParseTable();
 		
 		for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants()) {
-			Parser<?, ?, ?, ?> parser = JSGLR2Variants.getParser(parseTable, variant);
+			Parser<?, ?, ?, ?> parser = JSGLR2Variants.getParser(binaryParseTable, variant);
 			
 	        ParseResult<?, ?, ?> parseResult = parser.parse(inputString);
 
-	        assertEquals("Variant '" + variant.name() + "' failed: ", false, parseResult.isSuccess);
+	        assertEquals("Variant '" + variant.name() + "' with binary parse table failed: ", false, parseResult.isSuccess);
 		}
 	}
 
@@ -126,17 +167,17 @@ public abstract class BaseTest {
 	}
 	
 	private void testSuccess(String inputString, String expectedOutputAstString, String startSymbol, boolean equalityByExpansions) {
-		IParseTable parseTable = getParseTable();
-		
-		for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants()) {
-			IStrategoTerm actualOutputAst = testSuccess(parseTable, variant, startSymbol, inputString);
-			
-			if (equalityByExpansions) {
-				IStrategoTerm expectedOutputAst = termReader.parseFromString(expectedOutputAstString);
-
-	            assertEqualTermExpansions(expectedOutputAst, actualOutputAst);
-			} else {
-	            assertEquals(expectedOutputAstString, actualOutputAst.toString());
+		for (IParseTable parseTable : Arrays.asList(getParseTable(), getBinaryParseTable())) {
+			for (JSGLR2Variants.Variant variant : JSGLR2Variants.allVariants()) {
+				IStrategoTerm actualOutputAst = testSuccess(parseTable, variant, startSymbol, inputString);
+				
+				if (equalityByExpansions) {
+					IStrategoTerm expectedOutputAst = termReader.parseFromString(expectedOutputAstString);
+	
+		            assertEqualTermExpansions(expectedOutputAst, actualOutputAst);
+				} else {
+		            assertEquals(expectedOutputAstString, actualOutputAst.toString());
+				}
 			}
 		}
 	}
@@ -0,0 +1,70 @@
+package org.spoofax.jsglr2.tests.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Generates the classes of the standard variant (see JSGLR2Variants.getStandardParser) from the generic parser,
+ * reduce manager and reducer classes, by renaming them. The copies are separate classes with their own bytecode, such
+ * that the JIT profiles their call sites separately from those of the other variants. StandardParserTest checks that
+ * the copies are up to date. Run from the project directory to regenerate them after changing the generic classes.
+ */
+public class StandardSources {
+
+	private static final String SOURCES = "src/main/java/org/spoofax/jsglr2/";
+
+	// Generic class -> standard copy, in the same package
+	public static final Map<String, String> RENAMES = new LinkedHashMap<String, String>();
+
+	static {
+		RENAMES.put("parser/Parser", "parser/StandardParser");
+		RENAMES.put("reducing/ReduceManager", "reducing/StandardReduceManager");
+		RENAMES.put("reducing/ReduceManagerElkhound", "reducing/StandardReduceManagerElkhound");
+		RENAMES.put("reducing/Reducer", "reducing/StandardReducer");
+		RENAMES.put("reducing/ReducerSkipLayoutAndLexicalAndRejects", "reducing/StandardReducerSkipLayoutAndLexicalAndRejects");
+	}
+
+	public static void main(String[] args) throws IOException {
+		for (Map.Entry<String, String> rename : RENAMES.entrySet()) {
+			Files.write(path(rename.getValue()), generate(rename.getKey()).getBytes(StandardCharsets.UTF_8));
+
+			System.out.println("Generated " + path(rename.getValue()));
+		}
+	}
+
+	public static Path path(String name) {
+		return Paths.get(SOURCES + name + ".java");
+	}
+
+	/*
+	 * The source of the standard copy of the given generic class, with all classes of the copy set renamed.
+	 */
+	public static String generate(String name) throws IOException {
+		String source = new String(Files.readAllBytes(path(name)), StandardCharsets.UTF_8);
+
+		for (Map.Entry<String, String> rename : RENAMES.entrySet()) {
+			String from = className(rename.getKey());
+			String to = className(rename.getValue());
+
+			source = Pattern.compile("\\b" + from + "\\b").matcher(source).replaceAll(Matcher.quoteReplacement(to));
+		}
+
+		return "// Generated from " + className(name) + " by StandardSources, do not edit\n" + source;
+	}
+
+	public static String read(String name) throws IOException {
+		return new String(Files.readAllBytes(path(name)), StandardCharsets.UTF_8);
+	}
+
+	private static String className(String name) {
+		return name.substring(name.lastIndexOf('/') + 1);
+	}
+
+}